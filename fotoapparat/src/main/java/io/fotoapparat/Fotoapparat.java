@@ -4,6 +4,7 @@ import android.content.Context;
 import android.support.annotation.FloatRange;
 import android.support.annotation.NonNull;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
@@ -17,12 +18,14 @@ import io.fotoapparat.parameter.provider.CapabilitiesProvider;
 import io.fotoapparat.parameter.provider.InitialParametersProvider;
 import io.fotoapparat.parameter.provider.InitialParametersValidator;
 import io.fotoapparat.parameter.update.UpdateRequest;
+import io.fotoapparat.preview.PreviewStatistics;
 import io.fotoapparat.result.CapabilitiesResult;
 import io.fotoapparat.result.FocusResult;
 import io.fotoapparat.result.PendingResult;
 import io.fotoapparat.result.PhotoResult;
 import io.fotoapparat.routine.CheckAvailabilityRoutine;
 import io.fotoapparat.routine.ConfigurePreviewStreamRoutine;
+import io.fotoapparat.routine.PreviewStatisticsRoutine;
 import io.fotoapparat.routine.StartCameraRoutine;
 import io.fotoapparat.routine.StopCameraRoutine;
 import io.fotoapparat.routine.UpdateOrientationRoutine;
@@ -48,6 +51,7 @@ public class Fotoapparat {
     private final CheckAvailabilityRoutine checkAvailabilityRoutine;
     private final UpdateParametersRoutine updateParametersRoutine;
     private final UpdateZoomLevelRoutine updateZoomLevelRoutine;
+    private final PreviewStatisticsRoutine previewStatisticsRoutine;
     private final Executor executor;
 
     private boolean started = false;
@@ -62,6 +66,7 @@ public class Fotoapparat {
                 CheckAvailabilityRoutine checkAvailabilityRoutine,
                 UpdateParametersRoutine updateParametersRoutine,
                 UpdateZoomLevelRoutine updateZoomLevelRoutine,
+                PreviewStatisticsRoutine previewStatisticsRoutine,
                 Executor executor) {
         this.startCameraRoutine = startCameraRoutine;
         this.stopCameraRoutine = stopCameraRoutine;
@@ -73,6 +78,7 @@ public class Fotoapparat {
         this.checkAvailabilityRoutine = checkAvailabilityRoutine;
         this.updateParametersRoutine = updateParametersRoutine;
         this.updateZoomLevelRoutine = updateZoomLevelRoutine;
+        this.previewStatisticsRoutine = previewStatisticsRoutine;
         this.executor = executor;
     }
 
@@ -101,6 +107,7 @@ public class Fotoapparat {
                 builder.previewSizeSelector,
                 builder.focusModeSelector,
                 builder.flashSelector,
+                builder.previewFpsRangeSelector,
                 parametersValidator
         );
 
@@ -129,7 +136,9 @@ public class Fotoapparat {
 
         ConfigurePreviewStreamRoutine configurePreviewStreamRoutine = new ConfigurePreviewStreamRoutine(
                 cameraDevice,
-                builder.frameProcessor
+                builder.frameProcessor,
+                builder.frameProcessorConfiguration,
+                builder.previewStreamConfiguration
         );
 
         CapabilitiesProvider capabilitiesProvider = new CapabilitiesProvider(
@@ -139,7 +148,8 @@ public class Fotoapparat {
 
         TakePictureRoutine takePictureRoutine = new TakePictureRoutine(
                 cameraDevice,
-                SERIAL_EXECUTOR
+                SERIAL_EXECUTOR,
+                builder.pooledPhotoBuffers
         );
 
         AutoFocusRoutine autoFocusRoutine = new AutoFocusRoutine(
@@ -160,6 +170,10 @@ public class Fotoapparat {
                 cameraDevice
         );
 
+        PreviewStatisticsRoutine previewStatisticsRoutine = new PreviewStatisticsRoutine(
+                cameraDevice
+        );
+
         return new Fotoapparat(
                 startCameraRoutine,
                 stopCameraRoutine,
@@ -171,6 +185,7 @@ public class Fotoapparat {
                 checkAvailabilityRoutine,
                 updateParametersRoutine,
                 updateZoomLevelRoutine,
+                previewStatisticsRoutine,
                 SERIAL_EXECUTOR
         );
     }
@@ -196,6 +211,10 @@ public class Fotoapparat {
 
     /**
      * Takes picture. Returns immediately.
+     * <p>
+     * If {@link FotoapparatBuilder#pooledPhotoBuffers(boolean)} is enabled, caller owns the
+     * photo: call {@link PhotoResult#release()} after the last conversion, so that its buffer is
+     * reused for the next pictures.
      *
      * @return {@link PhotoResult} which will deliver result asynchronously.
      */
@@ -205,6 +224,25 @@ public class Fotoapparat {
         return takePictureRoutine.takePicture();
     }
 
+    /**
+     * Takes a burst of pictures. Focus and exposure are adjusted once, before the first picture,
+     * and pictures are taken one right after another. Returns immediately.
+     *
+     * @param count number of pictures. Must be at least 1.
+     * @return {@link PhotoResult}s in the order in which pictures are taken. Each of them is
+     * delivered as soon as its picture is taken. Pooled photos should be released by the caller,
+     * see {@link #takePicture()}.
+     */
+    public List<PhotoResult> takePictures(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one picture must be taken. Was: " + count);
+        }
+
+        ensureStarted();
+
+        return takePictureRoutine.takePictures(count);
+    }
+
     /**
      * Performs auto focus. If it is not available or not enabled, does nothing.
      */
@@ -257,6 +295,16 @@ public class Fotoapparat {
         });
     }
 
+    /**
+     * Takes a snapshot of the counters of the preview stream, such as processing time of each
+     * frame processor. Returns immediately.
+     *
+     * @return current statistics or empty statistics if camera was not opened yet.
+     */
+    public PreviewStatistics getPreviewStatistics() {
+        return previewStatisticsRoutine.getPreviewStatistics();
+    }
+
     /**
      * Starts camera.
      *
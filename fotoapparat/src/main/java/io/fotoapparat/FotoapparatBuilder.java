@@ -10,12 +10,16 @@ import io.fotoapparat.log.Logger;
 import io.fotoapparat.log.Loggers;
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 import io.fotoapparat.parameter.LensPosition;
 import io.fotoapparat.parameter.ScaleType;
 import io.fotoapparat.parameter.Size;
 import io.fotoapparat.parameter.selector.FlashSelectors;
 import io.fotoapparat.parameter.selector.SelectorFunction;
+import io.fotoapparat.parameter.selector.Selectors;
 import io.fotoapparat.preview.FrameProcessor;
+import io.fotoapparat.preview.FrameProcessorConfiguration;
+import io.fotoapparat.preview.PreviewStreamConfiguration;
 import io.fotoapparat.view.CameraRenderer;
 import io.fotoapparat.view.CameraView;
 
@@ -51,10 +55,15 @@ public class FotoapparatBuilder {
             fixed()
     );
     SelectorFunction<Flash> flashSelector = FlashSelectors.off();
+    SelectorFunction<FpsRange> previewFpsRangeSelector = Selectors.nothing();
 
     ScaleType scaleType = ScaleType.CENTER_CROP;
 
     FrameProcessor frameProcessor = null;
+    FrameProcessorConfiguration frameProcessorConfiguration = FrameProcessorConfiguration.defaultConfiguration();
+    PreviewStreamConfiguration previewStreamConfiguration = PreviewStreamConfiguration.defaultConfiguration();
+
+    boolean pooledPhotoBuffers = false;
 
     Logger logger = Loggers.none();
 
@@ -88,6 +97,17 @@ public class FotoapparatBuilder {
         return this;
     }
 
+    /**
+     * @param selector selects frame rate range of preview stream from list of available ranges.
+     *                 Camera keeps its default range if nothing is selected, which is the
+     *                 default.
+     * @see io.fotoapparat.parameter.selector.FpsRangeSelectors
+     */
+    public FotoapparatBuilder previewFpsRange(@NonNull SelectorFunction<FpsRange> selector) {
+        previewFpsRangeSelector = selector;
+        return this;
+    }
+
     /**
      * @param scaleType of preview inside the view.
      */
@@ -125,7 +145,42 @@ public class FotoapparatBuilder {
      * @see FrameProcessor
      */
     public FotoapparatBuilder frameProcessor(@NonNull FrameProcessor frameProcessor) {
+        return frameProcessor(frameProcessor, FrameProcessorConfiguration.defaultConfiguration());
+    }
+
+    /**
+     * @param frameProcessor receives preview frames for processing.
+     * @param configuration  decides which frames are delivered to the processor.
+     * @see FrameProcessor
+     * @see FrameProcessorConfiguration
+     */
+    public FotoapparatBuilder frameProcessor(@NonNull FrameProcessor frameProcessor,
+                                             @NonNull FrameProcessorConfiguration configuration) {
         this.frameProcessor = frameProcessor;
+        this.frameProcessorConfiguration = configuration;
+        return this;
+    }
+
+    /**
+     * @param configuration configuration of the preview stream which delivers frames to
+     *                      {@link FrameProcessor}.
+     * @see PreviewStreamConfiguration
+     */
+    public FotoapparatBuilder previewStream(@NonNull PreviewStreamConfiguration configuration) {
+        this.previewStreamConfiguration = configuration;
+        return this;
+    }
+
+    /**
+     * @param pooled {@code true} if photos of Camera2 should stay in pooled direct buffers instead
+     *               of being copied to the heap. {@code encodedImage} of such photos is
+     *               {@code null} and they must be released with
+     *               {@link io.fotoapparat.result.PhotoResult#release()} or
+     *               {@link io.fotoapparat.photo.Photo#release()}, so that the buffers are reused.
+     *               Disabled by default.
+     */
+    public FotoapparatBuilder pooledPhotoBuffers(boolean pooled) {
+        this.pooledPhotoBuffers = pooled;
         return this;
     }
 
@@ -66,6 +66,12 @@ public interface CameraDevice extends CaptureOperator,
     @Override
     Photo takePicture();
 
+    @Override
+    void takePictures(int count, PhotoCallback callback);
+
+    @Override
+    boolean isZeroShutterLag();
+
     @Override
     PreviewStream getPreviewStream();
 
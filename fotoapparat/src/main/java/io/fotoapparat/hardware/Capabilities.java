@@ -7,6 +7,7 @@ import java.util.Set;
 
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 import io.fotoapparat.parameter.Size;
 
 /**
@@ -22,6 +23,8 @@ public class Capabilities {
     private final Set<FocusMode> focusModes;
     @NonNull
     private final Set<Flash> flashModes;
+    @NonNull
+    private final Set<FpsRange> previewFpsRanges;
     private final boolean zoomSupported;
     private final int orientation;
 
@@ -29,12 +32,14 @@ public class Capabilities {
                         @NonNull Set<Size> previewSizes,
                         @NonNull Set<FocusMode> focusModes,
                         @NonNull Set<Flash> flashModes,
+                        @NonNull Set<FpsRange> previewFpsRanges,
                         boolean zoomSupported,
                         int orientation) {
         this.photoSizes = photoSizes;
         this.previewSizes = previewSizes;
         this.focusModes = focusModes;
         this.flashModes = flashModes;
+        this.previewFpsRanges = previewFpsRanges;
         this.zoomSupported = zoomSupported;
         this.orientation = orientation;
     }
@@ -48,6 +53,7 @@ public class Capabilities {
                 Collections.<Size>emptySet(),
                 Collections.<FocusMode>emptySet(),
                 Collections.<Flash>emptySet(),
+                Collections.<FpsRange>emptySet(),
                 false,
                 0
         );
@@ -81,6 +87,13 @@ public class Capabilities {
         return flashModes;
     }
 
+    /**
+     * @return list of supported frame rate ranges of the preview stream.
+     */
+    public Set<FpsRange> supportedPreviewFpsRanges() {
+        return previewFpsRanges;
+    }
+
     /**
      * @return {@code true} if zoom feature is supported. {@code false} if it is not supported.
      */
@@ -107,7 +120,8 @@ public class Capabilities {
                 && photoSizes.equals(that.photoSizes)
                 && previewSizes.equals(that.previewSizes)
                 && focusModes.equals(that.focusModes)
-                && flashModes.equals(that.flashModes);
+                && flashModes.equals(that.flashModes)
+                && previewFpsRanges.equals(that.previewFpsRanges);
 
     }
 
@@ -117,6 +131,7 @@ public class Capabilities {
         result = 31 * result + previewSizes.hashCode();
         result = 31 * result + focusModes.hashCode();
         result = 31 * result + flashModes.hashCode();
+        result = 31 * result + previewFpsRanges.hashCode();
         result = 31 * result + (zoomSupported ? 1 : 0);
         result = 31 * result + orientation;
         return result;
@@ -129,6 +144,7 @@ public class Capabilities {
                 ", previewSizes=" + previewSizes +
                 ", focusModes=" + focusModes +
                 ", flashModes=" + flashModes +
+                ", previewFpsRanges=" + previewFpsRanges +
                 ", zoomSupported=" + zoomSupported +
                 ", orientation=" + orientation +
                 '}';
@@ -14,4 +14,35 @@ public interface CaptureOperator {
      * @return The captured photo.
      */
     Photo takePicture();
+
+    /**
+     * Captures several still pictures one right after another, keeping focus and exposure which
+     * were set before the first one. Blocks until all pictures are captured.
+     *
+     * @param count    The number of pictures.
+     * @param callback Receives the photos in order, as soon as each of them is captured.
+     */
+    void takePictures(int count, PhotoCallback callback);
+
+    /**
+     * @return {@code true} if the next {@link #takePicture()} returns a frame which was captured
+     * at the moment of the call, so focus and exposure should not be adjusted before. Might change
+     * from one picture to another.
+     */
+    boolean isZeroShutterLag();
+
+    /**
+     * Receives photos of {@link #takePictures(int, PhotoCallback)}.
+     */
+    interface PhotoCallback {
+
+        /**
+         * Called on the capturing thread for each photo.
+         *
+         * @param index The number of the photo in the burst, starting with 0.
+         * @param photo The captured photo.
+         */
+        void onPhotoTaken(int index, Photo photo);
+
+    }
 }
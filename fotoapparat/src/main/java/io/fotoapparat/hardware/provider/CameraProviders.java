@@ -2,6 +2,8 @@ package io.fotoapparat.hardware.provider;
 
 import android.content.Context;
 
+import io.fotoapparat.hardware.v2.ZslConfiguration;
+
 /**
  * Static factory for {@link CameraProvider}
  */
@@ -35,4 +37,12 @@ public class CameraProviders {
 		return new V2Provider(context);
 	}
 
+	/**
+	 * @return provider for Camera v2 which takes pictures with zero shutter lag.
+	 * @see ZslConfiguration
+	 */
+	public static CameraProvider v2(Context context, ZslConfiguration zslConfiguration) {
+		return new V2Provider(context, zslConfiguration);
+	}
+
 }
@@ -3,16 +3,20 @@ package io.fotoapparat.hardware.provider;
 import android.content.Context;
 import android.hardware.camera2.CameraManager;
 import android.os.Build;
+import android.support.annotation.Nullable;
 import android.support.annotation.RequiresApi;
 
 import io.fotoapparat.hardware.CameraDevice;
+import io.fotoapparat.hardware.operators.CaptureOperator;
 import io.fotoapparat.hardware.v2.Camera2;
 import io.fotoapparat.hardware.v2.CameraThread;
+import io.fotoapparat.hardware.v2.ZslConfiguration;
 import io.fotoapparat.hardware.v2.capabilities.CapabilitiesFactory;
 import io.fotoapparat.hardware.v2.connection.CameraConnection;
 import io.fotoapparat.hardware.v2.lens.executors.CaptureOperatorImpl;
 import io.fotoapparat.hardware.v2.lens.executors.ExposureGatheringExecutor;
 import io.fotoapparat.hardware.v2.lens.executors.FocusExecutor;
+import io.fotoapparat.hardware.v2.lens.executors.ZslCaptureOperator;
 import io.fotoapparat.hardware.v2.lens.operations.LensOperationsFactory;
 import io.fotoapparat.hardware.v2.orientation.OrientationManager;
 import io.fotoapparat.hardware.v2.parameters.CaptureRequestFactory;
@@ -20,12 +24,15 @@ import io.fotoapparat.hardware.v2.parameters.ParametersProvider;
 import io.fotoapparat.hardware.v2.parameters.RendererParametersProvider;
 import io.fotoapparat.hardware.v2.readers.ContinuousSurfaceReader;
 import io.fotoapparat.hardware.v2.readers.StillSurfaceReader;
+import io.fotoapparat.hardware.v2.readers.ZslSurfaceReader;
 import io.fotoapparat.hardware.v2.selection.CameraSelector;
+import io.fotoapparat.hardware.v2.session.FocusStateTracker;
 import io.fotoapparat.hardware.v2.session.SessionManager;
 import io.fotoapparat.hardware.v2.session.SessionProvider;
 import io.fotoapparat.hardware.v2.stream.PreviewStream2;
 import io.fotoapparat.hardware.v2.surface.TextureManager;
 import io.fotoapparat.log.Logger;
+import io.fotoapparat.photo.PhotoBufferPool;
 
 /**
  * Always provides {@link Camera2}.
@@ -34,9 +41,19 @@ public class V2Provider implements CameraProvider {
 
     private static final CameraThread CAMERA_THREAD = new CameraThread();
     private final Context context;
+    @Nullable
+    private final ZslConfiguration zslConfiguration;
 
     public V2Provider(Context context) {
+        this(context, null);
+    }
+
+    /**
+     * @param zslConfiguration if not {@code null}, pictures are taken with zero shutter lag.
+     */
+    public V2Provider(Context context, @Nullable ZslConfiguration zslConfiguration) {
         this.context = context;
+        this.zslConfiguration = zslConfiguration;
     }
 
     @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
@@ -62,12 +79,22 @@ public class V2Provider implements CameraProvider {
                 cameraConnection
         );
 
+        PhotoBufferPool photoBufferPool = new PhotoBufferPool();
+
         StillSurfaceReader stillSurfaceReader = new StillSurfaceReader(
                 parametersProvider,
-                CAMERA_THREAD
+                CAMERA_THREAD,
+                photoBufferPool
+        );
+        ZslSurfaceReader zslSurfaceReader = zslConfiguration == null ? null : new ZslSurfaceReader(
+                parametersProvider,
+                cameraConnection,
+                CAMERA_THREAD,
+                zslConfiguration
         );
         ContinuousSurfaceReader continuousSurfaceReader = new ContinuousSurfaceReader(
                 parametersProvider,
+                cameraConnection,
                 CAMERA_THREAD
         );
         TextureManager textureManager = new TextureManager(
@@ -79,27 +106,35 @@ public class V2Provider implements CameraProvider {
                 cameraConnection,
                 stillSurfaceReader,
                 textureManager,
-                parametersProvider
+                parametersProvider,
+                continuousSurfaceReader,
+                zslSurfaceReader
         );
 
+        FocusStateTracker focusStateTracker = new FocusStateTracker();
+
         SessionProvider sessionProvider = new SessionProvider(
                 stillSurfaceReader,
                 cameraConnection,
                 captureRequestFactory,
                 textureManager,
-                CAMERA_THREAD
+                CAMERA_THREAD,
+                focusStateTracker,
+                zslSurfaceReader,
+                continuousSurfaceReader
         );
 
         SessionManager sessionManager = new SessionManager(
                 cameraConnection,
-                sessionProvider
+                sessionProvider,
+                continuousSurfaceReader,
+                zslSurfaceReader
         );
 
         CapabilitiesFactory capabilitiesOperator = new CapabilitiesFactory(cameraConnection);
 
         PreviewStream2 previewStream = new PreviewStream2(
                 continuousSurfaceReader,
-                parametersProvider,
                 logger
         );
 
@@ -116,16 +151,25 @@ public class V2Provider implements CameraProvider {
 
         FocusExecutor focusExecutor = new FocusExecutor(
                 parametersProvider,
-                lensOperationsFactory
+                lensOperationsFactory,
+                focusStateTracker
         );
         ExposureGatheringExecutor exposureGatheringExecutor = new ExposureGatheringExecutor(
                 lensOperationsFactory
         );
-        CaptureOperatorImpl captureExecutor = new CaptureOperatorImpl(
+        CaptureOperator captureExecutor = new CaptureOperatorImpl(
                 lensOperationsFactory,
                 stillSurfaceReader,
-                orientationManager
-        );
+                orientationManager,
+                photoBufferPool
+        );
+        if (zslSurfaceReader != null) {
+            captureExecutor = new ZslCaptureOperator(
+                    zslSurfaceReader,
+                    captureExecutor,
+                    orientationManager
+            );
+        }
 
         return new Camera2(
                 logger,
@@ -1,6 +1,7 @@
 package io.fotoapparat.hardware.v1;
 
 import android.hardware.Camera;
+import android.os.Build;
 import android.support.annotation.FloatRange;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
@@ -59,6 +60,13 @@ public class Camera1 implements CameraDevice {
     @Nullable
     private Camera.Parameters cachedZoomParameters = null;
 
+    /**
+     * {@code TRUE} while continuous focus moves the lens, {@code FALSE} after it has settled on
+     * the current scene, {@code null} if unknown.
+     */
+    @Nullable
+    private volatile Boolean focusMoving = null;
+
     public Camera1(Logger logger) {
         this.capabilitiesFactory = new CapabilitiesFactory();
         this.parametersConverter = new ParametersConverter();
@@ -77,7 +85,7 @@ public class Camera1 implements CameraDevice {
         try {
             cameraId = cameraIdForLensPosition(lensPosition);
             camera = Camera.open(cameraId);
-            previewStream = new PreviewStream1(camera);
+            previewStream = new PreviewStream1(camera, logger);
         } catch (RuntimeException e) {
             throwOnFailedToOpenCamera(lensPosition, e);
         }
@@ -92,6 +100,24 @@ public class Camera1 implements CameraDevice {
                 logger.log("Camera error code: " + error);
             }
         });
+
+        trackFocusMoves();
+    }
+
+    private void trackFocusMoves() {
+        focusMoving = null;
+
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+            // Not reported, focus is always performed before capture
+            return;
+        }
+
+        camera.setAutoFocusMoveCallback(new Camera.AutoFocusMoveCallback() {
+            @Override
+            public void onAutoFocusMoving(boolean start, Camera camera) {
+                focusMoving = start;
+            }
+        });
     }
 
     private void throwOnFailedToOpenCamera(LensPosition lensPosition, RuntimeException e) {
@@ -218,6 +244,8 @@ public class Camera1 implements CameraDevice {
         parametersOperator().updateParameters(parameters);
 
         cachedZoomParameters = null;
+        // Focus mode might have changed
+        focusMoving = null;
     }
 
     @NonNull
@@ -272,6 +300,37 @@ public class Camera1 implements CameraDevice {
     public Photo takePicture() {
         recordMethod();
 
+        return capture();
+    }
+
+    @Override
+    public void takePictures(int count, PhotoCallback callback) {
+        recordMethod();
+
+        boolean exposureLocked = setAutoExposureLock(true);
+
+        try {
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    // Camera stops the preview after each picture, next one can not be taken without it
+                    camera.startPreview();
+                }
+
+                callback.onPhotoTaken(i, capture());
+            }
+        } finally {
+            if (exposureLocked) {
+                setAutoExposureLock(false);
+            }
+        }
+    }
+
+    @Override
+    public boolean isZeroShutterLag() {
+        return false;
+    }
+
+    private Photo capture() {
         final CountDownLatch latch = new CountDownLatch(1);
         final AtomicReference<Photo> photoReference = new AtomicReference<>();
 
@@ -300,6 +359,29 @@ public class Camera1 implements CameraDevice {
         return photoReference.get();
     }
 
+    /**
+     * @return {@code true} if the lock was changed, {@code false} if it is not supported.
+     */
+    private boolean setAutoExposureLock(boolean locked) {
+        try {
+            Camera.Parameters parameters = camera.getParameters();
+
+            if (!parameters.isAutoExposureLockSupported()) {
+                return false;
+            }
+
+            parameters.setAutoExposureLock(locked);
+            camera.setParameters(parameters);
+            cachedZoomParameters = null;
+
+            return true;
+        } catch (RuntimeException e) {
+            logger.log("Unable to change auto exposure lock to " + locked + " e: " + e.getMessage());
+
+            return false;
+        }
+    }
+
     @Override
     public PreviewStream getPreviewStream() {
         recordMethod();
@@ -335,6 +417,14 @@ public class Camera1 implements CameraDevice {
     public FocusResult autoFocus() {
         recordMethod();
 
+        if (Boolean.FALSE.equals(focusMoving)) {
+            // Continuous focus has settled and the scene has not changed since
+            return FocusResult.successNoMeasurement();
+        }
+
+        // Focus stays locked afterwards, so continuous focus does not report moves anymore
+        focusMoving = null;
+
         final CountDownLatch latch = new CountDownLatch(1);
 
         try {
@@ -6,6 +6,7 @@ import io.fotoapparat.hardware.v1.capabilities.FlashCapability;
 import io.fotoapparat.hardware.v1.capabilities.FocusCapability;
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 import io.fotoapparat.parameter.Parameters;
 import io.fotoapparat.parameter.Size;
 
@@ -62,9 +63,20 @@ public class ParametersConverter {
                         output
                 );
                 break;
+            case PREVIEW_FPS_RANGE:
+                applyPreviewFpsRange(
+                        (FpsRange) input.getValue(type),
+                        output
+                );
+                break;
         }
     }
 
+    private void applyPreviewFpsRange(FpsRange fpsRange,
+                                      Camera.Parameters output) {
+        output.setPreviewFpsRange(fpsRange.min, fpsRange.max);
+    }
+
     private void applyPreviewSize(Size size,
                                   Camera.Parameters output) {
         output.setPreviewSize(size.width, size.height);
@@ -4,33 +4,43 @@ import android.graphics.ImageFormat;
 import android.hardware.Camera;
 import android.support.annotation.NonNull;
 
-import java.util.LinkedHashSet;
-import java.util.Set;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+import io.fotoapparat.log.Logger;
 import io.fotoapparat.parameter.Size;
 import io.fotoapparat.preview.Frame;
+import io.fotoapparat.preview.FrameBufferPool;
+import io.fotoapparat.preview.FrameDispatcher;
 import io.fotoapparat.preview.FrameProcessor;
+import io.fotoapparat.preview.FrameProcessorConfiguration;
+import io.fotoapparat.preview.FrameProcessorStatistics;
 import io.fotoapparat.preview.PreviewStream;
+import io.fotoapparat.preview.PreviewStreamConfiguration;
+import io.fotoapparat.preview.SceneChangeDetector;
 
 /**
  * {@link PreviewStream} of Camera v1.
  */
 @SuppressWarnings("deprecation")
-public class PreviewStream1 implements PreviewStream {
-
-    private static Executor FRAME_PROCESSORS_EXECUTOR = Executors.newSingleThreadExecutor();
+public class PreviewStream1 implements PreviewStream, FrameDispatcher.FrameRecycler {
 
     private final Camera camera;
+    private final FrameDispatcher frameDispatcher;
+    private final AtomicLong skippedFramesCount = new AtomicLong();
 
-    private final Set<FrameProcessor> frameProcessors = new LinkedHashSet<>();
+    private FrameBufferPool bufferPool = new FrameBufferPool(
+            PreviewStreamConfiguration.DEFAULT_BUFFER_COUNT
+    );
+    private SceneChangeDetector sceneChangeDetector = new SceneChangeDetector(0f);
+    private boolean started = false;
+    private long sequenceNumber = 0;
 
-    private Size previewSize = null;
-    private int frameOrientation = 0;
+    private volatile int frameOrientation = 0;
 
-    public PreviewStream1(Camera camera) {
+    public PreviewStream1(Camera camera, Logger logger) {
         this.camera = camera;
+        this.frameDispatcher = new FrameDispatcher(this, logger);
     }
 
     /**
@@ -40,23 +50,32 @@ public class PreviewStream1 implements PreviewStream {
         this.frameOrientation = frameOrientation;
     }
 
+    @Override
+    public void configure(@NonNull PreviewStreamConfiguration configuration) {
+        bufferPool = new FrameBufferPool(configuration.bufferCount);
+        sceneChangeDetector = new SceneChangeDetector(configuration.sceneChangeThreshold);
+        frameDispatcher.configure(configuration);
+    }
+
     @Override
     public void addFrameToBuffer() {
-        camera.addCallbackBuffer(
-                allocateBuffer(camera.getParameters())
-        );
+        for (byte[] buffer : allocateBuffers(camera.getParameters())) {
+            camera.addCallbackBuffer(buffer);
+        }
     }
 
-    private byte[] allocateBuffer(Camera.Parameters parameters) {
+    private byte[][] allocateBuffers(Camera.Parameters parameters) {
         ensureNv21Format(parameters);
 
         Camera.Size previewSize = parameters.getPreviewSize();
-        this.previewSize = new Size(
-                previewSize.width,
-                previewSize.height
-        );
 
-        return new byte[bytesPerFrame(previewSize)];
+        return bufferPool.allocate(
+                new Size(
+                        previewSize.width,
+                        previewSize.height
+                ),
+                bytesPerFrame(previewSize)
+        );
     }
 
     private int bytesPerFrame(Camera.Size previewSize) {
@@ -71,60 +90,86 @@ public class PreviewStream1 implements PreviewStream {
 
     @Override
     public void addProcessor(@NonNull FrameProcessor processor) {
-        synchronized (frameProcessors) {
-            frameProcessors.add(processor);
-        }
+        frameDispatcher.addProcessor(processor);
+    }
+
+    @Override
+    public void addProcessor(@NonNull FrameProcessor processor,
+                             @NonNull FrameProcessorConfiguration configuration) {
+        frameDispatcher.addProcessor(processor, configuration);
     }
 
     @Override
     public void removeProcessor(@NonNull FrameProcessor processor) {
-        synchronized (frameProcessors) {
-            frameProcessors.remove(processor);
-        }
+        frameDispatcher.removeProcessor(processor);
     }
 
     @Override
     public void start() {
         addFrameToBuffer();
 
+        frameDispatcher.start();
+        started = true;
+        sequenceNumber = 0;
+        sceneChangeDetector.reset();
+
         camera.setPreviewCallbackWithBuffer(new Camera.PreviewCallback() {
             @Override
             public void onPreviewFrame(byte[] data, Camera camera) {
-                dispatchFrameOnBackgroundThread(data);
+                dispatchFrame(bufferPool.frameOf(data, frameOrientation));
             }
         });
     }
 
-    private void dispatchFrameOnBackgroundThread(final byte[] data) {
-        FRAME_PROCESSORS_EXECUTOR.execute(new Runnable() {
-            @Override
-            public void run() {
-                synchronized (frameProcessors) {
-                    dispatchFrame(data);
-                }
-            }
-        });
-    }
+    private void dispatchFrame(Frame frame) {
+        // Taken before scene change detection so that its cost is not counted as capture time
+        long timestamp = System.nanoTime();
+        long sequenceNumber = this.sequenceNumber++;
 
-    private void dispatchFrame(byte[] image) {
-        ensurePreviewSizeAvailable();
+        if (!sceneChangeDetector.accept(frame)) {
+            skippedFramesCount.incrementAndGet();
+            recycle(frame);
+            return;
+        }
 
-        final Frame frame = new Frame(previewSize, image, frameOrientation);
+        // Statistics are calculated by the processors which request them, not on the main thread
+        frameDispatcher.dispatch(
+                frame,
+                timestamp,
+                sequenceNumber,
+                sceneChangeDetector.getLastScore()
+        );
+    }
 
-        for (final FrameProcessor frameProcessor : frameProcessors) {
-            frameProcessor.processFrame(frame);
+    @Override
+    public void stop() {
+        if (!started) {
+            return;
         }
 
-        returnFrameToBuffer(frame);
+        started = false;
+
+        camera.setPreviewCallbackWithBuffer(null);
+        frameDispatcher.stop();
     }
 
-    private void ensurePreviewSizeAvailable() {
-        if (previewSize == null) {
-            throw new IllegalStateException("previewSize is null. Frame was not added?");
-        }
+    @Override
+    public long getDroppedFramesCount() {
+        return frameDispatcher.getDroppedFramesCount();
+    }
+
+    @Override
+    public long getSkippedFramesCount() {
+        return skippedFramesCount.get();
     }
 
-    private void returnFrameToBuffer(Frame frame) {
+    @Override
+    public List<FrameProcessorStatistics> getProcessorStatistics() {
+        return frameDispatcher.getProcessorStatistics();
+    }
+
+    @Override
+    public void recycle(Frame frame) {
         camera.addCallbackBuffer(
                 frame.image
         );
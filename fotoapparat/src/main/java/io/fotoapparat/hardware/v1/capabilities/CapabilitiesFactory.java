@@ -13,6 +13,7 @@ import io.fotoapparat.hardware.Capabilities;
 import io.fotoapparat.hardware.v1.Camera1;
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 import io.fotoapparat.parameter.Size;
 
 /**
@@ -31,6 +32,7 @@ public class CapabilitiesFactory {
                 extractPreviewSizes(parameters),
                 extractFocusModes(parameters),
                 extractFlashModes(parameters),
+                extractPreviewFpsRanges(parameters),
                 parameters.isZoomSupported(),
                 info.orientation
         );
@@ -57,6 +59,24 @@ public class CapabilitiesFactory {
         return result;
     }
 
+    private Set<FpsRange> extractPreviewFpsRanges(Camera.Parameters parameters) {
+        HashSet<FpsRange> result = new HashSet<>();
+        List<int[]> fpsRanges = parameters.getSupportedPreviewFpsRange();
+
+        if (fpsRanges == null) {
+            return result;
+        }
+
+        for (int[] fpsRange : fpsRanges) {
+            result.add(new FpsRange(
+                    fpsRange[Camera.Parameters.PREVIEW_FPS_MIN_INDEX],
+                    fpsRange[Camera.Parameters.PREVIEW_FPS_MAX_INDEX]
+            ));
+        }
+
+        return result;
+    }
+
     private Set<Flash> extractFlashModes(Camera.Parameters parameters) {
         HashSet<Flash> result = new HashSet<>();
 
@@ -152,6 +152,18 @@ public class Camera2 implements CameraDevice {
         return captureOperator.takePicture();
     }
 
+    @Override
+    public void takePictures(int count, PhotoCallback callback) {
+        recordMethod();
+
+        captureOperator.takePictures(count, callback);
+    }
+
+    @Override
+    public boolean isZeroShutterLag() {
+        return captureOperator.isZeroShutterLag();
+    }
+
     @Override
     public PreviewStream getPreviewStream() {
         recordMethod();
@@ -0,0 +1,125 @@
+package io.fotoapparat.hardware.v2;
+
+/**
+ * Configuration of zero-shutter-lag capture for {@link Camera2}. While preview is running, the
+ * camera keeps a few most recent full resolution frames, and taking a picture returns the one
+ * closest to the moment when it was requested instead of focusing and capturing a new one.
+ * <p>
+ * Frames are captured by an additional full resolution stream, which requires a device with
+ * {@code FULL} hardware level.
+ * <p>
+ * Use {@link ZslConfiguration#builder()} to create a new instance.
+ */
+public class ZslConfiguration {
+
+    /**
+     * Default maximum number of frames kept in the ring.
+     */
+    public static final int DEFAULT_RING_DEPTH = 3;
+
+    /**
+     * Default maximum memory which frames in the ring might occupy.
+     */
+    public static final long DEFAULT_MAX_MEMORY_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Maximum number of recent frames kept in the ring.
+     */
+    public final int ringDepth;
+
+    /**
+     * Maximum memory, in bytes, which frames in the ring might occupy, including two frames which
+     * the camera fills and encodes besides the ring. Ring is made shallower than {@link #ringDepth}
+     * if frames of the still capture size do not fit, but always keeps at least one frame.
+     */
+    public final long maxMemoryBytes;
+
+    private ZslConfiguration(Builder builder) {
+        this.ringDepth = builder.ringDepth;
+        this.maxMemoryBytes = builder.maxMemoryBytes;
+    }
+
+    /**
+     * @return configuration with default values.
+     */
+    public static ZslConfiguration defaultConfiguration() {
+        return builder().build();
+    }
+
+    /**
+     * @return builder for {@link ZslConfiguration}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ZslConfiguration that = (ZslConfiguration) o;
+
+        return ringDepth == that.ringDepth
+                && maxMemoryBytes == that.maxMemoryBytes;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = ringDepth;
+        result = 31 * result + (int) (maxMemoryBytes ^ (maxMemoryBytes >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ZslConfiguration{" +
+                "ringDepth=" + ringDepth +
+                ", maxMemoryBytes=" + maxMemoryBytes +
+                '}';
+    }
+
+    /**
+     * Builder for {@link ZslConfiguration}.
+     */
+    public static class Builder {
+
+        int ringDepth = DEFAULT_RING_DEPTH;
+        long maxMemoryBytes = DEFAULT_MAX_MEMORY_BYTES;
+
+        /**
+         * @param ringDepth maximum number of recent frames kept in the ring. Must be at least 1.
+         */
+        public Builder ringDepth(int ringDepth) {
+            if (ringDepth < 1) {
+                throw new IllegalArgumentException("Ring depth must be at least 1. Was: " + ringDepth);
+            }
+
+            this.ringDepth = ringDepth;
+            return this;
+        }
+
+        /**
+         * @param maxMemoryBytes maximum memory, in bytes, which frames in the ring might occupy.
+         *                       Must be positive.
+         */
+        public Builder maxMemoryBytes(long maxMemoryBytes) {
+            if (maxMemoryBytes < 1) {
+                throw new IllegalArgumentException("Maximum memory must be positive. Was: " + maxMemoryBytes);
+            }
+
+            this.maxMemoryBytes = maxMemoryBytes;
+            return this;
+        }
+
+        /**
+         * @return a new instance of {@link ZslConfiguration} which uses values from current
+         * builder.
+         */
+        public ZslConfiguration build() {
+            return new ZslConfiguration(this);
+        }
+
+    }
+
+}
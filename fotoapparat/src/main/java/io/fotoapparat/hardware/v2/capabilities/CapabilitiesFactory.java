@@ -15,6 +15,7 @@ import io.fotoapparat.hardware.v2.connection.CameraConnection;
 import io.fotoapparat.hardware.v2.parameters.converters.FocusConverter;
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 import io.fotoapparat.parameter.Size;
 
 /**
@@ -36,6 +37,7 @@ public class CapabilitiesFactory implements CapabilitiesOperator {
                 availablePreviewSizes(),
                 availableFocusModes(),
                 availableFlashModes(),
+                availablePreviewFpsRanges(),
                 false,
                 orientation()
         );
@@ -95,6 +97,11 @@ public class CapabilitiesFactory implements CapabilitiesOperator {
         return flashes;
     }
 
+    @SuppressWarnings("ConstantConditions")
+    private Set<FpsRange> availablePreviewFpsRanges() {
+        return characteristics().getTargetFpsRanges();
+    }
+
     private int orientation() {
         return characteristics().getSensorOrientation();
     }
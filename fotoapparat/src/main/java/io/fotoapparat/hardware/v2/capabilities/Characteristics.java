@@ -7,10 +7,12 @@ import android.hardware.camera2.CameraMetadata;
 import android.os.Build;
 import android.support.annotation.NonNull;
 import android.support.annotation.RequiresApi;
+import android.util.Range;
 
 import java.util.HashSet;
 import java.util.Set;
 
+import io.fotoapparat.parameter.FpsRange;
 import io.fotoapparat.parameter.Size;
 
 /**
@@ -77,6 +79,25 @@ public class Characteristics {
         return hardwareLevel == CameraCharacteristics.INFO_SUPPORTED_HARDWARE_LEVEL_LEGACY;
     }
 
+    /**
+     * Informs whether timestamps of the captured images can be compared with
+     * {@link android.os.SystemClock#elapsedRealtimeNanos()}.
+     *
+     * @return {@code true} if the timestamps are in the realtime time base, {@code false} if their
+     * time base is unknown.
+     */
+    public boolean isRealtimeTimestampSource() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return false;
+        }
+
+        Integer timestampSource = cameraCharacteristics
+                .get(CameraCharacteristics.SENSOR_INFO_TIMESTAMP_SOURCE);
+
+        return timestampSource != null
+                && timestampSource == CameraMetadata.SENSOR_INFO_TIMESTAMP_SOURCE_REALTIME;
+    }
+
     /**
      * Clockwise angle through which the output image needs to be rotated to be
      * upright on the device screen in its native orientation.
@@ -136,4 +157,25 @@ public class Characteristics {
         return convertSizes(outputSizes);
     }
 
+    /**
+     * List of frame rate ranges which auto-exposure can target.
+     *
+     * @return The set of the supported ranges.
+     */
+    public Set<FpsRange> getTargetFpsRanges() {
+        Range<Integer>[] fpsRanges = cameraCharacteristics
+                .get(CameraCharacteristics.CONTROL_AE_AVAILABLE_TARGET_FPS_RANGES);
+
+        HashSet<FpsRange> rangesSet = new HashSet<>(fpsRanges.length);
+
+        for (Range<Integer> fpsRange : fpsRanges) {
+            rangesSet.add(new FpsRange(
+                    fpsRange.getLower() * 1000,
+                    fpsRange.getUpper() * 1000
+            ));
+        }
+
+        return rangesSet;
+    }
+
 }
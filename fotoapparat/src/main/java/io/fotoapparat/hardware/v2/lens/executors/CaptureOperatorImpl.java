@@ -1,12 +1,13 @@
 package io.fotoapparat.hardware.v2.lens.executors;
 
 import io.fotoapparat.hardware.operators.CaptureOperator;
+import io.fotoapparat.hardware.v2.lens.operations.BurstCaptureCallback;
 import io.fotoapparat.hardware.v2.lens.operations.LensOperation;
 import io.fotoapparat.hardware.v2.lens.operations.LensOperationsFactory;
 import io.fotoapparat.hardware.v2.orientation.OrientationManager;
 import io.fotoapparat.hardware.v2.readers.StillSurfaceReader;
-import io.fotoapparat.lens.CaptureResultState;
 import io.fotoapparat.photo.Photo;
+import io.fotoapparat.photo.PhotoBufferPool;
 
 /**
  * Captures a picture.
@@ -17,24 +18,49 @@ public class CaptureOperatorImpl implements CaptureOperator {
     private final LensOperationsFactory lensOperationsFactory;
     private final StillSurfaceReader stillSurfaceReader;
     private final OrientationManager orientationManager;
+    private final PhotoBufferPool bufferPool;
 
     public CaptureOperatorImpl(LensOperationsFactory lensOperationsFactory,
                                StillSurfaceReader stillSurfaceReader,
-                               OrientationManager orientationManager) {
+                               OrientationManager orientationManager,
+                               PhotoBufferPool bufferPool) {
         this.lensOperationsFactory = lensOperationsFactory;
         this.stillSurfaceReader = stillSurfaceReader;
         this.orientationManager = orientationManager;
+        this.bufferPool = bufferPool;
     }
 
     @Override
     public Photo takePicture() {
-        LensOperation<CaptureResultState> captureOperation = lensOperationsFactory.createCaptureOperation();
+        LensOperation<Long> captureOperation = lensOperationsFactory.createCaptureOperation();
 
-        captureOperation.call();
+        long timestamp = captureOperation.call();
 
         return new Photo(
-                stillSurfaceReader.getPhotoBytes(),
-                orientationManager.getPhotoOrientation()
+                stillSurfaceReader.getPhotoBuffer(timestamp),
+                orientationManager.getPhotoOrientation(),
+                bufferPool
         );
     }
+
+    @Override
+    public void takePictures(int count, PhotoCallback callback) {
+        BurstCaptureCallback burst = lensOperationsFactory.captureBurst(count);
+
+        for (int i = 0; i < count; i++) {
+            callback.onPhotoTaken(
+                    i,
+                    new Photo(
+                            stillSurfaceReader.getPhotoBuffer(burst.nextTimestamp()),
+                            orientationManager.getPhotoOrientation(),
+                            bufferPool
+                    )
+            );
+        }
+    }
+
+    @Override
+    public boolean isZeroShutterLag() {
+        return false;
+    }
 }
@@ -7,21 +7,25 @@ import io.fotoapparat.hardware.operators.AutoFocusOperator;
 import io.fotoapparat.hardware.v2.lens.operations.LensOperation;
 import io.fotoapparat.hardware.v2.lens.operations.LensOperationsFactory;
 import io.fotoapparat.hardware.v2.parameters.ParametersProvider;
+import io.fotoapparat.hardware.v2.session.FocusStateTracker;
 import io.fotoapparat.lens.FocusResult;
 import io.fotoapparat.parameter.Flash;
 
 /**
- * Performs a lens focus routine.
+ * Performs a lens focus routine, unless continuous focus has already settled.
  */
 @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
 public class FocusExecutor implements AutoFocusOperator {
     private final ParametersProvider parametersProvider;
     private final LensOperationsFactory lensOperationsFactory;
+    private final FocusStateTracker focusStateTracker;
 
     public FocusExecutor(ParametersProvider parametersProvider,
-                         LensOperationsFactory lensOperationsFactory) {
+                         LensOperationsFactory lensOperationsFactory,
+                         FocusStateTracker focusStateTracker) {
         this.parametersProvider = parametersProvider;
         this.lensOperationsFactory = lensOperationsFactory;
+        this.focusStateTracker = focusStateTracker;
     }
 
     private static FocusResult forceExposureMetering(FocusResult focusResult) {
@@ -30,8 +34,12 @@ public class FocusExecutor implements AutoFocusOperator {
 
     @Override
     public FocusResult autoFocus() {
-        LensOperation<FocusResult> lensOperation = lensOperationsFactory.createLockFocusOperation();
-        FocusResult focusResult = lensOperation.call();
+        FocusResult focusResult = focusStateTracker.getStableFocusResult();
+
+        if (focusResult == null) {
+            LensOperation<FocusResult> lensOperation = lensOperationsFactory.createLockFocusOperation();
+            focusResult = lensOperation.call();
+        }
 
         if (parametersProvider.getFlash() == Flash.ON) {
             return forceExposureMetering(focusResult);
@@ -0,0 +1,53 @@
+package io.fotoapparat.hardware.v2.lens.executors;
+
+import io.fotoapparat.hardware.operators.CaptureOperator;
+import io.fotoapparat.hardware.v2.orientation.OrientationManager;
+import io.fotoapparat.hardware.v2.readers.ZslSurfaceReader;
+import io.fotoapparat.photo.Photo;
+
+/**
+ * Takes a picture from the recent frames of the preview. Falls back to a regular capture when
+ * there is no recent frame, e.g. right after the preview has started, and for bursts.
+ * <p>
+ * Whether the next picture is taken from the recent frames is reported by
+ * {@link #isZeroShutterLag()}, so that focus and exposure are adjusted before the regular capture.
+ */
+@SuppressWarnings("NewApi")
+public class ZslCaptureOperator implements CaptureOperator {
+
+    private final ZslSurfaceReader zslSurfaceReader;
+    private final CaptureOperator fallbackOperator;
+    private final OrientationManager orientationManager;
+
+    public ZslCaptureOperator(ZslSurfaceReader zslSurfaceReader,
+                              CaptureOperator fallbackOperator,
+                              OrientationManager orientationManager) {
+        this.zslSurfaceReader = zslSurfaceReader;
+        this.fallbackOperator = fallbackOperator;
+        this.orientationManager = orientationManager;
+    }
+
+    @Override
+    public Photo takePicture() {
+        byte[] photoBytes = zslSurfaceReader.getPhotoBytes();
+
+        if (photoBytes == null) {
+            return fallbackOperator.takePicture();
+        }
+
+        return new Photo(
+                photoBytes,
+                orientationManager.getPhotoOrientation()
+        );
+    }
+
+    @Override
+    public void takePictures(int count, PhotoCallback callback) {
+        fallbackOperator.takePictures(count, callback);
+    }
+
+    @Override
+    public boolean isZeroShutterLag() {
+        return zslSurfaceReader.hasRecentImage();
+    }
+}
@@ -0,0 +1,107 @@
+package io.fotoapparat.hardware.v2.lens.operations;
+
+import android.hardware.camera2.CameraCaptureSession;
+import android.hardware.camera2.CaptureFailure;
+import android.hardware.camera2.CaptureRequest;
+import android.hardware.camera2.CaptureResult;
+import android.hardware.camera2.TotalCaptureResult;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.RequiresApi;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.fotoapparat.hardware.CameraException;
+
+/**
+ * Collects the sensor timestamps of the captures of a burst, in order. Captures which do not
+ * complete because the burst was aborted, or which do not report back in time, fail.
+ */
+@RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+public class BurstCaptureCallback extends CameraCaptureSession.CaptureCallback {
+
+    /**
+     * Marks a capture which has failed. Sensor timestamps are never negative.
+     */
+    private static final long FAILED = -1L;
+
+    /**
+     * Time in milliseconds after which a capture is considered lost.
+     */
+    private static final long CAPTURE_TIMEOUT_MILLIS = 3000;
+
+    private final BlockingQueue<Long> timestamps = new LinkedBlockingQueue<>();
+    private final int count;
+    private final long timeoutMillis;
+
+    /**
+     * Number of captures which have reported back. Only accessed by the callbacks, which are
+     * called on the same handler.
+     */
+    private int reportedCount = 0;
+
+    BurstCaptureCallback(int count) {
+        this(count, CAPTURE_TIMEOUT_MILLIS);
+    }
+
+    BurstCaptureCallback(int count, long timeoutMillis) {
+        this.count = count;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public void onCaptureCompleted(@NonNull CameraCaptureSession session,
+                                   @NonNull CaptureRequest request,
+                                   @NonNull TotalCaptureResult result) {
+        reportedCount++;
+        timestamps.add(result.get(CaptureResult.SENSOR_TIMESTAMP));
+    }
+
+    @Override
+    public void onCaptureFailed(@NonNull CameraCaptureSession session,
+                                @NonNull CaptureRequest request,
+                                @NonNull CaptureFailure failure) {
+        reportedCount++;
+        timestamps.add(FAILED);
+    }
+
+    /**
+     * Remaining captures of an aborted burst never report back, so they fail right away.
+     */
+    @Override
+    public void onCaptureSequenceAborted(@NonNull CameraCaptureSession session, int sequenceId) {
+        while (reportedCount < count) {
+            reportedCount++;
+            timestamps.add(FAILED);
+        }
+    }
+
+    /**
+     * Blocks until the next capture of the burst is completed.
+     *
+     * @return The sensor timestamp of the capture.
+     * @throws CameraException if the capture has failed, did not complete in time or the thread
+     *                         was interrupted.
+     */
+    public long nextTimestamp() {
+        Long timestamp;
+        try {
+            timestamp = timestamps.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CameraException("Interrupted while waiting for the burst.");
+        }
+
+        if (timestamp == null) {
+            throw new CameraException("Capture of the burst was lost.");
+        }
+        if (timestamp == FAILED) {
+            throw new CameraException("Capture of the burst has failed.");
+        }
+
+        return timestamp;
+    }
+
+}
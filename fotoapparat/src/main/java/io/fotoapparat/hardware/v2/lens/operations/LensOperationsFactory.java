@@ -1,16 +1,18 @@
 package io.fotoapparat.hardware.v2.lens.operations;
 
 import android.hardware.camera2.CameraAccessException;
+import android.hardware.camera2.CaptureRequest;
 import android.os.Handler;
 
+import java.util.Collections;
+
 import io.fotoapparat.hardware.CameraException;
 import io.fotoapparat.hardware.v2.CameraThread;
-import io.fotoapparat.hardware.v2.lens.operations.transformer.CaptureResultTransformer;
 import io.fotoapparat.hardware.v2.lens.operations.transformer.ExposureResultTransformer;
 import io.fotoapparat.hardware.v2.lens.operations.transformer.FocusResultTransformer;
+import io.fotoapparat.hardware.v2.lens.operations.transformer.SensorTimestampTransformer;
 import io.fotoapparat.hardware.v2.parameters.CaptureRequestFactory;
 import io.fotoapparat.hardware.v2.session.SessionManager;
-import io.fotoapparat.lens.CaptureResultState;
 import io.fotoapparat.lens.ExposureResultState;
 import io.fotoapparat.lens.FocusResult;
 
@@ -67,19 +69,45 @@ public class LensOperationsFactory {
     }
 
     /**
-     * @return A new operation to lock the lens focus.
+     * @return A new operation to capture a photo, which results in the sensor timestamp of the
+     * capture.
      */
-    public LensOperation<CaptureResultState> createCaptureOperation() {
+    public LensOperation<Long> createCaptureOperation() {
         try {
             return LensOperation
                     .from(
                             captureRequestFactory.createCaptureRequest(),
                             handler,
-                            new CaptureResultTransformer(),
+                            new SensorTimestampTransformer(),
                             sessionManager.getCaptureSession()
                     );
         } catch (CameraAccessException e) {
             throw new CameraException(e);
         }
     }
+
+    /**
+     * Requests a burst of photos. Returns immediately, photos arrive to the
+     * {@link io.fotoapparat.hardware.v2.readers.StillSurfaceReader}.
+     *
+     * @param count The number of photos.
+     * @return The callback which provides the sensor timestamps of the captures.
+     */
+    public BurstCaptureCallback captureBurst(int count) {
+        try {
+            CaptureRequest request = captureRequestFactory.createCaptureRequest();
+            BurstCaptureCallback callback = new BurstCaptureCallback(count);
+
+            sessionManager.getCaptureSession()
+                    .captureBurst(
+                            Collections.nCopies(count, request),
+                            callback,
+                            handler
+                    );
+
+            return callback;
+        } catch (CameraAccessException e) {
+            throw new CameraException(e);
+        }
+    }
 }
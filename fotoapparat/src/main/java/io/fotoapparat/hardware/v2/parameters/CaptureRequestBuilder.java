@@ -13,6 +13,7 @@ import java.util.List;
 
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 
 /**
  * Constructs a {@link CaptureRequest} in a sane way.
@@ -25,6 +26,7 @@ class CaptureRequestBuilder {
     List<Surface> surfaces;
     Flash flash;
     FocusMode focus;
+    FpsRange previewFpsRange;
     boolean shouldTriggerAutoFocus;
     boolean triggerPrecaptureExposure;
     boolean cancelPrecaptureExposure;
@@ -67,6 +69,11 @@ class CaptureRequestBuilder {
         return this;
     }
 
+    CaptureRequestBuilder previewFpsRange(FpsRange previewFpsRange) {
+        this.previewFpsRange = previewFpsRange;
+        return this;
+    }
+
     CaptureRequestBuilder setExposureMode(boolean shouldSetExposureMode) {
         this.shouldSetExposureMode = shouldSetExposureMode;
         return this;
@@ -4,14 +4,21 @@ import android.hardware.camera2.CameraAccessException;
 import android.hardware.camera2.CameraDevice;
 import android.hardware.camera2.CaptureRequest;
 import android.os.Build;
+import android.support.annotation.Nullable;
 import android.support.annotation.RequiresApi;
 import android.view.Surface;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import io.fotoapparat.hardware.v2.connection.CameraConnection;
+import io.fotoapparat.hardware.v2.readers.ContinuousSurfaceReader;
 import io.fotoapparat.hardware.v2.readers.StillSurfaceReader;
+import io.fotoapparat.hardware.v2.readers.ZslSurfaceReader;
 import io.fotoapparat.hardware.v2.surface.TextureManager;
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 
 /**
  * Creates {@link CaptureRequest}s for a {@link android.hardware.camera2.CameraCaptureSession}.
@@ -23,19 +30,33 @@ public class CaptureRequestFactory {
     private final TextureManager textureManager;
     private final ParametersProvider parametersProvider;
     private final CameraConnection cameraConnection;
+    private final ContinuousSurfaceReader continuousSurfaceReader;
+    @Nullable
+    private final ZslSurfaceReader zslSurfaceReader;
 
+    /**
+     * @param continuousSurfaceReader preview is also captured into its surface while it is
+     *                                active.
+     * @param zslSurfaceReader        if not {@code null}, preview is also captured into its
+     *                                surface.
+     */
     public CaptureRequestFactory(CameraConnection cameraConnection,
                                  StillSurfaceReader surfaceReader,
                                  TextureManager textureManager,
-                                 ParametersProvider parametersProvider) {
+                                 ParametersProvider parametersProvider,
+                                 ContinuousSurfaceReader continuousSurfaceReader,
+                                 @Nullable ZslSurfaceReader zslSurfaceReader) {
         this.cameraConnection = cameraConnection;
         this.surfaceReader = surfaceReader;
         this.textureManager = textureManager;
         this.parametersProvider = parametersProvider;
+        this.continuousSurfaceReader = continuousSurfaceReader;
+        this.zslSurfaceReader = zslSurfaceReader;
     }
 
     /**
-     * Creates a request for a window preview.
+     * Creates a request for a window preview, which also delivers frames to the frame processors
+     * and fills the zero-shutter-lag ring if they are enabled.
      *
      * @return The camera request.
      * @throws CameraAccessException If the camera device has been disconnected.
@@ -45,11 +66,27 @@ public class CaptureRequestFactory {
         CameraDevice camera = cameraConnection.getCamera();
         Surface viewSurface = textureManager.getSurface();
         Flash flash = parametersProvider.getFlash();
+        FpsRange previewFpsRange = parametersProvider.getPreviewFpsRange();
 
-        return CaptureRequestBuilder
-                .create(camera, CameraDevice.TEMPLATE_PREVIEW)
-                .into(viewSurface)
+        CaptureRequestBuilder builder = CaptureRequestBuilder
+                .create(camera, CameraDevice.TEMPLATE_PREVIEW);
+
+        List<Surface> surfaces = new ArrayList<>(3);
+        surfaces.add(viewSurface);
+
+        if (continuousSurfaceReader.isActive()) {
+            surfaces.add(continuousSurfaceReader.getSurface());
+        }
+
+        if (zslSurfaceReader != null) {
+            surfaces.add(zslSurfaceReader.getSurface());
+        }
+
+        builder.into(surfaces.toArray(new Surface[surfaces.size()]));
+
+        return builder
                 .flash(flash)
+                .previewFpsRange(previewFpsRange)
                 .build();
     }
 
@@ -5,12 +5,14 @@ import java.util.concurrent.CountDownLatch;
 import io.fotoapparat.hardware.operators.ParametersOperator;
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 import io.fotoapparat.parameter.Parameters;
 import io.fotoapparat.parameter.Size;
 
 import static io.fotoapparat.parameter.Parameters.Type.FLASH;
 import static io.fotoapparat.parameter.Parameters.Type.FOCUS_MODE;
 import static io.fotoapparat.parameter.Parameters.Type.PICTURE_SIZE;
+import static io.fotoapparat.parameter.Parameters.Type.PREVIEW_FPS_RANGE;
 import static io.fotoapparat.parameter.Parameters.Type.PREVIEW_SIZE;
 
 /**
@@ -78,6 +80,15 @@ public class ParametersProvider implements ParametersOperator {
         return getSelectedParameters().getValue(PREVIEW_SIZE);
     }
 
+    /**
+     * Returns the frame rate range of the preview stream.
+     *
+     * @return The range or {@code null} if camera should use its default.
+     */
+    public FpsRange getPreviewFpsRange() {
+        return getSelectedParameters().getValue(PREVIEW_FPS_RANGE);
+    }
+
     /**
      * The aspect ratio (width/height) based on the still picture capture size.
      *
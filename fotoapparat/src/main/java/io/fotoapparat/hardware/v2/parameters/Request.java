@@ -6,12 +6,14 @@ import android.hardware.camera2.CameraMetadata;
 import android.hardware.camera2.CaptureRequest;
 import android.os.Build;
 import android.support.annotation.RequiresApi;
+import android.util.Range;
 import android.view.Surface;
 
 import java.util.List;
 
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 
 import static io.fotoapparat.hardware.v2.parameters.converters.FlashConverter.flashToAutoExposureMode;
 import static io.fotoapparat.hardware.v2.parameters.converters.FlashConverter.flashToFiringMode;
@@ -32,6 +34,7 @@ class Request {
     private final boolean shouldSetExposureMode;
     private final Flash flash;
     private final FocusMode focus;
+    private final FpsRange previewFpsRange;
     private CaptureRequest.Builder captureRequest;
 
     private Request(CameraDevice cameraDevice,
@@ -41,7 +44,8 @@ class Request {
                     boolean triggerPrecaptureExposure,
                     boolean cancelPrecaptureExposure,
                     Flash flash, boolean shouldSetExposureMode,
-                    FocusMode focus) {
+                    FocusMode focus,
+                    FpsRange previewFpsRange) {
         this.cameraDevice = cameraDevice;
         this.requestTemplate = requestTemplate;
         this.surfaces = surfaces;
@@ -51,6 +55,7 @@ class Request {
         this.shouldSetExposureMode = shouldSetExposureMode;
         this.flash = flash;
         this.focus = focus;
+        this.previewFpsRange = previewFpsRange;
     }
 
     static CaptureRequest create(CaptureRequestBuilder builder) throws CameraAccessException {
@@ -63,7 +68,8 @@ class Request {
                 builder.cancelPrecaptureExposure,
                 builder.flash,
                 builder.shouldSetExposureMode,
-                builder.focus
+                builder.focus,
+                builder.previewFpsRange
         )
                 .build();
     }
@@ -88,6 +94,7 @@ class Request {
         setFlash();
         setExposure();
         setFocus();
+        setPreviewFpsRange();
 
         return captureRequest.build();
     }
@@ -177,4 +184,15 @@ class Request {
         captureRequest.set(CaptureRequest.CONTROL_AF_MODE, focusMode);
     }
 
+    private void setPreviewFpsRange() {
+        if (previewFpsRange == null) {
+            return;
+        }
+
+        captureRequest.set(CaptureRequest.CONTROL_AE_TARGET_FPS_RANGE, new Range<>(
+                previewFpsRange.min / 1000,
+                previewFpsRange.max / 1000
+        ));
+    }
+
 }
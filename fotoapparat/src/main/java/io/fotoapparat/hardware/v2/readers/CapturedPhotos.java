@@ -0,0 +1,101 @@
+package io.fotoapparat.hardware.v2.readers;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.fotoapparat.photo.PhotoBufferPool;
+
+/**
+ * Photos which have arrived from the camera, matched to their captures by sensor timestamp.
+ * Photos might arrive before or after their capture asks for them, and in any order.
+ * <p>
+ * Photos which nobody waits for and which are older than a photo being taken are left over from
+ * failed or abandoned captures. They are discarded and their buffers are returned to the
+ * {@link PhotoBufferPool}.
+ */
+class CapturedPhotos {
+
+    private final PhotoBufferPool bufferPool;
+
+    /**
+     * Photos which have arrived but were not taken yet, oldest first.
+     */
+    private final Map<Long, ByteBuffer> arrivedPhotos = new LinkedHashMap<>();
+
+    /**
+     * Timestamps of captures which are waiting for their photos.
+     */
+    private final List<Long> awaitedTimestamps = new ArrayList<>();
+
+    CapturedPhotos(PhotoBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Adds a photo which has arrived from the camera.
+     */
+    synchronized void add(long timestamp, ByteBuffer photo) {
+        arrivedPhotos.put(timestamp, photo);
+        notifyAll();
+    }
+
+    /**
+     * Blocks until the photo with given timestamp arrives, or until the timeout elapses. Camera
+     * might never deliver the photo, e.g. when its reader has no room left for the image.
+     *
+     * @param timeoutMillis maximum time to wait in milliseconds.
+     * @return the photo, or {@code null} if it has not arrived in time.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    synchronized ByteBuffer take(long timestamp, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        awaitedTimestamps.add(timestamp);
+
+        try {
+            while (!arrivedPhotos.containsKey(timestamp)) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+
+                if (remainingMillis <= 0) {
+                    return null;
+                }
+
+                wait(remainingMillis);
+            }
+        } finally {
+            awaitedTimestamps.remove(Long.valueOf(timestamp));
+        }
+
+        ByteBuffer photo = arrivedPhotos.remove(timestamp);
+        discardOlderThan(timestamp);
+
+        return photo;
+    }
+
+    /**
+     * @return number of photos which have arrived but were not taken yet.
+     */
+    synchronized int size() {
+        return arrivedPhotos.size();
+    }
+
+    private void discardOlderThan(long timestamp) {
+        Iterator<Map.Entry<Long, ByteBuffer>> iterator = arrivedPhotos.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<Long, ByteBuffer> arrivedPhoto = iterator.next();
+            Long arrivedTimestamp = arrivedPhoto.getKey();
+
+            if (arrivedTimestamp < timestamp && !awaitedTimestamps.contains(arrivedTimestamp)) {
+                iterator.remove();
+                bufferPool.recycle(arrivedPhoto.getValue());
+            }
+        }
+    }
+
+}
@@ -4,66 +4,73 @@ import android.graphics.ImageFormat;
 import android.media.Image;
 import android.media.ImageReader;
 import android.os.Build;
+import android.os.SystemClock;
 import android.support.annotation.RequiresApi;
 import android.view.Surface;
 
-import java.nio.ByteBuffer;
-
 import io.fotoapparat.hardware.v2.CameraThread;
+import io.fotoapparat.hardware.v2.connection.CameraConnection;
 import io.fotoapparat.hardware.v2.parameters.ParametersProvider;
 import io.fotoapparat.hardware.v2.stream.OnImageAcquiredObserver;
 import io.fotoapparat.parameter.Size;
+import io.fotoapparat.preview.PreviewStreamConfiguration;
 
 /**
  * Creates a {@link Surface} which can capture continuous events (several frames).
+ * <p>
+ * Reader is active while a {@link OnFrameAcquiredListener} is set. Only an active reader is a
+ * target of the preview, so the camera does not produce frames which nobody processes.
  */
 @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
 public class ContinuousSurfaceReader
         implements OnImageAcquiredObserver, ImageReader.OnImageAvailableListener {
 
     private final ParametersProvider parametersProvider;
+    private final CameraConnection cameraConnection;
     private final CameraThread cameraThread;
+    private volatile boolean realtimeTimestamps = false;
+    private int maxImages = PreviewStreamConfiguration.DEFAULT_BUFFER_COUNT;
     private ImageReader imageReader;
-    private OnFrameAcquiredListener listener;
+    private volatile OnFrameAcquiredListener listener;
+    private Listener targetsListener;
 
-    public ContinuousSurfaceReader(ParametersProvider parametersProvider, CameraThread cameraThread) {
+    public ContinuousSurfaceReader(ParametersProvider parametersProvider,
+                                   CameraConnection cameraConnection,
+                                   CameraThread cameraThread) {
         this.parametersProvider = parametersProvider;
+        this.cameraConnection = cameraConnection;
         this.cameraThread = cameraThread;
     }
 
-    private static byte[] YUV_420_888toNV21(Image image) {
-        byte[] nv21;
-        ByteBuffer yBuffer = image.getPlanes()[0].getBuffer();
-        ByteBuffer uBuffer = image.getPlanes()[1].getBuffer();
-        ByteBuffer vBuffer = image.getPlanes()[2].getBuffer();
-
-        int ySize = yBuffer.remaining();
-        int uSize = uBuffer.remaining();
-        int vSize = vBuffer.remaining();
-
-        nv21 = new byte[ySize + uSize + vSize];
-
-        //U and V are swapped
-        yBuffer.get(nv21, 0, ySize);
-        vBuffer.get(nv21, ySize, vSize);
-        uBuffer.get(nv21, ySize + vSize, uSize);
-
-        return nv21;
-    }
-
     @Override
     public void onImageAvailable(ImageReader reader) {
-        Image image = reader.acquireNextImage();
+        Image image;
+        try {
+            image = reader.acquireNextImage();
+        } catch (IllegalStateException e) {
+            // All images are still held by frame processors. Try again with the next one.
+            return;
+        }
+
+        if (image == null) {
+            return;
+        }
+
+        OnFrameAcquiredListener listener = this.listener;
         Image.Plane[] planes = image.getPlanes();
 
-        if (planes.length > 0) {
-            byte[] bytes = YUV_420_888toNV21(image);
+        if (listener == null || planes.length < 3) {
+            image.close();
+            return;
+        }
+
+        ImageFrame frame = new ImageFrame(image, planes, parametersProvider.getPreviewSize());
 
-            if (listener != null) {
-                listener.onFrameAcquired(bytes);
-            }
+        try {
+            listener.onFrameAcquired(frame, toNanoTime(image.getTimestamp()));
+        } finally {
+            frame.releaseCreatorReference();
         }
-        image.close();
     }
 
     /**
@@ -86,7 +93,7 @@ public class ContinuousSurfaceReader
                         previewSize.width,
                         previewSize.height,
                         ImageFormat.YUV_420_888,
-                        1
+                        maxImages
                 );
 
         imageReader.setOnImageAvailableListener(
@@ -95,8 +102,84 @@ public class ContinuousSurfaceReader
         );
     }
 
+    /**
+     * Replaces the existing surface if the number of images has changed. The old surface is
+     * released after the preview has moved to the new one.
+     */
+    @Override
+    public void setMaxImages(int maxImages) {
+        if (maxImages < 1) {
+            throw new IllegalArgumentException("Number of images must be at least 1. Was: " + maxImages);
+        }
+        if (maxImages == this.maxImages) {
+            return;
+        }
+
+        this.maxImages = maxImages;
+
+        ImageReader previousImageReader = imageReader;
+        imageReader = null;
+
+        if (previousImageReader != null) {
+            notifyTargetsChanged();
+            previousImageReader.close();
+        }
+    }
+
+    /**
+     * @return {@code true} if the surface should be a target of the preview.
+     */
+    public boolean isActive() {
+        return listener != null;
+    }
+
+    /**
+     * Sets a listener which is notified when the targets of the preview have to change.
+     */
+    public void setTargetsListener(Listener targetsListener) {
+        this.targetsListener = targetsListener;
+    }
+
     @Override
     public void setListener(OnFrameAcquiredListener listener) {
+        boolean wasActive = isActive();
         this.listener = listener;
+
+        if (!wasActive && listener != null) {
+            realtimeTimestamps = cameraConnection.getCharacteristics().isRealtimeTimestampSource();
+            notifyTargetsChanged();
+        }
+    }
+
+    /**
+     * Sensor timestamps in the realtime time base include deep sleep, so they are shifted into the
+     * {@link System#nanoTime()} time base. Timestamps in the unknown time base are comparable with
+     * {@link System#nanoTime()} already.
+     */
+    private long toNanoTime(long sensorTimestamp) {
+        if (!realtimeTimestamps) {
+            return sensorTimestamp;
+        }
+
+        return sensorTimestamp - (SystemClock.elapsedRealtimeNanos() - System.nanoTime());
+    }
+
+    private void notifyTargetsChanged() {
+        if (targetsListener != null) {
+            targetsListener.onTargetsChanged();
+        }
+    }
+
+    /**
+     * Notified when the surface of the reader has to be added to the preview or replaced. Once the
+     * reader is no longer active, its images are just discarded until the preview is restarted.
+     */
+    public interface Listener {
+
+        /**
+         * Called when the reader becomes active or its surface is replaced.
+         */
+        void onTargetsChanged();
+
     }
 }
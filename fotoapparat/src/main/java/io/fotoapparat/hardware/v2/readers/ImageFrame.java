@@ -0,0 +1,43 @@
+package io.fotoapparat.hardware.v2.readers;
+
+import android.media.Image;
+import android.os.Build;
+import android.support.annotation.RequiresApi;
+
+import io.fotoapparat.parameter.Size;
+import io.fotoapparat.preview.YuvFrame;
+
+/**
+ * {@link YuvFrame} which wraps the planes of an {@link Image} and closes it when released.
+ */
+@RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+class ImageFrame extends YuvFrame {
+
+    private final Image image;
+
+    ImageFrame(Image image, Image.Plane[] planes, Size size) {
+        super(
+                size,
+                0,
+                planeOf(planes[0]),
+                planeOf(planes[1]),
+                planeOf(planes[2])
+        );
+
+        this.image = image;
+    }
+
+    private static Plane planeOf(Image.Plane plane) {
+        return new Plane(
+                plane.getBuffer(),
+                plane.getRowStride(),
+                plane.getPixelStride()
+        );
+    }
+
+    @Override
+    protected void onReleased() {
+        image.close();
+    }
+
+}
@@ -8,25 +8,61 @@ import android.support.annotation.RequiresApi;
 import android.view.Surface;
 
 import java.nio.ByteBuffer;
-import java.util.concurrent.CountDownLatch;
 
+import io.fotoapparat.hardware.CameraException;
 import io.fotoapparat.hardware.v2.CameraThread;
 import io.fotoapparat.hardware.v2.parameters.ParametersProvider;
 import io.fotoapparat.parameter.Size;
+import io.fotoapparat.photo.PhotoBufferPool;
 
 /**
- * Creates a {@link Surface} which can capture single events.
+ * Creates a {@link Surface} which can capture single events. Images are matched to their
+ * captures by sensor timestamp, so several captures can be in flight at the same time. Images
+ * are copied into direct buffers of a {@link PhotoBufferPool}.
  */
 @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
-public class StillSurfaceReader {
+public class StillSurfaceReader implements ImageReader.OnImageAvailableListener {
+
+    /**
+     * Default maximum number of images which the camera can output before they are read.
+     */
+    public static final int DEFAULT_MAX_IMAGES = 2;
+
+    /**
+     * Time in milliseconds after which an image is considered lost.
+     */
+    private static final long IMAGE_TIMEOUT_MILLIS = 3000;
 
     private final CameraThread cameraThread;
     private final ParametersProvider parametersProvider;
+    private final int maxImages;
+    private final PhotoBufferPool bufferPool;
+    private final CapturedPhotos capturedPhotos;
     private ImageReader imageReader;
 
-    public StillSurfaceReader(ParametersProvider parametersProvider, CameraThread cameraThread) {
+    public StillSurfaceReader(ParametersProvider parametersProvider,
+                              CameraThread cameraThread,
+                              PhotoBufferPool bufferPool) {
+        this(parametersProvider, cameraThread, DEFAULT_MAX_IMAGES, bufferPool);
+    }
+
+    /**
+     * @param maxImages maximum number of images which the camera can output before they are
+     *                  read. Must be at least 1.
+     */
+    public StillSurfaceReader(ParametersProvider parametersProvider,
+                              CameraThread cameraThread,
+                              int maxImages,
+                              PhotoBufferPool bufferPool) {
+        if (maxImages < 1) {
+            throw new IllegalArgumentException("At least one image is required. Was: " + maxImages);
+        }
+
         this.parametersProvider = parametersProvider;
         this.cameraThread = cameraThread;
+        this.maxImages = maxImages;
+        this.bufferPool = bufferPool;
+        this.capturedPhotos = new CapturedPhotos(bufferPool);
     }
 
     /**
@@ -42,14 +78,41 @@ public class StillSurfaceReader {
     }
 
     /**
-     * Returns the next available Image as a byte array.
+     * Blocks until the image of a capture is available. The image might also have arrived
+     * before.
      *
-     * @return the Image as byte array.
+     * @param timestamp The {@link android.hardware.camera2.CaptureResult#SENSOR_TIMESTAMP} of the
+     *                  capture.
+     * @return the Image in a direct buffer of the {@link PhotoBufferPool}.
+     * @throws CameraException if the image did not arrive in time or the thread was interrupted.
      */
-    public byte[] getPhotoBytes() {
-        ImageCaptureAction imageCaptureAction = new ImageCaptureAction(imageReader, cameraThread);
+    public ByteBuffer getPhotoBuffer(long timestamp) {
+        ByteBuffer photo;
+        try {
+            photo = capturedPhotos.take(timestamp, IMAGE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CameraException("Interrupted while waiting for the image.");
+        }
+
+        if (photo == null) {
+            throw new CameraException("Image of the capture was lost.");
+        }
+
+        return photo;
+    }
+
+    @Override
+    public void onImageAvailable(ImageReader reader) {
+        Image image = reader.acquireNextImage();
 
-        return imageCaptureAction.getPhoto();
+        if (image == null) {
+            return;
+        }
+
+        long timestamp = image.getTimestamp();
+
+        capturedPhotos.add(timestamp, imageToBuffer(image));
     }
 
     private void createImageReader() {
@@ -60,67 +123,27 @@ public class StillSurfaceReader {
                         largestSize.width,
                         largestSize.height,
                         ImageFormat.JPEG,
-                        1
+                        maxImages
                 );
 
+        imageReader.setOnImageAvailableListener(
+                this,
+                cameraThread.createHandler()
+        );
     }
 
-    private static class ImageCaptureAction implements ImageReader.OnImageAvailableListener {
-
-        private final CountDownLatch countDownLatch = new CountDownLatch(1);
-        private final ImageReader imageReader;
-        private byte[] bytes;
-
-        private ImageCaptureAction(ImageReader imageReader, CameraThread cameraThread) {
-            this.imageReader = imageReader;
-            imageReader.setOnImageAvailableListener(
-                    this,
-                    cameraThread.createHandler()
-            );
-        }
-
-        private byte[] getPhoto() {
-            Image image = imageReader.acquireLatestImage();
-            if (image != null) {
-                removeListener();
-                return imageToBytes(image);
-            }
-
-            try {
-                countDownLatch.await();
-            } catch (InterruptedException e) {
-                // Do nothing
-            }
-
-            return bytes;
-        }
-
-        @Override
-        public void onImageAvailable(ImageReader reader) {
-            Image image = reader.acquireLatestImage();
-            bytes = imageToBytes(image);
-
-            removeListener();
-
-            countDownLatch.countDown();
-        }
+    private ByteBuffer imageToBuffer(Image image) {
+        Image.Plane[] planes = image.getPlanes();
 
-        private byte[] imageToBytes(Image image) {
-            Image.Plane[] planes = image.getPlanes();
+        ByteBuffer buffer = planes[0].getBuffer();
 
-            ByteBuffer buffer = planes[0].getBuffer();
+        ByteBuffer result = bufferPool.acquire(buffer.remaining());
+        result.put(buffer);
+        result.flip();
 
-            byte[] result = new byte[buffer.remaining()];
-            buffer.get(result);
+        image.close();
 
-            image.close();
-
-            return result;
-        }
-
-        private void removeListener() {
-            imageReader.setOnImageAvailableListener(null, null);
-        }
+        return result;
     }
 
 }
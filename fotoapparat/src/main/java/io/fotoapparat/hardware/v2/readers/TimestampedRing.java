@@ -0,0 +1,117 @@
+package io.fotoapparat.hardware.v2.readers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Keeps the most recent items together with their timestamps. When the ring is full, adding an
+ * item evicts the oldest one.
+ * <p>
+ * Not thread safe.
+ *
+ * @param <T> type of the items.
+ */
+class TimestampedRing<T> {
+
+    private final int depth;
+    private final ArrayDeque<Entry<T>> entries;
+
+    /**
+     * @param depth maximum number of items. Must be at least 1.
+     */
+    TimestampedRing(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Ring depth must be at least 1. Was: " + depth);
+        }
+
+        this.depth = depth;
+        this.entries = new ArrayDeque<>(depth);
+    }
+
+    /**
+     * Adds the newest item.
+     *
+     * @return evicted oldest item, or {@code null} if the ring was not full.
+     */
+    T add(T item, long timestamp) {
+        T evicted = null;
+
+        if (entries.size() == depth) {
+            evicted = entries.removeFirst().item;
+        }
+
+        entries.addLast(new Entry<>(item, timestamp));
+
+        return evicted;
+    }
+
+    /**
+     * Removes the item with timestamp closest to the given one.
+     *
+     * @return removed item, or {@code null} if the ring is empty.
+     */
+    T takeClosest(long timestamp) {
+        Entry<T> closest = null;
+
+        for (Entry<T> entry : entries) {
+            if (closest == null
+                    || Math.abs(entry.timestamp - timestamp) < Math.abs(closest.timestamp - timestamp)) {
+                closest = entry;
+            }
+        }
+
+        if (closest == null) {
+            return null;
+        }
+
+        entries.remove(closest);
+
+        return closest.item;
+    }
+
+    /**
+     * @return {@code true} if the ring contains an item which is not older than the given
+     * timestamp.
+     */
+    boolean containsSince(long timestamp) {
+        return !entries.isEmpty() && entries.peekLast().timestamp >= timestamp;
+    }
+
+    /**
+     * Removes all items.
+     *
+     * @return removed items, oldest first.
+     */
+    List<T> clear() {
+        List<T> items = new ArrayList<>(entries.size());
+
+        for (Iterator<Entry<T>> iterator = entries.iterator(); iterator.hasNext(); ) {
+            items.add(iterator.next().item);
+            iterator.remove();
+        }
+
+        return items;
+    }
+
+    /**
+     * @return number of items in the ring.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    private static class Entry<T> {
+
+        final T item;
+        final long timestamp;
+
+        Entry(T item, long timestamp) {
+            this.item = item;
+            this.timestamp = timestamp;
+        }
+
+    }
+
+}
@@ -0,0 +1,263 @@
+package io.fotoapparat.hardware.v2.readers;
+
+import android.graphics.ImageFormat;
+import android.graphics.Rect;
+import android.graphics.YuvImage;
+import android.media.Image;
+import android.media.ImageReader;
+import android.os.Build;
+import android.os.SystemClock;
+import android.support.annotation.Nullable;
+import android.support.annotation.RequiresApi;
+import android.view.Surface;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.fotoapparat.hardware.v2.CameraThread;
+import io.fotoapparat.hardware.v2.ZslConfiguration;
+import io.fotoapparat.hardware.v2.connection.CameraConnection;
+import io.fotoapparat.hardware.v2.parameters.ParametersProvider;
+import io.fotoapparat.parameter.Size;
+import io.fotoapparat.preview.YuvConverter;
+
+/**
+ * Creates a {@link Surface} of still capture size which is filled by the preview request, and
+ * keeps the most recent images of it in a ring for zero-shutter-lag capture.
+ */
+@RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+public class ZslSurfaceReader implements ImageReader.OnImageAvailableListener {
+
+    private static final int JPEG_QUALITY = 95;
+
+    /**
+     * How long to wait for the image which was exposed at the moment of the request, if it is
+     * still in the camera pipeline.
+     */
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    /**
+     * Images further from the moment of the request are stale, e.g. preview was stopped.
+     */
+    private static final long MAX_TIME_DISTANCE_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    /**
+     * Images of the reader besides the ring: one is encoded and one is being added while the ring
+     * is full.
+     */
+    private static final int EXTRA_IMAGES = 2;
+
+    private final ParametersProvider parametersProvider;
+    private final CameraConnection cameraConnection;
+    private final CameraThread cameraThread;
+    private final ZslConfiguration configuration;
+    private final Object lock = new Object();
+    private ImageReader imageReader;
+    private TimestampedRing<Image> ring;
+
+    public ZslSurfaceReader(ParametersProvider parametersProvider,
+                            CameraConnection cameraConnection,
+                            CameraThread cameraThread,
+                            ZslConfiguration configuration) {
+        this.parametersProvider = parametersProvider;
+        this.cameraConnection = cameraConnection;
+        this.cameraThread = cameraThread;
+        this.configuration = configuration;
+    }
+
+    /**
+     * @return number of images the ring can keep for given image size, so that the ring together
+     * with the extra images of the reader does not exceed {@link ZslConfiguration#maxMemoryBytes},
+     * but at least 1.
+     */
+    static int ringDepth(ZslConfiguration configuration, Size size) {
+        long imageBytes = YuvConverter.nv21Size(size.width, size.height);
+        long fittingImages = configuration.maxMemoryBytes / imageBytes - EXTRA_IMAGES;
+
+        return (int) Math.max(1, Math.min(configuration.ringDepth, fittingImages));
+    }
+
+    /**
+     * Returns a {@link Surface} which should be a target of the preview request.
+     *
+     * @return the new Surface
+     */
+    public Surface getSurface() {
+        if (imageReader == null) {
+            createImageReader();
+        }
+        return imageReader.getSurface();
+    }
+
+    /**
+     * @return {@code true} if the ring has an image which is recent enough to be returned by
+     * {@link #getPhotoBytes()}.
+     */
+    public boolean hasRecentImage() {
+        if (imageReader == null) {
+            return false;
+        }
+
+        long minTimestamp = currentTimestamp() - MAX_TIME_DISTANCE_NANOS;
+
+        synchronized (lock) {
+            return ring.containsSince(minTimestamp);
+        }
+    }
+
+    /**
+     * Returns the image closest to the current moment as a JPEG byte array. Waits briefly if the
+     * image exposed at this moment did not arrive yet.
+     *
+     * @return the Image as byte array, or {@code null} if there is no recent image.
+     */
+    @Nullable
+    public byte[] getPhotoBytes() {
+        if (imageReader == null) {
+            return null;
+        }
+
+        long requestTime = currentTimestamp();
+        Image image;
+
+        synchronized (lock) {
+            awaitImageSince(requestTime);
+            image = ring.takeClosest(requestTime);
+        }
+
+        if (image == null) {
+            return null;
+        }
+
+        Image.Plane[] planes = image.getPlanes();
+
+        if (Math.abs(image.getTimestamp() - requestTime) > MAX_TIME_DISTANCE_NANOS
+                || planes.length < 3) {
+            image.close();
+            return null;
+        }
+
+        ImageFrame frame = new ImageFrame(image, planes, parametersProvider.getStillCaptureSize());
+
+        try {
+            return toJpeg(frame);
+        } finally {
+            frame.releaseCreatorReference();
+        }
+    }
+
+    /**
+     * Closes the images in the ring. They are stale once the preview is stopped.
+     */
+    public void clear() {
+        if (imageReader == null) {
+            return;
+        }
+
+        List<Image> images;
+
+        synchronized (lock) {
+            images = ring.clear();
+        }
+
+        for (Image image : images) {
+            image.close();
+        }
+    }
+
+    /**
+     * Closes the images in the ring and the surface. Next {@link #getSurface()} creates a new
+     * surface.
+     */
+    public void close() {
+        if (imageReader == null) {
+            return;
+        }
+
+        clear();
+
+        imageReader.close();
+        imageReader = null;
+    }
+
+    @Override
+    public void onImageAvailable(ImageReader reader) {
+        Image image;
+        try {
+            image = reader.acquireNextImage();
+        } catch (IllegalStateException e) {
+            // Ring is full and the image being encoded is not closed yet. Skip this one.
+            return;
+        }
+
+        if (image == null) {
+            return;
+        }
+
+        Image evicted;
+
+        synchronized (lock) {
+            evicted = ring.add(image, image.getTimestamp());
+            lock.notifyAll();
+        }
+
+        if (evicted != null) {
+            evicted.close();
+        }
+    }
+
+    private void createImageReader() {
+        Size size = parametersProvider.getStillCaptureSize();
+        int depth = ringDepth(configuration, size);
+
+        ring = new TimestampedRing<>(depth);
+
+        imageReader = ImageReader
+                .newInstance(
+                        size.width,
+                        size.height,
+                        ImageFormat.YUV_420_888,
+                        depth + EXTRA_IMAGES
+                );
+
+        imageReader.setOnImageAvailableListener(
+                this,
+                cameraThread.createHandler()
+        );
+    }
+
+    private void awaitImageSince(long timestamp) {
+        long deadline = System.nanoTime() + MAX_WAIT_NANOS;
+        long remaining;
+
+        while (!ring.containsSince(timestamp)
+                && (remaining = deadline - System.nanoTime()) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private long currentTimestamp() {
+        return cameraConnection.getCharacteristics().isRealtimeTimestampSource()
+                ? SystemClock.elapsedRealtimeNanos()
+                : System.nanoTime();
+    }
+
+    private static byte[] toJpeg(ImageFrame frame) {
+        int width = frame.size.width;
+        int height = frame.size.height;
+
+        YuvImage yuvImage = new YuvImage(frame.toNv21(), ImageFormat.NV21, width, height, null);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        yuvImage.compressToJpeg(new Rect(0, 0, width, height), JPEG_QUALITY, outputStream);
+
+        return outputStream.toByteArray();
+    }
+
+}
@@ -0,0 +1,68 @@
+package io.fotoapparat.hardware.v2.session;
+
+import android.hardware.camera2.CameraCaptureSession;
+import android.hardware.camera2.CaptureRequest;
+import android.hardware.camera2.CaptureResult;
+import android.hardware.camera2.TotalCaptureResult;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RequiresApi;
+
+import io.fotoapparat.lens.FocusResult;
+
+/**
+ * Follows the auto focus and auto exposure states reported for the repeating preview request, so
+ * that a picture can be taken without focusing first when continuous focus has already settled.
+ */
+@RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
+public class FocusStateTracker extends CameraCaptureSession.CaptureCallback {
+
+    private static final int UNKNOWN = -1;
+
+    private volatile int autoFocusState = UNKNOWN;
+    private volatile int autoExposureState = UNKNOWN;
+
+    @Override
+    public void onCaptureCompleted(@NonNull CameraCaptureSession session,
+                                   @NonNull CaptureRequest request,
+                                   @NonNull TotalCaptureResult result) {
+        onStates(
+                result.get(CaptureResult.CONTROL_AF_STATE),
+                result.get(CaptureResult.CONTROL_AE_STATE)
+        );
+    }
+
+    void onStates(@Nullable Integer autoFocusState, @Nullable Integer autoExposureState) {
+        this.autoExposureState = autoExposureState != null ? autoExposureState : UNKNOWN;
+        this.autoFocusState = autoFocusState != null ? autoFocusState : UNKNOWN;
+    }
+
+    /**
+     * Forgets the states, e.g. when a new repeating request is set.
+     */
+    void reset() {
+        autoFocusState = UNKNOWN;
+        autoExposureState = UNKNOWN;
+    }
+
+    /**
+     * Only continuous focus which has settled counts as stable: it starts scanning again as soon
+     * as the scene changes. Focus locked by a trigger stays locked regardless of the scene.
+     *
+     * @return result of focusing if focus is stable, or {@code null} if focus should be
+     * performed.
+     */
+    @Nullable
+    public FocusResult getStableFocusResult() {
+        if (autoFocusState != CaptureResult.CONTROL_AF_STATE_PASSIVE_FOCUSED) {
+            return null;
+        }
+
+        return new FocusResult(
+                true,
+                autoExposureState != CaptureResult.CONTROL_AE_STATE_CONVERGED
+        );
+    }
+
+}
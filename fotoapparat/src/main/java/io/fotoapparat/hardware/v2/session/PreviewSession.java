@@ -26,14 +26,19 @@ import io.fotoapparat.hardware.v2.CameraThread;
 class PreviewSession extends Session implements PreviewOperator {
 
     private final CaptureRequest captureRequest;
+    private final FocusStateTracker focusStateTracker;
+    private final CameraThread cameraThread;
     private CameraCaptureSession captureSession;
 
     PreviewSession(CameraDevice camera,
                    CaptureRequest captureRequest,
                    List<Surface> surfaces,
-                   CameraThread cameraThread) {
+                   CameraThread cameraThread,
+                   FocusStateTracker focusStateTracker) {
         super(camera, Collections.unmodifiableList(surfaces), cameraThread);
         this.captureRequest = captureRequest;
+        this.cameraThread = cameraThread;
+        this.focusStateTracker = focusStateTracker;
     }
 
     @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
@@ -41,10 +46,11 @@ class PreviewSession extends Session implements PreviewOperator {
     public void startPreview() {
         try {
             captureSession = getCaptureSession();
+            focusStateTracker.reset();
             captureSession.setRepeatingRequest(
                     captureRequest,
-                    null,
-                    null
+                    focusStateTracker,
+                    cameraThread.createHandler()
             );
         } catch (CameraAccessException e) {
             throw new CameraException(e);
@@ -58,6 +64,7 @@ class PreviewSession extends Session implements PreviewOperator {
                     "Tried to stop preview, but previews has not been yet started."
             );
         }
+        focusStateTracker.reset();
         captureSession.close();
     }
 }
@@ -1,42 +1,82 @@
 package io.fotoapparat.hardware.v2.session;
 
 import android.hardware.camera2.CameraCaptureSession;
+import android.support.annotation.Nullable;
 
 import io.fotoapparat.hardware.operators.PreviewOperator;
 import io.fotoapparat.hardware.v2.connection.CameraConnection;
+import io.fotoapparat.hardware.v2.readers.ContinuousSurfaceReader;
+import io.fotoapparat.hardware.v2.readers.ZslSurfaceReader;
 
 /**
  * Manages a {@link android.hardware.camera2.CameraCaptureSession} of a {@link
  * io.fotoapparat.hardware.v2.Camera2}.
  */
 @SuppressWarnings("NewApi")
-public class SessionManager implements PreviewOperator, CameraConnection.Listener {
+public class SessionManager implements PreviewOperator, CameraConnection.Listener,
+        ContinuousSurfaceReader.Listener {
 
     private final SessionProvider sessionProvider;
+    @Nullable
+    private final ZslSurfaceReader zslSurfaceReader;
     private PreviewSession session;
+    private boolean previewStarted = false;
 
+    /**
+     * @param zslSurfaceReader if not {@code null}, its images are closed when the preview stops
+     *                         and the surface when the camera closes.
+     */
     public SessionManager(CameraConnection connection,
-                          SessionProvider sessionProvider) {
+                          SessionProvider sessionProvider,
+                          ContinuousSurfaceReader continuousSurfaceReader,
+                          @Nullable ZslSurfaceReader zslSurfaceReader) {
         this.sessionProvider = sessionProvider;
+        this.zslSurfaceReader = zslSurfaceReader;
         connection.setListener(this);
+        continuousSurfaceReader.setTargetsListener(this);
     }
 
     @Override
     public void startPreview() {
         session = sessionProvider.getPreviewSession();
         session.startPreview();
+        previewStarted = true;
     }
 
     @Override
     public void stopPreview() {
+        previewStarted = false;
         session.stopPreview();
+
+        if (zslSurfaceReader != null) {
+            zslSurfaceReader.clear();
+        }
     }
 
     @Override
     public void onConnectionClosed() {
+        previewStarted = false;
+
         if (session != null) {
             session.close();
         }
+        if (zslSurfaceReader != null) {
+            zslSurfaceReader.close();
+        }
+    }
+
+    /**
+     * Capture session can not get new outputs, so the preview is restarted in a new session.
+     * Recent images of zero shutter lag stay valid across the restart.
+     */
+    @Override
+    public void onTargetsChanged() {
+        sessionProvider.invalidatePreviewSession();
+
+        if (previewStarted) {
+            session.stopPreview();
+            startPreview();
+        }
     }
 
     /**
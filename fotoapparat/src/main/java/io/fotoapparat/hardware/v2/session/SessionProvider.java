@@ -3,16 +3,19 @@ package io.fotoapparat.hardware.v2.session;
 import android.hardware.camera2.CameraAccessException;
 import android.hardware.camera2.CameraDevice;
 import android.hardware.camera2.CaptureRequest;
+import android.support.annotation.Nullable;
 import android.view.Surface;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 
 import io.fotoapparat.hardware.CameraException;
 import io.fotoapparat.hardware.v2.CameraThread;
 import io.fotoapparat.hardware.v2.connection.CameraConnection;
 import io.fotoapparat.hardware.v2.parameters.CaptureRequestFactory;
+import io.fotoapparat.hardware.v2.readers.ContinuousSurfaceReader;
 import io.fotoapparat.hardware.v2.readers.StillSurfaceReader;
+import io.fotoapparat.hardware.v2.readers.ZslSurfaceReader;
 import io.fotoapparat.hardware.v2.surface.TextureManager;
 
 /**
@@ -26,47 +29,89 @@ public class SessionProvider implements TextureManager.Listener {
     private CameraConnection connection;
     private CaptureRequestFactory captureRequestFactory;
     private CameraThread cameraThread;
+    private FocusStateTracker focusStateTracker;
+    @Nullable
+    private ZslSurfaceReader zslSurfaceReader;
+    private ContinuousSurfaceReader continuousSurfaceReader;
+    private Surface displaySurface;
 
+    /**
+     * @param focusStateTracker       follows the results of the preview request.
+     * @param zslSurfaceReader        if not {@code null}, its surface is added to the session.
+     * @param continuousSurfaceReader its surface is added to the session while it is active.
+     */
     public SessionProvider(StillSurfaceReader surfaceReader,
                            CameraConnection connection,
                            CaptureRequestFactory captureRequestFactory,
-                           TextureManager textureManager, CameraThread cameraThread) {
+                           TextureManager textureManager, CameraThread cameraThread,
+                           FocusStateTracker focusStateTracker,
+                           @Nullable ZslSurfaceReader zslSurfaceReader,
+                           ContinuousSurfaceReader continuousSurfaceReader) {
         this.surfaceReader = surfaceReader;
         this.connection = connection;
         this.captureRequestFactory = captureRequestFactory;
         this.cameraThread = cameraThread;
+        this.focusStateTracker = focusStateTracker;
+        this.zslSurfaceReader = zslSurfaceReader;
+        this.continuousSurfaceReader = continuousSurfaceReader;
         textureManager.setListener(this);
     }
 
     @Override
     public void onSurfaceAvailable(Surface surface) {
+        displaySurface = surface;
+        previewSession = createPreviewSession();
+    }
+
+    /**
+     * @return The {@link PreviewSession} for the given display surface.
+     */
+    public PreviewSession getPreviewSession() {
+        if (displaySurface == null) {
+            throw new IllegalStateException("Target display surface has not been set.");
+        }
+        if (previewSession == null) {
+            previewSession = createPreviewSession();
+        }
+        return previewSession;
+    }
+
+    /**
+     * Makes {@link #getPreviewSession()} create a new session, so that it outputs into the current
+     * targets.
+     */
+    void invalidatePreviewSession() {
+        previewSession = null;
+    }
+
+    private PreviewSession createPreviewSession() {
         CameraDevice camera = connection.getCamera();
 
-        Surface captureSurface = surfaceReader.getSurface();
-        List<Surface> surfaces = Arrays.asList(surface, captureSurface);
+        List<Surface> surfaces = new ArrayList<>(4);
+        surfaces.add(displaySurface);
+        surfaces.add(surfaceReader.getSurface());
+
+        if (zslSurfaceReader != null) {
+            surfaces.add(zslSurfaceReader.getSurface());
+        }
+
+        if (continuousSurfaceReader.isActive()) {
+            surfaces.add(continuousSurfaceReader.getSurface());
+        }
 
         try {
             CaptureRequest previewRequest = captureRequestFactory.createPreviewRequest();
 
-            previewSession = new PreviewSession(
+            return new PreviewSession(
                     camera,
                     previewRequest,
                     surfaces,
-                    cameraThread
+                    cameraThread,
+                    focusStateTracker
             );
         } catch (CameraAccessException e) {
             throw new CameraException(e);
         }
     }
 
-    /**
-     * @return The {@link PreviewSession} for the given display surface.
-     */
-    public PreviewSession getPreviewSession() {
-        if (previewSession == null) {
-            throw new IllegalStateException("Target display surface has not been set.");
-        }
-        return previewSession;
-    }
-
 }
@@ -1,5 +1,7 @@
 package io.fotoapparat.hardware.v2.stream;
 
+import io.fotoapparat.preview.YuvFrame;
+
 /**
  * Observer which accepts a {@link OnFrameAcquiredListener}.
  */
@@ -12,17 +14,27 @@ public interface OnImageAcquiredObserver {
      */
     void setListener(OnFrameAcquiredListener listener);
 
+    /**
+     * Sets how many images can be held by frame processors at the same time.
+     *
+     * @param maxImages the number of images. Must be at least 1.
+     */
+    void setMaxImages(int maxImages);
+
     /**
      * Notified when an image has been acquired.
      */
     interface OnFrameAcquiredListener {
 
         /**
-         * Called when an image has been acquired.
+         * Called when an image has been acquired. The frame is released right after the call, so
+         * it has to be retained to be used later.
          *
-         * @param bytes The image as a byte array.
+         * @param frame     The image as a frame backed by its planes.
+         * @param timestamp The sensor timestamp of the image in nanoseconds, in the
+         *                  {@link System#nanoTime()} time base.
          */
-        void onFrameAcquired(byte[] bytes);
+        void onFrameAcquired(YuvFrame frame, long timestamp);
 
     }
 }
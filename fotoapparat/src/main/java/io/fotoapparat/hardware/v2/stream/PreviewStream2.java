@@ -2,34 +2,62 @@ package io.fotoapparat.hardware.v2.stream;
 
 import android.support.annotation.NonNull;
 
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
-import io.fotoapparat.hardware.v2.parameters.ParametersProvider;
 import io.fotoapparat.log.Logger;
 import io.fotoapparat.preview.Frame;
+import io.fotoapparat.preview.FrameDispatcher;
 import io.fotoapparat.preview.FrameProcessor;
+import io.fotoapparat.preview.FrameProcessorConfiguration;
+import io.fotoapparat.preview.FrameProcessorStatistics;
+import io.fotoapparat.preview.FrameStatistics;
+import io.fotoapparat.preview.FrameStatisticsCalculator;
 import io.fotoapparat.preview.PreviewStream;
+import io.fotoapparat.preview.PreviewStreamConfiguration;
+import io.fotoapparat.preview.SceneChangeDetector;
+import io.fotoapparat.preview.YuvConverter;
+import io.fotoapparat.preview.YuvFrame;
+import io.fotoapparat.preview.YuvFrameProcessor;
 
 /**
  * {@link PreviewStream} of Camera v2.
+ * <p>
+ * {@link YuvFrameProcessor}s receive frames backed directly by the camera images. Frames are
+ * copied into NV21 format only if there are other {@link FrameProcessor}s. NV21 buffers are reused
+ * once all processors are done with them. Frames of a static scene are skipped before they are
+ * copied. Statistics of a frame are calculated once and shared by both kinds of processors.
+ * <p>
+ * Frames are acquired only while the stream is started and has processors.
  */
 @SuppressWarnings("NewApi")
-public class PreviewStream2 implements PreviewStream,
+public class PreviewStream2 implements PreviewStream, FrameDispatcher.FrameRecycler,
         OnImageAcquiredObserver.OnFrameAcquiredListener {
 
     private final OnImageAcquiredObserver imageAcquiredObserver;
-    private final ParametersProvider parametersProvider;
-    private final Logger logger;
+    private final FrameDispatcher frameDispatcher;
+    private final FrameDispatcher yuvFrameDispatcher;
+    private final YuvConverter yuvConverter = new YuvConverter();
+    private final AtomicLong skippedFramesCount = new AtomicLong();
 
-    private final Set<FrameProcessor> frameProcessors = new LinkedHashSet<>();
+    private long sequenceNumber = 0;
+    private boolean started = false;
+    private boolean acquiringFrames = false;
+    private volatile SceneChangeDetector sceneChangeDetector = new SceneChangeDetector(0f);
+    private volatile FrameStatisticsCalculator statisticsCalculator = null;
+    private volatile BlockingQueue<byte[]> freeBuffers = new ArrayBlockingQueue<>(
+            PreviewStreamConfiguration.DEFAULT_BUFFER_COUNT
+    );
 
     public PreviewStream2(OnImageAcquiredObserver imageAcquiredObserver,
-                          ParametersProvider parametersProvider,
                           Logger logger) {
         this.imageAcquiredObserver = imageAcquiredObserver;
-        this.parametersProvider = parametersProvider;
-        this.logger = logger;
+        this.frameDispatcher = new FrameDispatcher(this, logger);
+        this.yuvFrameDispatcher = new FrameDispatcher(FrameDispatcher.FrameRecycler.NONE, logger);
     }
 
     @Override
@@ -39,37 +67,185 @@ public class PreviewStream2 implements PreviewStream,
 
     @Override
     public void addProcessor(@NonNull FrameProcessor processor) {
-        synchronized (frameProcessors) {
-            frameProcessors.add(processor);
+        addProcessor(processor, FrameProcessorConfiguration.defaultConfiguration());
+    }
+
+    @Override
+    public void addProcessor(@NonNull FrameProcessor processor,
+                             @NonNull FrameProcessorConfiguration configuration) {
+        if (processor instanceof YuvFrameProcessor) {
+            yuvFrameDispatcher.addProcessor(
+                    new YuvFrameProcessorAdapter((YuvFrameProcessor) processor),
+                    configuration
+            );
+        } else {
+            frameDispatcher.addProcessor(processor, configuration);
         }
+
+        updateFrameAcquisition();
     }
 
     @Override
     public void removeProcessor(@NonNull FrameProcessor processor) {
-        synchronized (frameProcessors) {
-            frameProcessors.remove(processor);
+        if (processor instanceof YuvFrameProcessor) {
+            yuvFrameDispatcher.removeProcessor(
+                    new YuvFrameProcessorAdapter((YuvFrameProcessor) processor)
+            );
+        } else {
+            frameDispatcher.removeProcessor(processor);
         }
+
+        updateFrameAcquisition();
+    }
+
+    @Override
+    public void configure(@NonNull PreviewStreamConfiguration configuration) {
+        freeBuffers = new ArrayBlockingQueue<>(configuration.bufferCount);
+        imageAcquiredObserver.setMaxImages(configuration.bufferCount);
+        sceneChangeDetector = new SceneChangeDetector(configuration.sceneChangeThreshold);
+        statisticsCalculator = FrameStatisticsCalculator.forConfiguration(configuration);
+        frameDispatcher.configure(configuration);
+        yuvFrameDispatcher.configure(configuration);
     }
 
     @Override
     public void start() {
-        imageAcquiredObserver.setListener(this);
+        frameDispatcher.start();
+        yuvFrameDispatcher.start();
+        sequenceNumber = 0;
+        sceneChangeDetector.reset();
+        started = true;
+        updateFrameAcquisition();
+    }
+
+    @Override
+    public void stop() {
+        started = false;
+        updateFrameAcquisition();
+        frameDispatcher.stop();
+        yuvFrameDispatcher.stop();
+    }
 
-        logger.log("Frame processors are currently not supported in Camera2. To use them please switch to Camera1.");
+    @Override
+    public long getDroppedFramesCount() {
+        return frameDispatcher.getDroppedFramesCount() + yuvFrameDispatcher.getDroppedFramesCount();
     }
 
     @Override
-    public void onFrameAcquired(byte[] bytes) {
-        synchronized (frameProcessors) {
-            dispatchFrame(bytes);
+    public long getSkippedFramesCount() {
+        return skippedFramesCount.get();
+    }
+
+    @Override
+    public List<FrameProcessorStatistics> getProcessorStatistics() {
+        List<FrameProcessorStatistics> statistics = new ArrayList<>(
+                yuvFrameDispatcher.getProcessorStatistics()
+        );
+        statistics.addAll(frameDispatcher.getProcessorStatistics());
+
+        return Collections.unmodifiableList(statistics);
+    }
+
+    @Override
+    public void onFrameAcquired(YuvFrame frame, long timestamp) {
+        long sequenceNumber = this.sequenceNumber++;
+        SceneChangeDetector sceneChangeDetector = this.sceneChangeDetector;
+
+        if (!sceneChangeDetector.accept(frame)) {
+            skippedFramesCount.incrementAndGet();
+            return;
         }
+
+        float changeScore = sceneChangeDetector.getLastScore();
+        FrameStatisticsCalculator statisticsCalculator = this.statisticsCalculator;
+        FrameStatistics statistics = statisticsCalculator == null
+                ? null
+                : statisticsCalculator.calculate(frame);
+
+        yuvFrameDispatcher.dispatch(frame, timestamp, sequenceNumber, changeScore, statistics);
+
+        if (frameDispatcher.hasProcessors()) {
+            byte[] buffer = obtainBuffer(
+                    YuvConverter.nv21Size(frame.size.width, frame.size.height)
+            );
+            yuvConverter.toNv21(frame, buffer);
+
+            frameDispatcher.dispatch(
+                    new Frame(frame.size, buffer, frame.rotation),
+                    timestamp,
+                    sequenceNumber,
+                    changeScore,
+                    statistics
+            );
+        }
+    }
+
+    /**
+     * Starts or stops acquiring frames, so that camera captures frames only if there is someone to
+     * process them.
+     */
+    private synchronized void updateFrameAcquisition() {
+        boolean acquireFrames = started
+                && (frameDispatcher.hasProcessors() || yuvFrameDispatcher.hasProcessors());
+
+        if (acquireFrames != acquiringFrames) {
+            acquiringFrames = acquireFrames;
+            imageAcquiredObserver.setListener(acquireFrames ? this : null);
+        }
+    }
+
+    @Override
+    public void recycle(Frame frame) {
+        freeBuffers.offer(frame.image);
+    }
+
+    /**
+     * @return free buffer of given size. New buffer is allocated only if all buffers are in use or
+     * the size of the frames has changed.
+     */
+    private byte[] obtainBuffer(int size) {
+        byte[] buffer;
+
+        while ((buffer = freeBuffers.poll()) != null) {
+            if (buffer.length == size) {
+                return buffer;
+            }
+        }
+
+        return new byte[size];
     }
 
-    private void dispatchFrame(byte[] image) {
-        final Frame frame = new Frame(parametersProvider.getPreviewSize(), image, 0);
+    /**
+     * Passes {@link YuvFrame}s from {@link FrameDispatcher} to {@link YuvFrameProcessor}.
+     */
+    private static class YuvFrameProcessorAdapter implements FrameProcessor {
+
+        private final YuvFrameProcessor processor;
+
+        private YuvFrameProcessorAdapter(YuvFrameProcessor processor) {
+            this.processor = processor;
+        }
+
+        @Override
+        public void processFrame(Frame frame) {
+            processor.processYuvFrame((YuvFrame) frame);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            YuvFrameProcessorAdapter that = (YuvFrameProcessorAdapter) o;
+
+            return processor.equals(that.processor);
+        }
 
-        for (FrameProcessor frameProcessor : frameProcessors) {
-            frameProcessor.processFrame(frame);
+        @Override
+        public int hashCode() {
+            return processor.hashCode();
         }
+
     }
+
 }
@@ -0,0 +1,70 @@
+package io.fotoapparat.parameter;
+
+/**
+ * Range of preview frame rates, in frames per second multiplied by 1000. Immutable.
+ * <p>
+ * Camera adjusts the frame rate within the range depending on lighting. Range with equal minimum
+ * and maximum locks the frame rate.
+ */
+public class FpsRange {
+
+    /**
+     * Minimum frame rate, in frames per second multiplied by 1000.
+     */
+    public final int min;
+
+    /**
+     * Maximum frame rate, in frames per second multiplied by 1000.
+     */
+    public final int max;
+
+    public FpsRange(int min, int max) {
+        if (min < 0 || min > max) {
+            throw new IllegalArgumentException("Invalid fps range: [" + min + ", " + max + "]");
+        }
+
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * @return {@code true} if frame rate does not change within this range.
+     */
+    public boolean isFixed() {
+        return min == max;
+    }
+
+    /**
+     * @param fps frame rate, in frames per second multiplied by 1000.
+     * @return {@code true} if given frame rate is within this range.
+     */
+    public boolean contains(int fps) {
+        return fps >= min && fps <= max;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        FpsRange fpsRange = (FpsRange) o;
+
+        return min == fpsRange.min && max == fpsRange.max;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = min;
+        result = 31 * result + max;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "FpsRange{" +
+                "min=" + min +
+                ", max=" + max +
+                '}';
+    }
+
+}
@@ -134,7 +134,12 @@ public class Parameters {
         /**
          * Flash firing mode of the camera. Expected type: {@link Flash}.
          */
-        FLASH(Flash.class);
+        FLASH(Flash.class),
+
+        /**
+         * Frame rate range of the preview stream. Expected type: {@link FpsRange}.
+         */
+        PREVIEW_FPS_RANGE(FpsRange.class);
 
         private final Class<?> clazz;
 
@@ -5,6 +5,7 @@ import android.support.annotation.NonNull;
 import io.fotoapparat.hardware.Capabilities;
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 import io.fotoapparat.parameter.Parameters;
 import io.fotoapparat.parameter.Size;
 import io.fotoapparat.parameter.selector.SelectorFunction;
@@ -66,4 +67,17 @@ public class ParametersFactory {
         );
     }
 
+    /**
+     * @return new parameters by selecting preview fps range from given capabilities.
+     */
+    public static Parameters selectPreviewFpsRange(@NonNull Capabilities capabilities,
+                                                   @NonNull SelectorFunction<FpsRange> selector) {
+        return new Parameters().putValue(
+                Parameters.Type.PREVIEW_FPS_RANGE,
+                selector.select(
+                        capabilities.supportedPreviewFpsRanges()
+                )
+        );
+    }
+
 }
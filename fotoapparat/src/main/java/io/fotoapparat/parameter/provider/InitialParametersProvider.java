@@ -5,6 +5,7 @@ import io.fotoapparat.hardware.Capabilities;
 import io.fotoapparat.hardware.operators.CapabilitiesOperator;
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 import io.fotoapparat.parameter.Parameters;
 import io.fotoapparat.parameter.Size;
 import io.fotoapparat.parameter.factory.ParametersFactory;
@@ -26,18 +27,21 @@ public class InitialParametersProvider {
     private final SelectorFunction<Size> previewSizeSelector;
     private final SelectorFunction<FocusMode> focusModeSelector;
     private final SelectorFunction<Flash> flashSelector;
+    private final SelectorFunction<FpsRange> previewFpsRangeSelector;
 
     public InitialParametersProvider(CapabilitiesOperator capabilitiesOperator,
                                      SelectorFunction<Size> photoSizeSelector,
                                      SelectorFunction<Size> previewSizeSelector,
                                      SelectorFunction<FocusMode> focusModeSelector,
                                      SelectorFunction<Flash> flashSelector,
+                                     SelectorFunction<FpsRange> previewFpsRangeSelector,
                                      InitialParametersValidator parametersValidator) {
         this.capabilitiesOperator = capabilitiesOperator;
         this.photoSizeSelector = photoSizeSelector;
         this.previewSizeSelector = previewSizeSelector;
         this.focusModeSelector = focusModeSelector;
         this.flashSelector = flashSelector;
+        this.previewFpsRangeSelector = previewFpsRangeSelector;
         this.parametersValidator = parametersValidator;
     }
 
@@ -71,7 +75,8 @@ public class InitialParametersProvider {
                 pictureSizeParameters(capabilities),
                 previewSizeParameters(capabilities),
                 focusModeParameters(capabilities),
-                flashModeParameters(capabilities)
+                flashModeParameters(capabilities),
+                previewFpsRangeParameters(capabilities)
         ));
 
         parametersValidator.validate(parameters);
@@ -79,6 +84,13 @@ public class InitialParametersProvider {
         return parameters;
     }
 
+    private Parameters previewFpsRangeParameters(Capabilities capabilities) {
+        return ParametersFactory.selectPreviewFpsRange(
+                capabilities,
+                previewFpsRangeSelector
+        );
+    }
+
     private Parameters flashModeParameters(Capabilities capabilities) {
         return ParametersFactory.selectFlashMode(
                 capabilities,
@@ -0,0 +1,93 @@
+package io.fotoapparat.parameter.selector;
+
+import java.util.Collection;
+
+import io.fotoapparat.parameter.FpsRange;
+
+/**
+ * Selector functions for {@link FpsRange}.
+ */
+public class FpsRangeSelectors {
+
+    /**
+     * @return {@link SelectorFunction} which provides the range with the highest maximum frame
+     * rate. Among those, the one with the highest minimum frame rate is preferred.
+     */
+    public static SelectorFunction<FpsRange> highestFps() {
+        return new SelectorFunction<FpsRange>() {
+            @Override
+            public FpsRange select(Collection<FpsRange> items) {
+                FpsRange result = null;
+
+                for (FpsRange range : items) {
+                    if (result == null
+                            || range.max > result.max
+                            || (range.max == result.max && range.min > result.min)) {
+                        result = range;
+                    }
+                }
+
+                return result;
+            }
+        };
+    }
+
+    /**
+     * @return {@link SelectorFunction} which provides the range with the lowest maximum frame
+     * rate. Among those, the one with the lowest minimum frame rate is preferred.
+     */
+    public static SelectorFunction<FpsRange> lowestFps() {
+        return new SelectorFunction<FpsRange>() {
+            @Override
+            public FpsRange select(Collection<FpsRange> items) {
+                FpsRange result = null;
+
+                for (FpsRange range : items) {
+                    if (result == null
+                            || range.max < result.max
+                            || (range.max == result.max && range.min < result.min)) {
+                        result = range;
+                    }
+                }
+
+                return result;
+            }
+        };
+    }
+
+    /**
+     * @param fps frame rate in frames per second.
+     * @return {@link SelectorFunction} which provides a range locked at given frame rate if
+     * available. Otherwise provides {@code null}.
+     */
+    public static SelectorFunction<FpsRange> fixedFps(int fps) {
+        return Selectors.single(new FpsRange(fps * 1000, fps * 1000));
+    }
+
+    /**
+     * @param fps frame rate in frames per second.
+     * @return {@link SelectorFunction} which provides the narrowest range which contains given
+     * frame rate if available. Otherwise provides {@code null}.
+     */
+    public static SelectorFunction<FpsRange> containingFps(final int fps) {
+        return new SelectorFunction<FpsRange>() {
+            @Override
+            public FpsRange select(Collection<FpsRange> items) {
+                FpsRange result = null;
+
+                for (FpsRange range : items) {
+                    if (!range.contains(fps * 1000)) {
+                        continue;
+                    }
+
+                    if (result == null || range.max - range.min < result.max - result.min) {
+                        result = range;
+                    }
+                }
+
+                return result;
+            }
+        };
+    }
+
+}
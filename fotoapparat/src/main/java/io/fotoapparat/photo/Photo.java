@@ -1,15 +1,27 @@
 package io.fotoapparat.photo;
 
-import java.util.Arrays;
+import android.support.annotation.Nullable;
+
+import java.nio.ByteBuffer;
 
 /**
  * Taken photo.
+ * <p>
+ * Photo might be backed by a direct buffer, which is not copied to heap unless
+ * {@link #getEncodedImage()} is called. Camera2 takes such photos only if
+ * {@link io.fotoapparat.FotoapparatBuilder#pooledPhotoBuffers(boolean)} is enabled. Call
+ * {@link #release()} once the photo is no longer needed, so that the buffer is reused for the
+ * next photos.
  */
 public class Photo {
 
     /**
      * Encoded image. Use {@link android.graphics.BitmapFactory#decodeByteArray(byte[], int, int)}
      * to decode it.
+     * <p>
+     * {@code null} for photos backed by a direct buffer, which are taken only if
+     * {@link io.fotoapparat.FotoapparatBuilder#pooledPhotoBuffers(boolean)} is enabled. Use
+     * {@link #getEncodedImage()} or {@link #getEncodedBuffer()} to support both.
      */
     public final byte[] encodedImage;
 
@@ -20,10 +32,41 @@ public class Photo {
      */
     public final int rotationDegrees;
 
+    @Nullable
+    private final PhotoBufferPool bufferPool;
+    /**
+     * Buffer which is returned to the pool, {@code null} after photo is released.
+     */
+    private ByteBuffer buffer;
+    /**
+     * Encoded image within the {@link #buffer}.
+     */
+    private ByteBuffer encodedBuffer;
+    private byte[] encodedImageView;
+
     public Photo(byte[] encodedImage,
                  int rotationDegrees) {
         this.encodedImage = encodedImage;
         this.rotationDegrees = rotationDegrees;
+        this.bufferPool = null;
+        this.buffer = ByteBuffer.wrap(encodedImage);
+        this.encodedBuffer = buffer;
+        this.encodedImageView = encodedImage;
+    }
+
+    /**
+     * @param encodedBuffer encoded image between position and limit of the buffer.
+     * @param bufferPool    receives the buffer when photo is released. {@code null} if buffer
+     *                      should be just dropped.
+     */
+    public Photo(ByteBuffer encodedBuffer,
+                 int rotationDegrees,
+                 @Nullable PhotoBufferPool bufferPool) {
+        this.encodedImage = null;
+        this.rotationDegrees = rotationDegrees;
+        this.bufferPool = bufferPool;
+        this.buffer = encodedBuffer;
+        this.encodedBuffer = encodedBuffer.slice();
     }
 
     /**
@@ -33,6 +76,104 @@ public class Photo {
         return new Photo(new byte[0], 0);
     }
 
+    /**
+     * @return photo which has the image in {@link #encodedImage}. Photo backed by a direct buffer
+     * is copied and released, any other photo is returned as is.
+     * @throws IllegalStateException if photo was released before the image was copied.
+     */
+    public Photo toArrayBacked() {
+        if (encodedImage != null) {
+            return this;
+        }
+
+        Photo photo = new Photo(getEncodedImage(), rotationDegrees);
+        release();
+
+        return photo;
+    }
+
+    /**
+     * @return read-only view of the encoded image, from position {@code 0} to its limit. Each call
+     * returns a new view, so views can be read independently.
+     * @throws IllegalStateException if photo was released.
+     */
+    public synchronized ByteBuffer getEncodedBuffer() {
+        ensureNotReleased();
+
+        return encodedBuffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * @return encoded image. Copied from the buffer when called for the first time, unless photo
+     * is backed by an array.
+     * @throws IllegalStateException if photo was released before the image was copied.
+     */
+    public synchronized byte[] getEncodedImage() {
+        if (encodedImageView == null) {
+            ensureNotReleased();
+
+            ByteBuffer buffer = encodedBuffer.duplicate();
+            encodedImageView = new byte[buffer.remaining()];
+            buffer.get(encodedImageView);
+        }
+
+        return encodedImageView;
+    }
+
+    /**
+     * @return size of the encoded image in bytes.
+     * @throws IllegalStateException if photo was released.
+     */
+    public synchronized int getEncodedSize() {
+        ensureNotReleased();
+
+        return encodedBuffer.remaining();
+    }
+
+    /**
+     * Releases the buffer of the photo, so that it can be reused. Afterwards only
+     * {@link #getEncodedImage()} can be used, and only if it was called before. Does nothing if
+     * photo was already released.
+     */
+    public synchronized void release() {
+        if (buffer == null) {
+            return;
+        }
+
+        if (bufferPool != null) {
+            bufferPool.recycle(buffer);
+        }
+
+        buffer = null;
+        encodedBuffer = null;
+    }
+
+    private void ensureNotReleased() {
+        if (encodedBuffer == null) {
+            throw new IllegalStateException("Photo was already released.");
+        }
+    }
+
+    /**
+     * @return encoded image from position {@code 0}, or {@code null} if photo was released before
+     * the image was copied.
+     */
+    @Nullable
+    private synchronized ByteBuffer contentOrNull() {
+        if (encodedBuffer != null) {
+            return encodedBuffer.duplicate();
+        }
+        if (encodedImageView != null) {
+            return ByteBuffer.wrap(encodedImageView);
+        }
+
+        return null;
+    }
+
+    /**
+     * Never throws, even for a released photo. Released photo which has no copy of the image is
+     * equal only to itself.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -40,13 +181,21 @@ public class Photo {
 
         Photo photo = (Photo) o;
 
+        ByteBuffer content = contentOrNull();
+        ByteBuffer otherContent = photo.contentOrNull();
+
         return rotationDegrees == photo.rotationDegrees
-                && Arrays.equals(encodedImage, photo.encodedImage);
+                && content != null
+                && content.equals(otherContent);
     }
 
     @Override
     public int hashCode() {
-        int result = Arrays.hashCode(encodedImage);
+        ByteBuffer content = contentOrNull();
+
+        int result = content == null
+                ? System.identityHashCode(this)
+                : content.hashCode();
         result = 31 * result + rotationDegrees;
         return result;
     }
@@ -0,0 +1,96 @@
+package io.fotoapparat.photo;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Direct buffers for encoded {@link Photo}s. Buffers of released photos are kept and reused, so
+ * that taking photos one after another does not allocate.
+ */
+public class PhotoBufferPool {
+
+    /**
+     * Default number of free buffers which are kept.
+     */
+    public static final int DEFAULT_MAX_FREE_BUFFERS = 2;
+
+    /**
+     * Capacity of new buffers is rounded up to a multiple of this, so that a buffer also fits
+     * photos which are slightly larger.
+     */
+    static final int CAPACITY_GRANULARITY = 256 * 1024;
+
+    private final int maxFreeBuffers;
+    private final List<ByteBuffer> freeBuffers = new ArrayList<>();
+
+    public PhotoBufferPool() {
+        this(DEFAULT_MAX_FREE_BUFFERS);
+    }
+
+    /**
+     * @param maxFreeBuffers number of free buffers which are kept. Must be at least 0.
+     */
+    public PhotoBufferPool(int maxFreeBuffers) {
+        if (maxFreeBuffers < 0) {
+            throw new IllegalArgumentException("Number of free buffers must not be negative. Was: " + maxFreeBuffers);
+        }
+
+        this.maxFreeBuffers = maxFreeBuffers;
+    }
+
+    /**
+     * @return direct buffer with position {@code 0} and limit {@code size}. Free buffer is reused
+     * if it is large enough, otherwise a new one is allocated.
+     */
+    public synchronized ByteBuffer acquire(int size) {
+        for (int i = freeBuffers.size() - 1; i >= 0; i--) {
+            if (freeBuffers.get(i).capacity() >= size) {
+                ByteBuffer buffer = freeBuffers.remove(i);
+                buffer.clear().limit(size);
+                return buffer;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(roundUpCapacity(size));
+        buffer.limit(size);
+        return buffer;
+    }
+
+    /**
+     * Returns buffer which is no longer used. Smallest buffer is dropped if there are too many.
+     */
+    public synchronized void recycle(ByteBuffer buffer) {
+        freeBuffers.add(buffer);
+
+        if (freeBuffers.size() > maxFreeBuffers) {
+            freeBuffers.remove(smallestBufferIndex());
+        }
+    }
+
+    /**
+     * @return number of free buffers.
+     */
+    public synchronized int getFreeBuffersCount() {
+        return freeBuffers.size();
+    }
+
+    private int smallestBufferIndex() {
+        int smallest = 0;
+
+        for (int i = 1; i < freeBuffers.size(); i++) {
+            if (freeBuffers.get(i).capacity() < freeBuffers.get(smallest).capacity()) {
+                smallest = i;
+            }
+        }
+
+        return smallest;
+    }
+
+    private static int roundUpCapacity(int size) {
+        int granules = (size + CAPACITY_GRANULARITY - 1) / CAPACITY_GRANULARITY;
+
+        return Math.max(1, granules) * CAPACITY_GRANULARITY;
+    }
+
+}
@@ -0,0 +1,249 @@
+package io.fotoapparat.preview;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts NV21 images into ARGB pixels which can be passed to
+ * {@link android.graphics.Bitmap#setPixels(int[], int, int, int, int, int, int)}.
+ * <p>
+ * Colors are computed with BT.601 coefficients in fixed-point arithmetic using lookup tables.
+ * Large images are split into horizontal stripes which are converted in parallel: the calling
+ * thread converts one stripe and waits for the others. Converter is thread-safe and is meant to be
+ * shared by processors. Call {@link #shutdown()} when it is no longer needed.
+ */
+public class ArgbConverter {
+
+    /**
+     * Images with fewer pixels are converted on the calling thread, since handing them over costs
+     * more than converting them.
+     */
+    static final int PARALLEL_THRESHOLD = 320 * 240;
+
+    private static final int FIXED_POINT_SHIFT = 10;
+    private static final int MAX_CHANNEL = (256 << FIXED_POINT_SHIFT) - 1;
+
+    private static final int[] LUMA = new int[256];
+    private static final int[] RED_V = new int[256];
+    private static final int[] GREEN_U = new int[256];
+    private static final int[] GREEN_V = new int[256];
+    private static final int[] BLUE_U = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            LUMA[i] = Math.max(0, i - 16) * 1192;
+            RED_V[i] = (i - 128) * 1634;
+            GREEN_U[i] = (i - 128) * 400;
+            GREEN_V[i] = (i - 128) * 833;
+            BLUE_U[i] = (i - 128) * 2066;
+        }
+    }
+
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    /**
+     * @param parallelism number of threads which convert a single image, including the calling
+     *                    one. {@code 1} means that no threads are started. Must be at least 1.
+     */
+    public ArgbConverter(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1. Was: " + parallelism);
+        }
+
+        this.parallelism = parallelism;
+        this.executor = parallelism == 1
+                ? null
+                : new ThreadPoolExecutor(
+                parallelism - 1,
+                parallelism - 1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ConverterThreadFactory()
+        );
+    }
+
+    /**
+     * @return converter which uses all available processors.
+     */
+    public static ArgbConverter withAvailableProcessors() {
+        return new ArgbConverter(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @return number of ARGB pixels in an image of given size.
+     */
+    public static int argbSize(int width, int height) {
+        return width * height;
+    }
+
+    /**
+     * Converts NV21 image of the frame into ARGB pixels.
+     *
+     * @see #toArgb(byte[], int, int, int[])
+     */
+    public void toArgb(Frame frame, int[] output) {
+        toArgb(frame.image, frame.size.width, frame.size.height, output);
+    }
+
+    /**
+     * Converts NV21 image into ARGB pixels, row by row without padding. Blocks until the whole
+     * image is converted.
+     *
+     * @param output destination. Must be at least {@link #argbSize(int, int)} long.
+     * @throws IllegalArgumentException if output is too small.
+     */
+    public void toArgb(final byte[] nv21,
+                       final int width,
+                       final int height,
+                       final int[] output) {
+        int size = argbSize(width, height);
+
+        if (output.length < size) {
+            throw new IllegalArgumentException("Output is too small. Expected: " + size + ", was: " + output.length);
+        }
+
+        int stripesCount = executor == null || size < PARALLEL_THRESHOLD
+                ? 1
+                : Math.min(parallelism, (height + 1) / 2);
+
+        if (stripesCount == 1) {
+            convertRows(nv21, width, height, 0, height, output);
+            return;
+        }
+
+        // Stripes start at even rows, so rows which share chroma are converted together
+        int stripeHeight = ((height + stripesCount - 1) / stripesCount + 1) & ~1;
+        final CountDownLatch stripesLeft = new CountDownLatch(stripesCount - 1);
+
+        for (int i = 1; i < stripesCount; i++) {
+            final int rowStart = Math.min(height, i * stripeHeight);
+            final int rowEnd = Math.min(height, rowStart + stripeHeight);
+
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        convertRows(nv21, width, height, rowStart, rowEnd, output);
+                    } finally {
+                        stripesLeft.countDown();
+                    }
+                }
+            });
+        }
+
+        convertRows(nv21, width, height, 0, Math.min(height, stripeHeight), output);
+
+        awaitUninterruptibly(stripesLeft);
+    }
+
+    /**
+     * Stops the threads of the converter. Converter must not be used afterwards.
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Converts rows {@code [rowStart, rowEnd)}. Each chroma sample is looked up once and applied
+     * to the four luma pixels which share it.
+     */
+    static void convertRows(byte[] nv21,
+                            int width,
+                            int height,
+                            int rowStart,
+                            int rowEnd,
+                            int[] output) {
+        int chromaOffset = width * height;
+        int chromaRowBytes = (width + 1) & ~1;
+
+        for (int y = rowStart; y < rowEnd; y += 2) {
+            boolean hasSecondRow = y + 1 < rowEnd;
+            int chromaIndex = chromaOffset + (y >> 1) * chromaRowBytes;
+            int index = y * width;
+
+            for (int x = 0; x < width; x += 2) {
+                int v = nv21[chromaIndex++] & 0xFF;
+                int u = nv21[chromaIndex++] & 0xFF;
+
+                int red = RED_V[v];
+                int green = -GREEN_U[u] - GREEN_V[v];
+                int blue = BLUE_U[u];
+
+                boolean hasSecondColumn = x + 1 < width;
+
+                output[index] = argb(LUMA[nv21[index] & 0xFF], red, green, blue);
+                if (hasSecondColumn) {
+                    output[index + 1] = argb(LUMA[nv21[index + 1] & 0xFF], red, green, blue);
+                }
+
+                if (hasSecondRow) {
+                    int below = index + width;
+
+                    output[below] = argb(LUMA[nv21[below] & 0xFF], red, green, blue);
+                    if (hasSecondColumn) {
+                        output[below + 1] = argb(LUMA[nv21[below + 1] & 0xFF], red, green, blue);
+                    }
+                }
+
+                index += 2;
+            }
+        }
+    }
+
+    private static int argb(int luma, int red, int green, int blue) {
+        int r = clamp(luma + red);
+        int g = clamp(luma + green);
+        int b = clamp(luma + blue);
+
+        return 0xFF000000
+                | ((r << 6) & 0xFF0000)
+                | ((g >> 2) & 0xFF00)
+                | (b >> FIXED_POINT_SHIFT);
+    }
+
+    private static int clamp(int channel) {
+        if (channel < 0) {
+            return 0;
+        }
+
+        return channel > MAX_CHANNEL ? MAX_CHANNEL : channel;
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class ConverterThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ArgbConverterThread");
+            thread.setDaemon(true);
+
+            return thread;
+        }
+
+    }
+
+}
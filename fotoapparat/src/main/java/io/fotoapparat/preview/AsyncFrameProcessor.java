@@ -0,0 +1,65 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link FrameProcessor} which retains each frame and passes it to another processor on the given
+ * {@link Executor}, so that the preview stream can continue with the next frame without waiting
+ * and without copying the image. Frame is released once the processor is done with it.
+ * <p>
+ * If frame can not be retained because
+ * {@link PreviewStreamConfiguration#maxRetainedFrames} frames are already being processed, or if
+ * executor rejects the task, frame is skipped.
+ */
+public class AsyncFrameProcessor implements FrameProcessor {
+
+    private final Executor executor;
+    private final FrameProcessor processor;
+    private final AtomicLong skippedFramesCount = new AtomicLong();
+
+    /**
+     * @param executor  runs the processor.
+     * @param processor receives frames on the executor. Frames are valid until it returns.
+     */
+    public AsyncFrameProcessor(@NonNull Executor executor, @NonNull FrameProcessor processor) {
+        this.executor = executor;
+        this.processor = processor;
+    }
+
+    @Override
+    public void processFrame(final Frame frame) {
+        if (!frame.retain()) {
+            skippedFramesCount.incrementAndGet();
+            return;
+        }
+
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        processor.processFrame(frame);
+                    } finally {
+                        frame.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            skippedFramesCount.incrementAndGet();
+            frame.release();
+        }
+    }
+
+    /**
+     * @return number of frames which were not passed to the processor because too many frames
+     * were retained or executor rejected them.
+     */
+    public long getSkippedFramesCount() {
+        return skippedFramesCount.get();
+    }
+
+}
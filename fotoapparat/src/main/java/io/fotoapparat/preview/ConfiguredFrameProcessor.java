@@ -0,0 +1,85 @@
+package io.fotoapparat.preview;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link FrameProcessor} registered in {@link FrameDispatcher} together with its
+ * {@link FrameProcessorConfiguration}. Passes frames to the processor, or their {@link FrameView}s
+ * if processor asked for them. Frames are expected to be filtered by {@link #sampler} beforehand.
+ * Keeps {@link FrameProcessorStatistics} of the processor.
+ * <p>
+ * Two instances are equal if they wrap equal processors, so processor can be found regardless of
+ * its configuration.
+ */
+class ConfiguredFrameProcessor implements FrameProcessor {
+
+    final FrameProcessor processor;
+    final FrameSampler sampler;
+    private final FrameViewExtractor viewExtractor;
+
+    private final LatencyRecorder processingTime = new LatencyRecorder();
+    private final LatencyRecorder queueTime = new LatencyRecorder();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    ConfiguredFrameProcessor(FrameProcessor processor, FrameProcessorConfiguration configuration) {
+        this.processor = processor;
+        this.sampler = new FrameSampler(configuration);
+        this.viewExtractor = FrameViewExtractor.isWholeFrame(configuration)
+                ? null
+                : new FrameViewExtractor(configuration);
+    }
+
+    @Override
+    public void processFrame(Frame frame) {
+        long startTime = System.nanoTime();
+        queueTime.record(startTime - frame.getDispatchTimestamp());
+
+        try {
+            if (viewExtractor == null || frame.image == null) {
+                processor.processFrame(frame);
+            } else {
+                processor.processFrame(viewExtractor.extract(frame));
+            }
+        } finally {
+            processingTime.record(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Counts a frame which was dropped before it reached the processor.
+     */
+    void onFrameDropped() {
+        droppedCount.incrementAndGet();
+    }
+
+    /**
+     * @return current counters of the processor.
+     */
+    FrameProcessorStatistics getStatistics() {
+        LatencyHistogram processingTimeSnapshot = processingTime.snapshot();
+
+        return new FrameProcessorStatistics(
+                processor,
+                processingTimeSnapshot.getCount(),
+                droppedCount.get(),
+                processingTimeSnapshot,
+                queueTime.snapshot()
+        );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ConfiguredFrameProcessor that = (ConfiguredFrameProcessor) o;
+
+        return processor.equals(that.processor);
+    }
+
+    @Override
+    public int hashCode() {
+        return processor.hashCode();
+    }
+
+}
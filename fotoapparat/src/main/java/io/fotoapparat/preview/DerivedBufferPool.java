@@ -0,0 +1,56 @@
+package io.fotoapparat.preview;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.fotoapparat.parameter.Size;
+
+/**
+ * Buffers of {@link FrameRepresentation}s which are no longer used by any frame. Keeps up to
+ * {@link #MAX_FREE_BUFFERS} buffers for each representation, so that frames of a running preview
+ * stream derive their representations without allocating.
+ */
+class DerivedBufferPool {
+
+    static final int MAX_FREE_BUFFERS = 4;
+
+    private final Map<FrameRepresentation<?>, List<Object>> freeBuffers = new HashMap<>();
+
+    /**
+     * @return free buffer which fits the frame of given size. New buffer is allocated only if
+     * there is no such buffer. Buffers which do not fit are discarded.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized <T> T acquire(FrameRepresentation<T> representation, Size size) {
+        List<Object> buffers = freeBuffers.get(representation);
+
+        while (buffers != null && !buffers.isEmpty()) {
+            T buffer = (T) buffers.remove(buffers.size() - 1);
+
+            if (representation.fits(buffer, size)) {
+                return buffer;
+            }
+        }
+
+        return representation.allocate(size);
+    }
+
+    /**
+     * Returns buffer which is no longer used.
+     */
+    synchronized void recycle(FrameRepresentation<?> representation, Object buffer) {
+        List<Object> buffers = freeBuffers.get(representation);
+
+        if (buffers == null) {
+            buffers = new ArrayList<>(MAX_FREE_BUFFERS);
+            freeBuffers.put(representation, buffers);
+        }
+
+        if (buffers.size() < MAX_FREE_BUFFERS) {
+            buffers.add(buffer);
+        }
+    }
+
+}
@@ -1,6 +1,11 @@
 package io.fotoapparat.preview;
 
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import io.fotoapparat.parameter.Size;
 
@@ -9,13 +14,20 @@ import io.fotoapparat.parameter.Size;
  */
 public class Frame {
 
+    private static final AtomicIntegerFieldUpdater<Frame> REFERENCES =
+            AtomicIntegerFieldUpdater.newUpdater(Frame.class, "references");
+    private static final AtomicIntegerFieldUpdater<Frame> RETENTIONS =
+            AtomicIntegerFieldUpdater.newUpdater(Frame.class, "retentions");
+    private static final AtomicReferenceFieldUpdater<Frame, FrameRepresentationCache> REPRESENTATIONS =
+            AtomicReferenceFieldUpdater.newUpdater(Frame.class, FrameRepresentationCache.class, "representations");
+
     /**
      * Size of the frame in pixels (before rotation).
      */
     public final Size size;
 
     /**
-     * Image in NV21 format.
+     * Image in NV21 format. {@code null} for {@link YuvFrame}s.
      */
     public final byte[] image;
 
@@ -24,12 +36,284 @@ public class Frame {
      */
     public final int rotation;
 
+    /**
+     * Number of holders which still use the frame. Frame is returned to the camera when it drops
+     * to zero.
+     */
+    private volatile int references = 0;
+
+    /**
+     * Number of holders which called {@link #retain()}. They count towards
+     * {@link PreviewStreamConfiguration#maxRetainedFrames}.
+     */
+    private volatile int retentions = 0;
+
+    /**
+     * Derived forms of the image. Created on the first request.
+     */
+    private volatile FrameRepresentationCache representations;
+
+    /**
+     * Capture metadata. Written by {@link FrameDispatcher} before the frame is handed over to
+     * processors, so no additional synchronization is needed.
+     */
+    private long timestamp;
+    private long sequenceNumber;
+    private long dispatchTimestamp;
+    private float changeScore = Float.NaN;
+    private int statisticsSubsampling = 0;
+
+    /**
+     * Luminance statistics. Calculated on the first request if they were not provided, see
+     * {@link #setStatistics(FrameStatistics, int)}.
+     */
+    private volatile FrameStatistics statistics;
+
+    /**
+     * Dispatcher which delivered the frame to processors. {@code null} for frames which were not
+     * dispatched, such as {@link FrameView}s.
+     */
+    private FrameDispatcher dispatcher;
+
     public Frame(Size size, byte[] image, int rotation) {
         this.size = size;
         this.image = image;
         this.rotation = rotation;
     }
 
+    /**
+     * @return {@link System#nanoTime()} at which the frame was captured, so it can be compared with
+     * {@link #getDispatchTimestamp()}. For Camera2 it is the timestamp of the sensor converted to
+     * that time base, for Camera1 it is the time at which the frame arrived from the camera.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return number of the frame since the preview stream was started. Gaps between numbers of
+     * consecutive frames mean that frames were dropped before reaching the processor.
+     */
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} at which the frame was passed to frame processors.
+     */
+    public long getDispatchTimestamp() {
+        return dispatchTimestamp;
+    }
+
+    /**
+     * @return change of the scene since the previously dispatched frame, from {@code 0} to
+     * {@code 1}. {@link Float#NaN} if the change is not measured.
+     * @see PreviewStreamConfiguration#sceneChangeThreshold
+     */
+    public float getChangeScore() {
+        return changeScore;
+    }
+
+    void setChangeScore(float changeScore) {
+        this.changeScore = changeScore;
+    }
+
+    /**
+     * Statistics which were not calculated by the {@link PreviewStream} are calculated on the
+     * first call, on the calling thread, and shared with all other processors of the frame.
+     *
+     * @return luminance statistics of the frame. {@code null} if they are not calculated.
+     * @see PreviewStreamConfiguration#statisticsSubsampling
+     */
+    @Nullable
+    public FrameStatistics getStatistics() {
+        FrameStatistics statistics = this.statistics;
+
+        if (statistics == null && statisticsSubsampling != 0) {
+            statistics = calculateStatistics();
+        }
+
+        return statistics;
+    }
+
+    void setStatistics(@Nullable FrameStatistics statistics) {
+        setStatistics(statistics, 0);
+    }
+
+    /**
+     * @param statistics  statistics of the frame, {@code null} if they should be calculated on
+     *                    the first request.
+     * @param subsampling subsampling of the statistics which are calculated on request. {@code 0}
+     *                    if they should not be calculated.
+     */
+    void setStatistics(@Nullable FrameStatistics statistics, int subsampling) {
+        this.statisticsSubsampling = statistics == null ? subsampling : 0;
+        this.statistics = statistics;
+    }
+
+    private synchronized FrameStatistics calculateStatistics() {
+        if (statistics == null) {
+            statistics = FrameStatisticsCalculator
+                    .forCurrentThread(statisticsSubsampling)
+                    .calculate(this);
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Updates capture metadata of the frame.
+     */
+    void setMetadata(long timestamp, long sequenceNumber, long dispatchTimestamp) {
+        this.timestamp = timestamp;
+        this.sequenceNumber = sequenceNumber;
+        this.dispatchTimestamp = dispatchTimestamp;
+    }
+
+    /**
+     * Returns given form of the frame, such as {@link FrameRepresentation#ARGB}. It is derived
+     * once, on the first request, and shared with all other processors of the frame. Safe to call
+     * from several threads.
+     * <p>
+     * Returned buffer must not be modified. It is valid until the frame is released, after that
+     * it is reused for other frames.
+     *
+     * @return representation of the frame.
+     */
+    public <T> T getRepresentation(@NonNull FrameRepresentation<T> representation) {
+        FrameRepresentationCache cache = representations;
+
+        if (cache == null) {
+            REPRESENTATIONS.compareAndSet(this, null, new FrameRepresentationCache());
+            cache = representations;
+        }
+
+        return cache.get(this, representation, bufferPoolOf(cache));
+    }
+
+    /**
+     * Forgets representations of the frame, so that they are derived again from the next image
+     * which the frame carries.
+     */
+    void invalidateRepresentations() {
+        FrameRepresentationCache cache = representations;
+
+        if (cache != null) {
+            cache.invalidate(bufferPoolOf(cache));
+        }
+    }
+
+    private DerivedBufferPool bufferPoolOf(FrameRepresentationCache cache) {
+        FrameDispatcher dispatcher = this.dispatcher;
+
+        return dispatcher == null
+                ? cache.localBufferPool
+                : dispatcher.derivedBufferPool;
+    }
+
+    /**
+     * Remembers the dispatcher which delivers the frame, so that holders which outlive
+     * {@link FrameProcessor#processFrame(Frame)} hand it back to that dispatcher.
+     */
+    void setDispatcher(FrameDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Keeps the frame after {@link FrameProcessor#processFrame(Frame)} returns, so that it can be
+     * processed later on another thread without copying. Each successful call must be followed by
+     * {@link #release()}, from any thread. Until then the buffer of the frame is not returned to
+     * the camera.
+     *
+     * @return {@code true} if frame was retained. {@code false} if the stream already has
+     * {@link PreviewStreamConfiguration#maxRetainedFrames} retained frames, in which case the
+     * frame must not be used after {@link FrameProcessor#processFrame(Frame)} returns.
+     * @throws IllegalStateException if frame was already released by all its holders.
+     */
+    public boolean retain() {
+        FrameDispatcher dispatcher = this.dispatcher;
+
+        if (dispatcher == null) {
+            retain(1);
+            return true;
+        }
+
+        if (!dispatcher.acquireRetention()) {
+            return false;
+        }
+
+        int current;
+        do {
+            current = references;
+
+            if (current == 0) {
+                dispatcher.releaseRetention();
+                throw new IllegalStateException("Frame was already released.");
+            }
+        } while (!REFERENCES.compareAndSet(this, current, current + 1));
+
+        RETENTIONS.incrementAndGet(this);
+
+        return true;
+    }
+
+    /**
+     * Removes one holder of the frame. When the last holder is gone, the frame is returned to the
+     * camera and must not be used anymore.
+     *
+     * @return {@code true} if that was the last holder.
+     * @see #retain()
+     */
+    public boolean release() {
+        FrameDispatcher dispatcher = this.dispatcher;
+
+        if (dispatcher == null) {
+            return releaseReference();
+        }
+
+        int current;
+        do {
+            current = retentions;
+        } while (current > 0 && !RETENTIONS.compareAndSet(this, current, current - 1));
+
+        if (current > 0) {
+            dispatcher.releaseRetention();
+        }
+
+        return dispatcher.release(this);
+    }
+
+    /**
+     * @return {@code true} if somebody still holds the frame.
+     */
+    boolean isRetained() {
+        return references > 0;
+    }
+
+    /**
+     * Adds given number of holders of the frame, without checking whether it was already
+     * released.
+     */
+    void retain(int count) {
+        REFERENCES.addAndGet(this, count);
+    }
+
+    /**
+     * Removes one holder of the frame. Representations of the frame are invalidated when the last
+     * holder is gone.
+     *
+     * @return {@code true} if that was the last holder.
+     */
+    boolean releaseReference() {
+        boolean released = REFERENCES.decrementAndGet(this) == 0;
+
+        if (released) {
+            invalidateRepresentations();
+        }
+
+        return released;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,88 @@
+package io.fotoapparat.preview;
+
+import io.fotoapparat.parameter.Size;
+
+/**
+ * Fixed pool of pre-allocated NV21 buffers for the preview stream.
+ * <p>
+ * Each buffer is wrapped into a {@link Frame} which is reused for as long as size and rotation of
+ * the frames stay the same. Therefore, preview stream does not allocate anything in steady state.
+ */
+public class FrameBufferPool {
+
+    private final int capacity;
+
+    private Size size = null;
+    private byte[][] buffers = new byte[0][];
+    private Frame[] frames = new Frame[0];
+
+    /**
+     * @param capacity number of buffers in the pool. Must be at least 1.
+     */
+    public FrameBufferPool(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Pool must contain at least one buffer. Was: " + capacity);
+        }
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return number of buffers in the pool.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Allocates buffers for frames of given size. If buffers of the same size were already
+     * allocated, they are reused.
+     *
+     * @param size       size of the frames in pixels.
+     * @param bufferSize size of single buffer in bytes.
+     * @return all buffers of the pool.
+     */
+    public synchronized byte[][] allocate(Size size, int bufferSize) {
+        if (!size.equals(this.size) || buffers.length == 0 || buffers[0].length != bufferSize) {
+            this.size = size;
+            buffers = new byte[capacity][];
+            frames = new Frame[capacity];
+
+            for (int i = 0; i < capacity; i++) {
+                buffers[i] = new byte[bufferSize];
+            }
+        }
+
+        return buffers.clone();
+    }
+
+    /**
+     * @param buffer   one of the buffers of the pool.
+     * @param rotation clockwise rotation of the frame in degrees.
+     * @return {@link Frame} which wraps given buffer. The same instance is returned as long as
+     * rotation does not change.
+     * @throws IllegalArgumentException if buffer does not belong to this pool.
+     */
+    public synchronized Frame frameOf(byte[] buffer, int rotation) {
+        int index = indexOf(buffer);
+
+        Frame frame = frames[index];
+        if (frame == null || frame.rotation != rotation) {
+            frame = new Frame(size, buffer, rotation);
+            frames[index] = frame;
+        }
+
+        return frame;
+    }
+
+    private int indexOf(byte[] buffer) {
+        for (int i = 0; i < buffers.length; i++) {
+            if (buffers[i] == buffer) {
+                return i;
+            }
+        }
+
+        throw new IllegalArgumentException("Buffer does not belong to the pool.");
+    }
+
+}
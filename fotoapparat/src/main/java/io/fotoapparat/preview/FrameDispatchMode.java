@@ -0,0 +1,20 @@
+package io.fotoapparat.preview;
+
+/**
+ * Decides how frames are delivered to multiple {@link FrameProcessor}s.
+ */
+public enum FrameDispatchMode {
+
+    /**
+     * All processors are called one after another on a single worker thread. A slow processor
+     * delays all the others.
+     */
+    SEQUENTIAL,
+
+    /**
+     * Every processor runs on its own worker thread and has its own queue of pending frames. Frame
+     * is returned back to the camera after all processors are done with it.
+     */
+    PARALLEL
+
+}
@@ -0,0 +1,499 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.fotoapparat.log.Logger;
+import io.fotoapparat.log.Loggers;
+
+/**
+ * Delivers frames of the {@link PreviewStream} to {@link FrameProcessor}s on background threads.
+ * <p>
+ * Camera and frame processors are decoupled by bounded {@link FrameQueue}s. If processors can not
+ * keep up with the camera, frames are dropped according to {@link FrameDropPolicy} instead of
+ * piling up.
+ * <p>
+ * Depending on {@link FrameDispatchMode} there is either a single worker which calls all the
+ * processors or a separate worker for each processor. In both cases frame is recycled only after
+ * all workers are done with it. Processors receive only frames which match their
+ * {@link FrameProcessorConfiguration}.
+ * <p>
+ * Processors can keep frames beyond {@link FrameProcessor#processFrame(Frame)} with
+ * {@link Frame#retain()}, up to {@link PreviewStreamConfiguration#maxRetainedFrames} at once.
+ * <p>
+ * {@link FrameStatistics} are either calculated by the {@link PreviewStream} and attached to the
+ * frame, or calculated once per frame by the first processor which requests them.
+ * {@link FrameRepresentation}s which processors request are derived once per frame into buffers
+ * which are reused after the frame is recycled.
+ * <p>
+ * Processing time, queue time and dropped frames are counted for each processor, see
+ * {@link FrameProcessorStatistics}. If a processor throws, the exception is logged and the frame
+ * is released as usual, so the processor keeps receiving frames.
+ * <p>
+ * Processors and workers are kept in immutable snapshots, so dispatching a frame never waits for
+ * processors being registered or unregistered and vice versa.
+ */
+public class FrameDispatcher {
+
+    private static final Worker[] NO_WORKERS = new Worker[0];
+    private static final FrameSampler EVERY_FRAME = new FrameSampler(
+            FrameProcessorConfiguration.defaultConfiguration()
+    );
+
+    private final FrameProcessorRegistry frameProcessors = new FrameProcessorRegistry();
+    private final Object workersLock = new Object();
+    private final AtomicLong droppedFramesCount = new AtomicLong();
+    private final AtomicInteger retainedFramesCount = new AtomicInteger();
+    private final FrameRecycler frameRecycler;
+    private final Logger logger;
+
+    /**
+     * Buffers of {@link FrameRepresentation}s of the frames delivered by this dispatcher.
+     */
+    final DerivedBufferPool derivedBufferPool = new DerivedBufferPool();
+
+    private PreviewStreamConfiguration configuration = PreviewStreamConfiguration.defaultConfiguration();
+    private volatile Worker[] workers = NO_WORKERS;
+    private volatile boolean started = false;
+
+    /**
+     * @param frameRecycler receives frames after they were processed or dropped.
+     */
+    public FrameDispatcher(FrameRecycler frameRecycler) {
+        this(frameRecycler, Loggers.none());
+    }
+
+    /**
+     * @param frameRecycler receives frames after they were processed or dropped.
+     * @param logger        receives exceptions thrown by processors.
+     */
+    public FrameDispatcher(FrameRecycler frameRecycler, Logger logger) {
+        this.frameRecycler = frameRecycler;
+        this.logger = logger;
+    }
+
+    /**
+     * Applies configuration. Must be called before {@link #start()}.
+     */
+    public void configure(@NonNull PreviewStreamConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * @see PreviewStream#addProcessor(FrameProcessor)
+     */
+    public void addProcessor(@NonNull FrameProcessor processor) {
+        addProcessor(processor, FrameProcessorConfiguration.defaultConfiguration());
+    }
+
+    /**
+     * @see PreviewStream#addProcessor(FrameProcessor, FrameProcessorConfiguration)
+     */
+    public void addProcessor(@NonNull FrameProcessor processor,
+                             @NonNull FrameProcessorConfiguration configuration) {
+        ConfiguredFrameProcessor configuredProcessor = new ConfiguredFrameProcessor(
+                processor,
+                configuration
+        );
+
+        synchronized (workersLock) {
+            if (frameProcessors.add(configuredProcessor) && started && isParallel()) {
+                startWorker(configuredProcessor);
+            }
+        }
+    }
+
+    /**
+     * @see PreviewStream#removeProcessor(FrameProcessor)
+     */
+    public void removeProcessor(@NonNull FrameProcessor processor) {
+        ConfiguredFrameProcessor configuredProcessor = new ConfiguredFrameProcessor(
+                processor,
+                FrameProcessorConfiguration.defaultConfiguration()
+        );
+
+        synchronized (workersLock) {
+            if (frameProcessors.remove(configuredProcessor) && started && isParallel()) {
+                stopWorker(configuredProcessor);
+            }
+        }
+    }
+
+    /**
+     * Starts delivering frames to processors.
+     */
+    public void start() {
+        synchronized (workersLock) {
+            started = true;
+
+            if (isParallel()) {
+                for (FrameProcessor processor : frameProcessors.snapshot()) {
+                    startWorker((ConfiguredFrameProcessor) processor);
+                }
+            } else {
+                startWorker(new AllProcessors(), EVERY_FRAME);
+            }
+        }
+    }
+
+    /**
+     * Stops delivering frames. Pending frames are discarded without being recycled. If dispatcher
+     * was not started, does nothing.
+     */
+    public void stop() {
+        synchronized (workersLock) {
+            started = false;
+
+            Worker[] stoppedWorkers = workers;
+            workers = NO_WORKERS;
+
+            for (Worker worker : stoppedWorkers) {
+                worker.quit();
+            }
+        }
+    }
+
+    /**
+     * Schedules frame for processing. Returns immediately.
+     *
+     * @param frame          frame to process.
+     * @param timestamp      {@link System#nanoTime()} at which the frame was captured.
+     * @param sequenceNumber number of the frame since the stream was started.
+     */
+    public void dispatch(Frame frame, long timestamp, long sequenceNumber) {
+        dispatch(frame, timestamp, sequenceNumber, Float.NaN);
+    }
+
+    /**
+     * Schedules frame for processing. Returns immediately.
+     *
+     * @param frame          frame to process.
+     * @param timestamp      {@link System#nanoTime()} at which the frame was captured.
+     * @param sequenceNumber number of the frame since the stream was started.
+     * @param changeScore    change of the scene since the previously dispatched frame.
+     * @see SceneChangeDetector
+     */
+    public void dispatch(Frame frame, long timestamp, long sequenceNumber, float changeScore) {
+        dispatch(frame, timestamp, sequenceNumber, changeScore, null);
+    }
+
+    /**
+     * Schedules frame for processing. Returns immediately.
+     *
+     * @param frame          frame to process.
+     * @param timestamp      {@link System#nanoTime()} at which the frame was captured.
+     * @param sequenceNumber number of the frame since the stream was started.
+     * @param changeScore    change of the scene since the previously dispatched frame.
+     * @param statistics     statistics of the frame. If {@code null}, they are calculated on the
+     *                       first request, unless
+     *                       {@link PreviewStreamConfiguration#statisticsSubsampling} disables
+     *                       them.
+     * @see SceneChangeDetector
+     * @see FrameStatisticsCalculator
+     */
+    public void dispatch(Frame frame,
+                         long timestamp,
+                         long sequenceNumber,
+                         float changeScore,
+                         @Nullable FrameStatistics statistics) {
+        frame.setMetadata(timestamp, sequenceNumber, System.nanoTime());
+        frame.setChangeScore(changeScore);
+        frame.setStatistics(statistics, configuration.statisticsSubsampling);
+        frame.setDispatcher(this);
+
+        Worker[] workers = this.workers;
+
+        if (workers.length == 0) {
+            frame.retain(1);
+            release(frame);
+
+            return;
+        }
+
+        frame.retain(workers.length);
+
+        for (Worker worker : workers) {
+            if (!worker.sampler.accept(frame)) {
+                release(frame);
+                continue;
+            }
+
+            Frame droppedFrame = worker.offer(frame);
+
+            if (droppedFrame != null) {
+                onFrameDropped(worker);
+                release(droppedFrame);
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if at least one processor is registered.
+     */
+    public boolean hasProcessors() {
+        return frameProcessors.snapshot().length > 0;
+    }
+
+    /**
+     * @return number of frames which were dropped because processors were not able to keep up
+     * with the camera. In {@link FrameDispatchMode#PARALLEL} mode, each frame is counted once for
+     * each processor which skipped it.
+     */
+    public long getDroppedFramesCount() {
+        return droppedFramesCount.get();
+    }
+
+    /**
+     * @return statistics of registered processors, in the order in which they were added.
+     */
+    public List<FrameProcessorStatistics> getProcessorStatistics() {
+        FrameProcessor[] processors = frameProcessors.snapshot();
+        List<FrameProcessorStatistics> statistics = new ArrayList<>(processors.length);
+
+        for (FrameProcessor processor : processors) {
+            statistics.add(((ConfiguredFrameProcessor) processor).getStatistics());
+        }
+
+        return Collections.unmodifiableList(statistics);
+    }
+
+    private void onFrameDropped(Worker worker) {
+        droppedFramesCount.incrementAndGet();
+
+        if (worker.processor instanceof ConfiguredFrameProcessor) {
+            ((ConfiguredFrameProcessor) worker.processor).onFrameDropped();
+            return;
+        }
+
+        for (FrameProcessor processor : frameProcessors.snapshot()) {
+            ((ConfiguredFrameProcessor) processor).onFrameDropped();
+        }
+    }
+
+    private boolean isParallel() {
+        return configuration.dispatchMode == FrameDispatchMode.PARALLEL;
+    }
+
+    private void startWorker(ConfiguredFrameProcessor processor) {
+        startWorker(processor, processor.sampler);
+    }
+
+    private void startWorker(FrameProcessor processor, FrameSampler sampler) {
+        Worker worker = new Worker(
+                processor,
+                sampler,
+                new FrameQueue(
+                        configuration.queueCapacity,
+                        configuration.dropPolicy
+                )
+        );
+
+        Worker[] current = workers;
+        Worker[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = worker;
+
+        workers = updated;
+        worker.start();
+    }
+
+    private void stopWorker(FrameProcessor processor) {
+        Worker[] current = workers;
+
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].processor.equals(processor)) {
+                Worker[] updated = new Worker[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+
+                workers = updated;
+                current[i].quit();
+
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return number of frames which processors currently keep with {@link Frame#retain()}.
+     */
+    public int getRetainedFramesCount() {
+        return retainedFramesCount.get();
+    }
+
+    /**
+     * Removes one holder of the frame and recycles it if that was the last one.
+     *
+     * @return {@code true} if that was the last holder.
+     */
+    boolean release(Frame frame) {
+        boolean released = frame.releaseReference();
+
+        if (released && started) {
+            frameRecycler.recycle(frame);
+        }
+
+        return released;
+    }
+
+    /**
+     * Reserves a place for a frame retained by a processor.
+     *
+     * @return {@code false} if {@link PreviewStreamConfiguration#maxRetainedFrames} frames are
+     * already retained.
+     */
+    boolean acquireRetention() {
+        int maxRetainedFrames = configuration.maxRetainedFrames;
+        int current;
+
+        do {
+            current = retainedFramesCount.get();
+
+            if (current >= maxRetainedFrames) {
+                return false;
+            }
+        } while (!retainedFramesCount.compareAndSet(current, current + 1));
+
+        return true;
+    }
+
+    /**
+     * Frees a place reserved by {@link #acquireRetention()}.
+     */
+    void releaseRetention() {
+        retainedFramesCount.decrementAndGet();
+    }
+
+    /**
+     * Passes frame to the processor. Exception thrown by the processor is logged instead of
+     * stopping the worker, which would keep its frames from being recycled.
+     */
+    private void processSafely(FrameProcessor processor, Frame frame) {
+        try {
+            processor.processFrame(frame);
+        } catch (RuntimeException e) {
+            logger.log("Frame processor " + processor + " failed: " + e);
+        }
+    }
+
+    /**
+     * Receives frames which are no longer used by {@link FrameDispatcher}.
+     */
+    public interface FrameRecycler {
+
+        /**
+         * {@link FrameRecycler} which does nothing.
+         */
+        FrameRecycler NONE = new FrameRecycler() {
+            @Override
+            public void recycle(Frame frame) {
+                // Do nothing
+            }
+        };
+
+        /**
+         * Called when frame was processed or dropped. Frame might be reused afterwards.
+         */
+        void recycle(Frame frame);
+
+    }
+
+    /**
+     * Calls all registered processors one after another, skipping those which did not ask for the
+     * frame.
+     */
+    private class AllProcessors implements FrameProcessor {
+
+        @Override
+        public void processFrame(Frame frame) {
+            for (FrameProcessor frameProcessor : frameProcessors.snapshot()) {
+                ConfiguredFrameProcessor configuredProcessor = (ConfiguredFrameProcessor) frameProcessor;
+
+                if (configuredProcessor.sampler.accept(frame)) {
+                    processSafely(configuredProcessor, frame);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Takes frames from its queue and passes them to the processor. Frames which are not accepted
+     * by its {@link FrameSampler} never reach the queue.
+     */
+    private class Worker extends Thread {
+
+        private final FrameProcessor processor;
+        private final FrameSampler sampler;
+        private final FrameQueue queue;
+
+        private volatile boolean quit = false;
+
+        private Worker(FrameProcessor processor, FrameSampler sampler, FrameQueue queue) {
+            super("FrameProcessorThread");
+            this.processor = processor;
+            this.sampler = sampler;
+            this.queue = queue;
+
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!quit) {
+                Frame frame;
+
+                try {
+                    frame = queue.take();
+                } catch (InterruptedException e) {
+                    break;
+                }
+
+                try {
+                    processSafely(processor, frame);
+                } finally {
+                    release(frame);
+                }
+            }
+
+            releasePendingFrames();
+        }
+
+        /**
+         * Adds frame to the queue of the worker. If worker has already quit, frame is released
+         * right away.
+         *
+         * @return frame which was dropped from the queue or {@code null}.
+         */
+        private Frame offer(Frame frame) {
+            Frame droppedFrame = queue.offer(frame);
+
+            if (quit) {
+                releasePendingFrames();
+            }
+
+            return droppedFrame;
+        }
+
+        private void quit() {
+            quit = true;
+            interrupt();
+        }
+
+        private void releasePendingFrames() {
+            Frame frame;
+
+            while ((frame = queue.poll()) != null) {
+                release(frame);
+            }
+        }
+
+    }
+
+}
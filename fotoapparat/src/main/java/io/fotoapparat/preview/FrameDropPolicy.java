@@ -0,0 +1,24 @@
+package io.fotoapparat.preview;
+
+/**
+ * Decides which frame is dropped when frames arrive faster than {@link FrameProcessor}s are able
+ * to process them.
+ */
+public enum FrameDropPolicy {
+
+    /**
+     * When queue is full, the oldest pending frame is dropped in favor of the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * When queue is full, the new frame is dropped.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Only the most recent frame is kept pending, regardless of queue capacity.
+     */
+    LATEST_ONLY
+
+}
@@ -0,0 +1,151 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.fotoapparat.log.Logger;
+import io.fotoapparat.log.Loggers;
+
+/**
+ * {@link FrameProcessor} which passes frames through a chain of {@link FrameStage}s, for example
+ * detector, tracker and renderer. Each stage runs on its own executor and has its own bounded
+ * queue, so a slow stage drops frames according to its {@link FrameDropPolicy} instead of holding
+ * up the previous ones.
+ * <p>
+ * Frame is retained with {@link Frame#retain()} from the moment it enters the pipeline until the
+ * last stage is done with it, or until it is dropped, and only then it is returned to the camera.
+ * Frames in the pipeline therefore count against
+ * {@link PreviewStreamConfiguration#maxRetainedFrames}, which should be at least the total
+ * capacity of the queues plus the number of stages. Frames which can not be retained are dropped
+ * and counted by the first stage.
+ * <p>
+ * Use {@link FramePipeline#builder()} to create a new instance and add it to the
+ * {@link PreviewStream} as any other processor.
+ */
+public class FramePipeline implements FrameProcessor {
+
+    private final List<PipelineStage> stages;
+
+    private FramePipeline(List<PipelineStage> stages) {
+        this.stages = stages;
+    }
+
+    /**
+     * @return builder for {@link FramePipeline}.
+     */
+    public static Builder<Frame> builder() {
+        return new Builder<>();
+    }
+
+    @Override
+    public void processFrame(Frame frame) {
+        PipelineStage firstStage = stages.get(0);
+
+        if (!frame.retain()) {
+            firstStage.onFrameRejected();
+            return;
+        }
+
+        firstStage.offer(frame, frame);
+    }
+
+    /**
+     * @return counters of the stages in the order in which they were added.
+     */
+    public List<StageStatistics> getStageStatistics() {
+        List<StageStatistics> statistics = new ArrayList<>(stages.size());
+
+        for (PipelineStage stage : stages) {
+            statistics.add(stage.getStatistics());
+        }
+
+        return Collections.unmodifiableList(statistics);
+    }
+
+    /**
+     * Releases frames waiting in the pipeline and stops threads of the stages. Pipeline should be
+     * removed from the {@link PreviewStream} beforehand.
+     */
+    public void shutdown() {
+        for (PipelineStage stage : stages) {
+            stage.shutdown();
+        }
+    }
+
+    /**
+     * Builder for {@link FramePipeline}.
+     *
+     * @param <O> result of the last added stage.
+     */
+    public static class Builder<O> {
+
+        private final List<FrameStage<?, ?>> stages = new ArrayList<>();
+        private final List<StageConfiguration> configurations = new ArrayList<>();
+
+        private Logger logger = Loggers.none();
+
+        private Builder() {
+        }
+
+        /**
+         * @param logger logger which receives exceptions thrown by the stages. By default they
+         *               are not logged.
+         */
+        public Builder<O> logger(@NonNull Logger logger) {
+            this.logger = logger;
+            return this;
+        }
+
+        /**
+         * Adds stage with default {@link StageConfiguration}.
+         */
+        public <N> Builder<N> stage(@NonNull FrameStage<? super O, N> stage) {
+            return stage(stage, StageConfiguration.defaultConfiguration());
+        }
+
+        /**
+         * Adds stage which receives results of the previously added one.
+         */
+        @SuppressWarnings("unchecked")
+        public <N> Builder<N> stage(@NonNull FrameStage<? super O, N> stage,
+                                    @NonNull StageConfiguration configuration) {
+            stages.add(stage);
+            configurations.add(configuration);
+
+            return (Builder<N>) this;
+        }
+
+        /**
+         * @return a new instance of {@link FramePipeline} with stages added so far.
+         * @throws IllegalStateException if no stage was added.
+         */
+        public FramePipeline build() {
+            if (stages.isEmpty()) {
+                throw new IllegalStateException("Pipeline must have at least one stage");
+            }
+
+            List<PipelineStage> pipelineStages = new ArrayList<>(stages.size());
+
+            for (int i = 0; i < stages.size(); i++) {
+                PipelineStage pipelineStage = new PipelineStage(
+                        stages.get(i),
+                        configurations.get(i),
+                        logger
+                );
+
+                if (!pipelineStages.isEmpty()) {
+                    pipelineStages.get(pipelineStages.size() - 1).setNext(pipelineStage);
+                }
+
+                pipelineStages.add(pipelineStage);
+            }
+
+            return new FramePipeline(pipelineStages);
+        }
+
+    }
+
+}
@@ -7,14 +7,21 @@ package io.fotoapparat.preview;
  * {@link #processFrame(Frame)} completes the frame is returned back to the pool where it is reused
  * afterwards. This means that implementations should take special care to not do any operations on
  * frame after method completes.
+ * <p>
+ * Processors which want to continue with the frame on another thread can {@link Frame#retain()}
+ * it and {@link Frame#release()} it once done, see {@link AsyncFrameProcessor}.
+ * <p>
+ * Grayscale, downscaled, ARGB and other forms of the frame should be obtained with
+ * {@link Frame#getRepresentation(FrameRepresentation)}, so that processors share them instead of
+ * deriving their own.
  */
 public interface FrameProcessor {
 
     /**
      * Performs processing on preview frames. Read class description for more details.
      *
-     * @param frame frame of the preview. Do not cache it as it will eventually be reused by the
-     *              camera.
+     * @param frame frame of the preview. Do not cache it unless it was retained, as it will
+     *              eventually be reused by the camera.
      */
     void processFrame(Frame frame);
 
@@ -0,0 +1,176 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Configuration of a single {@link FrameProcessor}.
+ * <p>
+ * If region of interest, subsampling or luma-only is requested, processor receives a
+ * {@link FrameView} which is produced once per delivered frame into a reused buffer. Views are
+ * produced only from NV21 frames. {@link YuvFrameProcessor}s on Camera2 receive whole frames.
+ * <p>
+ * Use {@link FrameProcessorConfiguration#builder()} to create a new instance.
+ */
+public class FrameProcessorConfiguration {
+
+    /**
+     * Processor receives every N-th frame of the stream. {@code 1} means every frame.
+     */
+    public final int samplingInterval;
+
+    /**
+     * Maximum number of frames per second which processor receives. {@code 0} means no limit.
+     */
+    public final float maxFrameRate;
+
+    /**
+     * Part of the frame which processor receives, see {@link FrameView}.
+     */
+    public final RegionOfInterest regionOfInterest;
+
+    /**
+     * Processor receives every N-th pixel of every N-th row. {@code 1} means full resolution.
+     */
+    public final int subsampling;
+
+    /**
+     * If {@code true}, processor receives only the luminance plane of the frame.
+     */
+    public final boolean lumaOnly;
+
+    private FrameProcessorConfiguration(Builder builder) {
+        this.samplingInterval = builder.samplingInterval;
+        this.maxFrameRate = builder.maxFrameRate;
+        this.regionOfInterest = builder.regionOfInterest;
+        this.subsampling = builder.subsampling;
+        this.lumaOnly = builder.lumaOnly;
+    }
+
+    /**
+     * @return configuration with which processor receives every frame.
+     */
+    public static FrameProcessorConfiguration defaultConfiguration() {
+        return builder().build();
+    }
+
+    /**
+     * @return builder for {@link FrameProcessorConfiguration}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        FrameProcessorConfiguration that = (FrameProcessorConfiguration) o;
+
+        return samplingInterval == that.samplingInterval
+                && Float.compare(that.maxFrameRate, maxFrameRate) == 0
+                && subsampling == that.subsampling
+                && lumaOnly == that.lumaOnly
+                && regionOfInterest.equals(that.regionOfInterest);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = samplingInterval;
+        result = 31 * result + (maxFrameRate != +0.0f ? Float.floatToIntBits(maxFrameRate) : 0);
+        result = 31 * result + regionOfInterest.hashCode();
+        result = 31 * result + subsampling;
+        result = 31 * result + (lumaOnly ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameProcessorConfiguration{" +
+                "samplingInterval=" + samplingInterval +
+                ", maxFrameRate=" + maxFrameRate +
+                ", regionOfInterest=" + regionOfInterest +
+                ", subsampling=" + subsampling +
+                ", lumaOnly=" + lumaOnly +
+                '}';
+    }
+
+    /**
+     * Builder for {@link FrameProcessorConfiguration}.
+     */
+    public static class Builder {
+
+        int samplingInterval = 1;
+        float maxFrameRate = 0f;
+        RegionOfInterest regionOfInterest = RegionOfInterest.FULL_FRAME;
+        int subsampling = 1;
+        boolean lumaOnly = false;
+
+        /**
+         * @param samplingInterval processor receives every N-th frame of the stream. Must be at
+         *                         least 1.
+         */
+        public Builder everyNthFrame(int samplingInterval) {
+            if (samplingInterval < 1) {
+                throw new IllegalArgumentException("Sampling interval must be at least 1. Was: " + samplingInterval);
+            }
+
+            this.samplingInterval = samplingInterval;
+            return this;
+        }
+
+        /**
+         * @param maxFrameRate maximum number of frames per second which processor receives. Must
+         *                     be positive.
+         */
+        public Builder maxFrameRate(float maxFrameRate) {
+            if (!(maxFrameRate > 0f)) {
+                throw new IllegalArgumentException("Frame rate must be positive. Was: " + maxFrameRate);
+            }
+
+            this.maxFrameRate = maxFrameRate;
+            return this;
+        }
+
+        /**
+         * @param regionOfInterest part of the frame, as seen by the user, which processor
+         *                         receives.
+         */
+        public Builder regionOfInterest(@NonNull RegionOfInterest regionOfInterest) {
+            this.regionOfInterest = regionOfInterest;
+            return this;
+        }
+
+        /**
+         * @param subsampling processor receives every N-th pixel of every N-th row. Must be at
+         *                    least 1.
+         */
+        public Builder subsampling(int subsampling) {
+            if (subsampling < 1) {
+                throw new IllegalArgumentException("Subsampling must be at least 1. Was: " + subsampling);
+            }
+
+            this.subsampling = subsampling;
+            return this;
+        }
+
+        /**
+         * @param lumaOnly if {@code true}, processor receives only the luminance plane of the
+         *                 frame.
+         */
+        public Builder lumaOnly(boolean lumaOnly) {
+            this.lumaOnly = lumaOnly;
+            return this;
+        }
+
+        /**
+         * @return a new instance of {@link FrameProcessorConfiguration} which uses values from
+         * current builder.
+         */
+        public FrameProcessorConfiguration build() {
+            return new FrameProcessorConfiguration(this);
+        }
+
+    }
+
+}
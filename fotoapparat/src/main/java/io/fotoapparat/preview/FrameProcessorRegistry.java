@@ -0,0 +1,78 @@
+package io.fotoapparat.preview;
+
+import java.util.Arrays;
+
+/**
+ * Ordered set of {@link FrameProcessor}s which can be read without locking.
+ * <p>
+ * Every modification publishes a new immutable snapshot, so registering or unregistering a
+ * processor never waits for a frame which is currently being processed, and reading does not
+ * allocate.
+ */
+class FrameProcessorRegistry {
+
+    private static final FrameProcessor[] EMPTY = new FrameProcessor[0];
+
+    private volatile FrameProcessor[] processors = EMPTY;
+
+    /**
+     * Adds processor to the end of the registry. If processor was already added, does nothing.
+     *
+     * @return {@code true} if processor was added.
+     */
+    synchronized boolean add(FrameProcessor processor) {
+        FrameProcessor[] current = processors;
+
+        if (indexOf(current, processor) >= 0) {
+            return false;
+        }
+
+        FrameProcessor[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = processor;
+
+        processors = updated;
+
+        return true;
+    }
+
+    /**
+     * Removes processor, keeping the order of others. If processor was not added, does nothing.
+     *
+     * @return {@code true} if processor was removed.
+     */
+    synchronized boolean remove(FrameProcessor processor) {
+        FrameProcessor[] current = processors;
+        int index = indexOf(current, processor);
+
+        if (index < 0) {
+            return false;
+        }
+
+        FrameProcessor[] updated = new FrameProcessor[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, index);
+        System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+
+        processors = updated;
+
+        return true;
+    }
+
+    /**
+     * @return processors in the order in which they were added. Returned array must not be
+     * modified.
+     */
+    FrameProcessor[] snapshot() {
+        return processors;
+    }
+
+    private static int indexOf(FrameProcessor[] processors, FrameProcessor processor) {
+        for (int i = 0; i < processors.length; i++) {
+            if (processors[i].equals(processor)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+}
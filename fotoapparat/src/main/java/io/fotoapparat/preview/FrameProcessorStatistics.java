@@ -0,0 +1,85 @@
+package io.fotoapparat.preview;
+
+/**
+ * Snapshot of counters of a single {@link FrameProcessor} registered in a {@link PreviewStream}.
+ * Immutable.
+ */
+public class FrameProcessorStatistics {
+
+    /**
+     * Processor which the statistics belong to.
+     */
+    public final FrameProcessor processor;
+
+    /**
+     * Number of frames which the processor has processed.
+     */
+    public final long processedCount;
+
+    /**
+     * Number of frames which were dropped before the processor got them. In
+     * {@link FrameDispatchMode#SEQUENTIAL} mode frames are dropped from the queue shared by all
+     * processors, so each dropped frame is counted for every processor.
+     */
+    public final long droppedCount;
+
+    /**
+     * Durations of {@link FrameProcessor#processFrame(Frame)} calls.
+     */
+    public final LatencyHistogram processingTime;
+
+    /**
+     * Durations since the frame was dispatched until the processor received it. Includes waiting
+     * in the queue and, in {@link FrameDispatchMode#SEQUENTIAL} mode, the time of processors
+     * registered before this one.
+     */
+    public final LatencyHistogram queueTime;
+
+    public FrameProcessorStatistics(FrameProcessor processor,
+                                    long processedCount,
+                                    long droppedCount,
+                                    LatencyHistogram processingTime,
+                                    LatencyHistogram queueTime) {
+        this.processor = processor;
+        this.processedCount = processedCount;
+        this.droppedCount = droppedCount;
+        this.processingTime = processingTime;
+        this.queueTime = queueTime;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        FrameProcessorStatistics that = (FrameProcessorStatistics) o;
+
+        return processedCount == that.processedCount
+                && droppedCount == that.droppedCount
+                && processor.equals(that.processor)
+                && processingTime.equals(that.processingTime)
+                && queueTime.equals(that.queueTime);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = processor.hashCode();
+        result = 31 * result + (int) (processedCount ^ (processedCount >>> 32));
+        result = 31 * result + (int) (droppedCount ^ (droppedCount >>> 32));
+        result = 31 * result + processingTime.hashCode();
+        result = 31 * result + queueTime.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameProcessorStatistics{" +
+                "processor=" + processor +
+                ", processedCount=" + processedCount +
+                ", droppedCount=" + droppedCount +
+                ", processingTime=" + processingTime +
+                ", queueTime=" + queueTime +
+                '}';
+    }
+
+}
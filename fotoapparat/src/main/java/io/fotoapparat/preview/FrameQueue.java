@@ -0,0 +1,89 @@
+package io.fotoapparat.preview;
+
+/**
+ * Bounded queue of frames waiting to be processed. When the queue is full, a frame is dropped
+ * according to {@link FrameDropPolicy}.
+ * <p>
+ * Queue is backed by a fixed ring buffer, so it does not allocate while frames are passing
+ * through.
+ */
+class FrameQueue {
+
+    private final FrameDropPolicy dropPolicy;
+    private final Frame[] frames;
+
+    private int head = 0;
+    private int count = 0;
+
+    FrameQueue(int capacity, FrameDropPolicy dropPolicy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1. Was: " + capacity);
+        }
+
+        this.dropPolicy = dropPolicy;
+        this.frames = new Frame[dropPolicy == FrameDropPolicy.LATEST_ONLY ? 1 : capacity];
+    }
+
+    /**
+     * Adds frame to the queue. Never blocks.
+     *
+     * @return frame which was dropped as a result of this operation. {@code null} if no frame was
+     * dropped.
+     */
+    synchronized Frame offer(Frame frame) {
+        Frame droppedFrame = null;
+
+        if (count == frames.length) {
+            if (dropPolicy == FrameDropPolicy.DROP_NEWEST) {
+                return frame;
+            }
+
+            droppedFrame = removeFirst();
+        }
+
+        frames[(head + count) % frames.length] = frame;
+        count++;
+
+        notifyAll();
+
+        return droppedFrame;
+    }
+
+    /**
+     * Waits until there is a frame in the queue and removes it.
+     *
+     * @return the oldest frame in the queue.
+     * @throws InterruptedException if thread was interrupted while waiting.
+     */
+    synchronized Frame take() throws InterruptedException {
+        while (count == 0) {
+            wait();
+        }
+
+        return removeFirst();
+    }
+
+    /**
+     * Removes the oldest frame from the queue if there is any. Never blocks.
+     *
+     * @return the oldest frame in the queue or {@code null} if queue is empty.
+     */
+    synchronized Frame poll() {
+        if (count == 0) {
+            return null;
+        }
+
+        return removeFirst();
+    }
+
+    private Frame removeFirst() {
+        Frame frame = frames[head];
+
+        frames[head] = null;
+        head = (head + 1) % frames.length;
+        count--;
+
+        return frame;
+    }
+
+}
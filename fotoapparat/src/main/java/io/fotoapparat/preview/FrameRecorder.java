@@ -0,0 +1,189 @@
+package io.fotoapparat.preview;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.Deflater;
+
+/**
+ * {@link FrameProcessor} which appends NV21 frames to a file, so that they can be replayed later
+ * by {@link FrameReplayer}, for example on a machine without a camera.
+ * <p>
+ * File is written through memory-mapped regions, so recording a frame is a memory copy rather
+ * than a system call. Optionally, images are compressed with the fastest {@link Deflater} level.
+ * Frames without NV21 image, such as {@link YuvFrame}s, are skipped.
+ * <p>
+ * Recorder must be closed, otherwise the file keeps the unused tail of the last region.
+ */
+public class FrameRecorder implements FrameProcessor, Closeable {
+
+    /**
+     * "FRM1" in ASCII.
+     */
+    static final int MAGIC = 0x46524D31;
+    static final int VERSION = 1;
+    static final int FILE_HEADER_SIZE = 4 + 4;
+
+    /**
+     * Width, height, rotation, timestamp, sequence number, flags, image length and payload
+     * length.
+     */
+    static final int FRAME_HEADER_SIZE = 4 + 4 + 4 + 8 + 8 + 1 + 4 + 4;
+
+    static final byte FLAG_COMPRESSED = 1;
+
+    static final int DEFAULT_REGION_SIZE = 16 * 1024 * 1024;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final Deflater deflater;
+    private final int regionSize;
+
+    private MappedByteBuffer region;
+    private long position = 0;
+    private byte[] compressedImage = new byte[0];
+    private boolean closed = false;
+
+    /**
+     * @param file     file to write to. Existing content is overwritten.
+     * @param compress {@code true} to compress images.
+     * @throws IOException if file can not be opened.
+     */
+    public FrameRecorder(File file, boolean compress) throws IOException {
+        this(file, compress, DEFAULT_REGION_SIZE);
+    }
+
+    FrameRecorder(File file, boolean compress, int regionSize) throws IOException {
+        this.file = new RandomAccessFile(file, "rw");
+        this.channel = this.file.getChannel();
+        this.deflater = compress ? new Deflater(Deflater.BEST_SPEED, true) : null;
+        this.regionSize = regionSize;
+
+        channel.truncate(0);
+
+        ensureCapacity(FILE_HEADER_SIZE);
+        region.putInt(MAGIC);
+        region.putInt(VERSION);
+        position += FILE_HEADER_SIZE;
+    }
+
+    /**
+     * Appends the frame to the file.
+     *
+     * @throws RecordingException if frame could not be written.
+     */
+    @Override
+    public synchronized void processFrame(Frame frame) {
+        if (closed || frame.image == null) {
+            return;
+        }
+
+        byte[] image = frame.image;
+        byte[] payload = image;
+        int payloadLength = image.length;
+        byte flags = 0;
+
+        if (deflater != null) {
+            int compressedLength = compress(image);
+
+            if (compressedLength >= 0) {
+                payload = compressedImage;
+                payloadLength = compressedLength;
+                flags = FLAG_COMPRESSED;
+            }
+        }
+
+        try {
+            ensureCapacity(FRAME_HEADER_SIZE + payloadLength);
+        } catch (IOException e) {
+            throw new RecordingException(e);
+        }
+
+        region.putInt(frame.size.width);
+        region.putInt(frame.size.height);
+        region.putInt(frame.rotation);
+        region.putLong(frame.getTimestamp());
+        region.putLong(frame.getSequenceNumber());
+        region.put(flags);
+        region.putInt(image.length);
+        region.putInt(payloadLength);
+        region.put(payload, 0, payloadLength);
+
+        position += FRAME_HEADER_SIZE + payloadLength;
+    }
+
+    /**
+     * Cuts the file at the end of the last frame and closes it.
+     *
+     * @throws IOException if file could not be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        region = null;
+
+        if (deflater != null) {
+            deflater.end();
+        }
+
+        try {
+            channel.truncate(position);
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Compresses image into {@link #compressedImage}.
+     *
+     * @return length of the compressed image or {@code -1} if it does not get any smaller.
+     */
+    private int compress(byte[] image) {
+        if (compressedImage.length < image.length) {
+            compressedImage = new byte[image.length];
+        }
+
+        deflater.reset();
+        deflater.setInput(image);
+        deflater.finish();
+
+        int length = deflater.deflate(compressedImage, 0, image.length);
+
+        return deflater.finished() ? length : -1;
+    }
+
+    /**
+     * Makes sure that current region has room for given number of bytes, mapping a new region
+     * at the end of the file if needed.
+     */
+    private void ensureCapacity(int bytes) throws IOException {
+        if (region != null && region.remaining() >= bytes) {
+            return;
+        }
+
+        region = channel.map(
+                FileChannel.MapMode.READ_WRITE,
+                position,
+                Math.max(regionSize, bytes)
+        );
+    }
+
+    /**
+     * Thrown when frame could not be written to the file.
+     */
+    public static class RecordingException extends RuntimeException {
+
+        public RecordingException(Throwable cause) {
+            super(cause);
+        }
+
+    }
+
+}
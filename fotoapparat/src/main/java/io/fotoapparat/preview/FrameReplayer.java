@@ -0,0 +1,237 @@
+package io.fotoapparat.preview;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import io.fotoapparat.parameter.Size;
+
+/**
+ * Reads frames written by {@link FrameRecorder} and passes them to a {@link FrameProcessor}, either
+ * with the timing of the recording or as fast as the processor can take them.
+ * <p>
+ * Frames carry recorded size, rotation, timestamp and sequence number. Their images are reused for
+ * the following frames, so processors must not keep them, same as with a live
+ * {@link PreviewStream}.
+ */
+public class FrameReplayer implements Closeable {
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final Inflater inflater = new Inflater(true);
+    private final int regionSize;
+
+    private MappedByteBuffer region;
+    private long regionStart;
+    private byte[] image = new byte[0];
+    private byte[] compressedImage = new byte[0];
+
+    /**
+     * @param file file written by {@link FrameRecorder}.
+     * @throws IOException if file can not be opened or was not written by {@link FrameRecorder}.
+     */
+    public FrameReplayer(File file) throws IOException {
+        this(file, FrameRecorder.DEFAULT_REGION_SIZE);
+    }
+
+    FrameReplayer(File file, int regionSize) throws IOException {
+        this.file = new RandomAccessFile(file, "r");
+        this.channel = this.file.getChannel();
+        this.regionSize = regionSize;
+
+        try {
+            checkFileHeader();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Passes all recorded frames to the processor on the calling thread. Can be called several
+     * times, each time replay starts from the first frame.
+     *
+     * @param processor receives the frames.
+     * @param speed     whether to keep the timing of the recording.
+     * @return number of frames passed to the processor.
+     * @throws IOException if file is damaged.
+     */
+    public int replay(FrameProcessor processor, Speed speed) throws IOException {
+        long position = FrameRecorder.FILE_HEADER_SIZE;
+        long size = channel.size();
+
+        long firstTimestamp = 0;
+        long startTime = System.nanoTime();
+        int framesCount = 0;
+
+        while (position < size) {
+            MappedByteBuffer buffer = map(position, FrameRecorder.FRAME_HEADER_SIZE);
+
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            int rotation = buffer.getInt();
+            long timestamp = buffer.getLong();
+            long sequenceNumber = buffer.getLong();
+            byte flags = buffer.get();
+            int imageLength = buffer.getInt();
+            int payloadLength = buffer.getInt();
+
+            if (imageLength < 0 || payloadLength < 0) {
+                throw new IOException("Damaged frame at " + position);
+            }
+
+            position += FrameRecorder.FRAME_HEADER_SIZE;
+
+            Frame frame = new Frame(
+                    new Size(width, height),
+                    readImage(position, flags, imageLength, payloadLength),
+                    rotation
+            );
+
+            position += payloadLength;
+
+            if (framesCount == 0) {
+                firstTimestamp = timestamp;
+            } else if (speed == Speed.RECORDED) {
+                if (!sleepUntil(startTime + timestamp - firstTimestamp)) {
+                    break;
+                }
+            }
+
+            frame.setMetadata(timestamp, sequenceNumber, System.nanoTime());
+            processor.processFrame(frame);
+
+            framesCount++;
+        }
+
+        return framesCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        region = null;
+        inflater.end();
+        file.close();
+    }
+
+    private void checkFileHeader() throws IOException {
+        if (channel.size() < FrameRecorder.FILE_HEADER_SIZE) {
+            throw new IOException("File is too short to be a recording");
+        }
+
+        MappedByteBuffer buffer = map(0, FrameRecorder.FILE_HEADER_SIZE);
+
+        if (buffer.getInt() != FrameRecorder.MAGIC) {
+            throw new IOException("File is not a frame recording");
+        }
+
+        int version = buffer.getInt();
+
+        if (version != FrameRecorder.VERSION) {
+            throw new IOException("Unsupported recording version: " + version);
+        }
+    }
+
+    private byte[] readImage(long position,
+                             byte flags,
+                             int imageLength,
+                             int payloadLength) throws IOException {
+        if (image.length != imageLength) {
+            image = new byte[imageLength];
+        }
+
+        MappedByteBuffer buffer = map(position, payloadLength);
+
+        if ((flags & FrameRecorder.FLAG_COMPRESSED) == 0) {
+            buffer.get(image, 0, imageLength);
+            return image;
+        }
+
+        if (compressedImage.length < payloadLength) {
+            compressedImage = new byte[payloadLength];
+        }
+
+        buffer.get(compressedImage, 0, payloadLength);
+
+        inflater.reset();
+        inflater.setInput(compressedImage, 0, payloadLength);
+
+        try {
+            if (inflater.inflate(image) != imageLength) {
+                throw new IOException("Damaged image at " + position);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Damaged image at " + position, e);
+        }
+
+        return image;
+    }
+
+    /**
+     * @return region which contains given range of the file, positioned at its start.
+     */
+    private MappedByteBuffer map(long position, int length) throws IOException {
+        if (position + length > channel.size()) {
+            throw new IOException("Recording is truncated at " + position);
+        }
+
+        if (region == null
+                || position < regionStart
+                || position + length > regionStart + region.capacity()) {
+            long size = Math.min(
+                    channel.size() - position,
+                    Math.max(regionSize, length)
+            );
+
+            region = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+            regionStart = position;
+        }
+
+        region.position((int) (position - regionStart));
+
+        return region;
+    }
+
+    /**
+     * @return {@code false} if thread was interrupted while waiting.
+     */
+    private static boolean sleepUntil(long time) {
+        long delay;
+
+        // Sleep rounds to milliseconds and might wake up early, so keep sleeping until the time
+        while ((delay = time - System.nanoTime()) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Pace of the replay.
+     */
+    public enum Speed {
+
+        /**
+         * Frames are passed with the same intervals as they were recorded.
+         */
+        RECORDED,
+
+        /**
+         * Frames are passed as soon as the processor is done with the previous one.
+         */
+        MAXIMUM
+
+    }
+
+}
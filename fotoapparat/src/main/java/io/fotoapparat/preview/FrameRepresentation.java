@@ -0,0 +1,248 @@
+package io.fotoapparat.preview;
+
+import java.nio.ByteBuffer;
+
+import io.fotoapparat.parameter.Size;
+
+/**
+ * Form of a {@link Frame} which is derived from its image, such as grayscale, downscaled or ARGB
+ * image. Requested with {@link Frame#getRepresentation(FrameRepresentation)}, which derives it
+ * once per frame and shares it between all processors.
+ * <p>
+ * Representations are compared by identity, so each of them should be a single shared instance.
+ * Custom representations can be added by extending this class.
+ *
+ * @param <T> type of the buffer which holds the representation.
+ */
+public abstract class FrameRepresentation<T> {
+
+    /**
+     * Luminance plane, one byte per pixel, row by row without padding.
+     */
+    public static final FrameRepresentation<byte[]> LUMA = new LumaRepresentation();
+
+    /**
+     * Luminance plane downscaled by 2 in both directions, each pixel being the average of a 2x2
+     * block. Odd last row or column is dropped.
+     */
+    public static final FrameRepresentation<byte[]> HALF_SCALE_LUMA = new HalfScaleLumaRepresentation();
+
+    /**
+     * Image in NV21 format. Mostly useful for {@link YuvFrame}s, which do not carry one.
+     */
+    public static final FrameRepresentation<byte[]> NV21 = new Nv21Representation();
+
+    /**
+     * ARGB pixels, row by row without padding, as produced by {@link ArgbConverter}. Not
+     * available for luminance-only {@link FrameView}s.
+     */
+    public static final FrameRepresentation<int[]> ARGB = new ArgbRepresentation();
+
+    /**
+     * Summed-area table of the luminance: value at {@code y * width + x} is the sum of all pixels
+     * in rows {@code [0, y]} and columns {@code [0, x]}. Sum of any rectangle can be computed from
+     * four values of the table.
+     */
+    public static final FrameRepresentation<int[]> SUMMED_AREA_TABLE = new SummedAreaTableRepresentation();
+
+    /**
+     * @return new buffer which can hold the representation of a frame of given size.
+     */
+    protected abstract T allocate(Size size);
+
+    /**
+     * @return {@code true} if previously allocated buffer can hold the representation of a frame
+     * of given size.
+     */
+    protected abstract boolean fits(T buffer, Size size);
+
+    /**
+     * Writes the representation of the frame into the buffer. Might request other
+     * representations of the same frame.
+     *
+     * @param frame  source frame.
+     * @param output buffer returned by {@link #allocate(Size)} which {@link #fits(Object, Size)}
+     *               the frame. Contains data of some older frame.
+     */
+    protected abstract void derive(Frame frame, T output);
+
+    /**
+     * @return luminance plane of the frame, row by row without padding. Might be the image of the
+     * frame itself.
+     */
+    static byte[] lumaOf(Frame frame) {
+        return frame.image != null ? frame.image : frame.getRepresentation(LUMA);
+    }
+
+    private static class LumaRepresentation extends FrameRepresentation<byte[]> {
+
+        @Override
+        protected byte[] allocate(Size size) {
+            return new byte[size.width * size.height];
+        }
+
+        @Override
+        protected boolean fits(byte[] buffer, Size size) {
+            return buffer.length == size.width * size.height;
+        }
+
+        @Override
+        protected void derive(Frame frame, byte[] output) {
+            int width = frame.size.width;
+            int height = frame.size.height;
+
+            if (frame.image != null) {
+                System.arraycopy(frame.image, 0, output, 0, width * height);
+                return;
+            }
+
+            YuvFrame.Plane plane = ((YuvFrame) frame).yPlane;
+            ByteBuffer buffer = plane.buffer.duplicate();
+
+            for (int row = 0; row < height; row++) {
+                int offset = row * plane.rowStride;
+
+                if (plane.pixelStride == 1) {
+                    buffer.position(offset);
+                    buffer.get(output, row * width, width);
+                    continue;
+                }
+
+                for (int column = 0; column < width; column++) {
+                    output[row * width + column] = buffer.get(offset + column * plane.pixelStride);
+                }
+            }
+        }
+
+    }
+
+    private static class HalfScaleLumaRepresentation extends FrameRepresentation<byte[]> {
+
+        @Override
+        protected byte[] allocate(Size size) {
+            return new byte[(size.width / 2) * (size.height / 2)];
+        }
+
+        @Override
+        protected boolean fits(byte[] buffer, Size size) {
+            return buffer.length == (size.width / 2) * (size.height / 2);
+        }
+
+        @Override
+        protected void derive(Frame frame, byte[] output) {
+            byte[] luma = lumaOf(frame);
+            int width = frame.size.width;
+            int outputWidth = width / 2;
+            int outputHeight = frame.size.height / 2;
+            int index = 0;
+
+            for (int row = 0; row < outputHeight; row++) {
+                int top = 2 * row * width;
+                int bottom = top + width;
+
+                for (int column = 0; column < outputWidth; column++) {
+                    int x = 2 * column;
+                    int sum = (luma[top + x] & 0xFF)
+                            + (luma[top + x + 1] & 0xFF)
+                            + (luma[bottom + x] & 0xFF)
+                            + (luma[bottom + x + 1] & 0xFF);
+
+                    output[index++] = (byte) ((sum + 2) >> 2);
+                }
+            }
+        }
+
+    }
+
+    private static class Nv21Representation extends FrameRepresentation<byte[]> {
+
+        @Override
+        protected byte[] allocate(Size size) {
+            return new byte[YuvConverter.nv21Size(size.width, size.height)];
+        }
+
+        @Override
+        protected boolean fits(byte[] buffer, Size size) {
+            return buffer.length == YuvConverter.nv21Size(size.width, size.height);
+        }
+
+        @Override
+        protected void derive(Frame frame, byte[] output) {
+            if (frame.image != null) {
+                checkChroma(frame);
+                System.arraycopy(frame.image, 0, output, 0, output.length);
+            } else {
+                YuvConverter.forCurrentThread().toNv21((YuvFrame) frame, output);
+            }
+        }
+
+    }
+
+    private static class ArgbRepresentation extends FrameRepresentation<int[]> {
+
+        @Override
+        protected int[] allocate(Size size) {
+            return new int[ArgbConverter.argbSize(size.width, size.height)];
+        }
+
+        @Override
+        protected boolean fits(int[] buffer, Size size) {
+            return buffer.length == ArgbConverter.argbSize(size.width, size.height);
+        }
+
+        @Override
+        protected void derive(Frame frame, int[] output) {
+            checkChroma(frame);
+
+            byte[] nv21 = frame.image != null ? frame.image : frame.getRepresentation(NV21);
+            int height = frame.size.height;
+
+            ArgbConverter.convertRows(nv21, frame.size.width, height, 0, height, output);
+        }
+
+    }
+
+    private static class SummedAreaTableRepresentation extends FrameRepresentation<int[]> {
+
+        @Override
+        protected int[] allocate(Size size) {
+            return new int[size.width * size.height];
+        }
+
+        @Override
+        protected boolean fits(int[] buffer, Size size) {
+            return buffer.length == size.width * size.height;
+        }
+
+        @Override
+        protected void derive(Frame frame, int[] output) {
+            byte[] luma = lumaOf(frame);
+            int width = frame.size.width;
+            int height = frame.size.height;
+
+            int rowSum = 0;
+            for (int column = 0; column < width; column++) {
+                rowSum += luma[column] & 0xFF;
+                output[column] = rowSum;
+            }
+
+            for (int row = 1; row < height; row++) {
+                int offset = row * width;
+                rowSum = 0;
+
+                for (int i = offset; i < offset + width; i++) {
+                    rowSum += luma[i] & 0xFF;
+                    output[i] = rowSum + output[i - width];
+                }
+            }
+        }
+
+    }
+
+    private static void checkChroma(Frame frame) {
+        if (frame instanceof FrameView && ((FrameView) frame).lumaOnly) {
+            throw new IllegalStateException("Frame view does not contain chroma.");
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package io.fotoapparat.preview;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link FrameRepresentation}s of a single frame. Each representation is derived once, by the
+ * first thread which requests it. Threads which request it at the same time wait for that thread,
+ * while different representations are derived in parallel.
+ * <p>
+ * Buffers come from a {@link DerivedBufferPool} and go back there when the cache is invalidated.
+ */
+class FrameRepresentationCache {
+
+    private final ConcurrentHashMap<FrameRepresentation<?>, Entry> entries = new ConcurrentHashMap<>(4);
+
+    /**
+     * Pool of frames which were not delivered by a {@link FrameDispatcher}.
+     */
+    final DerivedBufferPool localBufferPool = new DerivedBufferPool();
+
+    /**
+     * @return representation of the frame, derived now if it was not derived yet.
+     */
+    <T> T get(Frame frame, FrameRepresentation<T> representation, DerivedBufferPool pool) {
+        Entry entry = entries.get(representation);
+
+        if (entry == null) {
+            Entry newEntry = new Entry();
+            entry = entries.putIfAbsent(representation, newEntry);
+
+            if (entry == null) {
+                entry = newEntry;
+            }
+        }
+
+        return entry.get(frame, representation, pool);
+    }
+
+    /**
+     * Forgets all representations and returns their buffers to the pool. Must not be called while
+     * frame is still in use.
+     */
+    void invalidate(DerivedBufferPool pool) {
+        for (Map.Entry<FrameRepresentation<?>, Entry> entry : entries.entrySet()) {
+            entry.getValue().recycle(entry.getKey(), pool);
+        }
+
+        entries.clear();
+    }
+
+    private static class Entry {
+
+        private Object value;
+
+        @SuppressWarnings("unchecked")
+        synchronized <T> T get(Frame frame,
+                               FrameRepresentation<T> representation,
+                               DerivedBufferPool pool) {
+            if (value == null) {
+                T buffer = pool.acquire(representation, frame.size);
+
+                try {
+                    representation.derive(frame, buffer);
+                } catch (RuntimeException e) {
+                    pool.recycle(representation, buffer);
+                    throw e;
+                }
+
+                value = buffer;
+            }
+
+            return (T) value;
+        }
+
+        synchronized void recycle(FrameRepresentation<?> representation, DerivedBufferPool pool) {
+            if (value != null) {
+                pool.recycle(representation, value);
+                value = null;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,68 @@
+package io.fotoapparat.preview;
+
+/**
+ * Decides which frames are delivered to a {@link FrameProcessor} according to its
+ * {@link FrameProcessorConfiguration}.
+ * <p>
+ * Sampler is stateful and must not be called from several threads at the same time.
+ */
+class FrameSampler {
+
+    private static final long NANOS_IN_SECOND = 1000000000L;
+
+    private final int samplingInterval;
+    private final long minFrameDistance;
+
+    private long framesCount = 0;
+    private long lastTimestamp = 0;
+    private boolean sampledBefore = false;
+
+    FrameSampler(FrameProcessorConfiguration configuration) {
+        samplingInterval = configuration.samplingInterval;
+        minFrameDistance = minFrameDistance(configuration.maxFrameRate);
+    }
+
+    /**
+     * Minimum distance between two frames. It is 5% shorter than the period of the given rate,
+     * so that jitter of timestamps does not make every other frame miss the limit.
+     */
+    private static long minFrameDistance(float maxFrameRate) {
+        if (maxFrameRate == 0f) {
+            return 0;
+        }
+
+        return (long) (NANOS_IN_SECOND / maxFrameRate * 0.95);
+    }
+
+    /**
+     * @return {@code true} if every frame is accepted.
+     */
+    boolean acceptsAll() {
+        return samplingInterval == 1 && minFrameDistance == 0;
+    }
+
+    /**
+     * @return {@code true} if frame should be delivered to the processor.
+     */
+    boolean accept(Frame frame) {
+        if (acceptsAll()) {
+            return true;
+        }
+
+        if (framesCount++ % samplingInterval != 0) {
+            return false;
+        }
+
+        long timestamp = frame.getTimestamp();
+
+        if (sampledBefore && timestamp - lastTimestamp < minFrameDistance) {
+            return false;
+        }
+
+        sampledBefore = true;
+        lastTimestamp = timestamp;
+
+        return true;
+    }
+
+}
@@ -0,0 +1,21 @@
+package io.fotoapparat.preview;
+
+/**
+ * Single step of a {@link FramePipeline}, for example a detector, a tracker or a renderer.
+ *
+ * @param <I> result of the previous stage. The first stage receives the {@link Frame} itself.
+ * @param <O> result passed to the next stage.
+ */
+public interface FrameStage<I, O> {
+
+    /**
+     * Called on the executor of the stage. The frame stays valid until the last stage is done
+     * with it.
+     *
+     * @param frame frame which is being processed.
+     * @param input result of the previous stage.
+     * @return result for the next stage or {@code null} if the frame should not go any further.
+     */
+    O process(Frame frame, I input);
+
+}
@@ -0,0 +1,127 @@
+package io.fotoapparat.preview;
+
+import java.util.Arrays;
+
+/**
+ * Luminance statistics of a {@link Frame}, calculated once per frame by the {@link PreviewStream}
+ * before it is dispatched to processors. Immutable.
+ * <p>
+ * Statistics describe the whole frame, also when processor receives a {@link FrameView}. They are
+ * calculated from a subsampled luminance plane, see
+ * {@link PreviewStreamConfiguration#statisticsSubsampling}.
+ */
+public class FrameStatistics {
+
+    /**
+     * Number of luminance levels.
+     */
+    public static final int LEVELS = 256;
+
+    /**
+     * Number of darkest and brightest levels which count as clipped.
+     */
+    public static final int CLIPPING_LEVELS = 4;
+
+    /**
+     * Number of pixels which were sampled.
+     */
+    public final int samplesCount;
+
+    /**
+     * Average luminance of the samples, from {@code 0} to {@code 255}.
+     */
+    public final float meanLuma;
+
+    /**
+     * Share of samples, from {@code 0} to {@code 1}, which are darker than
+     * {@link #CLIPPING_LEVELS}.
+     */
+    public final float shadowsClippedRatio;
+
+    /**
+     * Share of samples, from {@code 0} to {@code 1}, which are within {@link #CLIPPING_LEVELS}
+     * from white.
+     */
+    public final float highlightsClippedRatio;
+
+    private final int[] histogram;
+
+    private FrameStatistics(int[] histogram) {
+        this.histogram = histogram;
+
+        int samplesCount = 0;
+        long lumaSum = 0;
+        int shadowsCount = 0;
+        int highlightsCount = 0;
+
+        for (int level = 0; level < LEVELS; level++) {
+            int count = histogram[level];
+
+            samplesCount += count;
+            lumaSum += (long) level * count;
+
+            if (level < CLIPPING_LEVELS) {
+                shadowsCount += count;
+            } else if (level >= LEVELS - CLIPPING_LEVELS) {
+                highlightsCount += count;
+            }
+        }
+
+        this.samplesCount = samplesCount;
+        this.meanLuma = samplesCount == 0 ? 0f : (float) lumaSum / samplesCount;
+        this.shadowsClippedRatio = samplesCount == 0 ? 0f : (float) shadowsCount / samplesCount;
+        this.highlightsClippedRatio = samplesCount == 0 ? 0f : (float) highlightsCount / samplesCount;
+    }
+
+    /**
+     * @param histogram number of samples for each of the {@link #LEVELS}. Must not be modified
+     *                  afterwards.
+     */
+    static FrameStatistics fromHistogram(int[] histogram) {
+        if (histogram.length != LEVELS) {
+            throw new IllegalArgumentException("Histogram must have " + LEVELS + " levels. Was: " + histogram.length);
+        }
+
+        return new FrameStatistics(histogram);
+    }
+
+    /**
+     * @return number of samples with the given luminance.
+     */
+    public int getHistogramCount(int luma) {
+        return histogram[luma];
+    }
+
+    /**
+     * @return copy of the histogram of luminance, indexed by level.
+     */
+    public int[] getHistogram() {
+        return histogram.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        FrameStatistics that = (FrameStatistics) o;
+
+        return Arrays.equals(histogram, that.histogram);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(histogram);
+    }
+
+    @Override
+    public String toString() {
+        return "FrameStatistics{" +
+                "samplesCount=" + samplesCount +
+                ", meanLuma=" + meanLuma +
+                ", shadowsClippedRatio=" + shadowsClippedRatio +
+                ", highlightsClippedRatio=" + highlightsClippedRatio +
+                '}';
+    }
+
+}
@@ -0,0 +1,196 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Calculates {@link FrameStatistics} from the luminance plane of a frame in a single pass.
+ * <p>
+ * Every {@link #subsampling}-th row is sampled. Within a row, runs of {@link #RUN_LENGTH}
+ * neighbouring pixels are sampled every {@link #subsampling} runs. Runs of planes with adjacent
+ * pixels are read at once as a {@code long} and unpacked in registers, runs of NV21 images are
+ * read byte by byte, because a {@code byte[]} can not be read as {@code long}s without copying.
+ * Pixels are counted into several interleaved histograms which are merged at the end, so that
+ * consecutive pixels of the same luminance do not wait for each other's increments. Mean and
+ * clipping are derived from the histogram.
+ * <p>
+ * Calculator reuses its histograms and must not be called from several threads at the same time,
+ * each thread should use its own calculator, for example {@link #forCurrentThread(int)}. Only the
+ * merged histogram of the result is allocated, because {@link FrameStatistics} can be kept by
+ * processors for as long as they like.
+ */
+public class FrameStatisticsCalculator {
+
+    /**
+     * Number of neighbouring pixels which are sampled together.
+     */
+    static final int RUN_LENGTH = 8;
+
+    private static final int LEVELS = FrameStatistics.LEVELS;
+
+    private static final ThreadLocal<FrameStatisticsCalculator> THREAD_CALCULATORS =
+            new ThreadLocal<>();
+
+    private final int subsampling;
+
+    /**
+     * Four histograms one after another. Pixel {@code i} of a run goes to histogram
+     * {@code i % 4}.
+     */
+    private final int[] histograms = new int[4 * LEVELS];
+
+    /**
+     * @param subsampling distance in rows between sampled rows and in runs between sampled runs.
+     *                    Must be at least 1.
+     */
+    public FrameStatisticsCalculator(int subsampling) {
+        if (subsampling < 1) {
+            throw new IllegalArgumentException("Subsampling must be at least 1. Was: " + subsampling);
+        }
+
+        this.subsampling = subsampling;
+    }
+
+    /**
+     * @return calculator of the calling thread with given subsampling. Its histograms are shared
+     * by all the callers on that thread.
+     */
+    public static FrameStatisticsCalculator forCurrentThread(int subsampling) {
+        FrameStatisticsCalculator calculator = THREAD_CALCULATORS.get();
+
+        if (calculator == null || calculator.subsampling != subsampling) {
+            calculator = new FrameStatisticsCalculator(subsampling);
+            THREAD_CALCULATORS.set(calculator);
+        }
+
+        return calculator;
+    }
+
+    /**
+     * @return calculator for the {@link PreviewStreamConfiguration#statisticsSubsampling} of the
+     * configuration, {@code null} if statistics are disabled.
+     */
+    @Nullable
+    public static FrameStatisticsCalculator forConfiguration(PreviewStreamConfiguration configuration) {
+        return configuration.statisticsSubsampling == 0
+                ? null
+                : new FrameStatisticsCalculator(configuration.statisticsSubsampling);
+    }
+
+    /**
+     * @return statistics of the luminance plane of the frame.
+     */
+    public FrameStatistics calculate(Frame frame) {
+        Arrays.fill(histograms, 0);
+
+        int width = frame.size.width;
+        int height = frame.size.height;
+
+        if (frame.image != null) {
+            countImage(frame.image, width, height);
+        } else {
+            YuvFrame.Plane plane = ((YuvFrame) frame).yPlane;
+
+            if (plane.pixelStride == 1) {
+                countPlane(plane.buffer, plane.rowStride, width, height);
+            } else {
+                countStridedPlane(plane.buffer, plane.rowStride, plane.pixelStride, width, height);
+            }
+        }
+
+        return FrameStatistics.fromHistogram(mergeHistograms());
+    }
+
+    private void countImage(byte[] image, int width, int height) {
+        int[] histograms = this.histograms;
+        int runStep = RUN_LENGTH * subsampling;
+        int fullRunsEnd = width - RUN_LENGTH;
+
+        for (int row = 0; row < height; row += subsampling) {
+            int offset = row * width;
+            int column = 0;
+
+            for (; column <= fullRunsEnd; column += runStep) {
+                int i = offset + column;
+
+                histograms[image[i] & 0xFF]++;
+                histograms[LEVELS + (image[i + 1] & 0xFF)]++;
+                histograms[2 * LEVELS + (image[i + 2] & 0xFF)]++;
+                histograms[3 * LEVELS + (image[i + 3] & 0xFF)]++;
+                histograms[image[i + 4] & 0xFF]++;
+                histograms[LEVELS + (image[i + 5] & 0xFF)]++;
+                histograms[2 * LEVELS + (image[i + 6] & 0xFF)]++;
+                histograms[3 * LEVELS + (image[i + 7] & 0xFF)]++;
+            }
+
+            for (int end = Math.min(column + RUN_LENGTH, width); column < end; column++) {
+                histograms[image[offset + column] & 0xFF]++;
+            }
+        }
+    }
+
+    private void countPlane(ByteBuffer buffer, int rowStride, int width, int height) {
+        int[] histograms = this.histograms;
+        int runStep = RUN_LENGTH * subsampling;
+        int fullRunsEnd = width - RUN_LENGTH;
+
+        for (int row = 0; row < height; row += subsampling) {
+            int offset = row * rowStride;
+            int column = 0;
+
+            for (; column <= fullRunsEnd; column += runStep) {
+                // Byte order does not matter, every byte is counted the same way
+                long pixels = buffer.getLong(offset + column);
+
+                histograms[(int) pixels & 0xFF]++;
+                histograms[LEVELS + ((int) (pixels >>> 8) & 0xFF)]++;
+                histograms[2 * LEVELS + ((int) (pixels >>> 16) & 0xFF)]++;
+                histograms[3 * LEVELS + ((int) (pixels >>> 24) & 0xFF)]++;
+                histograms[(int) (pixels >>> 32) & 0xFF]++;
+                histograms[LEVELS + ((int) (pixels >>> 40) & 0xFF)]++;
+                histograms[2 * LEVELS + ((int) (pixels >>> 48) & 0xFF)]++;
+                histograms[3 * LEVELS + ((int) (pixels >>> 56) & 0xFF)]++;
+            }
+
+            for (int end = Math.min(column + RUN_LENGTH, width); column < end; column++) {
+                histograms[buffer.get(offset + column) & 0xFF]++;
+            }
+        }
+    }
+
+    private void countStridedPlane(ByteBuffer buffer,
+                                   int rowStride,
+                                   int pixelStride,
+                                   int width,
+                                   int height) {
+        int runStep = RUN_LENGTH * subsampling;
+
+        for (int row = 0; row < height; row += subsampling) {
+            int offset = row * rowStride;
+
+            for (int runStart = 0; runStart < width; runStart += runStep) {
+                int end = Math.min(runStart + RUN_LENGTH, width);
+
+                for (int column = runStart; column < end; column++) {
+                    histograms[buffer.get(offset + column * pixelStride) & 0xFF]++;
+                }
+            }
+        }
+    }
+
+    private int[] mergeHistograms() {
+        int[] histogram = new int[LEVELS];
+
+        for (int level = 0; level < LEVELS; level++) {
+            histogram[level] = histograms[level]
+                    + histograms[LEVELS + level]
+                    + histograms[2 * LEVELS + level]
+                    + histograms[3 * LEVELS + level];
+        }
+
+        return histogram;
+    }
+
+}
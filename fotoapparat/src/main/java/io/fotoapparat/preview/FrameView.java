@@ -0,0 +1,90 @@
+package io.fotoapparat.preview;
+
+import io.fotoapparat.parameter.Size;
+
+/**
+ * Part of a {@link Frame} which was requested by a processor through
+ * {@link FrameProcessorConfiguration}: a region of interest, possibly subsampled, possibly without
+ * chroma.
+ * <p>
+ * Like the frame itself, the view is not rotated: {@link #rotation} and metadata are the ones of
+ * the source frame. Use {@link #toFrameX(int)} and {@link #toFrameY(int)} to map a pixel of the
+ * view back to the source frame.
+ * <p>
+ * The view and its {@link #image} are reused for the following frames, so they must not be kept
+ * after {@link FrameProcessor#processFrame(Frame)} returns, unless they are passed to a
+ * {@link FramePipeline}, which holds the view until its last stage is done.
+ */
+public class FrameView extends Frame {
+
+    /**
+     * Size of the source frame in pixels (before rotation).
+     */
+    public final Size frameSize;
+
+    /**
+     * Column of the source frame at which the view starts.
+     */
+    public final int left;
+
+    /**
+     * Row of the source frame at which the view starts.
+     */
+    public final int top;
+
+    /**
+     * Distance in source pixels between two neighbouring pixels of the view.
+     */
+    public final int subsampling;
+
+    /**
+     * If {@code true}, {@link #image} contains only the luminance plane of the view. Otherwise it
+     * is in NV21 format.
+     */
+    public final boolean lumaOnly;
+
+    FrameView(Size size,
+              byte[] image,
+              int rotation,
+              Size frameSize,
+              int left,
+              int top,
+              int subsampling,
+              boolean lumaOnly) {
+        super(size, image, rotation);
+
+        this.frameSize = frameSize;
+        this.left = left;
+        this.top = top;
+        this.subsampling = subsampling;
+        this.lumaOnly = lumaOnly;
+    }
+
+    /**
+     * @return column of the source frame which corresponds to the given column of the view.
+     */
+    public int toFrameX(int x) {
+        return left + x * subsampling;
+    }
+
+    /**
+     * @return row of the source frame which corresponds to the given row of the view.
+     */
+    public int toFrameY(int y) {
+        return top + y * subsampling;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameView{" +
+                "size=" + size +
+                ", rotation=" + rotation +
+                ", frameSize=" + frameSize +
+                ", left=" + left +
+                ", top=" + top +
+                ", subsampling=" + subsampling +
+                ", lumaOnly=" + lumaOnly +
+                '}';
+    }
+
+}
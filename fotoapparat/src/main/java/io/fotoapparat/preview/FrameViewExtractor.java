@@ -0,0 +1,215 @@
+package io.fotoapparat.preview;
+
+import io.fotoapparat.parameter.Size;
+
+/**
+ * Produces {@link FrameView}s of NV21 frames for a single processor.
+ * <p>
+ * The view and its buffer are reused for as long as the size and the rotation of the frames stay
+ * the same and nobody retains the previous view, so in a steady state extracting a view does not
+ * allocate.
+ * <p>
+ * Extractor is stateful and must not be called from several threads at the same time.
+ */
+class FrameViewExtractor {
+
+    private final RegionOfInterest regionOfInterest;
+    private final int subsampling;
+    private final boolean lumaOnly;
+
+    private FrameView view;
+    private Size lastFrameSize;
+    private int lastRotation;
+
+    FrameViewExtractor(FrameProcessorConfiguration configuration) {
+        regionOfInterest = configuration.regionOfInterest;
+        subsampling = configuration.subsampling;
+        lumaOnly = configuration.lumaOnly;
+    }
+
+    /**
+     * @return {@code true} if processor with given configuration receives whole frames, so no view
+     * has to be extracted.
+     */
+    static boolean isWholeFrame(FrameProcessorConfiguration configuration) {
+        return configuration.regionOfInterest.isFullFrame()
+                && configuration.subsampling == 1
+                && !configuration.lumaOnly;
+    }
+
+    /**
+     * @return view of the given NV21 frame. Valid until the next call.
+     */
+    FrameView extract(Frame frame) {
+        if (view == null
+                || view.isRetained()
+                || !frame.size.equals(lastFrameSize)
+                || frame.rotation != lastRotation) {
+            view = createView(frame.size, frame.rotation);
+            lastFrameSize = frame.size;
+            lastRotation = frame.rotation;
+        } else {
+            view.invalidateRepresentations();
+        }
+
+        copyLuma(frame, view);
+
+        if (!lumaOnly) {
+            copyChroma(frame, view);
+        }
+
+        view.setMetadata(
+                frame.getTimestamp(),
+                frame.getSequenceNumber(),
+                frame.getDispatchTimestamp()
+        );
+        view.setChangeScore(frame.getChangeScore());
+        view.setStatistics(frame.getStatistics());
+
+        return view;
+    }
+
+    /**
+     * Maps region of interest from user orientation to the orientation of the frame and aligns
+     * it, so that view starts at a pixel which has its own chroma sample.
+     */
+    private FrameView createView(Size frameSize, int rotation) {
+        float left;
+        float top;
+        float right;
+        float bottom;
+
+        switch ((rotation % 360 + 360) % 360) {
+            case 90:
+                left = regionOfInterest.top;
+                top = 1f - regionOfInterest.right;
+                right = regionOfInterest.bottom;
+                bottom = 1f - regionOfInterest.left;
+                break;
+            case 180:
+                left = 1f - regionOfInterest.right;
+                top = 1f - regionOfInterest.bottom;
+                right = 1f - regionOfInterest.left;
+                bottom = 1f - regionOfInterest.top;
+                break;
+            case 270:
+                left = 1f - regionOfInterest.bottom;
+                top = regionOfInterest.left;
+                right = 1f - regionOfInterest.top;
+                bottom = regionOfInterest.right;
+                break;
+            default:
+                left = regionOfInterest.left;
+                top = regionOfInterest.top;
+                right = regionOfInterest.right;
+                bottom = regionOfInterest.bottom;
+                break;
+        }
+
+        int minLength = lumaOnly ? 1 : 2;
+
+        int viewWidth = viewLength(left, right, frameSize.width, minLength);
+        int viewHeight = viewLength(top, bottom, frameSize.height, minLength);
+
+        int viewLeft = viewStart(left, frameSize.width, viewWidth);
+        int viewTop = viewStart(top, frameSize.height, viewHeight);
+
+        int imageSize = lumaOnly
+                ? viewWidth * viewHeight
+                : YuvConverter.nv21Size(viewWidth, viewHeight);
+
+        return new FrameView(
+                new Size(viewWidth, viewHeight),
+                new byte[imageSize],
+                rotation,
+                frameSize,
+                viewLeft,
+                viewTop,
+                subsampling,
+                lumaOnly
+        );
+    }
+
+    /**
+     * @return number of view pixels between given relative coordinates. Even, unless only luma is
+     * needed.
+     */
+    private int viewLength(float start, float end, int frameLength, int minLength) {
+        int startPixel = (int) Math.floor(start * frameLength) & ~1;
+        int endPixel = Math.min(frameLength, (int) Math.ceil(end * frameLength));
+
+        int length = (endPixel - startPixel + subsampling - 1) / subsampling;
+
+        if (!lumaOnly) {
+            length &= ~1;
+        }
+
+        return Math.max(length, minLength);
+    }
+
+    /**
+     * @return even source pixel at which view starts, moved back if needed so that the whole view
+     * fits into the frame.
+     */
+    private int viewStart(float start, int frameLength, int viewLength) {
+        int startPixel = (int) Math.floor(start * frameLength) & ~1;
+        int lastStart = (frameLength - 1 - (viewLength - 1) * subsampling) & ~1;
+
+        return Math.max(0, Math.min(startPixel, lastStart));
+    }
+
+    private static void copyLuma(Frame frame, FrameView view) {
+        byte[] source = frame.image;
+        byte[] target = view.image;
+
+        int frameWidth = frame.size.width;
+        int width = view.size.width;
+        int height = view.size.height;
+        int step = view.subsampling;
+
+        for (int y = 0; y < height; y++) {
+            int sourceOffset = view.toFrameY(y) * frameWidth + view.left;
+            int targetOffset = y * width;
+
+            if (step == 1) {
+                System.arraycopy(source, sourceOffset, target, targetOffset, width);
+            } else {
+                for (int x = 0; x < width; x++) {
+                    target[targetOffset + x] = source[sourceOffset + x * step];
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies interleaved VU samples. Each chroma sample of the view is taken from the source
+     * sample which covers its top-left luma pixel.
+     */
+    private static void copyChroma(Frame frame, FrameView view) {
+        byte[] source = frame.image;
+        byte[] target = view.image;
+
+        int frameWidth = frame.size.width;
+        int chromaOffset = frameWidth * frame.size.height;
+        int width = view.size.width;
+        int height = view.size.height;
+        int step = view.subsampling;
+
+        for (int y = 0; y < height / 2; y++) {
+            int sourceOffset = chromaOffset + view.toFrameY(2 * y) / 2 * frameWidth;
+            int targetOffset = width * height + y * width;
+
+            if (step == 1) {
+                System.arraycopy(source, sourceOffset + view.left, target, targetOffset, width);
+            } else {
+                for (int x = 0; x < width; x += 2) {
+                    int sourceIndex = sourceOffset + (view.toFrameX(x) & ~1);
+
+                    target[targetOffset + x] = source[sourceIndex];
+                    target[targetOffset + x + 1] = source[sourceIndex + 1];
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,164 @@
+package io.fotoapparat.preview;
+
+import java.util.Arrays;
+
+/**
+ * Snapshot of a distribution of durations. Immutable.
+ * <p>
+ * Durations are counted in buckets which split every power of two into {@link #SUB_BUCKETS}
+ * equal parts, so percentiles are accurate within 25% regardless of whether frames take
+ * microseconds or seconds.
+ */
+public class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 2;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Durations from 2^40 nanoseconds (about 18 minutes) on fall into the last bucket.
+     */
+    static final int MAX_EXPONENT = 40;
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts;
+    private final long count;
+    private final long totalDuration;
+    private final long maxDuration;
+
+    LatencyHistogram(long[] counts, long totalDuration, long maxDuration) {
+        this.counts = counts;
+        this.totalDuration = totalDuration;
+        this.maxDuration = maxDuration;
+
+        long count = 0;
+        for (long bucketCount : counts) {
+            count += bucketCount;
+        }
+        this.count = count;
+    }
+
+    /**
+     * @return histogram without any recorded durations.
+     */
+    public static LatencyHistogram empty() {
+        return new LatencyHistogram(new long[BUCKET_COUNT], 0, 0);
+    }
+
+    /**
+     * @return index of the bucket which counts given duration.
+     */
+    static int bucketIndex(long duration) {
+        if (duration < SUB_BUCKETS) {
+            return (int) duration;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(duration);
+
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+
+        int subBucket = (int) (duration >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return smallest duration which is counted by the bucket.
+     */
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+
+        return (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * @return number of recorded durations.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return average duration in nanoseconds or {@code 0} if nothing was recorded.
+     */
+    public long getMean() {
+        return count == 0 ? 0 : totalDuration / count;
+    }
+
+    /**
+     * @return longest recorded duration in nanoseconds.
+     */
+    public long getMax() {
+        return maxDuration;
+    }
+
+    /**
+     * @param percentile value between {@code 0} and {@code 100}.
+     * @return duration in nanoseconds which is not exceeded by the given percentage of recorded
+     * durations, rounded up to the bucket boundary. {@code 0} if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100. Was: " + percentile);
+        }
+
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+
+            if (seen >= rank) {
+                long upperBound = i == counts.length - 1
+                        ? maxDuration
+                        : bucketLowerBound(i + 1) - 1;
+
+                return Math.min(upperBound, maxDuration);
+            }
+        }
+
+        return maxDuration;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        LatencyHistogram that = (LatencyHistogram) o;
+
+        return totalDuration == that.totalDuration
+                && maxDuration == that.maxDuration
+                && Arrays.equals(counts, that.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(counts);
+        result = 31 * result + (int) (totalDuration ^ (totalDuration >>> 32));
+        result = 31 * result + (int) (maxDuration ^ (maxDuration >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" +
+                "count=" + count +
+                ", mean=" + getMean() +
+                ", p50=" + getPercentile(50) +
+                ", p99=" + getPercentile(99) +
+                ", max=" + maxDuration +
+                '}';
+    }
+
+}
@@ -0,0 +1,52 @@
+package io.fotoapparat.preview;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts durations in logarithmic buckets, see {@link LatencyHistogram}. Recording is a few atomic
+ * increments and never allocates, so it can be done for every frame. Can be recorded and read from
+ * any thread.
+ */
+class LatencyRecorder {
+
+    private final AtomicLongArray counts = new AtomicLongArray(LatencyHistogram.BUCKET_COUNT);
+    private final AtomicLong totalDuration = new AtomicLong();
+    private final AtomicLong maxDuration = new AtomicLong();
+
+    /**
+     * @param duration duration in nanoseconds. Negative durations are counted as {@code 0}.
+     */
+    void record(long duration) {
+        if (duration < 0) {
+            duration = 0;
+        }
+
+        counts.incrementAndGet(LatencyHistogram.bucketIndex(duration));
+        totalDuration.addAndGet(duration);
+
+        long max;
+        do {
+            max = maxDuration.get();
+        } while (duration > max && !maxDuration.compareAndSet(max, duration));
+    }
+
+    /**
+     * @return copy of the current counts. Values recorded concurrently might be partially
+     * included.
+     */
+    LatencyHistogram snapshot() {
+        long[] snapshotCounts = new long[LatencyHistogram.BUCKET_COUNT];
+
+        for (int i = 0; i < snapshotCounts.length; i++) {
+            snapshotCounts[i] = counts.get(i);
+        }
+
+        return new LatencyHistogram(
+                snapshotCounts,
+                totalDuration.get(),
+                maxDuration.get()
+        );
+    }
+
+}
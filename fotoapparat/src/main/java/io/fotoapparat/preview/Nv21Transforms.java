@@ -0,0 +1,276 @@
+package io.fotoapparat.preview;
+
+import io.fotoapparat.parameter.Size;
+
+/**
+ * Rotates and mirrors NV21 images and single luminance planes into buffers provided by the caller,
+ * so that transforming a stream of frames does not allocate.
+ * <p>
+ * Rotation is clockwise, the same way as {@link Frame#rotation}: rotating a frame by its rotation
+ * makes it upright. Mirroring flips the rotated image horizontally, which is what front cameras
+ * need to look like a mirror.
+ * <p>
+ * Rotations by 90 and 270 degrees read the source in square blocks, so that both the rows which
+ * are read and the columns which are written stay in cache. All methods are thread-safe.
+ */
+public class Nv21Transforms {
+
+    /**
+     * Side of the square block in pixels. 32 rows of 32 chroma pairs fit into 2 KB of output.
+     */
+    private static final int BLOCK_SIZE = 32;
+
+    private Nv21Transforms() {
+    }
+
+    /**
+     * @return size of the image after it is rotated by given degrees.
+     */
+    public static Size rotatedSize(Size size, int degrees) {
+        return isQuarterTurn(degrees) ? size.flip() : size;
+    }
+
+    /**
+     * Rotates and optionally mirrors NV21 image.
+     *
+     * @param image   source image in NV21 format.
+     * @param width   width of the source image. Must be even.
+     * @param height  height of the source image. Must be even.
+     * @param degrees clockwise rotation. Must be a multiple of 90.
+     * @param mirror  {@code true} to flip the rotated image horizontally.
+     * @param output  destination. Must be at least as large as the image and not the same array.
+     * @throws IllegalArgumentException if the arguments are not valid.
+     */
+    public static void rotate(byte[] image,
+                              int width,
+                              int height,
+                              int degrees,
+                              boolean mirror,
+                              byte[] output) {
+        if ((width & 1) != 0 || (height & 1) != 0) {
+            throw new IllegalArgumentException("NV21 image must have even dimensions. Was: " + width + "x" + height);
+        }
+
+        int lumaSize = width * height;
+
+        checkBuffers(image, output, lumaSize + lumaSize / 2);
+
+        transformPlane(image, 0, width, height, 1, degrees, mirror, output, 0);
+        transformPlane(image, lumaSize, width / 2, height / 2, 2, degrees, mirror, output, lumaSize);
+    }
+
+    /**
+     * Rotates and optionally mirrors a luminance plane, or any other plane with one byte per
+     * pixel.
+     *
+     * @param plane   source plane without row padding.
+     * @param width   width of the source plane.
+     * @param height  height of the source plane.
+     * @param degrees clockwise rotation. Must be a multiple of 90.
+     * @param mirror  {@code true} to flip the rotated plane horizontally.
+     * @param output  destination. Must be at least as large as the plane and not the same array.
+     * @throws IllegalArgumentException if the arguments are not valid.
+     */
+    public static void rotateLuma(byte[] plane,
+                                  int width,
+                                  int height,
+                                  int degrees,
+                                  boolean mirror,
+                                  byte[] output) {
+        checkBuffers(plane, output, width * height);
+
+        transformPlane(plane, 0, width, height, 1, degrees, mirror, output, 0);
+    }
+
+    private static void checkBuffers(byte[] source, byte[] output, int size) {
+        if (source == output) {
+            throw new IllegalArgumentException("Image can not be transformed in place");
+        }
+        if (source.length < size) {
+            throw new IllegalArgumentException("Source is too small. Expected: " + size + ", was: " + source.length);
+        }
+        if (output.length < size) {
+            throw new IllegalArgumentException("Output is too small. Expected: " + size + ", was: " + output.length);
+        }
+    }
+
+    private static boolean isQuarterTurn(int degrees) {
+        return normalize(degrees) % 180 != 0;
+    }
+
+    private static int normalize(int degrees) {
+        if (degrees % 90 != 0) {
+            throw new IllegalArgumentException("Rotation must be a multiple of 90 degrees. Was: " + degrees);
+        }
+
+        return (degrees % 360 + 360) % 360;
+    }
+
+    /**
+     * Moves every pixel of the plane to its place in the output. Pixel {@code (x, y)} of the
+     * source lands at index {@code start + x * stepX + y * stepY} of the output (in pixels).
+     */
+    private static void transformPlane(byte[] source,
+                                       int sourceOffset,
+                                       int width,
+                                       int height,
+                                       int pixelBytes,
+                                       int degrees,
+                                       boolean mirror,
+                                       byte[] output,
+                                       int outputOffset) {
+        int rotation = normalize(degrees);
+        int outputWidth = rotation % 180 == 0 ? width : height;
+
+        // Output column is columnStart + x * columnStepX + y * columnStepY, same for rows
+        int columnStart;
+        int columnStepX;
+        int columnStepY;
+        int rowStart;
+        int rowStepX;
+        int rowStepY;
+
+        switch (rotation) {
+            case 90:
+                columnStart = height - 1;
+                columnStepX = 0;
+                columnStepY = -1;
+                rowStart = 0;
+                rowStepX = 1;
+                rowStepY = 0;
+                break;
+            case 180:
+                columnStart = width - 1;
+                columnStepX = -1;
+                columnStepY = 0;
+                rowStart = height - 1;
+                rowStepX = 0;
+                rowStepY = -1;
+                break;
+            case 270:
+                columnStart = 0;
+                columnStepX = 0;
+                columnStepY = 1;
+                rowStart = width - 1;
+                rowStepX = -1;
+                rowStepY = 0;
+                break;
+            default:
+                columnStart = 0;
+                columnStepX = 1;
+                columnStepY = 0;
+                rowStart = 0;
+                rowStepX = 0;
+                rowStepY = 1;
+                break;
+        }
+
+        if (mirror) {
+            columnStart = outputWidth - 1 - columnStart;
+            columnStepX = -columnStepX;
+            columnStepY = -columnStepY;
+        }
+
+        int start = columnStart + rowStart * outputWidth;
+        int stepX = columnStepX + rowStepX * outputWidth;
+        int stepY = columnStepY + rowStepY * outputWidth;
+
+        if (stepX == 1 && stepY == width) {
+            System.arraycopy(
+                    source, sourceOffset,
+                    output, outputOffset,
+                    width * height * pixelBytes
+            );
+        } else if (stepX == -1 || stepX == 1) {
+            transformRows(
+                    source, sourceOffset, width, height, pixelBytes,
+                    output, outputOffset, start, stepX, stepY
+            );
+        } else {
+            transformBlocks(
+                    source, sourceOffset, width, height, pixelBytes,
+                    output, outputOffset, start, stepX, stepY
+            );
+        }
+    }
+
+    /**
+     * Used when rows of the source stay rows of the output, so both are accessed sequentially.
+     */
+    private static void transformRows(byte[] source,
+                                      int sourceOffset,
+                                      int width,
+                                      int height,
+                                      int pixelBytes,
+                                      byte[] output,
+                                      int outputOffset,
+                                      int start,
+                                      int stepX,
+                                      int stepY) {
+        for (int y = 0; y < height; y++) {
+            copyRow(
+                    source, sourceOffset + y * width * pixelBytes,
+                    output, outputOffset + (start + y * stepY) * pixelBytes,
+                    width, pixelBytes, stepX * pixelBytes
+            );
+        }
+    }
+
+    /**
+     * Used when rows of the source become columns of the output. Each block is read row by row
+     * and written column by column while its output rows are still in cache.
+     */
+    private static void transformBlocks(byte[] source,
+                                        int sourceOffset,
+                                        int width,
+                                        int height,
+                                        int pixelBytes,
+                                        byte[] output,
+                                        int outputOffset,
+                                        int start,
+                                        int stepX,
+                                        int stepY) {
+        for (int blockY = 0; blockY < height; blockY += BLOCK_SIZE) {
+            int blockHeight = Math.min(BLOCK_SIZE, height - blockY);
+
+            for (int blockX = 0; blockX < width; blockX += BLOCK_SIZE) {
+                int blockWidth = Math.min(BLOCK_SIZE, width - blockX);
+
+                for (int y = blockY; y < blockY + blockHeight; y++) {
+                    copyRow(
+                            source, sourceOffset + (y * width + blockX) * pixelBytes,
+                            output, outputOffset + (start + blockX * stepX + y * stepY) * pixelBytes,
+                            blockWidth, pixelBytes, stepX * pixelBytes
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies consecutive source pixels to output positions which are {@code outputStep} bytes
+     * apart.
+     */
+    private static void copyRow(byte[] source,
+                                int sourceIndex,
+                                byte[] output,
+                                int outputIndex,
+                                int pixelsCount,
+                                int pixelBytes,
+                                int outputStep) {
+        if (pixelBytes == 1) {
+            for (int i = 0; i < pixelsCount; i++) {
+                output[outputIndex] = source[sourceIndex + i];
+                outputIndex += outputStep;
+            }
+        } else {
+            for (int i = 0; i < pixelsCount; i++) {
+                output[outputIndex] = source[sourceIndex];
+                output[outputIndex + 1] = source[sourceIndex + 1];
+                sourceIndex += 2;
+                outputIndex += outputStep;
+            }
+        }
+    }
+
+}
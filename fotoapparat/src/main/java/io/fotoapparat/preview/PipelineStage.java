@@ -0,0 +1,259 @@
+package io.fotoapparat.preview;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.fotoapparat.log.Logger;
+
+/**
+ * Runs a single {@link FrameStage} of the {@link FramePipeline}: keeps a bounded queue of frames
+ * waiting for the stage, passes them to the stage one at a time on its executor and hands the
+ * results over to the next stage.
+ * <p>
+ * Each frame in the queue holds one reference which is moved from stage to stage and released
+ * when the frame is dropped or leaves the pipeline. Stage which throws an exception does not stop
+ * the pipeline: the failure is logged and the frame is counted as dropped.
+ */
+class PipelineStage implements Runnable {
+
+    private final FrameStage<Object, Object> stage;
+    private final String name;
+    private final Logger logger;
+    private final Executor executor;
+    private final ExecutorService ownExecutor;
+    private final int capacity;
+    private final FrameDropPolicy dropPolicy;
+    private final ArrayDeque<Item> queue = new ArrayDeque<>();
+
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong totalProcessingTime = new AtomicLong();
+    private final AtomicLong maxProcessingTime = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+
+    private PipelineStage next;
+    private boolean draining = false;
+    private boolean shutDown = false;
+
+    @SuppressWarnings("unchecked")
+    PipelineStage(FrameStage<?, ?> stage, StageConfiguration configuration, Logger logger) {
+        this.stage = (FrameStage<Object, Object>) stage;
+        this.name = configuration.name;
+        this.logger = logger;
+        this.capacity = configuration.dropPolicy == FrameDropPolicy.LATEST_ONLY
+                ? 1
+                : configuration.queueCapacity;
+        this.dropPolicy = configuration.dropPolicy;
+
+        if (configuration.executor == null) {
+            ownExecutor = Executors.newSingleThreadExecutor(new StageThreadFactory(name));
+            executor = ownExecutor;
+        } else {
+            ownExecutor = null;
+            executor = configuration.executor;
+        }
+    }
+
+    /**
+     * Sets the stage which receives results of this one.
+     */
+    void setNext(PipelineStage next) {
+        this.next = next;
+    }
+
+    /**
+     * Adds frame to the queue of the stage. Never blocks. Takes over the reference held by the
+     * caller.
+     */
+    void offer(Frame frame, Object input) {
+        Item droppedItem = null;
+        boolean schedule = false;
+
+        synchronized (this) {
+            boolean full = queue.size() == capacity;
+
+            if (shutDown || (full && dropPolicy == FrameDropPolicy.DROP_NEWEST)) {
+                droppedItem = new Item(frame, input);
+            } else {
+                if (full) {
+                    droppedItem = queue.poll();
+                }
+
+                queue.add(new Item(frame, input));
+
+                if (!draining) {
+                    draining = true;
+                    schedule = true;
+                }
+            }
+        }
+
+        if (droppedItem != null) {
+            droppedCount.incrementAndGet();
+            droppedItem.frame.release();
+        }
+
+        if (schedule) {
+            schedule();
+        }
+    }
+
+    /**
+     * Counts frame which could not enter the pipeline as dropped.
+     */
+    void onFrameRejected() {
+        droppedCount.incrementAndGet();
+    }
+
+    @Override
+    public void run() {
+        Item item;
+
+        while ((item = poll()) != null) {
+            process(item);
+        }
+    }
+
+    /**
+     * @return counters of the stage.
+     */
+    StageStatistics getStatistics() {
+        long processed = processedCount.get();
+
+        return new StageStatistics(
+                name,
+                processed,
+                droppedCount.get(),
+                processed == 0 ? 0 : totalProcessingTime.get() / processed,
+                maxProcessingTime.get(),
+                processed == 0 ? 0 : totalLatency.get() / processed
+        );
+    }
+
+    /**
+     * Releases frames waiting for the stage and stops its thread, if it has one. Frame which is
+     * currently being processed is released once the stage is done with it.
+     */
+    void shutdown() {
+        synchronized (this) {
+            shutDown = true;
+        }
+
+        releasePendingFrames();
+
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+    }
+
+    private void process(Item item) {
+        Frame frame = item.frame;
+        Object output;
+
+        long startTime = System.nanoTime();
+
+        try {
+            output = stage.process(frame, item.input);
+        } catch (RuntimeException e) {
+            logger.log("Pipeline stage " + name + " failed: " + e);
+            droppedCount.incrementAndGet();
+            frame.release();
+            return;
+        }
+
+        long endTime = System.nanoTime();
+
+        recordTimes(endTime - startTime, endTime - frame.getDispatchTimestamp());
+
+        if (output != null && next != null) {
+            next.offer(frame, output);
+        } else {
+            frame.release();
+        }
+    }
+
+    private void recordTimes(long processingTime, long latency) {
+        processedCount.incrementAndGet();
+        totalProcessingTime.addAndGet(processingTime);
+        totalLatency.addAndGet(latency);
+
+        long max;
+        do {
+            max = maxProcessingTime.get();
+        } while (processingTime > max && !maxProcessingTime.compareAndSet(max, processingTime));
+    }
+
+    private synchronized Item poll() {
+        Item item = queue.poll();
+
+        if (item == null) {
+            draining = false;
+        }
+
+        return item;
+    }
+
+    private void schedule() {
+        try {
+            executor.execute(this);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                draining = false;
+            }
+
+            releasePendingFrames();
+        }
+    }
+
+    private void releasePendingFrames() {
+        Item item;
+
+        while ((item = pollPending()) != null) {
+            droppedCount.incrementAndGet();
+            item.frame.release();
+        }
+    }
+
+    private synchronized Item pollPending() {
+        return queue.poll();
+    }
+
+    /**
+     * Frame waiting for the stage together with the result of the previous stage.
+     */
+    private static class Item {
+
+        private final Frame frame;
+        private final Object input;
+
+        private Item(Frame frame, Object input) {
+            this.frame = frame;
+            this.input = input;
+        }
+
+    }
+
+    private static class StageThreadFactory implements ThreadFactory {
+
+        private final String name;
+
+        private StageThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "FramePipeline-" + name);
+            thread.setDaemon(true);
+
+            return thread;
+        }
+
+    }
+
+}
@@ -0,0 +1,73 @@
+package io.fotoapparat.preview;
+
+import java.util.List;
+
+/**
+ * Snapshot of counters of a {@link PreviewStream}. Immutable.
+ */
+public class PreviewStatistics {
+
+    /**
+     * @see PreviewStream#getDroppedFramesCount()
+     */
+    public final long droppedFramesCount;
+
+    /**
+     * @see PreviewStream#getSkippedFramesCount()
+     */
+    public final long skippedFramesCount;
+
+    /**
+     * @see PreviewStream#getProcessorStatistics()
+     */
+    public final List<FrameProcessorStatistics> processors;
+
+    public PreviewStatistics(long droppedFramesCount,
+                             long skippedFramesCount,
+                             List<FrameProcessorStatistics> processors) {
+        this.droppedFramesCount = droppedFramesCount;
+        this.skippedFramesCount = skippedFramesCount;
+        this.processors = processors;
+    }
+
+    /**
+     * @return statistics of given stream.
+     */
+    public static PreviewStatistics of(PreviewStream previewStream) {
+        return new PreviewStatistics(
+                previewStream.getDroppedFramesCount(),
+                previewStream.getSkippedFramesCount(),
+                previewStream.getProcessorStatistics()
+        );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PreviewStatistics that = (PreviewStatistics) o;
+
+        return droppedFramesCount == that.droppedFramesCount
+                && skippedFramesCount == that.skippedFramesCount
+                && processors.equals(that.processors);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (droppedFramesCount ^ (droppedFramesCount >>> 32));
+        result = 31 * result + (int) (skippedFramesCount ^ (skippedFramesCount >>> 32));
+        result = 31 * result + processors.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PreviewStatistics{" +
+                "droppedFramesCount=" + droppedFramesCount +
+                ", skippedFramesCount=" + skippedFramesCount +
+                ", processors=" + processors +
+                '}';
+    }
+
+}
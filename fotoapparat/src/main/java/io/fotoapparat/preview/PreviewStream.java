@@ -2,6 +2,9 @@ package io.fotoapparat.preview;
 
 import android.support.annotation.NonNull;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Stream of preview frames from the camera.
  */
@@ -21,15 +24,46 @@ public interface PreviewStream {
             // Do nothing
         }
 
+        @Override
+        public void addProcessor(@NonNull FrameProcessor processor,
+                                 @NonNull FrameProcessorConfiguration configuration) {
+            // Do nothing
+        }
+
         @Override
         public void removeProcessor(@NonNull FrameProcessor processor) {
             // Do nothing
         }
 
+        @Override
+        public void configure(@NonNull PreviewStreamConfiguration configuration) {
+            // Do nothing
+        }
+
         @Override
         public void start() {
             // Do nothing
         }
+
+        @Override
+        public void stop() {
+            // Do nothing
+        }
+
+        @Override
+        public long getDroppedFramesCount() {
+            return 0;
+        }
+
+        @Override
+        public long getSkippedFramesCount() {
+            return 0;
+        }
+
+        @Override
+        public List<FrameProcessorStatistics> getProcessorStatistics() {
+            return Collections.emptyList();
+        }
     };
 
     /**
@@ -42,14 +76,52 @@ public interface PreviewStream {
      */
     void addProcessor(@NonNull FrameProcessor processor);
 
+    /**
+     * Registers new processor which receives only frames matching given configuration, or
+     * {@link FrameView}s of them if configuration asks for a part of the frame. If processor was
+     * already added before, does nothing.
+     */
+    void addProcessor(@NonNull FrameProcessor processor,
+                      @NonNull FrameProcessorConfiguration configuration);
+
     /**
      * Unregisters the processor. If processor was not registered before, does nothing.
      */
     void removeProcessor(@NonNull FrameProcessor processor);
 
+    /**
+     * Applies configuration to the stream. Must be called before {@link #start()}.
+     */
+    void configure(@NonNull PreviewStreamConfiguration configuration);
+
     /**
      * Starts preview stream. After preview is started frame processors will start receiving frames.
      */
     void start();
 
+    /**
+     * Stops preview stream. Frames which were not yet delivered to frame processors are discarded.
+     * If stream was not started, does nothing.
+     */
+    void stop();
+
+    /**
+     * @return number of frames which were dropped because frame processors were not able to keep
+     * up with the camera.
+     * @see PreviewStreamConfiguration#dropPolicy
+     */
+    long getDroppedFramesCount();
+
+    /**
+     * @return number of frames which were not dispatched because the scene did not change enough.
+     * @see PreviewStreamConfiguration#sceneChangeThreshold
+     */
+    long getSkippedFramesCount();
+
+    /**
+     * @return statistics of each registered frame processor, in the order in which they were
+     * added.
+     */
+    List<FrameProcessorStatistics> getProcessorStatistics();
+
 }
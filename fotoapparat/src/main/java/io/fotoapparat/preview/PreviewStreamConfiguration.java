@@ -0,0 +1,251 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Configuration of the {@link PreviewStream}.
+ * <p>
+ * Use {@link PreviewStreamConfiguration#builder()} to create a new instance.
+ */
+public class PreviewStreamConfiguration {
+
+    /**
+     * Default number of preview buffers.
+     */
+    public static final int DEFAULT_BUFFER_COUNT = 3;
+
+    /**
+     * Default capacity of the queue of pending frames.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1;
+
+    /**
+     * Default maximum number of frames which processors can retain at once.
+     */
+    public static final int DEFAULT_MAX_RETAINED_FRAMES = 1;
+
+    /**
+     * Number of pre-allocated buffers for the preview frames. While {@link FrameProcessor}s are
+     * busy with one buffer, the camera keeps filling the others.
+     */
+    public final int bufferCount;
+
+    /**
+     * Maximum number of frames which are waiting to be processed. Should be lower than
+     * {@link #bufferCount}, otherwise the camera might run out of buffers before the queue is
+     * full.
+     */
+    public final int queueCapacity;
+
+    /**
+     * Decides which frame is dropped when the queue of pending frames is full.
+     */
+    @NonNull
+    public final FrameDropPolicy dropPolicy;
+
+    /**
+     * Decides whether frame processors are called one after another or in parallel.
+     */
+    @NonNull
+    public final FrameDispatchMode dispatchMode;
+
+    /**
+     * Minimum change of the scene, from {@code 0} to {@code 1}, since the last dispatched frame
+     * for a new frame to be dispatched. {@code 0} means that every frame is dispatched.
+     *
+     * @see SceneChangeDetector
+     */
+    public final float sceneChangeThreshold;
+
+    /**
+     * Maximum number of frames which {@link FrameProcessor}s can keep with
+     * {@link Frame#retain()} at once. Retained frames are not returned to the camera, so this
+     * should be lower than {@link #bufferCount} minus {@link #queueCapacity}, otherwise the camera
+     * might run out of buffers.
+     */
+    public final int maxRetainedFrames;
+
+    /**
+     * Distance between sampled rows of the luminance plane from which {@link FrameStatistics}
+     * are calculated. {@code 0} means that statistics are not calculated.
+     *
+     * @see Frame#getStatistics()
+     */
+    public final int statisticsSubsampling;
+
+    private PreviewStreamConfiguration(Builder builder) {
+        this.bufferCount = builder.bufferCount;
+        this.queueCapacity = builder.queueCapacity;
+        this.dropPolicy = builder.dropPolicy;
+        this.dispatchMode = builder.dispatchMode;
+        this.sceneChangeThreshold = builder.sceneChangeThreshold;
+        this.maxRetainedFrames = builder.maxRetainedFrames;
+        this.statisticsSubsampling = builder.statisticsSubsampling;
+    }
+
+    /**
+     * @return configuration with default values.
+     */
+    public static PreviewStreamConfiguration defaultConfiguration() {
+        return builder().build();
+    }
+
+    /**
+     * @return builder for {@link PreviewStreamConfiguration}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PreviewStreamConfiguration that = (PreviewStreamConfiguration) o;
+
+        return bufferCount == that.bufferCount
+                && queueCapacity == that.queueCapacity
+                && dropPolicy == that.dropPolicy
+                && dispatchMode == that.dispatchMode
+                && Float.compare(that.sceneChangeThreshold, sceneChangeThreshold) == 0
+                && maxRetainedFrames == that.maxRetainedFrames
+                && statisticsSubsampling == that.statisticsSubsampling;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = bufferCount;
+        result = 31 * result + queueCapacity;
+        result = 31 * result + dropPolicy.hashCode();
+        result = 31 * result + dispatchMode.hashCode();
+        result = 31 * result + (sceneChangeThreshold != +0.0f ? Float.floatToIntBits(sceneChangeThreshold) : 0);
+        result = 31 * result + maxRetainedFrames;
+        result = 31 * result + statisticsSubsampling;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PreviewStreamConfiguration{" +
+                "bufferCount=" + bufferCount +
+                ", queueCapacity=" + queueCapacity +
+                ", dropPolicy=" + dropPolicy +
+                ", dispatchMode=" + dispatchMode +
+                ", sceneChangeThreshold=" + sceneChangeThreshold +
+                ", maxRetainedFrames=" + maxRetainedFrames +
+                ", statisticsSubsampling=" + statisticsSubsampling +
+                '}';
+    }
+
+    /**
+     * Builder for {@link PreviewStreamConfiguration}.
+     */
+    public static class Builder {
+
+        int bufferCount = DEFAULT_BUFFER_COUNT;
+        int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        FrameDropPolicy dropPolicy = FrameDropPolicy.DROP_OLDEST;
+        FrameDispatchMode dispatchMode = FrameDispatchMode.SEQUENTIAL;
+        float sceneChangeThreshold = 0f;
+        int maxRetainedFrames = DEFAULT_MAX_RETAINED_FRAMES;
+        int statisticsSubsampling = 0;
+
+        /**
+         * @param bufferCount number of pre-allocated buffers for the preview frames. Must be at
+         *                    least 1.
+         */
+        public Builder bufferCount(int bufferCount) {
+            if (bufferCount < 1) {
+                throw new IllegalArgumentException("At least one buffer is required. Was: " + bufferCount);
+            }
+
+            this.bufferCount = bufferCount;
+            return this;
+        }
+
+        /**
+         * @param queueCapacity maximum number of frames which are waiting to be processed. Must be
+         *                      at least 1.
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException("Queue capacity must be at least 1. Was: " + queueCapacity);
+            }
+
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * @param dropPolicy decides which frame is dropped when the queue of pending frames is
+         *                   full.
+         */
+        public Builder dropPolicy(@NonNull FrameDropPolicy dropPolicy) {
+            this.dropPolicy = dropPolicy;
+            return this;
+        }
+
+        /**
+         * @param dispatchMode decides whether frame processors are called one after another or in
+         *                     parallel.
+         */
+        public Builder dispatchMode(@NonNull FrameDispatchMode dispatchMode) {
+            this.dispatchMode = dispatchMode;
+            return this;
+        }
+
+        /**
+         * @param sceneChangeThreshold minimum change of the scene since the last dispatched frame
+         *                             for a new frame to be dispatched. Must be between {@code 0}
+         *                             and {@code 1}. {@code 0} disables skipping of static
+         *                             scenes.
+         */
+        public Builder sceneChangeThreshold(float sceneChangeThreshold) {
+            if (!(sceneChangeThreshold >= 0f && sceneChangeThreshold <= 1f)) {
+                throw new IllegalArgumentException("Scene change threshold must be between 0 and 1. Was: " + sceneChangeThreshold);
+            }
+
+            this.sceneChangeThreshold = sceneChangeThreshold;
+            return this;
+        }
+
+        /**
+         * @param maxRetainedFrames maximum number of frames which processors can keep with
+         *                          {@link Frame#retain()} at once. Must be at least 0. {@code 0}
+         *                          means that frames can not be retained.
+         */
+        public Builder maxRetainedFrames(int maxRetainedFrames) {
+            if (maxRetainedFrames < 0) {
+                throw new IllegalArgumentException("Maximum number of retained frames must not be negative. Was: " + maxRetainedFrames);
+            }
+
+            this.maxRetainedFrames = maxRetainedFrames;
+            return this;
+        }
+
+        /**
+         * @param statisticsSubsampling distance between sampled rows of the luminance plane from
+         *                              which {@link FrameStatistics} are calculated. Must be at
+         *                              least 0. {@code 0} disables the statistics.
+         */
+        public Builder statisticsSubsampling(int statisticsSubsampling) {
+            if (statisticsSubsampling < 0) {
+                throw new IllegalArgumentException("Statistics subsampling must not be negative. Was: " + statisticsSubsampling);
+            }
+
+            this.statisticsSubsampling = statisticsSubsampling;
+            return this;
+        }
+
+        /**
+         * @return a new instance of {@link PreviewStreamConfiguration} which uses values from
+         * current builder.
+         */
+        public PreviewStreamConfiguration build() {
+            return new PreviewStreamConfiguration(this);
+        }
+
+    }
+
+}
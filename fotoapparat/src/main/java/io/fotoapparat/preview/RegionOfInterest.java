@@ -0,0 +1,72 @@
+package io.fotoapparat.preview;
+
+/**
+ * Rectangular part of the frame as seen by the user, that is after the frame is rotated by
+ * {@link Frame#rotation}. Coordinates are relative to the size of the frame and lie between
+ * {@code 0} and {@code 1}. Immutable.
+ */
+public class RegionOfInterest {
+
+    /**
+     * Region which covers the whole frame.
+     */
+    public static final RegionOfInterest FULL_FRAME = new RegionOfInterest(0f, 0f, 1f, 1f);
+
+    public final float left;
+    public final float top;
+    public final float right;
+    public final float bottom;
+
+    public RegionOfInterest(float left, float top, float right, float bottom) {
+        if (!(0f <= left && left < right && right <= 1f)
+                || !(0f <= top && top < bottom && bottom <= 1f)) {
+            throw new IllegalArgumentException("Region must be non-empty and lie within [0, 1]. Was: "
+                    + left + ", " + top + ", " + right + ", " + bottom);
+        }
+
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+    }
+
+    /**
+     * @return {@code true} if region covers the whole frame.
+     */
+    public boolean isFullFrame() {
+        return equals(FULL_FRAME);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        RegionOfInterest that = (RegionOfInterest) o;
+
+        return Float.compare(that.left, left) == 0
+                && Float.compare(that.top, top) == 0
+                && Float.compare(that.right, right) == 0
+                && Float.compare(that.bottom, bottom) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Float.floatToIntBits(left);
+        result = 31 * result + Float.floatToIntBits(top);
+        result = 31 * result + Float.floatToIntBits(right);
+        result = 31 * result + Float.floatToIntBits(bottom);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "RegionOfInterest{" +
+                "left=" + left +
+                ", top=" + top +
+                ", right=" + right +
+                ", bottom=" + bottom +
+                '}';
+    }
+
+}
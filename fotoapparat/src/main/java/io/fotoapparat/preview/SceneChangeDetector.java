@@ -0,0 +1,152 @@
+package io.fotoapparat.preview;
+
+import java.nio.ByteBuffer;
+
+import io.fotoapparat.parameter.Size;
+
+/**
+ * Skips frames of a static scene before they are dispatched to processors.
+ * <p>
+ * Luminance is sampled on a sparse grid and compared with the samples of the last accepted frame.
+ * The change score is the mean absolute difference of the samples, from {@code 0} (identical) to
+ * {@code 1} (black turned white). Frames which score below the threshold are skipped. Since the
+ * reference is the last accepted frame, slow changes add up until they pass the threshold.
+ * <p>
+ * Detector is stateful and must not be called from several threads at the same time.
+ */
+public class SceneChangeDetector {
+
+    /**
+     * Distance in pixels between two neighbouring samples, in both directions.
+     */
+    static final int SAMPLING_STEP = 8;
+
+    private final float threshold;
+
+    private byte[] samples = new byte[0];
+    private byte[] referenceSamples = new byte[0];
+    private Size referenceSize = null;
+    private volatile float lastScore = Float.NaN;
+
+    /**
+     * @param threshold minimum change score of a frame which is accepted. {@code 0} disables the
+     *                  detection.
+     * @see PreviewStreamConfiguration#sceneChangeThreshold
+     */
+    public SceneChangeDetector(float threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * @return {@code true} if frame differs enough from the last accepted one and should be
+     * dispatched. Always {@code true} if detection is disabled.
+     */
+    public boolean accept(Frame frame) {
+        if (threshold == 0f) {
+            return true;
+        }
+
+        int samplesCount = sample(frame);
+        float score;
+
+        if (frame.size.equals(referenceSize)) {
+            score = difference(samples, referenceSamples, samplesCount);
+        } else {
+            score = 1f;
+        }
+
+        lastScore = score;
+
+        if (score < threshold) {
+            return false;
+        }
+
+        byte[] swap = referenceSamples;
+        referenceSamples = samples;
+        samples = swap;
+        referenceSize = frame.size;
+
+        return true;
+    }
+
+    /**
+     * @return change score of the last frame which was checked. {@link Float#NaN} if detection is
+     * disabled or no frame was checked yet.
+     */
+    public float getLastScore() {
+        return lastScore;
+    }
+
+    /**
+     * Forgets the last accepted frame, so that the next frame is accepted.
+     */
+    public void reset() {
+        referenceSize = null;
+        lastScore = Float.NaN;
+    }
+
+    /**
+     * Reads luminance samples of the frame into {@link #samples}.
+     *
+     * @return number of samples.
+     */
+    private int sample(Frame frame) {
+        int width = frame.size.width;
+        int height = frame.size.height;
+        int columns = (width + SAMPLING_STEP - 1) / SAMPLING_STEP;
+        int rows = (height + SAMPLING_STEP - 1) / SAMPLING_STEP;
+        int samplesCount = columns * rows;
+
+        if (samples.length < samplesCount) {
+            samples = new byte[samplesCount];
+        }
+
+        if (frame.image != null) {
+            sampleNv21(frame.image, width, columns, rows);
+        } else {
+            YuvFrame.Plane plane = ((YuvFrame) frame).yPlane;
+            samplePlane(plane.buffer, plane.rowStride, plane.pixelStride, columns, rows);
+        }
+
+        return samplesCount;
+    }
+
+    private void sampleNv21(byte[] image, int width, int columns, int rows) {
+        int index = 0;
+
+        for (int row = 0; row < rows; row++) {
+            int offset = row * SAMPLING_STEP * width;
+
+            for (int column = 0; column < columns; column++) {
+                samples[index++] = image[offset + column * SAMPLING_STEP];
+            }
+        }
+    }
+
+    private void samplePlane(ByteBuffer buffer,
+                             int rowStride,
+                             int pixelStride,
+                             int columns,
+                             int rows) {
+        int index = 0;
+
+        for (int row = 0; row < rows; row++) {
+            int offset = row * SAMPLING_STEP * rowStride;
+
+            for (int column = 0; column < columns; column++) {
+                samples[index++] = buffer.get(offset + column * SAMPLING_STEP * pixelStride);
+            }
+        }
+    }
+
+    private static float difference(byte[] samples, byte[] referenceSamples, int samplesCount) {
+        long sum = 0;
+
+        for (int i = 0; i < samplesCount; i++) {
+            sum += Math.abs((samples[i] & 0xFF) - (referenceSamples[i] & 0xFF));
+        }
+
+        return sum / (255f * samplesCount);
+    }
+
+}
@@ -0,0 +1,154 @@
+package io.fotoapparat.preview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Configuration of a single {@link FrameStage} of the {@link FramePipeline}.
+ * <p>
+ * Use {@link StageConfiguration#builder()} to create a new instance.
+ */
+public class StageConfiguration {
+
+    /**
+     * Default capacity of the queue of frames waiting for the stage.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1;
+
+    /**
+     * Name of the stage used in {@link StageStatistics} and in the name of its thread.
+     */
+    @NonNull
+    public final String name;
+
+    /**
+     * Executor on which the stage runs. {@code null} means that stage gets a thread of its own.
+     * Even on a shared executor, frames pass through a stage one at a time and in order.
+     */
+    @Nullable
+    public final Executor executor;
+
+    /**
+     * Maximum number of frames waiting for the stage.
+     */
+    public final int queueCapacity;
+
+    /**
+     * Decides which frame is dropped when the queue of the stage is full.
+     */
+    @NonNull
+    public final FrameDropPolicy dropPolicy;
+
+    private StageConfiguration(Builder builder) {
+        this.name = builder.name;
+        this.executor = builder.executor;
+        this.queueCapacity = builder.queueCapacity;
+        this.dropPolicy = builder.dropPolicy;
+    }
+
+    /**
+     * @return configuration with default values.
+     */
+    public static StageConfiguration defaultConfiguration() {
+        return builder().build();
+    }
+
+    /**
+     * @return builder for {@link StageConfiguration}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        StageConfiguration that = (StageConfiguration) o;
+
+        return queueCapacity == that.queueCapacity
+                && name.equals(that.name)
+                && (executor != null ? executor.equals(that.executor) : that.executor == null)
+                && dropPolicy == that.dropPolicy;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = name.hashCode();
+        result = 31 * result + (executor != null ? executor.hashCode() : 0);
+        result = 31 * result + queueCapacity;
+        result = 31 * result + dropPolicy.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "StageConfiguration{" +
+                "name='" + name + '\'' +
+                ", executor=" + executor +
+                ", queueCapacity=" + queueCapacity +
+                ", dropPolicy=" + dropPolicy +
+                '}';
+    }
+
+    /**
+     * Builder for {@link StageConfiguration}.
+     */
+    public static class Builder {
+
+        String name = "FrameStage";
+        Executor executor = null;
+        int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        FrameDropPolicy dropPolicy = FrameDropPolicy.DROP_OLDEST;
+
+        /**
+         * @param name name of the stage used in {@link StageStatistics}.
+         */
+        public Builder name(@NonNull String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * @param executor executor on which the stage runs. By default stage gets a thread of its
+         *                 own.
+         */
+        public Builder executor(@NonNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * @param queueCapacity maximum number of frames waiting for the stage. Must be at least 1.
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException("Queue capacity must be at least 1. Was: " + queueCapacity);
+            }
+
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * @param dropPolicy decides which frame is dropped when the queue of the stage is full.
+         */
+        public Builder dropPolicy(@NonNull FrameDropPolicy dropPolicy) {
+            this.dropPolicy = dropPolicy;
+            return this;
+        }
+
+        /**
+         * @return a new instance of {@link StageConfiguration} which uses values from current
+         * builder.
+         */
+        public StageConfiguration build() {
+            return new StageConfiguration(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,91 @@
+package io.fotoapparat.preview;
+
+/**
+ * Snapshot of counters of a single {@link FrameStage}. Immutable.
+ */
+public class StageStatistics {
+
+    /**
+     * Name of the stage.
+     */
+    public final String name;
+
+    /**
+     * Number of frames which the stage has processed.
+     */
+    public final long processedCount;
+
+    /**
+     * Number of frames which were dropped from the queue of the stage.
+     */
+    public final long droppedCount;
+
+    /**
+     * Average time in nanoseconds which the stage spent processing a frame.
+     */
+    public final long averageProcessingTime;
+
+    /**
+     * Longest time in nanoseconds which the stage spent processing a frame.
+     */
+    public final long maxProcessingTime;
+
+    /**
+     * Average time in nanoseconds since the frame was dispatched until the stage was done with
+     * it. Includes waiting in queues and the time of all previous stages.
+     */
+    public final long averageLatency;
+
+    public StageStatistics(String name,
+                           long processedCount,
+                           long droppedCount,
+                           long averageProcessingTime,
+                           long maxProcessingTime,
+                           long averageLatency) {
+        this.name = name;
+        this.processedCount = processedCount;
+        this.droppedCount = droppedCount;
+        this.averageProcessingTime = averageProcessingTime;
+        this.maxProcessingTime = maxProcessingTime;
+        this.averageLatency = averageLatency;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        StageStatistics that = (StageStatistics) o;
+
+        return processedCount == that.processedCount
+                && droppedCount == that.droppedCount
+                && averageProcessingTime == that.averageProcessingTime
+                && maxProcessingTime == that.maxProcessingTime
+                && averageLatency == that.averageLatency
+                && name.equals(that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = name.hashCode();
+        result = 31 * result + (int) (processedCount ^ (processedCount >>> 32));
+        result = 31 * result + (int) (droppedCount ^ (droppedCount >>> 32));
+        result = 31 * result + (int) (averageProcessingTime ^ (averageProcessingTime >>> 32));
+        result = 31 * result + (int) (maxProcessingTime ^ (maxProcessingTime >>> 32));
+        result = 31 * result + (int) (averageLatency ^ (averageLatency >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "StageStatistics{" +
+                "name='" + name + '\'' +
+                ", processedCount=" + processedCount +
+                ", droppedCount=" + droppedCount +
+                ", averageProcessingTime=" + averageProcessingTime +
+                ", maxProcessingTime=" + maxProcessingTime +
+                ", averageLatency=" + averageLatency +
+                '}';
+    }
+
+}
@@ -0,0 +1,199 @@
+package io.fotoapparat.preview;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts YUV_420_888 planes into NV21 images.
+ * <p>
+ * Respects row and pixel strides of the planes, so it works with padded rows as well as with
+ * planar and interleaved chroma. Writes into the buffer provided by the caller. Rows are read in
+ * bulk into scratch buffers which are kept between calls, so converter does not allocate anything
+ * in steady state.
+ * <p>
+ * Instances are not thread-safe, each thread should use its own converter, for example
+ * {@link #forCurrentThread()}. The same planes can be converted by several converters at once.
+ */
+public class YuvConverter {
+
+    private static final ThreadLocal<YuvConverter> THREAD_CONVERTERS = new ThreadLocal<YuvConverter>() {
+        @Override
+        protected YuvConverter initialValue() {
+            return new YuvConverter();
+        }
+    };
+
+    private byte[] uRow = new byte[0];
+    private byte[] vRow = new byte[0];
+
+    /**
+     * @return converter of the calling thread. Its scratch buffers are shared by all the callers
+     * on that thread.
+     */
+    public static YuvConverter forCurrentThread() {
+        return THREAD_CONVERTERS.get();
+    }
+
+    /**
+     * @return size in bytes of the NV21 image with given dimensions.
+     */
+    public static int nv21Size(int width, int height) {
+        return width * height + 2 * chromaSize(width) * chromaSize(height);
+    }
+
+    /**
+     * Converts planes of the frame into NV21 image.
+     *
+     * @param frame  frame which should be converted.
+     * @param output buffer which receives the NV21 image. Must be at least
+     *               {@link #nv21Size(int, int)} bytes long.
+     */
+    public void toNv21(YuvFrame frame, byte[] output) {
+        toNv21(
+                frame.size.width,
+                frame.size.height,
+                frame.yPlane,
+                frame.uPlane,
+                frame.vPlane,
+                output
+        );
+    }
+
+    /**
+     * Converts YUV_420_888 planes into NV21 image. Buffers of the planes are locked while they are
+     * read. Their positions are changed during the conversion and restored afterwards.
+     *
+     * @param width  width of the image in pixels.
+     * @param height height of the image in pixels.
+     * @param yPlane luminance plane.
+     * @param uPlane Cb chroma plane.
+     * @param vPlane Cr chroma plane.
+     * @param output buffer which receives the NV21 image. Must be at least
+     *               {@link #nv21Size(int, int)} bytes long.
+     */
+    public void toNv21(int width,
+                       int height,
+                       YuvFrame.Plane yPlane,
+                       YuvFrame.Plane uPlane,
+                       YuvFrame.Plane vPlane,
+                       byte[] output) {
+        int requiredSize = nv21Size(width, height);
+        if (output.length < requiredSize) {
+            throw new IllegalArgumentException("Output buffer is too small. Required: "
+                    + requiredSize + ", was: " + output.length);
+        }
+
+        copyLuminance(width, height, yPlane, output);
+        interleaveChroma(width, height, uPlane, vPlane, output);
+    }
+
+    private static void copyLuminance(int width,
+                                      int height,
+                                      YuvFrame.Plane plane,
+                                      byte[] output) {
+        ByteBuffer buffer = plane.buffer;
+
+        synchronized (buffer) {
+            int start = buffer.position();
+
+            if (plane.pixelStride == 1 && plane.rowStride == width) {
+                buffer.get(output, 0, width * height);
+            } else if (plane.pixelStride == 1) {
+                for (int row = 0; row < height; row++) {
+                    buffer.position(start + row * plane.rowStride);
+                    buffer.get(output, row * width, width);
+                }
+            } else {
+                int offset = 0;
+
+                for (int row = 0; row < height; row++) {
+                    int index = start + row * plane.rowStride;
+
+                    for (int column = 0; column < width; column++) {
+                        output[offset++] = buffer.get(index);
+                        index += plane.pixelStride;
+                    }
+                }
+            }
+
+            buffer.position(start);
+        }
+    }
+
+    private void interleaveChroma(int width,
+                                  int height,
+                                  YuvFrame.Plane uPlane,
+                                  YuvFrame.Plane vPlane,
+                                  byte[] output) {
+        int chromaWidth = chromaSize(width);
+        int chromaHeight = chromaSize(height);
+
+        int uRowLength = rowLength(chromaWidth, uPlane.pixelStride);
+        int vRowLength = rowLength(chromaWidth, vPlane.pixelStride);
+
+        if (uRow.length < uRowLength) {
+            uRow = new byte[uRowLength];
+        }
+        if (vPlane.pixelStride != 2 && vRow.length < vRowLength) {
+            vRow = new byte[vRowLength];
+        }
+
+        int offset = width * height;
+
+        for (int row = 0; row < chromaHeight; row++) {
+            readRow(uPlane, row, uRowLength, uRow, 0);
+
+            if (vPlane.pixelStride == 2) {
+                // V samples are read right into their NV21 positions, U samples fill the gaps
+                readRow(vPlane, row, vRowLength, output, offset);
+
+                int uIndex = 0;
+
+                for (int index = offset + 1; index < offset + 2 * chromaWidth; index += 2) {
+                    output[index] = uRow[uIndex];
+                    uIndex += uPlane.pixelStride;
+                }
+
+                offset += 2 * chromaWidth;
+            } else {
+                readRow(vPlane, row, vRowLength, vRow, 0);
+
+                int uIndex = 0;
+                int vIndex = 0;
+
+                for (int column = 0; column < chromaWidth; column++) {
+                    // NV21 stores V before U
+                    output[offset++] = vRow[vIndex];
+                    output[offset++] = uRow[uIndex];
+
+                    uIndex += uPlane.pixelStride;
+                    vIndex += vPlane.pixelStride;
+                }
+            }
+        }
+    }
+
+    private static void readRow(YuvFrame.Plane plane,
+                                int row,
+                                int length,
+                                byte[] output,
+                                int offset) {
+        ByteBuffer buffer = plane.buffer;
+
+        synchronized (buffer) {
+            int start = buffer.position();
+
+            buffer.position(start + row * plane.rowStride);
+            buffer.get(output, offset, length);
+            buffer.position(start);
+        }
+    }
+
+    private static int rowLength(int pixelsCount, int pixelStride) {
+        return (pixelsCount - 1) * pixelStride + 1;
+    }
+
+    private static int chromaSize(int lumaSize) {
+        return (lumaSize + 1) / 2;
+    }
+
+}
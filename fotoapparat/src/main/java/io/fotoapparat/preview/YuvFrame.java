@@ -0,0 +1,139 @@
+package io.fotoapparat.preview;
+
+import java.nio.ByteBuffer;
+
+import io.fotoapparat.parameter.Size;
+
+/**
+ * Frame of the preview stream in YUV_420_888 format which is backed directly by the planes of the
+ * camera image. Unlike {@link Frame} it does not carry an NV21 {@link #image}, which is always
+ * {@code null}. Use {@link #toNv21()} if NV21 bytes are needed.
+ * <p>
+ * The underlying camera image is returned to the camera once all holders have released the frame.
+ * Frame is created with a single reference which belongs to its creator and is dropped with
+ * {@link #releaseCreatorReference()}. Processors which want to keep the frame after
+ * {@link YuvFrameProcessor#processYuvFrame(YuvFrame)} returns must {@link #retain()} it and
+ * {@link #release()} it later, from any thread.
+ */
+public class YuvFrame extends Frame {
+
+    /**
+     * Luminance plane.
+     */
+    public final Plane yPlane;
+
+    /**
+     * Cb chroma plane.
+     */
+    public final Plane uPlane;
+
+    /**
+     * Cr chroma plane.
+     */
+    public final Plane vPlane;
+
+    public YuvFrame(Size size,
+                    int rotation,
+                    Plane yPlane,
+                    Plane uPlane,
+                    Plane vPlane) {
+        super(size, null, rotation);
+
+        this.yPlane = yPlane;
+        this.uPlane = uPlane;
+        this.vPlane = vPlane;
+
+        retain(1);
+    }
+
+    /**
+     * Drops the reference which the frame was created with. Unlike {@link #release()} it is not
+     * counted against {@link PreviewStreamConfiguration#maxRetainedFrames}, so processors which
+     * retained the frame keep their places until they release it. Must be called once, by the
+     * creator of the frame only.
+     *
+     * @return {@code true} if that was the last holder.
+     */
+    public boolean releaseCreatorReference() {
+        return releaseReference();
+    }
+
+    @Override
+    boolean releaseReference() {
+        boolean released = super.releaseReference();
+
+        if (released) {
+            onReleased();
+        }
+
+        return released;
+    }
+
+    /**
+     * Called when the last holder released the frame.
+     */
+    protected void onReleased() {
+        // Do nothing by default
+    }
+
+    /**
+     * Copies the planes into a new NV21 array. Use {@link YuvConverter} or
+     * {@link FrameRepresentation#NV21} to reuse the array.
+     *
+     * @return image in NV21 format.
+     */
+    public byte[] toNv21() {
+        byte[] nv21 = new byte[YuvConverter.nv21Size(size.width, size.height)];
+        YuvConverter.forCurrentThread().toNv21(this, nv21);
+
+        return nv21;
+    }
+
+    @Override
+    public String toString() {
+        return "YuvFrame{" +
+                "size=" + size +
+                ", rotation=" + rotation +
+                ", yPlane=" + yPlane +
+                ", uPlane=" + uPlane +
+                ", vPlane=" + vPlane +
+                '}';
+    }
+
+    /**
+     * Single plane of the {@link YuvFrame}.
+     */
+    public static class Plane {
+
+        /**
+         * Pixels of the plane. Valid only until the frame is released.
+         */
+        public final ByteBuffer buffer;
+
+        /**
+         * Distance between the starts of two consecutive rows in bytes.
+         */
+        public final int rowStride;
+
+        /**
+         * Distance between two consecutive pixels of the same row in bytes.
+         */
+        public final int pixelStride;
+
+        public Plane(ByteBuffer buffer, int rowStride, int pixelStride) {
+            this.buffer = buffer;
+            this.rowStride = rowStride;
+            this.pixelStride = pixelStride;
+        }
+
+        @Override
+        public String toString() {
+            return "Plane{" +
+                    "rowStride=" + rowStride +
+                    ", pixelStride=" + pixelStride +
+                    '}';
+        }
+
+    }
+
+}
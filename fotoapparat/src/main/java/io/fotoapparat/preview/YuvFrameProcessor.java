@@ -0,0 +1,21 @@
+package io.fotoapparat.preview;
+
+/**
+ * {@link FrameProcessor} which can work directly with planes of YUV_420_888 camera images without
+ * copying them into NV21 array first.
+ * <p>
+ * Cameras which produce YUV_420_888 images (Camera2) call {@link #processYuvFrame(YuvFrame)}.
+ * Cameras which produce NV21 images (Camera1) call {@link #processFrame(Frame)} instead.
+ */
+public interface YuvFrameProcessor extends FrameProcessor {
+
+    /**
+     * Performs processing on preview frames. Frame is returned to the camera after method
+     * completes, unless it was retained.
+     *
+     * @param frame frame of the preview.
+     * @see YuvFrame#retain()
+     */
+    void processYuvFrame(YuvFrame frame);
+
+}
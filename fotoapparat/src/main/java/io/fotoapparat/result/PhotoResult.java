@@ -9,6 +9,7 @@ import io.fotoapparat.parameter.Size;
 import io.fotoapparat.photo.BitmapPhoto;
 import io.fotoapparat.photo.Photo;
 import io.fotoapparat.result.transformer.BitmapPhotoTransformer;
+import io.fotoapparat.result.transformer.ReleasePhotoTransformer;
 import io.fotoapparat.result.transformer.SaveToFileTransformer;
 import io.fotoapparat.result.transformer.Transformer;
 
@@ -16,6 +17,12 @@ import static io.fotoapparat.result.transformer.SizeTransformers.originalSize;
 
 /**
  * Result of taking the photo.
+ * <p>
+ * Photo might be backed by a pooled buffer if
+ * {@link io.fotoapparat.FotoapparatBuilder#pooledPhotoBuffers(boolean)} is enabled, see
+ * {@link Photo#release()}. Call {@link #release()} after the last conversion, so that the buffer
+ * is reused for the next photos. Otherwise the buffer is left to the garbage collector and each
+ * photo allocates a new one.
  */
 public class PhotoResult {
 
@@ -71,10 +78,24 @@ public class PhotoResult {
     }
 
     /**
-     * @return result as {@link PendingResult}.
+     * @return result as {@link PendingResult}. Caller becomes responsible for
+     * {@link Photo#release()} if the photo is used after {@link #release()} of this result, or
+     * instead of it.
      */
     public PendingResult<Photo> toPendingResult() {
         return pendingResult;
     }
 
+    /**
+     * Releases the photo once the conversions requested so far, such as {@link #toBitmap()} and
+     * {@link #saveToFile(File)}, are done. Their results stay valid. No more conversions can be
+     * requested afterwards.
+     *
+     * @return pending operation which completes when photo is released.
+     */
+    public PendingResult<Void> release() {
+        return pendingResult
+                .transform(new ReleasePhotoTransformer());
+    }
+
 }
@@ -3,13 +3,17 @@ package io.fotoapparat.result.transformer;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 
+import java.nio.ByteBuffer;
+
 import io.fotoapparat.parameter.Size;
 import io.fotoapparat.photo.BitmapPhoto;
 import io.fotoapparat.photo.Photo;
 import io.fotoapparat.result.RecoverableRuntimeException;
+import io.fotoapparat.util.ByteBufferInputStream;
 
 /**
- * Creates {@link BitmapPhoto} out of {@link Photo}.
+ * Creates {@link BitmapPhoto} out of {@link Photo}. Photos backed by a direct buffer are decoded
+ * as a stream, without copying them to heap.
  */
 public class BitmapPhotoTransformer implements Transformer<Photo, BitmapPhoto> {
 
@@ -50,11 +54,7 @@ public class BitmapPhotoTransformer implements Transformer<Photo, BitmapPhoto> {
         BitmapFactory.Options options = new BitmapFactory.Options();
         options.inSampleSize = (int) scaleFactor;
 
-        return BitmapFactory.decodeByteArray(
-                image.encodedImage,
-                0,
-                image.encodedImage.length
-        );
+        return decode(image, options);
     }
 
     private float computeScaleFactor(Size originalSize, Size desiredSize) {
@@ -68,12 +68,7 @@ public class BitmapPhotoTransformer implements Transformer<Photo, BitmapPhoto> {
         BitmapFactory.Options options = new BitmapFactory.Options();
         options.inJustDecodeBounds = true;
 
-        BitmapFactory.decodeByteArray(
-                image.encodedImage,
-                0,
-                image.encodedImage.length,
-                options
-        );
+        decode(image, options);
 
         return new Size(
                 options.outWidth,
@@ -81,6 +76,28 @@ public class BitmapPhotoTransformer implements Transformer<Photo, BitmapPhoto> {
         );
     }
 
+    private static Bitmap decode(Photo image, BitmapFactory.Options options) {
+        ByteBuffer buffer = image.getEncodedBuffer();
+
+        if (!buffer.isDirect()) {
+            // Photo is backed by an array, which is not copied
+            byte[] encodedImage = image.getEncodedImage();
+
+            return BitmapFactory.decodeByteArray(
+                    encodedImage,
+                    0,
+                    encodedImage.length,
+                    options
+            );
+        }
+
+        return BitmapFactory.decodeStream(
+                new ByteBufferInputStream(buffer),
+                null,
+                options
+        );
+    }
+
     /**
      * Thrown when it is not possible to decode bitmap from byte array.
      */
@@ -0,0 +1,17 @@
+package io.fotoapparat.result.transformer;
+
+import io.fotoapparat.photo.Photo;
+
+/**
+ * Releases the {@link Photo}, so that its buffer is reused for the next photos.
+ */
+public class ReleasePhotoTransformer implements Transformer<Photo, Void> {
+
+    @Override
+    public Void transform(Photo input) {
+        input.release();
+
+        return null;
+    }
+
+}
@@ -1,16 +1,17 @@
 package io.fotoapparat.result.transformer;
 
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import io.fotoapparat.photo.Photo;
 import io.fotoapparat.util.ExifOrientationWriter;
 
 /**
- * Saves {@link Photo} to file.
+ * Saves {@link Photo} to file. Encoded image is written straight from its buffer.
  */
 public class SaveToFileTransformer implements Transformer<Photo, Void> {
 
@@ -35,7 +36,7 @@ public class SaveToFileTransformer implements Transformer<Photo, Void> {
 
     @Override
     public Void transform(Photo input) {
-        BufferedOutputStream outputStream = outputStream();
+        FileOutputStream outputStream = outputStream();
 
         try {
             saveImage(input, outputStream);
@@ -48,20 +49,22 @@ public class SaveToFileTransformer implements Transformer<Photo, Void> {
         return null;
     }
 
-    private void saveImage(Photo input, BufferedOutputStream outputStream) throws IOException {
+    private void saveImage(Photo input, FileOutputStream outputStream) throws IOException {
         try {
-            outputStream.write(input.encodedImage);
-            outputStream.flush();
+            ByteBuffer buffer = input.getEncodedBuffer();
+            FileChannel channel = outputStream.getChannel();
+
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
         } finally {
             outputStream.close();
         }
     }
 
-    private BufferedOutputStream outputStream() {
+    private FileOutputStream outputStream() {
         try {
-            return new BufferedOutputStream(
-                    new FileOutputStream(file)
-            );
+            return new FileOutputStream(file);
         } catch (FileNotFoundException e) {
             throw new FileSaveException(e);
         }
@@ -2,7 +2,9 @@ package io.fotoapparat.routine;
 
 import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.preview.FrameProcessor;
+import io.fotoapparat.preview.FrameProcessorConfiguration;
 import io.fotoapparat.preview.PreviewStream;
+import io.fotoapparat.preview.PreviewStreamConfiguration;
 
 /**
  * Configures {@link PreviewStream} of the camera.
@@ -11,11 +13,17 @@ public class ConfigurePreviewStreamRoutine implements Runnable {
 
     private final CameraDevice cameraDevice;
     private final FrameProcessor frameProcessor;
+    private final FrameProcessorConfiguration frameProcessorConfiguration;
+    private final PreviewStreamConfiguration configuration;
 
     public ConfigurePreviewStreamRoutine(CameraDevice cameraDevice,
-                                         FrameProcessor frameProcessor) {
+                                         FrameProcessor frameProcessor,
+                                         FrameProcessorConfiguration frameProcessorConfiguration,
+                                         PreviewStreamConfiguration configuration) {
         this.cameraDevice = cameraDevice;
         this.frameProcessor = frameProcessor;
+        this.frameProcessorConfiguration = frameProcessorConfiguration;
+        this.configuration = configuration;
     }
 
     @Override
@@ -26,7 +34,8 @@ public class ConfigurePreviewStreamRoutine implements Runnable {
 
         PreviewStream previewStream = cameraDevice.getPreviewStream();
 
-        previewStream.addProcessor(frameProcessor);
+        previewStream.configure(configuration);
+        previewStream.addProcessor(frameProcessor, frameProcessorConfiguration);
         previewStream.start();
     }
 
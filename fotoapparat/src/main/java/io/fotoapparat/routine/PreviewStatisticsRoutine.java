@@ -0,0 +1,27 @@
+package io.fotoapparat.routine;
+
+import io.fotoapparat.hardware.CameraDevice;
+import io.fotoapparat.preview.PreviewStatistics;
+import io.fotoapparat.preview.PreviewStream;
+
+/**
+ * Reads {@link PreviewStatistics} of the {@link PreviewStream} of the camera.
+ */
+public class PreviewStatisticsRoutine {
+
+    private final CameraDevice cameraDevice;
+
+    public PreviewStatisticsRoutine(CameraDevice cameraDevice) {
+        this.cameraDevice = cameraDevice;
+    }
+
+    /**
+     * @return current statistics of the preview stream.
+     */
+    public PreviewStatistics getPreviewStatistics() {
+        return PreviewStatistics.of(
+                cameraDevice.getPreviewStream()
+        );
+    }
+
+}
@@ -3,7 +3,7 @@ package io.fotoapparat.routine;
 import io.fotoapparat.hardware.CameraDevice;
 
 /**
- * Stops preview and closes the camera.
+ * Stops preview stream, preview and closes the camera.
  */
 public class StopCameraRoutine implements Runnable {
 
@@ -15,6 +15,7 @@ public class StopCameraRoutine implements Runnable {
 
     @Override
     public void run() {
+        cameraDevice.getPreviewStream().stop();
         cameraDevice.stopPreview();
         cameraDevice.close();
     }
@@ -1,8 +1,12 @@
 package io.fotoapparat.routine.picture;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
 import io.fotoapparat.hardware.CameraDevice;
+import io.fotoapparat.photo.Photo;
 import io.fotoapparat.result.PhotoResult;
 
 /**
@@ -12,11 +16,18 @@ public class TakePictureRoutine {
 
     private final CameraDevice cameraDevice;
     private final Executor cameraExecutor;
+    private final boolean pooledPhotoBuffers;
 
+    /**
+     * @param pooledPhotoBuffers {@code false} if photos backed by pooled direct buffers should be
+     *                           copied to the heap and released right away.
+     */
     public TakePictureRoutine(CameraDevice cameraDevice,
-                              Executor cameraExecutor) {
+                              Executor cameraExecutor,
+                              boolean pooledPhotoBuffers) {
         this.cameraDevice = cameraDevice;
         this.cameraExecutor = cameraExecutor;
+        this.pooledPhotoBuffers = pooledPhotoBuffers;
     }
 
     /**
@@ -25,10 +36,29 @@ public class TakePictureRoutine {
      * @return {@link PhotoResult} which will deliver result asynchronously.
      */
     public PhotoResult takePicture() {
-        TakePictureTask takePictureTask = new TakePictureTask(cameraDevice);
+        TakePictureTask takePictureTask = new TakePictureTask(cameraDevice, pooledPhotoBuffers);
         cameraExecutor.execute(takePictureTask);
 
         return PhotoResult.fromFuture(takePictureTask);
     }
 
+    /**
+     * Takes a burst of pictures, returns immediately.
+     *
+     * @param count number of pictures.
+     * @return {@link PhotoResult}s in the order in which pictures are taken. Each of them is
+     * delivered as soon as its picture is taken.
+     */
+    public List<PhotoResult> takePictures(int count) {
+        TakePicturesTask takePicturesTask = new TakePicturesTask(cameraDevice, count, pooledPhotoBuffers);
+        cameraExecutor.execute(takePicturesTask);
+
+        List<PhotoResult> results = new ArrayList<>(count);
+        for (Future<Photo> photo : takePicturesTask.getPhotos()) {
+            results.add(PhotoResult.fromFuture(photo));
+        }
+
+        return results;
+    }
+
 }
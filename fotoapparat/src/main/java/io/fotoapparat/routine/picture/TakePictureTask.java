@@ -9,28 +9,47 @@ import io.fotoapparat.lens.FocusResult;
 import io.fotoapparat.photo.Photo;
 
 /**
- * Takes photo and returns result as {@link Photo}.
+ * Takes photo and returns result as {@link Photo}. Result is available as soon as the photo is
+ * captured, so that its processing overlaps with the restart of the preview.
  */
 class TakePictureTask extends FutureTask<Photo> {
 
     private static final int MAX_FOCUS_ATTEMPTS = 3;
 
-    TakePictureTask(final CameraDevice cameraDevice) {
-        super(new Callable<Photo>() {
-            @Override
-            public Photo call() throws Exception {
-                adjustCameraForBestShot(cameraDevice);
+    private final CameraDevice cameraDevice;
+    private final Shot shot;
 
-                Photo photo = cameraDevice.takePicture();
+    /**
+     * @param pooledPhotoBuffers {@code false} if photo backed by a pooled direct buffer should be
+     *                           copied to the heap and released right away.
+     */
+    TakePictureTask(CameraDevice cameraDevice, boolean pooledPhotoBuffers) {
+        this(cameraDevice, new Shot(cameraDevice, pooledPhotoBuffers));
+    }
 
-                startPreviewSafe(cameraDevice);
+    private TakePictureTask(CameraDevice cameraDevice, Shot shot) {
+        super(shot);
 
-                return photo;
-            }
-        });
+        this.cameraDevice = cameraDevice;
+        this.shot = shot;
+    }
+
+    @Override
+    public void run() {
+        if (isDone()) {
+            return;
+        }
+
+        // Completes the result before the preview is restarted
+        super.run();
+
+        if (!shot.zeroShutterLag) {
+            // Picture of zero shutter lag is one of the recent frames, preview keeps running
+            startPreviewSafe(cameraDevice);
+        }
     }
 
-    private static void adjustCameraForBestShot(CameraDevice cameraDevice) {
+    static void adjustCameraForBestShot(CameraDevice cameraDevice) {
         FocusResult focusResult = autoFocus(cameraDevice);
 
         if (focusResult.needsExposureMeasurement) {
@@ -50,7 +69,7 @@ class TakePictureTask extends FutureTask<Photo> {
         return focusResult;
     }
 
-    private static void startPreviewSafe(CameraDevice cameraDevice) {
+    static void startPreviewSafe(CameraDevice cameraDevice) {
         try {
             cameraDevice.startPreview();
         } catch (CameraException e) {
@@ -58,4 +77,37 @@ class TakePictureTask extends FutureTask<Photo> {
         }
     }
 
+    /**
+     * Takes the picture. Zero shutter lag is decided once per picture, because it depends on
+     * whether the camera has a recent frame at the moment.
+     */
+    private static class Shot implements Callable<Photo> {
+
+        private final CameraDevice cameraDevice;
+        private final boolean pooledPhotoBuffers;
+
+        private volatile boolean zeroShutterLag = false;
+
+        private Shot(CameraDevice cameraDevice, boolean pooledPhotoBuffers) {
+            this.cameraDevice = cameraDevice;
+            this.pooledPhotoBuffers = pooledPhotoBuffers;
+        }
+
+        @Override
+        public Photo call() throws Exception {
+            zeroShutterLag = cameraDevice.isZeroShutterLag();
+
+            if (!zeroShutterLag) {
+                adjustCameraForBestShot(cameraDevice);
+            }
+
+            Photo photo = cameraDevice.takePicture();
+
+            return pooledPhotoBuffers
+                    ? photo
+                    : photo.toArrayBacked();
+        }
+
+    }
+
 }
@@ -0,0 +1,164 @@
+package io.fotoapparat.routine.picture;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.fotoapparat.hardware.CameraDevice;
+import io.fotoapparat.hardware.CameraException;
+import io.fotoapparat.hardware.operators.CaptureOperator;
+import io.fotoapparat.photo.Photo;
+
+/**
+ * Takes a burst of photos. Focus and exposure are adjusted once, before the first photo. Each
+ * photo is delivered as soon as it is captured, preview is restarted after the last one.
+ */
+class TakePicturesTask implements Runnable {
+
+    private final CameraDevice cameraDevice;
+    private final boolean pooledPhotoBuffers;
+    private final List<PendingPhoto> photos;
+
+    /**
+     * @param pooledPhotoBuffers {@code false} if photos backed by pooled direct buffers should be
+     *                           copied to the heap and released right away.
+     */
+    TakePicturesTask(CameraDevice cameraDevice, int count, boolean pooledPhotoBuffers) {
+        this.cameraDevice = cameraDevice;
+        this.pooledPhotoBuffers = pooledPhotoBuffers;
+
+        List<PendingPhoto> photos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            photos.add(new PendingPhoto());
+        }
+        this.photos = Collections.unmodifiableList(photos);
+    }
+
+    /**
+     * @return future photos of the burst, in order.
+     */
+    List<? extends Future<Photo>> getPhotos() {
+        return photos;
+    }
+
+    @Override
+    public void run() {
+        RuntimeException failure = null;
+
+        try {
+            TakePictureTask.adjustCameraForBestShot(cameraDevice);
+
+            cameraDevice.takePictures(
+                    photos.size(),
+                    new CaptureOperator.PhotoCallback() {
+                        @Override
+                        public void onPhotoTaken(int index, Photo photo) {
+                            photos.get(index).deliver(
+                                    pooledPhotoBuffers
+                                            ? photo
+                                            : photo.toArrayBacked()
+                            );
+                        }
+                    }
+            );
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            TakePictureTask.startPreviewSafe(cameraDevice);
+        }
+
+        if (failure == null) {
+            failure = new CameraException("Burst ended before all photos were taken.");
+        }
+
+        // Delivered photos are not affected, the rest would never complete otherwise
+        failPendingPhotos(failure);
+    }
+
+    private void failPendingPhotos(Throwable cause) {
+        for (PendingPhoto photo : photos) {
+            photo.fail(cause);
+        }
+    }
+
+    /**
+     * Photo of the burst which is completed from the outside. Can not be cancelled.
+     */
+    private static class PendingPhoto implements Future<Photo> {
+
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private Photo photo;
+        private Throwable failure;
+
+        /**
+         * Completes the photo, unless it was already completed.
+         */
+        synchronized void deliver(Photo photo) {
+            if (isDone()) {
+                return;
+            }
+
+            this.photo = photo;
+            completed.countDown();
+        }
+
+        /**
+         * Completes the photo with an error, unless it was already completed.
+         */
+        synchronized void fail(Throwable cause) {
+            if (isDone()) {
+                return;
+            }
+
+            this.failure = cause;
+            completed.countDown();
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return completed.getCount() == 0;
+        }
+
+        @Override
+        public Photo get() throws InterruptedException, ExecutionException {
+            completed.await();
+
+            return result();
+        }
+
+        @Override
+        public Photo get(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            if (!completed.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+
+            return result();
+        }
+
+        private Photo result() throws ExecutionException {
+            if (failure != null) {
+                throw new ExecutionException(failure);
+            }
+
+            return photo;
+        }
+
+    }
+
+}
@@ -20,6 +20,8 @@ import io.fotoapparat.parameter.ScaleType;
 import io.fotoapparat.parameter.Size;
 import io.fotoapparat.parameter.selector.SelectorFunction;
 import io.fotoapparat.preview.FrameProcessor;
+import io.fotoapparat.preview.FrameProcessorConfiguration;
+import io.fotoapparat.preview.PreviewStreamConfiguration;
 import io.fotoapparat.view.CameraRenderer;
 
 import static junit.framework.Assert.assertEquals;
@@ -176,6 +178,58 @@ public class FotoapparatBuilderTest {
         );
     }
 
+    @Test
+    public void frameProcessor_WithConfiguration() throws Exception {
+        // Given
+        FrameProcessorConfiguration configuration = FrameProcessorConfiguration.builder()
+                .maxFrameRate(2f)
+                .build();
+
+        // When
+        FotoapparatBuilder builder = builderWithMandatoryArguments()
+                .frameProcessor(frameProcessor, configuration);
+
+        // Then
+        assertEquals(
+                frameProcessor,
+                builder.frameProcessor
+        );
+        assertEquals(
+                configuration,
+                builder.frameProcessorConfiguration
+        );
+    }
+
+    @Test
+    public void previewStream_HasDefault() throws Exception {
+        // When
+        FotoapparatBuilder builder = builderWithMandatoryArguments();
+
+        // Then
+        assertEquals(
+                PreviewStreamConfiguration.defaultConfiguration(),
+                builder.previewStreamConfiguration
+        );
+    }
+
+    @Test
+    public void previewStream_IsConfigurable() throws Exception {
+        // Given
+        PreviewStreamConfiguration configuration = PreviewStreamConfiguration.builder()
+                .bufferCount(5)
+                .build();
+
+        // When
+        FotoapparatBuilder builder = builderWithMandatoryArguments()
+                .previewStream(configuration);
+
+        // Then
+        assertEquals(
+                configuration,
+                builder.previewStreamConfiguration
+        );
+    }
+
     @Test
     public void photoSize_IsConfigurable() throws Exception {
         // When
@@ -7,16 +7,22 @@ import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.Collections;
+import java.util.List;
+
 import io.fotoapparat.hardware.Capabilities;
 import io.fotoapparat.parameter.provider.CapabilitiesProvider;
 import io.fotoapparat.parameter.update.UpdateRequest;
 import io.fotoapparat.photo.Photo;
+import io.fotoapparat.preview.FrameProcessorStatistics;
+import io.fotoapparat.preview.PreviewStatistics;
 import io.fotoapparat.result.CapabilitiesResult;
 import io.fotoapparat.result.FocusResult;
 import io.fotoapparat.result.PendingResult;
 import io.fotoapparat.result.PhotoResult;
 import io.fotoapparat.routine.CheckAvailabilityRoutine;
 import io.fotoapparat.routine.ConfigurePreviewStreamRoutine;
+import io.fotoapparat.routine.PreviewStatisticsRoutine;
 import io.fotoapparat.routine.StartCameraRoutine;
 import io.fotoapparat.routine.StopCameraRoutine;
 import io.fotoapparat.routine.UpdateOrientationRoutine;
@@ -29,6 +35,7 @@ import io.fotoapparat.test.ImmediateExecutor;
 import static io.fotoapparat.test.TestUtils.immediateFuture;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
+import static java.util.Collections.singletonList;
 import static junit.framework.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.inOrder;
@@ -75,6 +82,8 @@ public class FotoapparatTest {
     UpdateParametersRoutine updateParametersRoutine;
     @Mock
     UpdateZoomLevelRoutine updateZoomLevelRoutine;
+    @Mock
+    PreviewStatisticsRoutine previewStatisticsRoutine;
 
     Fotoapparat testee;
 
@@ -91,6 +100,7 @@ public class FotoapparatTest {
                 checkAvailabilityRoutine,
                 updateParametersRoutine,
                 updateZoomLevelRoutine,
+                previewStatisticsRoutine,
                 new ImmediateExecutor()
         );
     }
@@ -187,6 +197,47 @@ public class FotoapparatTest {
         );
     }
 
+    @Test
+    public void takePictures() throws Exception {
+        // Given
+        List<PhotoResult> photoResults = singletonList(PHOTO_RESULT);
+
+        given(takePictureRoutine.takePictures(1))
+                .willReturn(photoResults);
+
+        testee.start();
+
+        // When
+        List<PhotoResult> result = testee.takePictures(1);
+
+        // Then
+        assertEquals(
+                photoResults,
+                result
+        );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void takePictures_NoPictures() throws Exception {
+        // Given
+        testee.start();
+
+        // When
+        testee.takePictures(0);
+
+        // Then
+        // Expect exception
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void takePictures_NotStartedYet() throws Exception {
+        // When
+        testee.takePictures(1);
+
+        // Then
+        // Expect exception
+    }
+
     @Test(expected = IllegalStateException.class)
     public void takePicture_NotStartedYet() throws Exception {
         // When
@@ -340,4 +391,23 @@ public class FotoapparatTest {
         // Expect exception
     }
 
-}
\ No newline at end of file
+    @Test
+    public void getPreviewStatistics() throws Exception {
+        // Given
+        PreviewStatistics statistics = new PreviewStatistics(
+                1,
+                2,
+                Collections.<FrameProcessorStatistics>emptyList()
+        );
+
+        given(previewStatisticsRoutine.getPreviewStatistics())
+                .willReturn(statistics);
+
+        // When
+        PreviewStatistics result = testee.getPreviewStatistics();
+
+        // Then
+        assertEquals(statistics, result);
+    }
+
+}
@@ -25,6 +25,7 @@ import io.fotoapparat.hardware.Capabilities;
 import io.fotoapparat.hardware.v1.capabilities.CapabilitiesFactory;
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 import io.fotoapparat.parameter.Size;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -190,6 +191,28 @@ public class CapabilitiesFactoryTest {
         );
     }
 
+    @Test
+    public void mapPreviewFpsRanges() throws Exception {
+        // Given
+        given(parameters.getSupportedPreviewFpsRange())
+                .willReturn(asList(
+                        new int[]{15000, 15000},
+                        new int[]{7500, 30000}
+                ));
+
+        // When
+        Capabilities capabilities = testee.fromParameters(parameters, cameraInfo);
+
+        // Then
+        assertEquals(
+                asSet(
+                        new FpsRange(15000, 15000),
+                        new FpsRange(7500, 30000)
+                ),
+                capabilities.supportedPreviewFpsRanges()
+        );
+    }
+
     @Test
     public void zoomSupported() throws Exception {
         // Given
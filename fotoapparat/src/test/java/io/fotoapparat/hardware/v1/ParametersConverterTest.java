@@ -10,6 +10,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 import io.fotoapparat.parameter.Parameters;
 import io.fotoapparat.parameter.Size;
 
@@ -124,4 +125,23 @@ public class ParametersConverterTest {
         verify(outputParameters).setPreviewSize(10, 20);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void setPreviewFpsRange() throws Exception {
+        // Given
+        Parameters input = new Parameters();
+        input.putValue(
+                Parameters.Type.PREVIEW_FPS_RANGE,
+                new FpsRange(15000, 30000)
+        );
+
+        // When
+        testee.convert(
+                input,
+                outputParameters
+        );
+
+        // Then
+        verify(outputParameters).setPreviewFpsRange(15000, 30000);
+    }
+
+}
@@ -0,0 +1,242 @@
+package io.fotoapparat.hardware.v1;
+
+import android.graphics.ImageFormat;
+import android.hardware.Camera;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.fotoapparat.log.Loggers;
+import io.fotoapparat.parameter.Size;
+import io.fotoapparat.preview.Frame;
+import io.fotoapparat.preview.FrameProcessor;
+import io.fotoapparat.preview.PreviewStreamConfiguration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SuppressWarnings("deprecation")
+@RunWith(MockitoJUnitRunner.class)
+public class PreviewStream1Test {
+
+    @Mock
+    Camera camera;
+    @Mock
+    Camera.Parameters parameters;
+    @Mock
+    Camera.Size previewSize;
+
+    PreviewStream1 testee;
+
+    @Before
+    public void setUp() throws Exception {
+        previewSize.width = 4;
+        previewSize.height = 2;
+
+        given(camera.getParameters())
+                .willReturn(parameters);
+        given(parameters.getPreviewFormat())
+                .willReturn(ImageFormat.NV21);
+        given(parameters.getPreviewSize())
+                .willReturn(previewSize);
+
+        testee = new PreviewStream1(camera, Loggers.none());
+    }
+
+    @Test
+    public void start_AddsAllBuffers() throws Exception {
+        // Given
+        testee.configure(
+                PreviewStreamConfiguration.builder()
+                        .bufferCount(4)
+                        .build()
+        );
+
+        // When
+        testee.start();
+
+        // Then
+        List<byte[]> buffers = addedBuffers(4);
+
+        assertNotSame(buffers.get(0), buffers.get(1));
+        assertNotSame(buffers.get(1), buffers.get(2));
+        assertNotSame(buffers.get(2), buffers.get(3));
+    }
+
+    @Test
+    public void dispatchFrame() throws Exception {
+        // Given
+        final AtomicReference<Frame> frameReference = new AtomicReference<>();
+        final CountDownLatch frameProcessed = new CountDownLatch(1);
+
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                frameReference.set(frame);
+                frameProcessed.countDown();
+            }
+        });
+        testee.setFrameOrientation(90);
+        testee.start();
+
+        byte[] buffer = addedBuffers(PreviewStreamConfiguration.DEFAULT_BUFFER_COUNT).get(0);
+
+        // When
+        previewCallback().onPreviewFrame(buffer, camera);
+
+        // Then
+        assertTrue(frameProcessed.await(1, TimeUnit.SECONDS));
+
+        Frame frame = frameReference.get();
+        assertSame(buffer, frame.image);
+        assertEquals(new Size(4, 2), frame.size);
+        assertEquals(90, frame.rotation);
+
+        verify(camera, timeout(1000).times(PreviewStreamConfiguration.DEFAULT_BUFFER_COUNT + 1))
+                .addCallbackBuffer(any(byte[].class));
+    }
+
+    @Test
+    public void dispatchFrame_ReusesFrames() throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                frames.add(frame);
+            }
+        });
+        testee.start();
+
+        byte[] buffer = addedBuffers(PreviewStreamConfiguration.DEFAULT_BUFFER_COUNT).get(0);
+
+        // When
+        previewCallback().onPreviewFrame(buffer, camera);
+        Frame firstFrame = frames.poll(1, TimeUnit.SECONDS);
+
+        previewCallback().onPreviewFrame(buffer, camera);
+        Frame secondFrame = frames.poll(1, TimeUnit.SECONDS);
+
+        // Then
+        assertNotNull(firstFrame);
+        assertSame(firstFrame, secondFrame);
+    }
+
+    @Test
+    public void dispatchFrame_NumbersFrames() throws Exception {
+        // Given
+        final BlockingQueue<Long> sequenceNumbers = new LinkedBlockingQueue<>();
+        final BlockingQueue<Long> timestamps = new LinkedBlockingQueue<>();
+
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                sequenceNumbers.add(frame.getSequenceNumber());
+                timestamps.add(frame.getTimestamp());
+            }
+        });
+        testee.start();
+
+        List<byte[]> buffers = addedBuffers(PreviewStreamConfiguration.DEFAULT_BUFFER_COUNT);
+        long timeBeforeFrames = System.nanoTime();
+
+        // When
+        previewCallback().onPreviewFrame(buffers.get(0), camera);
+        long firstSequenceNumber = sequenceNumbers.poll(1, TimeUnit.SECONDS);
+        long firstTimestamp = timestamps.poll(1, TimeUnit.SECONDS);
+
+        previewCallback().onPreviewFrame(buffers.get(1), camera);
+        long secondSequenceNumber = sequenceNumbers.poll(1, TimeUnit.SECONDS);
+        long secondTimestamp = timestamps.poll(1, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(0L, firstSequenceNumber);
+        assertEquals(1L, secondSequenceNumber);
+        assertTrue(firstTimestamp >= timeBeforeFrames);
+        assertTrue(secondTimestamp >= firstTimestamp);
+    }
+
+    @Test
+    public void droppedFrame_ReturnedToCamera() throws Exception {
+        // Given
+        final CountDownLatch processingStarted = new CountDownLatch(1);
+        final CountDownLatch processingAllowed = new CountDownLatch(1);
+
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                processingStarted.countDown();
+
+                try {
+                    processingAllowed.await();
+                } catch (InterruptedException e) {
+                    // Do nothing
+                }
+            }
+        });
+        testee.start();
+
+        List<byte[]> buffers = addedBuffers(PreviewStreamConfiguration.DEFAULT_BUFFER_COUNT);
+
+        previewCallback().onPreviewFrame(buffers.get(0), camera);
+        assertTrue(processingStarted.await(1, TimeUnit.SECONDS));
+
+        // When
+        previewCallback().onPreviewFrame(buffers.get(1), camera);
+        previewCallback().onPreviewFrame(buffers.get(2), camera);
+
+        // Then
+        verify(camera, times(2)).addCallbackBuffer(same(buffers.get(1)));
+        assertEquals(1, testee.getDroppedFramesCount());
+
+        processingAllowed.countDown();
+    }
+
+    @Test
+    public void stop() throws Exception {
+        // Given
+        testee.start();
+
+        // When
+        testee.stop();
+
+        // Then
+        verify(camera).setPreviewCallbackWithBuffer(null);
+    }
+
+    private List<byte[]> addedBuffers(int count) {
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+        verify(camera, times(count)).addCallbackBuffer(captor.capture());
+
+        return captor.getAllValues();
+    }
+
+    private Camera.PreviewCallback previewCallback() {
+        ArgumentCaptor<Camera.PreviewCallback> captor = ArgumentCaptor.forClass(Camera.PreviewCallback.class);
+        verify(camera).setPreviewCallbackWithBuffer(captor.capture());
+
+        return captor.getValue();
+    }
+
+}
@@ -39,6 +39,7 @@ import io.fotoapparat.lens.FocusResult;
 import io.fotoapparat.log.Logger;
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 import io.fotoapparat.parameter.LensPosition;
 import io.fotoapparat.parameter.Parameters;
 import io.fotoapparat.parameter.RendererParameters;
@@ -160,6 +161,7 @@ public class Camera2Test {
                 Collections.<Size>emptySet(),
                 singleton(FocusMode.MACRO),
                 Collections.<Flash>emptySet(),
+                Collections.<FpsRange>emptySet(),
                 false,
                 0
         );
@@ -189,6 +191,19 @@ public class Camera2Test {
         assertEquals(photo, returnedPhoto);
     }
 
+    @Test
+    public void takePictures() throws Exception {
+        // Given
+        CaptureOperator.PhotoCallback callback = Mockito.mock(CaptureOperator.PhotoCallback.class);
+
+        // When
+        testee.takePictures(3, callback);
+
+        // Then
+        verify(logger).log(anyString());
+        verify(captureOperator).takePictures(3, callback);
+    }
+
     @Test
     public void previewStream() throws Exception {
         // Given
@@ -18,6 +18,7 @@ import io.fotoapparat.hardware.Capabilities;
 import io.fotoapparat.hardware.v2.connection.CameraConnection;
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 import io.fotoapparat.parameter.Size;
 
 import static io.fotoapparat.test.TestUtils.asSet;
@@ -162,4 +163,21 @@ public class CapabilitiesFactoryTest {
 				capabilities.supportedPreviewSizes()
 		);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void supportedPreviewFpsRanges() throws Exception {
+		// Given
+		Set<FpsRange> fpsRanges = asSet(
+				new FpsRange(15000, 15000),
+				new FpsRange(15000, 30000)
+		);
+		given(characteristics.getTargetFpsRanges())
+				.willReturn(fpsRanges);
+
+		// When
+		Capabilities capabilities = testee.getCapabilities();
+
+		// Then
+		assertEquals(fpsRanges, capabilities.supportedPreviewFpsRanges());
+	}
+}
@@ -0,0 +1,84 @@
+package io.fotoapparat.hardware.v2.lens.executors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import io.fotoapparat.hardware.operators.CaptureOperator;
+import io.fotoapparat.hardware.v2.orientation.OrientationManager;
+import io.fotoapparat.hardware.v2.readers.ZslSurfaceReader;
+import io.fotoapparat.photo.Photo;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ZslCaptureOperatorTest {
+
+    static final Photo FALLBACK_PHOTO = Photo.empty();
+
+    @Mock
+    ZslSurfaceReader zslSurfaceReader;
+    @Mock
+    CaptureOperator fallbackOperator;
+    @Mock
+    OrientationManager orientationManager;
+
+    ZslCaptureOperator testee;
+
+    @Before
+    public void setUp() throws Exception {
+        testee = new ZslCaptureOperator(
+                zslSurfaceReader,
+                fallbackOperator,
+                orientationManager
+        );
+    }
+
+    @Test
+    public void noRecentImage_RegularCapture() throws Exception {
+        // Given
+        given(zslSurfaceReader.hasRecentImage())
+                .willReturn(false);
+        given(fallbackOperator.takePicture())
+                .willReturn(FALLBACK_PHOTO);
+
+        // When
+        boolean zeroShutterLag = testee.isZeroShutterLag();
+        Photo photo = testee.takePicture();
+
+        // Then
+        assertFalse(zeroShutterLag);
+        assertSame(FALLBACK_PHOTO, photo);
+    }
+
+    @Test
+    public void recentImage_ZeroShutterLag() throws Exception {
+        // Given
+        byte[] photoBytes = {1, 2, 3};
+
+        given(zslSurfaceReader.hasRecentImage())
+                .willReturn(true);
+        given(zslSurfaceReader.getPhotoBytes())
+                .willReturn(photoBytes);
+        given(orientationManager.getPhotoOrientation())
+                .willReturn(90);
+
+        // When
+        boolean zeroShutterLag = testee.isZeroShutterLag();
+        Photo photo = testee.takePicture();
+
+        // Then
+        assertTrue(zeroShutterLag);
+        assertArrayEquals(photoBytes, photo.encodedImage);
+        verify(fallbackOperator, never()).takePicture();
+    }
+
+}
@@ -0,0 +1,63 @@
+package io.fotoapparat.hardware.v2.lens.operations;
+
+import android.hardware.camera2.CameraCaptureSession;
+import android.hardware.camera2.CaptureFailure;
+import android.hardware.camera2.CaptureRequest;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import io.fotoapparat.hardware.CameraException;
+
+import static org.junit.Assert.fail;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BurstCaptureCallbackTest {
+
+    @Mock
+    CameraCaptureSession session;
+    @Mock
+    CaptureRequest request;
+    @Mock
+    CaptureFailure failure;
+
+    @Test(timeout = 1000)
+    public void sequenceAborted_RemainingCapturesFail() throws Exception {
+        // Given
+        BurstCaptureCallback testee = new BurstCaptureCallback(3, 10_000);
+
+        testee.onCaptureFailed(session, request, failure);
+
+        // When
+        testee.onCaptureSequenceAborted(session, 0);
+
+        // Then
+        for (int i = 0; i < 3; i++) {
+            assertFails(testee);
+        }
+    }
+
+    @Test(expected = CameraException.class)
+    public void captureNeverCompletes() throws Exception {
+        // Given
+        BurstCaptureCallback testee = new BurstCaptureCallback(1, 10);
+
+        // When
+        testee.nextTimestamp();
+
+        // Then
+        // Expect exception
+    }
+
+    private static void assertFails(BurstCaptureCallback callback) {
+        try {
+            callback.nextTimestamp();
+            fail("Capture is expected to fail");
+        } catch (CameraException e) {
+            // Expected
+        }
+    }
+
+}
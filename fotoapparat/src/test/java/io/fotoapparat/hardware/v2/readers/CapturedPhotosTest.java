@@ -0,0 +1,111 @@
+package io.fotoapparat.hardware.v2.readers;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.fotoapparat.photo.PhotoBufferPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CapturedPhotosTest {
+
+    static final long TIMEOUT_MILLIS = 1000;
+
+    static final ByteBuffer PHOTO_1 = ByteBuffer.wrap(new byte[]{1});
+    static final ByteBuffer PHOTO_2 = ByteBuffer.wrap(new byte[]{2});
+    static final ByteBuffer PHOTO_3 = ByteBuffer.wrap(new byte[]{3});
+
+    PhotoBufferPool bufferPool = new PhotoBufferPool();
+    CapturedPhotos testee = new CapturedPhotos(bufferPool);
+
+    @Test
+    public void take_ArrivedBefore() throws Exception {
+        // Given
+        testee.add(10, PHOTO_1);
+        testee.add(20, PHOTO_2);
+
+        // When
+        ByteBuffer result = testee.take(20, TIMEOUT_MILLIS);
+
+        // Then
+        assertSame(PHOTO_2, result);
+    }
+
+    @Test
+    public void take_ArrivesAfter() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<ByteBuffer> result = executor.submit(new Callable<ByteBuffer>() {
+            @Override
+            public ByteBuffer call() throws Exception {
+                return testee.take(20, TIMEOUT_MILLIS);
+            }
+        });
+
+        // When
+        testee.add(10, PHOTO_1);
+        Thread.sleep(50);
+
+        // Then
+        assertFalse(result.isDone());
+
+        testee.add(20, PHOTO_2);
+        assertSame(PHOTO_2, result.get(1, TimeUnit.SECONDS));
+
+        executor.shutdown();
+    }
+
+    @Test
+    public void take_NeverArrives() throws Exception {
+        // Given
+        testee.add(10, PHOTO_1);
+
+        // When
+        ByteBuffer result = testee.take(20, 50);
+
+        // Then
+        assertNull(result);
+        assertEquals(1, testee.size());
+    }
+
+    @Test
+    public void take_DiscardsOlderLeftovers() throws Exception {
+        // Given
+        testee.add(10, PHOTO_1);
+        testee.add(20, PHOTO_2);
+        testee.add(30, PHOTO_3);
+
+        // When
+        ByteBuffer newest = testee.take(30, TIMEOUT_MILLIS);
+
+        // Then
+        assertSame(PHOTO_3, newest);
+        assertEquals(0, testee.size());
+        assertEquals(2, bufferPool.getFreeBuffersCount());
+    }
+
+    @Test
+    public void take_KeepsNewerPhotos() throws Exception {
+        // Given
+        testee.add(10, PHOTO_1);
+        testee.add(20, PHOTO_2);
+        testee.add(30, PHOTO_3);
+
+        // When
+        testee.take(20, TIMEOUT_MILLIS);
+
+        // Then
+        assertEquals(1, testee.size());
+        assertSame(PHOTO_3, testee.take(30, TIMEOUT_MILLIS));
+    }
+
+}
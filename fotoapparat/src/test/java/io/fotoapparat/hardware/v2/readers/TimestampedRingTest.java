@@ -0,0 +1,100 @@
+package io.fotoapparat.hardware.v2.readers;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TimestampedRingTest {
+
+    TimestampedRing<String> testee = new TimestampedRing<>(3);
+
+    @Test
+    public void add_EvictsOldestWhenFull() throws Exception {
+        // Given
+        testee.add("a", 10);
+        testee.add("b", 20);
+        testee.add("c", 30);
+
+        // When
+        String evicted = testee.add("d", 40);
+
+        // Then
+        assertEquals("a", evicted);
+        assertEquals(3, testee.size());
+    }
+
+    @Test
+    public void add_NotFull() throws Exception {
+        // When
+        String evicted = testee.add("a", 10);
+
+        // Then
+        assertNull(evicted);
+    }
+
+    @Test
+    public void takeClosest() throws Exception {
+        // Given
+        testee.add("a", 10);
+        testee.add("b", 20);
+        testee.add("c", 30);
+
+        // When
+        String result = testee.takeClosest(22);
+
+        // Then
+        assertEquals("b", result);
+        assertEquals(
+                Arrays.asList("a", "c"),
+                testee.clear()
+        );
+    }
+
+    @Test
+    public void takeClosest_AfterNewest() throws Exception {
+        // Given
+        testee.add("a", 10);
+        testee.add("b", 20);
+
+        // When
+        String result = testee.takeClosest(100);
+
+        // Then
+        assertEquals("b", result);
+    }
+
+    @Test
+    public void takeClosest_Empty() throws Exception {
+        // When
+        String result = testee.takeClosest(10);
+
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    public void containsSince() throws Exception {
+        // Given
+        testee.add("a", 10);
+        testee.add("b", 20);
+
+        // Then
+        assertTrue(testee.containsSince(20));
+        assertFalse(testee.containsSince(21));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroDepth() throws Exception {
+        // When
+        new TimestampedRing<String>(0);
+
+        // Then
+        // Expect exception
+    }
+
+}
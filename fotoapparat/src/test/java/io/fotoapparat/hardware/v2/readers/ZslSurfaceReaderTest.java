@@ -0,0 +1,73 @@
+package io.fotoapparat.hardware.v2.readers;
+
+import org.junit.Test;
+
+import io.fotoapparat.hardware.v2.ZslConfiguration;
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertEquals;
+
+public class ZslSurfaceReaderTest {
+
+    static final Size SIZE = new Size(4000, 3000);
+
+    @Test
+    public void ringDepth_FitsMemory() throws Exception {
+        // Given
+        ZslConfiguration configuration = ZslConfiguration.builder()
+                .ringDepth(5)
+                .maxMemoryBytes(80_000_000)
+                .build();
+
+        // When
+        int depth = ZslSurfaceReader.ringDepth(configuration, SIZE);
+
+        // Then
+        assertEquals(2, depth);
+    }
+
+    @Test
+    public void ringDepth_LimitedByConfiguration() throws Exception {
+        // Given
+        ZslConfiguration configuration = ZslConfiguration.builder()
+                .ringDepth(2)
+                .maxMemoryBytes(Long.MAX_VALUE)
+                .build();
+
+        // When
+        int depth = ZslSurfaceReader.ringDepth(configuration, SIZE);
+
+        // Then
+        assertEquals(2, depth);
+    }
+
+    @Test
+    public void ringDepth_ExtraImagesDoNotFit() throws Exception {
+        // Given
+        ZslConfiguration configuration = ZslConfiguration.builder()
+                .ringDepth(5)
+                .maxMemoryBytes(40_000_000)
+                .build();
+
+        // When
+        int depth = ZslSurfaceReader.ringDepth(configuration, SIZE);
+
+        // Then
+        assertEquals(1, depth);
+    }
+
+    @Test
+    public void ringDepth_AtLeastOne() throws Exception {
+        // Given
+        ZslConfiguration configuration = ZslConfiguration.builder()
+                .maxMemoryBytes(1)
+                .build();
+
+        // When
+        int depth = ZslSurfaceReader.ringDepth(configuration, SIZE);
+
+        // Then
+        assertEquals(1, depth);
+    }
+
+}
@@ -0,0 +1,109 @@
+package io.fotoapparat.hardware.v2.session;
+
+import android.hardware.camera2.CaptureResult;
+
+import org.junit.Test;
+
+import io.fotoapparat.lens.FocusResult;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class FocusStateTrackerTest {
+
+    FocusStateTracker testee = new FocusStateTracker();
+
+    @Test
+    public void unknown() throws Exception {
+        // Given
+        testee.onStates(null, null);
+
+        // When
+        FocusResult result = testee.getStableFocusResult();
+
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    public void passiveFocused() throws Exception {
+        // Given
+        testee.onStates(
+                CaptureResult.CONTROL_AF_STATE_PASSIVE_FOCUSED,
+                CaptureResult.CONTROL_AE_STATE_CONVERGED
+        );
+
+        // When
+        FocusResult result = testee.getStableFocusResult();
+
+        // Then
+        assertEquals(
+                FocusResult.successNoMeasurement(),
+                result
+        );
+    }
+
+    @Test
+    public void passiveFocused_ExposureNotConverged() throws Exception {
+        // Given
+        testee.onStates(
+                CaptureResult.CONTROL_AF_STATE_PASSIVE_FOCUSED,
+                CaptureResult.CONTROL_AE_STATE_SEARCHING
+        );
+
+        // When
+        FocusResult result = testee.getStableFocusResult();
+
+        // Then
+        assertEquals(
+                new FocusResult(true, true),
+                result
+        );
+    }
+
+    @Test
+    public void scanning() throws Exception {
+        // Given
+        testee.onStates(
+                CaptureResult.CONTROL_AF_STATE_PASSIVE_SCAN,
+                CaptureResult.CONTROL_AE_STATE_CONVERGED
+        );
+
+        // When
+        FocusResult result = testee.getStableFocusResult();
+
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    public void lockedByTrigger() throws Exception {
+        // Given
+        testee.onStates(
+                CaptureResult.CONTROL_AF_STATE_FOCUSED_LOCKED,
+                CaptureResult.CONTROL_AE_STATE_CONVERGED
+        );
+
+        // When
+        FocusResult result = testee.getStableFocusResult();
+
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    public void reset() throws Exception {
+        // Given
+        testee.onStates(
+                CaptureResult.CONTROL_AF_STATE_PASSIVE_FOCUSED,
+                CaptureResult.CONTROL_AE_STATE_CONVERGED
+        );
+
+        // When
+        testee.reset();
+
+        // Then
+        assertNull(testee.getStableFocusResult());
+    }
+
+}
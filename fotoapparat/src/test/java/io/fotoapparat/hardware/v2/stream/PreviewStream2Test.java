@@ -1,67 +1,355 @@
 package io.fotoapparat.hardware.v2.stream;
 
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
-import io.fotoapparat.hardware.v2.parameters.ParametersProvider;
 import io.fotoapparat.hardware.v2.stream.OnImageAcquiredObserver.OnFrameAcquiredListener;
 import io.fotoapparat.log.Logger;
 import io.fotoapparat.parameter.Size;
 import io.fotoapparat.preview.Frame;
 import io.fotoapparat.preview.FrameProcessor;
+import io.fotoapparat.preview.PreviewStreamConfiguration;
+import io.fotoapparat.preview.YuvFrame;
+import io.fotoapparat.preview.YuvFrameProcessor;
 
 import static junit.framework.Assert.assertEquals;
-import static org.mockito.BDDMockito.given;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PreviewStream2Test {
 
-    static final Size PREVIEW_SIZE = new Size(10, 20);
+    static final Size PREVIEW_SIZE = new Size(2, 2);
 
-    @Mock
-    ParametersProvider parametersProvider;
     @Mock
     Logger logger;
 
+    final AtomicReference<OnFrameAcquiredListener> listenerReference = new AtomicReference<>();
+    final CountDownLatch listenerSet = new CountDownLatch(1);
+    final AtomicReference<Integer> maxImagesReference = new AtomicReference<>();
+
+    PreviewStream2 testee;
+
+    @Before
+    public void setUp() throws Exception {
+        testee = new PreviewStream2(new OnImageAcquiredObserver() {
+            @Override
+            public void setListener(OnFrameAcquiredListener listener) {
+                listenerReference.set(listener);
+                listenerSet.countDown();
+            }
+
+            @Override
+            public void setMaxImages(int maxImages) {
+                maxImagesReference.set(maxImages);
+            }
+        }, logger);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        testee.stop();
+    }
+
     @Test
     public void acquireFrame() throws Exception {
         // Given
-        given(parametersProvider.getPreviewSize())
-                .willReturn(PREVIEW_SIZE);
-
-        final AtomicReference<OnFrameAcquiredListener> listenerReference = new AtomicReference<>();
         final AtomicReference<Frame> frameReference = new AtomicReference<>();
-        final CountDownLatch listenerSet = new CountDownLatch(1);
         final CountDownLatch frameAcquired = new CountDownLatch(1);
 
-        PreviewStream2 testee = new PreviewStream2(new OnImageAcquiredObserver() {
+        testee.addProcessor(new FrameProcessor() {
             @Override
-            public void setListener(OnFrameAcquiredListener listener) {
-                listenerReference.set(listener);
-                listenerSet.countDown();
+            public void processFrame(Frame frame) {
+                frameReference.set(frame);
+                frameAcquired.countDown();
+            }
+        });
+        testee.start();
+
+        // When
+        listenerSet.await();
+        listenerReference.get().onFrameAcquired(yuvFrame(new CountDownLatch(1)), 0);
+
+        // Then
+        frameAcquired.await();
+        assertEquals(new Frame(PREVIEW_SIZE, new byte[]{1, 2, 3, 4, 6, 5}, 0), frameReference.get());
+    }
+
+    @Test
+    public void configure_SetsMaxImages() throws Exception {
+        // When
+        testee.configure(
+                PreviewStreamConfiguration.builder()
+                        .bufferCount(5)
+                        .build()
+        );
+
+        // Then
+        assertEquals(Integer.valueOf(5), maxImagesReference.get());
+    }
+
+    @Test
+    public void noProcessors_FramesNotAcquired() throws Exception {
+        // When
+        testee.start();
+
+        // Then
+        assertEquals(1, listenerSet.getCount());
+    }
+
+    @Test
+    public void processorAddedAfterStart_FramesAcquired() throws Exception {
+        // Given
+        testee.start();
+
+        // When
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                // Do nothing
+            }
+        });
+
+        // Then
+        assertTrue(listenerSet.await(1, TimeUnit.SECONDS));
+        assertSame(testee, listenerReference.get());
+    }
+
+    @Test
+    public void acquireFrame_Metadata() throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                frames.add(frame);
+            }
+        });
+        testee.start();
+        listenerSet.await();
+
+        // When
+        listenerReference.get().onFrameAcquired(yuvFrame(new CountDownLatch(1)), 100L);
+        Frame firstFrame = frames.poll(1, TimeUnit.SECONDS);
+
+        listenerReference.get().onFrameAcquired(yuvFrame(new CountDownLatch(1)), 200L);
+        Frame secondFrame = frames.poll(1, TimeUnit.SECONDS);
+
+        // Then
+
+        assertEquals(100L, firstFrame.getTimestamp());
+        assertEquals(0L, firstFrame.getSequenceNumber());
+        assertEquals(200L, secondFrame.getTimestamp());
+        assertEquals(1L, secondFrame.getSequenceNumber());
+    }
+
+    @Test
+    public void acquireFrame_ReusesBuffers() throws Exception {
+        // Given
+        final BlockingQueue<byte[]> images = new LinkedBlockingQueue<>();
+
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                images.add(frame.image);
             }
-        }, parametersProvider, logger);
+        });
+        testee.start();
+        listenerSet.await();
+
+        // When
+        listenerReference.get().onFrameAcquired(yuvFrame(new CountDownLatch(1)), 0);
+        byte[] firstImage = images.poll(1, TimeUnit.SECONDS);
+
+        Thread.sleep(50);
+
+        listenerReference.get().onFrameAcquired(yuvFrame(new CountDownLatch(1)), 0);
+        byte[] secondImage = images.poll(1, TimeUnit.SECONDS);
+
+        // Then
+        assertSame(firstImage, secondImage);
+    }
+
+    @Test
+    public void staticScene_Skipped() throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
 
+        testee.configure(
+                PreviewStreamConfiguration.builder()
+                        .sceneChangeThreshold(0.1f)
+                        .build()
+        );
         testee.addProcessor(new FrameProcessor() {
             @Override
             public void processFrame(Frame frame) {
+                frames.add(frame);
+            }
+        });
+        testee.start();
+        listenerSet.await();
+
+        // When
+        listenerReference.get().onFrameAcquired(yuvFrame(new CountDownLatch(1)), 100L);
+        Frame firstFrame = frames.poll(1, TimeUnit.SECONDS);
+
+        listenerReference.get().onFrameAcquired(yuvFrame(new CountDownLatch(1)), 200L);
+        Frame secondFrame = frames.poll(100, TimeUnit.MILLISECONDS);
+
+        // Then
+        assertEquals(1f, firstFrame.getChangeScore(), 0f);
+        assertNull(secondFrame);
+        assertEquals(1L, testee.getSkippedFramesCount());
+    }
+
+    @Test
+    public void statistics_CalculatedOncePerFrame() throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+
+        testee.configure(
+                PreviewStreamConfiguration.builder()
+                        .statisticsSubsampling(1)
+                        .build()
+        );
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                frames.add(frame);
+            }
+        });
+        testee.addProcessor(new YuvFrameProcessor() {
+            @Override
+            public void processYuvFrame(YuvFrame frame) {
+                frames.add(frame);
+            }
+
+            @Override
+            public void processFrame(Frame frame) {
+                throw new AssertionError("NV21 frame is not expected");
+            }
+        });
+        testee.start();
+        listenerSet.await();
+
+        // When
+        listenerReference.get().onFrameAcquired(yuvFrame(new CountDownLatch(1)), 0);
+
+        // Then
+        Frame firstFrame = frames.poll(1, TimeUnit.SECONDS);
+        Frame secondFrame = frames.poll(1, TimeUnit.SECONDS);
+
+        assertEquals(4, firstFrame.getStatistics().samplesCount);
+        assertSame(firstFrame.getStatistics(), secondFrame.getStatistics());
+    }
+
+    @Test
+    public void acquireYuvFrame() throws Exception {
+        // Given
+        final AtomicReference<YuvFrame> frameReference = new AtomicReference<>();
+        final CountDownLatch frameAcquired = new CountDownLatch(1);
+        final CountDownLatch frameReleased = new CountDownLatch(1);
+
+        testee.addProcessor(new YuvFrameProcessor() {
+            @Override
+            public void processYuvFrame(YuvFrame frame) {
                 frameReference.set(frame);
                 frameAcquired.countDown();
             }
+
+            @Override
+            public void processFrame(Frame frame) {
+                throw new AssertionError("NV21 frame is not expected");
+            }
         });
         testee.start();
 
+        YuvFrame frame = yuvFrame(frameReleased);
+
         // When
         listenerSet.await();
-        listenerReference.get().onFrameAcquired(new byte[]{1});
+        listenerReference.get().onFrameAcquired(frame, 0);
+        frame.releaseCreatorReference();
 
         // Then
         frameAcquired.await();
-        assertEquals(new Frame(PREVIEW_SIZE, new byte[]{1}, 0), frameReference.get());
+        assertSame(frame, frameReference.get());
+        assertTrue(frameReleased.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void retainedYuvFrame_KeepsRetentionAfterCreatorRelease() throws Exception {
+        // Given
+        final BlockingQueue<YuvFrame> frames = new LinkedBlockingQueue<>();
+        final BlockingQueue<Boolean> retained = new LinkedBlockingQueue<>();
+
+        testee.configure(
+                PreviewStreamConfiguration.builder()
+                        .maxRetainedFrames(1)
+                        .build()
+        );
+        testee.addProcessor(new YuvFrameProcessor() {
+            @Override
+            public void processYuvFrame(YuvFrame frame) {
+                retained.add(frame.retain());
+                frames.add(frame);
+            }
+
+            @Override
+            public void processFrame(Frame frame) {
+                throw new AssertionError("NV21 frame is not expected");
+            }
+        });
+        testee.start();
+        listenerSet.await();
+
+        CountDownLatch firstFrameReleased = new CountDownLatch(1);
+        YuvFrame firstFrame = yuvFrame(firstFrameReleased);
+
+        listenerReference.get().onFrameAcquired(firstFrame, 0);
+        assertSame(firstFrame, frames.poll(1, TimeUnit.SECONDS));
+
+        // When
+        firstFrame.releaseCreatorReference();
+        listenerReference.get().onFrameAcquired(yuvFrame(new CountDownLatch(1)), 0);
+
+        // Then
+        assertTrue(retained.poll(1, TimeUnit.SECONDS));
+        assertFalse(retained.poll(1, TimeUnit.SECONDS));
+        assertEquals(1, firstFrameReleased.getCount());
+
+        firstFrame.release();
+
+        assertEquals(0, firstFrameReleased.getCount());
     }
-}
\ No newline at end of file
+
+    private static YuvFrame yuvFrame(final CountDownLatch frameReleased) {
+        return new YuvFrame(
+                PREVIEW_SIZE,
+                0,
+                new YuvFrame.Plane(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}), 2, 1),
+                new YuvFrame.Plane(ByteBuffer.wrap(new byte[]{5}), 1, 1),
+                new YuvFrame.Plane(ByteBuffer.wrap(new byte[]{6}), 1, 1)
+        ) {
+            @Override
+            protected void onReleased() {
+                frameReleased.countDown();
+            }
+        };
+    }
+
+}
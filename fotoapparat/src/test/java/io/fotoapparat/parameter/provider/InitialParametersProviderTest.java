@@ -7,6 +7,7 @@ import static org.mockito.Mockito.verify;
 
 import static io.fotoapparat.parameter.selector.FlashSelectors.torch;
 import static io.fotoapparat.parameter.selector.FocusModeSelectors.autoFocus;
+import static io.fotoapparat.parameter.selector.FpsRangeSelectors.highestFps;
 import static io.fotoapparat.test.TestUtils.asSet;
 import static io.fotoapparat.util.TestSelectors.select;
 
@@ -21,6 +22,7 @@ import io.fotoapparat.hardware.Capabilities;
 import io.fotoapparat.hardware.operators.CapabilitiesOperator;
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 import io.fotoapparat.parameter.Parameters;
 import io.fotoapparat.parameter.Size;
 import io.fotoapparat.parameter.selector.SizeSelectors;
@@ -32,6 +34,8 @@ public class InitialParametersProviderTest {
     static final Size PREVIEW_SIZE = new Size(2000, 1500);
     static final Size PREVIEW_SIZE_WRONG_ASPECT_RATIO = new Size(1000, 1000);
 
+    static final FpsRange FPS_RANGE = new FpsRange(30000, 30000);
+
     static final Set<Size> ALL_PREVIEW_SIZES = asSet(
             PREVIEW_SIZE,
             PREVIEW_SIZE_WRONG_ASPECT_RATIO
@@ -88,6 +92,7 @@ public class InitialParametersProviderTest {
                         ALL_PREVIEW_SIZES,
                         asSet(FocusMode.AUTO),
                         asSet(Flash.TORCH),
+                        asSet(FPS_RANGE, new FpsRange(15000, 15000)),
                         true,
                         0
                 ));
@@ -98,6 +103,7 @@ public class InitialParametersProviderTest {
                 SizeSelectors.biggestSize(),
                 autoFocus(),
                 torch(),
+                highestFps(),
                 initialParametersValidator
         );
 
@@ -122,6 +128,10 @@ public class InitialParametersProviderTest {
                         .putValue(
                                 Parameters.Type.FLASH,
                                 Flash.TORCH
+                        )
+                        .putValue(
+                                Parameters.Type.PREVIEW_FPS_RANGE,
+                                FPS_RANGE
                         ),
                 parameters
         );
@@ -0,0 +1,102 @@
+package io.fotoapparat.parameter.selector;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+import io.fotoapparat.parameter.FpsRange;
+
+import static io.fotoapparat.test.TestUtils.asSet;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+
+public class FpsRangeSelectorsTest {
+
+    static final Set<FpsRange> AVAILABLE_RANGES = asSet(
+            new FpsRange(7500, 30000),
+            new FpsRange(15000, 15000),
+            new FpsRange(15000, 30000),
+            new FpsRange(30000, 30000),
+            new FpsRange(7500, 15000)
+    );
+
+    @Test
+    public void highestFps() throws Exception {
+        // When
+        FpsRange result = FpsRangeSelectors
+                .highestFps()
+                .select(AVAILABLE_RANGES);
+
+        // Then
+        assertEquals(
+                new FpsRange(30000, 30000),
+                result
+        );
+    }
+
+    @Test
+    public void lowestFps() throws Exception {
+        // When
+        FpsRange result = FpsRangeSelectors
+                .lowestFps()
+                .select(AVAILABLE_RANGES);
+
+        // Then
+        assertEquals(
+                new FpsRange(7500, 15000),
+                result
+        );
+    }
+
+    @Test
+    public void highestFps_NoRanges() throws Exception {
+        // When
+        FpsRange result = FpsRangeSelectors
+                .highestFps()
+                .select(Collections.<FpsRange>emptySet());
+
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    public void fixedFps_Available() throws Exception {
+        // When
+        FpsRange result = FpsRangeSelectors
+                .fixedFps(15)
+                .select(AVAILABLE_RANGES);
+
+        // Then
+        assertEquals(
+                new FpsRange(15000, 15000),
+                result
+        );
+    }
+
+    @Test
+    public void fixedFps_NotAvailable() throws Exception {
+        // When
+        FpsRange result = FpsRangeSelectors
+                .fixedFps(60)
+                .select(AVAILABLE_RANGES);
+
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    public void containingFps() throws Exception {
+        // When
+        FpsRange result = FpsRangeSelectors
+                .containingFps(24)
+                .select(AVAILABLE_RANGES);
+
+        // Then
+        assertEquals(
+                new FpsRange(15000, 30000),
+                result
+        );
+    }
+
+}
@@ -0,0 +1,83 @@
+package io.fotoapparat.photo;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PhotoBufferPoolTest {
+
+    PhotoBufferPool testee = new PhotoBufferPool(2);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeFreeBuffers() throws Exception {
+        // When
+        new PhotoBufferPool(-1);
+    }
+
+    @Test
+    public void acquire() throws Exception {
+        // When
+        ByteBuffer result = testee.acquire(10);
+
+        // Then
+        assertTrue(result.isDirect());
+        assertEquals(0, result.position());
+        assertEquals(10, result.limit());
+        assertEquals(PhotoBufferPool.CAPACITY_GRANULARITY, result.capacity());
+    }
+
+    @Test
+    public void acquire_ReusesLargeEnoughBuffer() throws Exception {
+        // Given
+        ByteBuffer buffer = testee.acquire(10);
+        buffer.position(5);
+        testee.recycle(buffer);
+
+        // When
+        ByteBuffer result = testee.acquire(20);
+
+        // Then
+        assertSame(buffer, result);
+        assertEquals(0, result.position());
+        assertEquals(20, result.limit());
+        assertEquals(0, testee.getFreeBuffersCount());
+    }
+
+    @Test
+    public void acquire_TooSmallBufferNotReused() throws Exception {
+        // Given
+        ByteBuffer buffer = testee.acquire(10);
+        testee.recycle(buffer);
+
+        // When
+        ByteBuffer result = testee.acquire(PhotoBufferPool.CAPACITY_GRANULARITY + 1);
+
+        // Then
+        assertNotSame(buffer, result);
+        assertEquals(1, testee.getFreeBuffersCount());
+    }
+
+    @Test
+    public void recycle_DropsSmallestBuffer() throws Exception {
+        // Given
+        ByteBuffer small = testee.acquire(10);
+        ByteBuffer medium = testee.acquire(PhotoBufferPool.CAPACITY_GRANULARITY + 1);
+        ByteBuffer large = testee.acquire(2 * PhotoBufferPool.CAPACITY_GRANULARITY + 1);
+
+        // When
+        testee.recycle(medium);
+        testee.recycle(small);
+        testee.recycle(large);
+
+        // Then
+        assertEquals(2, testee.getFreeBuffersCount());
+        assertSame(large, testee.acquire(2 * PhotoBufferPool.CAPACITY_GRANULARITY));
+        assertSame(medium, testee.acquire(10));
+    }
+
+}
@@ -2,7 +2,15 @@ package io.fotoapparat.photo;
 
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class PhotoTest {
 
@@ -14,7 +22,7 @@ public class PhotoTest {
         // Then
         assertEquals(
                 0,
-                result.encodedImage.length
+                result.getEncodedImage().length
         );
 
         assertEquals(
@@ -22,4 +30,118 @@ public class PhotoTest {
                 result.rotationDegrees
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    public void bufferBacked() throws Exception {
+        // Given
+        ByteBuffer buffer = ByteBuffer.allocateDirect(8);
+        buffer.put(new byte[]{1, 2, 3});
+        buffer.flip();
+
+        // When
+        Photo result = new Photo(buffer, 90, null);
+
+        // Then
+        assertEquals(3, result.getEncodedSize());
+        assertTrue(result.getEncodedBuffer().isReadOnly());
+        assertArrayEquals(new byte[]{1, 2, 3}, result.getEncodedImage());
+        assertSame(result.getEncodedImage(), result.getEncodedImage());
+        assertEquals(new Photo(new byte[]{1, 2, 3}, 90), result);
+    }
+
+    @Test
+    public void release() throws Exception {
+        // Given
+        PhotoBufferPool bufferPool = new PhotoBufferPool();
+        ByteBuffer buffer = bufferPool.acquire(3);
+
+        Photo photo = new Photo(buffer, 0, bufferPool);
+
+        // When
+        photo.release();
+        photo.release();
+
+        // Then
+        assertEquals(1, bufferPool.getFreeBuffersCount());
+        assertSame(buffer, bufferPool.acquire(3));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void release_BufferNotAccessible() throws Exception {
+        // Given
+        Photo photo = new Photo(ByteBuffer.allocateDirect(3), 0, null);
+
+        // When
+        photo.release();
+
+        // Then
+        photo.getEncodedBuffer();
+    }
+
+    @Test
+    public void release_CopiedImageAccessible() throws Exception {
+        // Given
+        Photo photo = new Photo(ByteBuffer.wrap(new byte[]{1, 2}), 0, null);
+        byte[] encodedImage = photo.getEncodedImage();
+
+        // When
+        photo.release();
+
+        // Then
+        assertSame(encodedImage, photo.getEncodedImage());
+    }
+
+    @Test
+    public void release_EqualsAndHashCode() throws Exception {
+        // Given
+        Photo copied = new Photo(ByteBuffer.allocateDirect(2), 0, null);
+        Photo notCopied = new Photo(ByteBuffer.allocateDirect(2), 0, null);
+        copied.getEncodedImage();
+        int copiedHashCode = copied.hashCode();
+
+        // When
+        copied.release();
+        notCopied.release();
+
+        // Then
+        assertEquals(copiedHashCode, copied.hashCode());
+        assertEquals(new Photo(new byte[2], 0), copied);
+
+        assertEquals(notCopied, notCopied);
+        assertNotEquals(copied, notCopied);
+        assertFalse(notCopied.equals(copied));
+        assertEquals(notCopied.hashCode(), notCopied.hashCode());
+    }
+
+    @Test
+    public void toArrayBacked() throws Exception {
+        // Given
+        PhotoBufferPool bufferPool = new PhotoBufferPool();
+        ByteBuffer buffer = bufferPool.acquire(2);
+        buffer.put(new byte[]{1, 2}).flip();
+
+        Photo photo = new Photo(buffer, 90, bufferPool);
+
+        // When
+        Photo result = photo.toArrayBacked();
+
+        // Then
+        assertNull(photo.encodedImage);
+        assertArrayEquals(new byte[]{1, 2}, result.encodedImage);
+        assertEquals(90, result.rotationDegrees);
+        assertEquals(1, bufferPool.getFreeBuffersCount());
+    }
+
+    @Test
+    public void toArrayBacked_AlreadyArrayBacked() throws Exception {
+        // Given
+        Photo photo = new Photo(new byte[]{1}, 0);
+
+        // When
+        Photo result = photo.toArrayBacked();
+
+        // Then
+        assertSame(photo, result);
+    }
+
+}
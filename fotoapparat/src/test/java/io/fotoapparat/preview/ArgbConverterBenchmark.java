@@ -0,0 +1,105 @@
+package io.fotoapparat.preview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures conversion of an NV21 image into ARGB pixels.
+ * <p>
+ * {@code floatingPoint} reproduces the usual single-threaded conversion with floating-point math
+ * and a new array per frame. {@code convert} uses {@link ArgbConverter} with a reused output
+ * buffer and {@code threads} threads; {@code 0} means all available processors. Compare
+ * {@code threads=1} with other values to see how conversion scales.
+ * <p>
+ * Run with {@code ./gradlew :fotoapparat:jmh -Pjmh=ArgbConverterBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArgbConverterBenchmark {
+
+    @Param({"1280x720", "1920x1080", "3840x2160"})
+    String resolution;
+
+    @Param({"1", "0"})
+    int threads;
+
+    private int width;
+    private int height;
+    private byte[] nv21;
+    private int[] output;
+    private ArgbConverter converter;
+
+    @Setup
+    public void setUp() {
+        String[] dimensions = resolution.split("x");
+        width = Integer.parseInt(dimensions[0]);
+        height = Integer.parseInt(dimensions[1]);
+
+        nv21 = new byte[YuvConverter.nv21Size(width, height)];
+        new Random(42).nextBytes(nv21);
+
+        output = new int[ArgbConverter.argbSize(width, height)];
+
+        converter = threads == 0
+                ? ArgbConverter.withAvailableProcessors()
+                : new ArgbConverter(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        converter.shutdown();
+    }
+
+    @Benchmark
+    public int[] floatingPoint() {
+        int[] argb = new int[width * height];
+        int chromaOffset = width * height;
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int chromaIndex = chromaOffset + (y >> 1) * width + (x & ~1);
+
+                float luma = 1.164f * ((nv21[y * width + x] & 0xFF) - 16);
+                float v = (nv21[chromaIndex] & 0xFF) - 128;
+                float u = (nv21[chromaIndex + 1] & 0xFF) - 128;
+
+                int r = clamp(luma + 1.596f * v);
+                int g = clamp(luma - 0.813f * v - 0.391f * u);
+                int b = clamp(luma + 2.018f * u);
+
+                argb[y * width + x] = 0xFF000000 | (r << 16) | (g << 8) | b;
+            }
+        }
+
+        return argb;
+    }
+
+    @Benchmark
+    public int[] convert() {
+        converter.toArgb(nv21, width, height, output);
+
+        return output;
+    }
+
+    private static int clamp(float channel) {
+        return (int) Math.max(0f, Math.min(255f, channel));
+    }
+
+}
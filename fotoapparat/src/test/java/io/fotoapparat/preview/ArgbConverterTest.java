@@ -0,0 +1,155 @@
+package io.fotoapparat.preview;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ArgbConverterTest {
+
+    ArgbConverter testee = new ArgbConverter(1);
+
+    @After
+    public void tearDown() throws Exception {
+        testee.shutdown();
+    }
+
+    @Test
+    public void toArgb_SharedChroma() throws Exception {
+        // Given
+        Frame frame = new Frame(
+                new Size(2, 2),
+                new byte[]{
+                        16, (byte) 235,
+                        16, (byte) 235,
+                        (byte) 128, (byte) 128
+                },
+                0
+        );
+        int[] output = new int[4];
+
+        // When
+        testee.toArgb(frame, output);
+
+        // Then
+        assertArrayEquals(
+                new int[]{
+                        0xFF000000, 0xFFFEFEFE,
+                        0xFF000000, 0xFFFEFEFE
+                },
+                output
+        );
+    }
+
+    @Test
+    public void toArgb_MatchesReference() throws Exception {
+        // Given
+        byte[] nv21 = randomNv21(64, 48);
+        int[] output = new int[64 * 48];
+
+        // When
+        testee.toArgb(nv21, 64, 48, output);
+
+        // Then
+        assertCloseToReference(nv21, 64, 48, output);
+    }
+
+    @Test
+    public void toArgb_OddSize() throws Exception {
+        // Given
+        byte[] nv21 = randomNv21(5, 3);
+        int[] output = new int[15];
+
+        // When
+        testee.toArgb(nv21, 5, 3, output);
+
+        // Then
+        assertCloseToReference(nv21, 5, 3, output);
+    }
+
+    @Test
+    public void toArgb_Parallel() throws Exception {
+        // Given
+        ArgbConverter parallelConverter = new ArgbConverter(3);
+
+        int width = 642;
+        int height = 481;
+        byte[] nv21 = randomNv21(width, height);
+
+        int[] expected = new int[width * height];
+        int[] output = new int[width * height];
+
+        testee.toArgb(nv21, width, height, expected);
+
+        // When
+        parallelConverter.toArgb(nv21, width, height, output);
+        parallelConverter.shutdown();
+
+        // Then
+        assertTrue(width * height >= ArgbConverter.PARALLEL_THRESHOLD);
+        assertArrayEquals(expected, output);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void toArgb_OutputTooSmall() throws Exception {
+        // When
+        testee.toArgb(new byte[6], 2, 2, new int[3]);
+
+        // Then
+        // Expect exception
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelism_MustBePositive() throws Exception {
+        // When
+        new ArgbConverter(0);
+
+        // Then
+        // Expect exception
+    }
+
+    private static byte[] randomNv21(int width, int height) {
+        byte[] nv21 = new byte[YuvConverter.nv21Size(width, height)];
+        new Random(42).nextBytes(nv21);
+
+        return nv21;
+    }
+
+    /**
+     * Compares with floating-point BT.601 conversion, allowing for rounding.
+     */
+    private static void assertCloseToReference(byte[] nv21, int width, int height, int[] argb) {
+        int chromaOffset = width * height;
+        int chromaRowBytes = (width + 1) & ~1;
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int chromaIndex = chromaOffset + (y / 2) * chromaRowBytes + (x & ~1);
+
+                float luma = 1.164f * Math.max(0, (nv21[y * width + x] & 0xFF) - 16);
+                int v = (nv21[chromaIndex] & 0xFF) - 128;
+                int u = (nv21[chromaIndex + 1] & 0xFF) - 128;
+
+                int pixel = argb[y * width + x];
+
+                assertEquals(0xFF, pixel >>> 24);
+                assertChannel(luma + 1.596f * v, (pixel >> 16) & 0xFF);
+                assertChannel(luma - 0.813f * v - 0.391f * u, (pixel >> 8) & 0xFF);
+                assertChannel(luma + 2.018f * u, pixel & 0xFF);
+            }
+        }
+    }
+
+    private static void assertChannel(float expected, int actual) {
+        float clamped = Math.max(0f, Math.min(255f, expected));
+
+        assertEquals(clamped, actual, 2f);
+    }
+
+}
@@ -0,0 +1,81 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncFrameProcessorTest {
+
+    final Frame frame = new Frame(new Size(1, 1), new byte[]{1}, 0);
+
+    @Mock
+    FrameProcessor processor;
+
+    @Test
+    public void processFrame() throws Exception {
+        // Given
+        final Runnable[] task = new Runnable[1];
+
+        AsyncFrameProcessor testee = new AsyncFrameProcessor(
+                new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        task[0] = command;
+                    }
+                },
+                processor
+        );
+
+        frame.retain(1);
+
+        // When
+        testee.processFrame(frame);
+        boolean releasedBeforeTask = frame.releaseReference();
+        task[0].run();
+
+        // Then
+        verify(processor).processFrame(frame);
+        assertFalse(releasedBeforeTask);
+        assertFalse(frame.isRetained());
+        assertEquals(0, testee.getSkippedFramesCount());
+    }
+
+    @Test
+    public void processFrame_Rejected() throws Exception {
+        // Given
+        Executor executor = mock(Executor.class);
+        willThrow(new RejectedExecutionException())
+                .given(executor)
+                .execute(any(Runnable.class));
+
+        AsyncFrameProcessor testee = new AsyncFrameProcessor(executor, processor);
+
+        frame.retain(1);
+
+        // When
+        testee.processFrame(frame);
+
+        // Then
+        verifyZeroInteractions(processor);
+        assertTrue(frame.isRetained());
+        assertTrue(frame.releaseReference());
+        assertEquals(1, testee.getSkippedFramesCount());
+    }
+
+}
@@ -0,0 +1,111 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class FrameBufferPoolTest {
+
+    static final Size SIZE = new Size(4, 2);
+
+    FrameBufferPool testee = new FrameBufferPool(3);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyPool() throws Exception {
+        // When
+        new FrameBufferPool(0);
+    }
+
+    @Test
+    public void allocate() throws Exception {
+        // When
+        byte[][] buffers = testee.allocate(SIZE, 12);
+
+        // Then
+        assertEquals(3, buffers.length);
+        assertEquals(12, buffers[0].length);
+        assertNotSame(buffers[0], buffers[1]);
+        assertNotSame(buffers[1], buffers[2]);
+    }
+
+    @Test
+    public void allocate_SameSize() throws Exception {
+        // Given
+        byte[][] buffers = testee.allocate(SIZE, 12);
+
+        // When
+        byte[][] result = testee.allocate(SIZE, 12);
+
+        // Then
+        assertSame(buffers[0], result[0]);
+    }
+
+    @Test
+    public void allocate_DifferentSize() throws Exception {
+        // Given
+        byte[][] buffers = testee.allocate(SIZE, 12);
+
+        // When
+        byte[][] result = testee.allocate(new Size(2, 2), 6);
+
+        // Then
+        assertNotSame(buffers[0], result[0]);
+        assertEquals(6, result[0].length);
+    }
+
+    @Test
+    public void frameOf() throws Exception {
+        // Given
+        byte[][] buffers = testee.allocate(SIZE, 12);
+
+        // When
+        Frame frame = testee.frameOf(buffers[1], 90);
+
+        // Then
+        assertSame(buffers[1], frame.image);
+        assertEquals(SIZE, frame.size);
+        assertEquals(90, frame.rotation);
+    }
+
+    @Test
+    public void frameOf_Reused() throws Exception {
+        // Given
+        byte[][] buffers = testee.allocate(SIZE, 12);
+        Frame frame = testee.frameOf(buffers[0], 90);
+
+        // When
+        Frame result = testee.frameOf(buffers[0], 90);
+
+        // Then
+        assertSame(frame, result);
+    }
+
+    @Test
+    public void frameOf_RotationChanged() throws Exception {
+        // Given
+        byte[][] buffers = testee.allocate(SIZE, 12);
+        Frame frame = testee.frameOf(buffers[0], 90);
+
+        // When
+        Frame result = testee.frameOf(buffers[0], 180);
+
+        // Then
+        assertNotSame(frame, result);
+        assertSame(frame.image, result.image);
+        assertEquals(180, result.rotation);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void frameOf_ForeignBuffer() throws Exception {
+        // Given
+        testee.allocate(SIZE, 12);
+
+        // When
+        testee.frameOf(new byte[12], 0);
+    }
+
+}
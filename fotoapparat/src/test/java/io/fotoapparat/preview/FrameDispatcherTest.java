@@ -0,0 +1,582 @@
+package io.fotoapparat.preview;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.fotoapparat.log.Logger;
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FrameDispatcherTest {
+
+    final Frame frameA = new Frame(new Size(1, 1), new byte[]{1}, 0);
+    final Frame frameB = new Frame(new Size(1, 1), new byte[]{2}, 0);
+    final Frame frameC = new Frame(new Size(1, 1), new byte[]{3}, 0);
+
+    @Mock
+    FrameDispatcher.FrameRecycler frameRecycler;
+    @Mock
+    Logger logger;
+
+    FrameDispatcher testee;
+
+    @Before
+    public void setUp() throws Exception {
+        testee = new FrameDispatcher(frameRecycler, logger);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        testee.stop();
+    }
+
+    @Test
+    public void dispatch() throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                frames.add(frame);
+            }
+        });
+        testee.start();
+
+        // When
+        testee.dispatch(frameA, 0, 0);
+
+        // Then
+        assertSame(frameA, frames.poll(1, TimeUnit.SECONDS));
+        verify(frameRecycler, timeout(1000)).recycle(frameA);
+    }
+
+    @Test
+    public void throwingProcessor_Sequential() throws Exception {
+        throwingProcessor(FrameDispatchMode.SEQUENTIAL);
+    }
+
+    @Test
+    public void throwingProcessor_Parallel() throws Exception {
+        throwingProcessor(FrameDispatchMode.PARALLEL);
+    }
+
+    private void throwingProcessor(FrameDispatchMode dispatchMode) throws Exception {
+        // Given
+        testee.configure(
+                PreviewStreamConfiguration.builder()
+                        .dispatchMode(dispatchMode)
+                        .build()
+        );
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                throw new IllegalStateException("Processor failed");
+            }
+        });
+        testee.start();
+
+        // When
+        testee.dispatch(frameA, 0, 0);
+        verify(frameRecycler, timeout(1000)).recycle(frameA);
+
+        testee.dispatch(frameB, 0, 1);
+
+        // Then
+        verify(frameRecycler, timeout(1000)).recycle(frameB);
+        verify(logger, timeout(1000).times(2)).log(contains("Processor failed"));
+    }
+
+    @Test
+    public void dispatch_SetsMetadata() throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+        Frame frame = new Frame(new Size(1, 1), new byte[]{1}, 0);
+
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                frames.add(frame);
+            }
+        });
+        testee.start();
+
+        long timeBeforeDispatch = System.nanoTime();
+
+        // When
+        testee.dispatch(frame, 42L, 7L);
+
+        // Then
+        Frame processedFrame = frames.poll(1, TimeUnit.SECONDS);
+
+        assertEquals(42L, processedFrame.getTimestamp());
+        assertEquals(7L, processedFrame.getSequenceNumber());
+        assertTrue(processedFrame.getDispatchTimestamp() >= timeBeforeDispatch);
+        assertNull(processedFrame.getStatistics());
+    }
+
+    @Test
+    public void dispatch_SetsStatistics() throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+        Frame frame = new Frame(new Size(2, 2), new byte[]{0, 0, (byte) 255, (byte) 255, 1, 2}, 0);
+        FrameStatistics statistics = new FrameStatisticsCalculator(1).calculate(frame);
+
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                frames.add(frame);
+            }
+        });
+        testee.start();
+
+        // When
+        testee.dispatch(frame, 0, 0, Float.NaN, statistics);
+
+        // Then
+        assertSame(statistics, frames.poll(1, TimeUnit.SECONDS).getStatistics());
+    }
+
+    @Test
+    public void dispatch_CalculatesStatisticsOnRequest() throws Exception {
+        // Given
+        final BlockingQueue<FrameStatistics> statistics = new LinkedBlockingQueue<>();
+        Frame frame = new Frame(new Size(2, 2), new byte[]{0, 0, (byte) 255, (byte) 255, 1, 2}, 0);
+
+        testee.configure(
+                PreviewStreamConfiguration.builder()
+                        .statisticsSubsampling(1)
+                        .build()
+        );
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                statistics.add(frame.getStatistics());
+                statistics.add(frame.getStatistics());
+            }
+        });
+        testee.start();
+
+        // When
+        testee.dispatch(frame, 0, 0);
+
+        // Then
+        FrameStatistics first = statistics.poll(1, TimeUnit.SECONDS);
+
+        assertEquals(4, first.samplesCount);
+        assertEquals(0.5f, first.highlightsClippedRatio, 0f);
+        assertSame(first, statistics.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void dispatch_DropsFramesWhenBusy() throws Exception {
+        // Given
+        final CountDownLatch processingStarted = new CountDownLatch(1);
+        final CountDownLatch processingAllowed = new CountDownLatch(1);
+
+        testee.configure(
+                PreviewStreamConfiguration.builder()
+                        .queueCapacity(1)
+                        .dropPolicy(FrameDropPolicy.DROP_NEWEST)
+                        .build()
+        );
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                processingStarted.countDown();
+
+                try {
+                    processingAllowed.await();
+                } catch (InterruptedException e) {
+                    // Do nothing
+                }
+            }
+        });
+        testee.start();
+
+        testee.dispatch(frameA, 0, 0);
+        assertTrue(processingStarted.await(1, TimeUnit.SECONDS));
+
+        // When
+        testee.dispatch(frameB, 0, 0);
+        testee.dispatch(frameC, 0, 0);
+
+        // Then
+        verify(frameRecycler).recycle(frameC);
+        assertEquals(1, testee.getDroppedFramesCount());
+
+        processingAllowed.countDown();
+    }
+
+    @Test
+    public void parallel_SlowProcessorDoesNotBlockOthers() throws Exception {
+        // Given
+        final CountDownLatch processingAllowed = new CountDownLatch(1);
+        final BlockingQueue<Frame> fastFrames = new LinkedBlockingQueue<>();
+
+        testee.configure(
+                PreviewStreamConfiguration.builder()
+                        .dispatchMode(FrameDispatchMode.PARALLEL)
+                        .build()
+        );
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                try {
+                    processingAllowed.await();
+                } catch (InterruptedException e) {
+                    // Do nothing
+                }
+            }
+        });
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                fastFrames.add(frame);
+            }
+        });
+        testee.start();
+
+        // When
+        testee.dispatch(frameA, 0, 0);
+
+        // Then
+        assertSame(frameA, fastFrames.poll(1, TimeUnit.SECONDS));
+        verify(frameRecycler, never()).recycle(frameA);
+
+        processingAllowed.countDown();
+
+        verify(frameRecycler, timeout(1000)).recycle(frameA);
+    }
+
+    @Test
+    public void parallel_ProcessorAddedAfterStart() throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+
+        testee.configure(
+                PreviewStreamConfiguration.builder()
+                        .dispatchMode(FrameDispatchMode.PARALLEL)
+                        .build()
+        );
+        testee.start();
+
+        // When
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                frames.add(frame);
+            }
+        });
+        testee.dispatch(frameA, 0, 0);
+
+        // Then
+        assertSame(frameA, frames.poll(1, TimeUnit.SECONDS));
+        verify(frameRecycler, timeout(1000)).recycle(frameA);
+    }
+
+    @Test
+    public void parallel_NoProcessors() throws Exception {
+        // Given
+        testee.configure(
+                PreviewStreamConfiguration.builder()
+                        .dispatchMode(FrameDispatchMode.PARALLEL)
+                        .build()
+        );
+        testee.start();
+
+        // When
+        testee.dispatch(frameA, 0, 0);
+
+        // Then
+        verify(frameRecycler).recycle(frameA);
+    }
+
+    @Test
+    public void sampledProcessor_Sequential() throws Exception {
+        sampledProcessor(FrameDispatchMode.SEQUENTIAL);
+    }
+
+    @Test
+    public void sampledProcessor_Parallel() throws Exception {
+        sampledProcessor(FrameDispatchMode.PARALLEL);
+    }
+
+    private void sampledProcessor(FrameDispatchMode dispatchMode) throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+
+        testee.configure(
+                PreviewStreamConfiguration.builder()
+                        .dispatchMode(dispatchMode)
+                        .build()
+        );
+        testee.addProcessor(
+                new FrameProcessor() {
+                    @Override
+                    public void processFrame(Frame frame) {
+                        frames.add(frame);
+                    }
+                },
+                FrameProcessorConfiguration.builder()
+                        .everyNthFrame(2)
+                        .build()
+        );
+        testee.start();
+
+        // When
+        testee.dispatch(frameA, 0, 0);
+        assertSame(frameA, frames.poll(1, TimeUnit.SECONDS));
+
+        testee.dispatch(frameB, 0, 1);
+        verify(frameRecycler, timeout(1000)).recycle(frameB);
+
+        testee.dispatch(frameC, 0, 2);
+
+        // Then
+        assertSame(frameC, frames.poll(1, TimeUnit.SECONDS));
+        assertEquals(0, frames.size());
+    }
+
+    @Test
+    public void removeProcessor() throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+        FrameProcessor processor = new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                frames.add(frame);
+            }
+        };
+
+        testee.addProcessor(processor);
+        testee.removeProcessor(processor);
+        testee.start();
+
+        // When
+        testee.dispatch(frameA, 0, 0);
+
+        // Then
+        verify(frameRecycler, timeout(1000)).recycle(frameA);
+        assertEquals(0, frames.size());
+    }
+
+    @Test
+    public void removeProcessor_Parallel() throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+        FrameProcessor processor = new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                frames.add(frame);
+            }
+        };
+
+        testee.configure(
+                PreviewStreamConfiguration.builder()
+                        .dispatchMode(FrameDispatchMode.PARALLEL)
+                        .build()
+        );
+        testee.addProcessor(processor);
+        testee.start();
+
+        // When
+        testee.removeProcessor(processor);
+        testee.dispatch(frameA, 0, 0);
+
+        // Then
+        verify(frameRecycler, timeout(1000)).recycle(frameA);
+        assertEquals(0, frames.size());
+    }
+
+    @Test
+    public void processorStatistics() throws Exception {
+        // Given
+        final CountDownLatch processingStarted = new CountDownLatch(1);
+        final CountDownLatch processingAllowed = new CountDownLatch(1);
+
+        FrameProcessor processor = new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                processingStarted.countDown();
+
+                try {
+                    processingAllowed.await();
+                } catch (InterruptedException e) {
+                    // Do nothing
+                }
+            }
+        };
+
+        testee.configure(
+                PreviewStreamConfiguration.builder()
+                        .queueCapacity(1)
+                        .dropPolicy(FrameDropPolicy.DROP_NEWEST)
+                        .build()
+        );
+        testee.addProcessor(processor);
+        testee.start();
+
+        testee.dispatch(frameA, 0, 0);
+        assertTrue(processingStarted.await(1, TimeUnit.SECONDS));
+
+        testee.dispatch(frameB, 0, 0);
+        testee.dispatch(frameC, 0, 0);
+
+        Thread.sleep(20);
+        processingAllowed.countDown();
+
+        verify(frameRecycler, timeout(1000)).recycle(frameB);
+
+        // When
+        List<FrameProcessorStatistics> statistics = testee.getProcessorStatistics();
+
+        // Then
+        assertEquals(1, statistics.size());
+
+        FrameProcessorStatistics processorStatistics = statistics.get(0);
+
+        assertSame(processor, processorStatistics.processor);
+        assertEquals(2, processorStatistics.processedCount);
+        assertEquals(1, processorStatistics.droppedCount);
+        assertEquals(2, processorStatistics.processingTime.getCount());
+        assertEquals(2, processorStatistics.queueTime.getCount());
+        assertTrue(processorStatistics.processingTime.getMax() >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(processorStatistics.queueTime.getMax() >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void processorWithView() throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+        Frame frame = new Frame(new Size(2, 2), new byte[]{1, 2, 3, 4, 5, 6}, 0);
+
+        testee.addProcessor(
+                new FrameProcessor() {
+                    @Override
+                    public void processFrame(Frame frame) {
+                        frames.add(frame);
+                    }
+                },
+                FrameProcessorConfiguration.builder()
+                        .lumaOnly(true)
+                        .build()
+        );
+        testee.start();
+
+        // When
+        testee.dispatch(frame, 0, 0);
+
+        // Then
+        Frame view = frames.poll(1, TimeUnit.SECONDS);
+
+        assertTrue(view instanceof FrameView);
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, view.image);
+        verify(frameRecycler, timeout(1000)).recycle(frame);
+    }
+
+    @Test
+    public void retainedFrame_RecycledAfterRelease() throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                frame.retain();
+                frames.add(frame);
+            }
+        });
+        testee.start();
+
+        testee.dispatch(frameA, 0, 0);
+
+        Frame frame = frames.poll(1, TimeUnit.SECONDS);
+        verify(frameRecycler, after(100).never()).recycle(frameA);
+        assertEquals(1, testee.getRetainedFramesCount());
+
+        // When
+        frame.release();
+
+        // Then
+        verify(frameRecycler, timeout(1000)).recycle(frameA);
+        assertEquals(0, testee.getRetainedFramesCount());
+    }
+
+    @Test
+    public void retain_LimitedByMaxRetainedFrames() throws Exception {
+        // Given
+        final BlockingQueue<Boolean> retained = new LinkedBlockingQueue<>();
+
+        testee.configure(
+                PreviewStreamConfiguration.builder()
+                        .maxRetainedFrames(1)
+                        .build()
+        );
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                retained.add(frame.retain());
+            }
+        });
+        testee.start();
+
+        // When
+        testee.dispatch(frameA, 0, 0);
+        boolean firstRetained = retained.poll(1, TimeUnit.SECONDS);
+
+        testee.dispatch(frameB, 0, 0);
+        boolean secondRetained = retained.poll(1, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(firstRetained);
+        assertFalse(secondRetained);
+        verify(frameRecycler, timeout(1000)).recycle(frameB);
+        verify(frameRecycler, never()).recycle(frameA);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void retain_AlreadyReleased() throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+
+        testee.addProcessor(new FrameProcessor() {
+            @Override
+            public void processFrame(Frame frame) {
+                frames.add(frame);
+            }
+        });
+        testee.start();
+
+        testee.dispatch(frameA, 0, 0);
+
+        Frame frame = frames.poll(1, TimeUnit.SECONDS);
+        verify(frameRecycler, timeout(1000)).recycle(frameA);
+
+        // When
+        frame.retain();
+    }
+
+}
@@ -0,0 +1,375 @@
+package io.fotoapparat.preview;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.fotoapparat.log.Logger;
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FramePipelineTest {
+
+    final Frame frameA = new Frame(new Size(1, 1), new byte[]{1}, 0);
+    final Frame frameB = new Frame(new Size(1, 1), new byte[]{2}, 0);
+    final Frame frameC = new Frame(new Size(1, 1), new byte[]{3}, 0);
+
+    @Mock
+    FrameDispatcher.FrameRecycler frameRecycler;
+    @Mock
+    Logger logger;
+
+    FrameDispatcher dispatcher;
+    FramePipeline testee;
+
+    @Before
+    public void setUp() throws Exception {
+        dispatcher = new FrameDispatcher(frameRecycler);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        dispatcher.stop();
+
+        if (testee != null) {
+            testee.shutdown();
+        }
+    }
+
+    @Test
+    public void stagesPassResults() throws Exception {
+        // Given
+        final BlockingQueue<String> results = new LinkedBlockingQueue<>();
+        final CountDownLatch rendererDone = new CountDownLatch(1);
+
+        testee = FramePipeline.builder()
+                .stage(new FrameStage<Frame, Integer>() {
+                    @Override
+                    public Integer process(Frame frame, Frame input) {
+                        return (int) input.image[0];
+                    }
+                })
+                .stage(new FrameStage<Integer, String>() {
+                    @Override
+                    public String process(Frame frame, Integer input) {
+                        return "detected " + input;
+                    }
+                })
+                .stage(new FrameStage<String, Void>() {
+                    @Override
+                    public Void process(Frame frame, String input) {
+                        results.add(input);
+                        await(rendererDone);
+                        return null;
+                    }
+                })
+                .build();
+
+        startDispatcher();
+
+        // When
+        dispatcher.dispatch(frameA, 0, 0);
+
+        // Then
+        assertEquals("detected 1", results.poll(1, TimeUnit.SECONDS));
+        verify(frameRecycler, never()).recycle(frameA);
+
+        rendererDone.countDown();
+
+        verify(frameRecycler, timeout(1000)).recycle(frameA);
+    }
+
+    @Test
+    public void stageReturnsNull() throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+
+        testee = FramePipeline.builder()
+                .stage(new FrameStage<Frame, Object>() {
+                    @Override
+                    public Object process(Frame frame, Frame input) {
+                        return null;
+                    }
+                })
+                .stage(new FrameStage<Object, Object>() {
+                    @Override
+                    public Object process(Frame frame, Object input) {
+                        frames.add(frame);
+                        return null;
+                    }
+                })
+                .build();
+
+        startDispatcher();
+
+        // When
+        dispatcher.dispatch(frameA, 0, 0);
+
+        // Then
+        verify(frameRecycler, timeout(1000)).recycle(frameA);
+        assertNull(frames.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void busyStage_DropsFrames() throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+        final CountDownLatch stageStarted = new CountDownLatch(1);
+        final CountDownLatch stageUnblocked = new CountDownLatch(1);
+
+        testee = FramePipeline.builder()
+                .stage(
+                        new FrameStage<Frame, Object>() {
+                            @Override
+                            public Object process(Frame frame, Frame input) {
+                                stageStarted.countDown();
+                                await(stageUnblocked);
+                                frames.add(frame);
+                                return null;
+                            }
+                        },
+                        StageConfiguration.builder()
+                                .name("slow")
+                                .queueCapacity(1)
+                                .dropPolicy(FrameDropPolicy.DROP_OLDEST)
+                                .build()
+                )
+                .build();
+
+        startDispatcher();
+
+        // When
+        dispatcher.dispatch(frameA, 0, 0);
+        await(stageStarted);
+
+        dispatcher.dispatch(frameB, 0, 1);
+        dispatcher.dispatch(frameC, 0, 2);
+
+        // Then
+        verify(frameRecycler, timeout(1000)).recycle(frameB);
+
+        stageUnblocked.countDown();
+
+        assertSame(frameA, frames.poll(1, TimeUnit.SECONDS));
+        assertSame(frameC, frames.poll(1, TimeUnit.SECONDS));
+        verify(frameRecycler, timeout(1000)).recycle(frameC);
+
+        StageStatistics statistics = testee.getStageStatistics().get(0);
+
+        assertEquals("slow", statistics.name);
+        assertEquals(2, statistics.processedCount);
+        assertEquals(1, statistics.droppedCount);
+    }
+
+    @Test
+    public void maxRetainedFrames_DropsFrames() throws Exception {
+        // Given
+        final CountDownLatch stageStarted = new CountDownLatch(1);
+        final CountDownLatch stageUnblocked = new CountDownLatch(1);
+
+        testee = FramePipeline.builder()
+                .stage(new FrameStage<Frame, Object>() {
+                    @Override
+                    public Object process(Frame frame, Frame input) {
+                        stageStarted.countDown();
+                        await(stageUnblocked);
+                        return null;
+                    }
+                })
+                .build();
+
+        dispatcher.configure(
+                PreviewStreamConfiguration.builder()
+                        .queueCapacity(3)
+                        .maxRetainedFrames(1)
+                        .build()
+        );
+        dispatcher.addProcessor(testee);
+        dispatcher.start();
+
+        dispatcher.dispatch(frameA, 0, 0);
+        await(stageStarted);
+
+        // When
+        dispatcher.dispatch(frameB, 0, 1);
+
+        // Then
+        verify(frameRecycler, timeout(1000)).recycle(frameB);
+        assertEquals(1, dispatcher.getRetainedFramesCount());
+        assertEquals(1, testee.getStageStatistics().get(0).droppedCount);
+
+        stageUnblocked.countDown();
+
+        verify(frameRecycler, timeout(1000)).recycle(frameA);
+        assertEquals(0, dispatcher.getRetainedFramesCount());
+    }
+
+    @Test
+    public void throwingStage_KeepsProcessing() throws Exception {
+        // Given
+        final BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+
+        testee = FramePipeline.builder()
+                .stage(new FrameStage<Frame, Void>() {
+                    @Override
+                    public Void process(Frame frame, Frame input) {
+                        frames.add(input);
+
+                        if (input == frameA) {
+                            throw new IllegalStateException();
+                        }
+
+                        return null;
+                    }
+                })
+                .logger(logger)
+                .build();
+
+        startDispatcher();
+
+        // When
+        dispatcher.dispatch(frameA, 0, 0);
+        verify(frameRecycler, timeout(1000)).recycle(frameA);
+
+        dispatcher.dispatch(frameB, 0, 1);
+
+        // Then
+        assertSame(frameA, frames.poll(1, TimeUnit.SECONDS));
+        assertSame(frameB, frames.poll(1, TimeUnit.SECONDS));
+        verify(frameRecycler, timeout(1000)).recycle(frameB);
+        verify(logger).log(startsWith("Pipeline stage"));
+
+        StageStatistics statistics = testee.getStageStatistics().get(0);
+        assertEquals(1, statistics.droppedCount);
+        assertEquals(1, statistics.processedCount);
+    }
+
+    @Test
+    public void stageStatistics() throws Exception {
+        // Given
+        testee = FramePipeline.builder()
+                .stage(new FrameStage<Frame, Frame>() {
+                    @Override
+                    public Frame process(Frame frame, Frame input) {
+                        sleep(5);
+                        return input;
+                    }
+                })
+                .stage(new FrameStage<Frame, Void>() {
+                    @Override
+                    public Void process(Frame frame, Frame input) {
+                        return null;
+                    }
+                })
+                .build();
+
+        startDispatcher();
+
+        // When
+        dispatcher.dispatch(frameA, 0, 0);
+        verify(frameRecycler, timeout(1000)).recycle(frameA);
+
+        dispatcher.dispatch(frameB, 0, 1);
+        verify(frameRecycler, timeout(1000)).recycle(frameB);
+
+        // Then
+        List<StageStatistics> statistics = testee.getStageStatistics();
+
+        assertEquals(2, statistics.size());
+        assertEquals(2, statistics.get(0).processedCount);
+        assertTrue(statistics.get(0).averageProcessingTime >= TimeUnit.MILLISECONDS.toNanos(5));
+        assertTrue(statistics.get(1).averageLatency >= statistics.get(0).averageProcessingTime);
+    }
+
+    @Test
+    public void shutdown_ReleasesPendingFrames() throws Exception {
+        // Given
+        final CountDownLatch stageStarted = new CountDownLatch(1);
+        final CountDownLatch stageUnblocked = new CountDownLatch(1);
+
+        testee = FramePipeline.builder()
+                .stage(new FrameStage<Frame, Object>() {
+                    @Override
+                    public Object process(Frame frame, Frame input) {
+                        stageStarted.countDown();
+                        await(stageUnblocked);
+                        return null;
+                    }
+                })
+                .build();
+
+        startDispatcher();
+
+        dispatcher.dispatch(frameA, 0, 0);
+        await(stageStarted);
+        dispatcher.dispatch(frameB, 0, 1);
+
+        // When
+        testee.shutdown();
+
+        // Then
+        verify(frameRecycler, timeout(1000)).recycle(frameB);
+
+        stageUnblocked.countDown();
+
+        verify(frameRecycler, timeout(1000)).recycle(frameA);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void build_NoStages() throws Exception {
+        // When
+        FramePipeline.builder().build();
+
+        // Then
+        // Expect exception
+    }
+
+    /**
+     * Dispatcher queue is large enough to never drop frames itself.
+     */
+    private void startDispatcher() {
+        dispatcher.configure(
+                PreviewStreamConfiguration.builder()
+                        .queueCapacity(3)
+                        .maxRetainedFrames(4)
+                        .build()
+        );
+        dispatcher.addProcessor(testee);
+        dispatcher.start();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+package io.fotoapparat.preview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.fotoapparat.parameter.Size;
+
+/**
+ * Measures the cost of delivering a frame to all registered processors while another thread keeps
+ * registering and unregistering a processor.
+ * <p>
+ * {@code locked*} groups reproduce the former {@code synchronized} {@link LinkedHashSet}, while
+ * {@code snapshot*} groups use {@link FrameProcessorRegistry}. Compare {@code *Idle} groups with
+ * {@code *WithRegistration} groups: dispatch through the registry never waits for the registering
+ * thread, while the locked variant does.
+ * <p>
+ * Run with {@code ./gradlew :fotoapparat:jmh -Pjmh=FrameProcessorRegistryBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class FrameProcessorRegistryBenchmark {
+
+    private static final Frame FRAME = new Frame(new Size(1, 1), new byte[1], 0);
+
+    @Param({"1", "4", "16"})
+    int processorsCount;
+
+    private final Set<FrameProcessor> lockedProcessors = new LinkedHashSet<>();
+    private final FrameProcessorRegistry snapshotProcessors = new FrameProcessorRegistry();
+    private FrameProcessor churningProcessor;
+
+    @Setup
+    public void setUp(final Blackhole blackhole) {
+        for (int i = 0; i < processorsCount; i++) {
+            FrameProcessor processor = new ConsumingProcessor(blackhole);
+
+            lockedProcessors.add(processor);
+            snapshotProcessors.add(processor);
+        }
+
+        churningProcessor = new ConsumingProcessor(blackhole);
+    }
+
+    @Benchmark
+    @Group("lockedIdle")
+    public void lockedDispatch() {
+        dispatchLocked();
+    }
+
+    @Benchmark
+    @Group("lockedWithRegistration")
+    @GroupThreads(1)
+    public void lockedDispatchWhileRegistering() {
+        dispatchLocked();
+    }
+
+    @Benchmark
+    @Group("lockedWithRegistration")
+    @GroupThreads(1)
+    public void lockedRegistration() {
+        synchronized (lockedProcessors) {
+            lockedProcessors.add(churningProcessor);
+        }
+        synchronized (lockedProcessors) {
+            lockedProcessors.remove(churningProcessor);
+        }
+    }
+
+    @Benchmark
+    @Group("snapshotIdle")
+    public void snapshotDispatch() {
+        dispatchSnapshot();
+    }
+
+    @Benchmark
+    @Group("snapshotWithRegistration")
+    @GroupThreads(1)
+    public void snapshotDispatchWhileRegistering() {
+        dispatchSnapshot();
+    }
+
+    @Benchmark
+    @Group("snapshotWithRegistration")
+    @GroupThreads(1)
+    public void snapshotRegistration() {
+        snapshotProcessors.add(churningProcessor);
+        snapshotProcessors.remove(churningProcessor);
+    }
+
+    private void dispatchLocked() {
+        synchronized (lockedProcessors) {
+            for (FrameProcessor processor : lockedProcessors) {
+                processor.processFrame(FRAME);
+            }
+        }
+    }
+
+    private void dispatchSnapshot() {
+        for (FrameProcessor processor : snapshotProcessors.snapshot()) {
+            processor.processFrame(FRAME);
+        }
+    }
+
+    private static class ConsumingProcessor implements FrameProcessor {
+
+        private final Blackhole blackhole;
+
+        private ConsumingProcessor(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void processFrame(Frame frame) {
+            blackhole.consume(frame);
+        }
+
+    }
+
+}
@@ -0,0 +1,116 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FrameProcessorRegistryTest {
+
+    @Mock
+    FrameProcessor processorA;
+    @Mock
+    FrameProcessor processorB;
+    @Mock
+    FrameProcessor processorC;
+
+    FrameProcessorRegistry testee = new FrameProcessorRegistry();
+
+    @Test
+    public void add_KeepsOrder() throws Exception {
+        // When
+        testee.add(processorB);
+        testee.add(processorA);
+        testee.add(processorC);
+
+        // Then
+        assertArrayEquals(
+                new FrameProcessor[]{processorB, processorA, processorC},
+                testee.snapshot()
+        );
+    }
+
+    @Test
+    public void add_Duplicate() throws Exception {
+        // Given
+        testee.add(processorA);
+
+        // When
+        boolean added = testee.add(processorA);
+
+        // Then
+        assertFalse(added);
+        assertArrayEquals(
+                new FrameProcessor[]{processorA},
+                testee.snapshot()
+        );
+    }
+
+    @Test
+    public void remove_KeepsOrder() throws Exception {
+        // Given
+        testee.add(processorA);
+        testee.add(processorB);
+        testee.add(processorC);
+
+        // When
+        boolean removed = testee.remove(processorB);
+
+        // Then
+        assertTrue(removed);
+        assertArrayEquals(
+                new FrameProcessor[]{processorA, processorC},
+                testee.snapshot()
+        );
+    }
+
+    @Test
+    public void remove_NotAdded() throws Exception {
+        // Given
+        testee.add(processorA);
+
+        // When
+        boolean removed = testee.remove(processorB);
+
+        // Then
+        assertFalse(removed);
+    }
+
+    @Test
+    public void snapshot_NotAffectedByLaterChanges() throws Exception {
+        // Given
+        testee.add(processorA);
+        FrameProcessor[] snapshot = testee.snapshot();
+
+        // When
+        testee.add(processorB);
+
+        // Then
+        assertArrayEquals(
+                new FrameProcessor[]{processorA},
+                snapshot
+        );
+        assertNotSame(snapshot, testee.snapshot());
+    }
+
+    @Test
+    public void snapshot_SameWhileUnchanged() throws Exception {
+        // Given
+        testee.add(processorA);
+
+        // When
+        FrameProcessor[] first = testee.snapshot();
+        FrameProcessor[] second = testee.snapshot();
+
+        // Then
+        assertSame(first, second);
+    }
+
+}
@@ -0,0 +1,115 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FrameQueueTest {
+
+    static final Frame FRAME_A = new Frame(new Size(1, 1), new byte[]{1}, 0);
+    static final Frame FRAME_B = new Frame(new Size(1, 1), new byte[]{2}, 0);
+    static final Frame FRAME_C = new Frame(new Size(1, 1), new byte[]{3}, 0);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroCapacity() throws Exception {
+        // When
+        new FrameQueue(0, FrameDropPolicy.DROP_OLDEST);
+    }
+
+    @Test
+    public void offer_NotFull() throws Exception {
+        // Given
+        FrameQueue testee = new FrameQueue(2, FrameDropPolicy.DROP_OLDEST);
+
+        // When
+        Frame droppedA = testee.offer(FRAME_A);
+        Frame droppedB = testee.offer(FRAME_B);
+
+        // Then
+        assertNull(droppedA);
+        assertNull(droppedB);
+        assertSame(FRAME_A, testee.take());
+        assertSame(FRAME_B, testee.take());
+    }
+
+    @Test
+    public void offer_DropOldest() throws Exception {
+        // Given
+        FrameQueue testee = new FrameQueue(2, FrameDropPolicy.DROP_OLDEST);
+        testee.offer(FRAME_A);
+        testee.offer(FRAME_B);
+
+        // When
+        Frame dropped = testee.offer(FRAME_C);
+
+        // Then
+        assertSame(FRAME_A, dropped);
+        assertSame(FRAME_B, testee.take());
+        assertSame(FRAME_C, testee.take());
+    }
+
+    @Test
+    public void offer_DropNewest() throws Exception {
+        // Given
+        FrameQueue testee = new FrameQueue(2, FrameDropPolicy.DROP_NEWEST);
+        testee.offer(FRAME_A);
+        testee.offer(FRAME_B);
+
+        // When
+        Frame dropped = testee.offer(FRAME_C);
+
+        // Then
+        assertSame(FRAME_C, dropped);
+        assertSame(FRAME_A, testee.take());
+        assertSame(FRAME_B, testee.take());
+    }
+
+    @Test
+    public void offer_LatestOnly() throws Exception {
+        // Given
+        FrameQueue testee = new FrameQueue(5, FrameDropPolicy.LATEST_ONLY);
+        testee.offer(FRAME_A);
+
+        // When
+        Frame dropped = testee.offer(FRAME_B);
+
+        // Then
+        assertSame(FRAME_A, dropped);
+        assertSame(FRAME_B, testee.take());
+    }
+
+    @Test
+    public void offer_WrapsAround() throws Exception {
+        // Given
+        FrameQueue testee = new FrameQueue(2, FrameDropPolicy.DROP_OLDEST);
+
+        // When
+        testee.offer(FRAME_A);
+        testee.take();
+        testee.offer(FRAME_B);
+        testee.offer(FRAME_C);
+
+        // Then
+        assertSame(FRAME_B, testee.take());
+        assertSame(FRAME_C, testee.take());
+    }
+
+    @Test
+    public void poll() throws Exception {
+        // Given
+        FrameQueue testee = new FrameQueue(2, FrameDropPolicy.DROP_OLDEST);
+        testee.offer(FRAME_A);
+
+        // When
+        Frame first = testee.poll();
+        Frame second = testee.poll();
+
+        // Then
+        assertSame(FRAME_A, first);
+        assertNull(second);
+    }
+
+}
@@ -0,0 +1,210 @@
+package io.fotoapparat.preview;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FrameRecorderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void recordAndReplay() throws Exception {
+        recordAndReplay(false);
+    }
+
+    @Test
+    public void recordAndReplay_Compressed() throws Exception {
+        recordAndReplay(true);
+    }
+
+    private void recordAndReplay(boolean compress) throws Exception {
+        // Given
+        File file = temporaryFolder.newFile();
+
+        Frame frameA = frame(new Size(4, 2), 90, 1000L, 7L, uniformImage(12));
+        Frame frameB = frame(new Size(2, 2), 0, 2000L, 8L, randomImage(6));
+
+        FrameRecorder recorder = new FrameRecorder(file, compress, 64);
+        recorder.processFrame(frameA);
+        recorder.processFrame(frameB);
+        recorder.close();
+
+        FrameReplayer testee = new FrameReplayer(file, 64);
+        RecordingProcessor processor = new RecordingProcessor();
+
+        // When
+        int framesCount = testee.replay(processor, FrameReplayer.Speed.MAXIMUM);
+        testee.close();
+
+        // Then
+        assertEquals(2, framesCount);
+        assertFrameEquals(frameA, processor.frames.get(0));
+        assertFrameEquals(frameB, processor.frames.get(1));
+    }
+
+    @Test
+    public void compression_ShrinksFile() throws Exception {
+        // Given
+        File plainFile = temporaryFolder.newFile();
+        File compressedFile = temporaryFolder.newFile();
+
+        Frame frame = frame(new Size(64, 64), 0, 0L, 0L, uniformImage(64 * 64 * 3 / 2));
+
+        // When
+        record(plainFile, false, frame);
+        record(compressedFile, true, frame);
+
+        // Then
+        assertEquals(
+                FrameRecorder.FILE_HEADER_SIZE + FrameRecorder.FRAME_HEADER_SIZE + frame.image.length,
+                plainFile.length()
+        );
+        assertTrue(compressedFile.length() < plainFile.length() / 10);
+    }
+
+    @Test
+    public void replay_RecordedSpeed() throws Exception {
+        // Given
+        File file = temporaryFolder.newFile();
+        long interval = TimeUnit.MILLISECONDS.toNanos(50);
+
+        record(
+                file,
+                false,
+                frame(new Size(2, 2), 0, 0L, 0L, randomImage(6)),
+                frame(new Size(2, 2), 0, interval, 1L, randomImage(6)),
+                frame(new Size(2, 2), 0, 2 * interval, 2L, randomImage(6))
+        );
+
+        FrameReplayer testee = new FrameReplayer(file);
+
+        // When
+        long startTime = System.nanoTime();
+        int framesCount = testee.replay(new RecordingProcessor(), FrameReplayer.Speed.RECORDED);
+        long duration = System.nanoTime() - startTime;
+
+        testee.close();
+
+        // Then
+        assertEquals(3, framesCount);
+        assertTrue(duration >= 2 * interval);
+    }
+
+    @Test
+    public void replay_Repeatedly() throws Exception {
+        // Given
+        File file = temporaryFolder.newFile();
+        record(file, true, frame(new Size(2, 2), 0, 0L, 0L, randomImage(6)));
+
+        FrameReplayer testee = new FrameReplayer(file);
+
+        // When
+        int firstCount = testee.replay(new RecordingProcessor(), FrameReplayer.Speed.MAXIMUM);
+        int secondCount = testee.replay(new RecordingProcessor(), FrameReplayer.Speed.MAXIMUM);
+
+        testee.close();
+
+        // Then
+        assertEquals(1, firstCount);
+        assertEquals(1, secondCount);
+    }
+
+    @Test(expected = IOException.class)
+    public void replayer_NotRecording() throws Exception {
+        // Given
+        File file = temporaryFolder.newFile();
+
+        FileOutputStream outputStream = new FileOutputStream(file);
+        outputStream.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        outputStream.close();
+
+        // When
+        new FrameReplayer(file);
+
+        // Then
+        // Expect exception
+    }
+
+    private static void record(File file, boolean compress, Frame... frames) throws IOException {
+        FrameRecorder recorder = new FrameRecorder(file, compress);
+
+        for (Frame frame : frames) {
+            recorder.processFrame(frame);
+        }
+
+        recorder.close();
+    }
+
+    private static Frame frame(Size size,
+                               int rotation,
+                               long timestamp,
+                               long sequenceNumber,
+                               byte[] image) {
+        Frame frame = new Frame(size, image, rotation);
+        frame.setMetadata(timestamp, sequenceNumber, 0L);
+
+        return frame;
+    }
+
+    private static byte[] uniformImage(int length) {
+        byte[] image = new byte[length];
+
+        for (int i = 0; i < length; i++) {
+            image[i] = (byte) (i % 4);
+        }
+
+        return image;
+    }
+
+    private static byte[] randomImage(int length) {
+        byte[] image = new byte[length];
+        new Random(length).nextBytes(image);
+
+        return image;
+    }
+
+    private static void assertFrameEquals(Frame expected, Frame actual) {
+        assertEquals(expected.size, actual.size);
+        assertEquals(expected.rotation, actual.rotation);
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        assertEquals(expected.getSequenceNumber(), actual.getSequenceNumber());
+        assertArrayEquals(expected.image, actual.image);
+    }
+
+    /**
+     * Keeps copies of received frames, since replayer reuses their images.
+     */
+    private static class RecordingProcessor implements FrameProcessor {
+
+        private final List<Frame> frames = new ArrayList<>();
+
+        @Override
+        public void processFrame(Frame frame) {
+            frames.add(frame(
+                    frame.size,
+                    frame.rotation,
+                    frame.getTimestamp(),
+                    frame.getSequenceNumber(),
+                    frame.image.clone()
+            ));
+        }
+
+    }
+
+}
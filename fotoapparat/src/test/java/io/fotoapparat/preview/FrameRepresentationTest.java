@@ -0,0 +1,206 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FrameRepresentationTest {
+
+    /**
+     * 4x2 NV21 image.
+     */
+    static final byte[] IMAGE = {
+            10, 20, 30, 40,
+            50, 60, 70, 80,
+            (byte) 128, (byte) 128, (byte) 128, (byte) 128
+    };
+
+    @Test
+    public void luma_YuvFrame() throws Exception {
+        // Given
+        YuvFrame frame = new YuvFrame(
+                new Size(4, 2),
+                0,
+                plane(new byte[]{10, 20, 30, 40, 0, 0, 50, 60, 70, 80}, 6),
+                plane(new byte[]{(byte) 128, (byte) 128}, 2),
+                plane(new byte[]{(byte) 128, (byte) 128}, 2)
+        );
+
+        // When
+        byte[] luma = frame.getRepresentation(FrameRepresentation.LUMA);
+
+        // Then
+        assertArrayEquals(new byte[]{10, 20, 30, 40, 50, 60, 70, 80}, luma);
+    }
+
+    @Test
+    public void halfScaleLuma() throws Exception {
+        // Given
+        Frame frame = new Frame(new Size(4, 2), IMAGE, 0);
+
+        // When
+        byte[] luma = frame.getRepresentation(FrameRepresentation.HALF_SCALE_LUMA);
+
+        // Then
+        assertArrayEquals(new byte[]{35, 55}, luma);
+    }
+
+    @Test
+    public void argb() throws Exception {
+        // Given
+        Frame frame = new Frame(new Size(4, 2), IMAGE, 0);
+
+        int[] expected = new int[8];
+        new ArgbConverter(1).toArgb(frame, expected);
+
+        // When
+        int[] argb = frame.getRepresentation(FrameRepresentation.ARGB);
+
+        // Then
+        assertArrayEquals(expected, argb);
+    }
+
+    @Test
+    public void summedAreaTable() throws Exception {
+        // Given
+        Frame frame = new Frame(new Size(4, 2), IMAGE, 0);
+
+        // When
+        int[] table = frame.getRepresentation(FrameRepresentation.SUMMED_AREA_TABLE);
+
+        // Then
+        assertArrayEquals(
+                new int[]{
+                        10, 30, 60, 100,
+                        60, 140, 240, 360
+                },
+                table
+        );
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void argb_LumaOnlyView() throws Exception {
+        // Given
+        FrameView view = new FrameView(
+                new Size(2, 1),
+                new byte[]{1, 2},
+                0,
+                new Size(4, 2),
+                0,
+                0,
+                1,
+                true
+        );
+
+        // When
+        view.getRepresentation(FrameRepresentation.ARGB);
+    }
+
+    @Test
+    public void derivedOnce() throws Exception {
+        // Given
+        final Frame frame = new Frame(new Size(4, 2), IMAGE, 0);
+        final CountingRepresentation representation = new CountingRepresentation();
+        final CountDownLatch threadsDone = new CountDownLatch(4);
+        final int[][] results = new int[4][];
+
+        for (int i = 0; i < 4; i++) {
+            final int index = i;
+
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    results[index] = frame.getRepresentation(representation);
+                    threadsDone.countDown();
+                }
+            }).start();
+        }
+
+        // When
+        assertTrue(threadsDone.await(1, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(1, representation.derivedCount.get());
+        for (int[] result : results) {
+            assertSame(results[0], result);
+        }
+    }
+
+    @Test
+    public void released_BufferReused() throws Exception {
+        // Given
+        Frame frame = new Frame(new Size(4, 2), IMAGE, 0);
+        CountingRepresentation representation = new CountingRepresentation();
+
+        frame.retain(1);
+        int[] first = frame.getRepresentation(representation);
+
+        // When
+        frame.releaseReference();
+        frame.retain(1);
+        int[] second = frame.getRepresentation(representation);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(2, representation.derivedCount.get());
+        assertEquals(1, representation.allocatedCount.get());
+    }
+
+    @Test
+    public void differentRepresentations_DifferentBuffers() throws Exception {
+        // Given
+        Frame frame = new Frame(new Size(4, 2), IMAGE, 0);
+
+        // When
+        int[] argb = frame.getRepresentation(FrameRepresentation.ARGB);
+        int[] table = frame.getRepresentation(FrameRepresentation.SUMMED_AREA_TABLE);
+
+        // Then
+        assertNotSame(argb, table);
+    }
+
+    private static YuvFrame.Plane plane(byte[] bytes, int rowStride) {
+        return new YuvFrame.Plane(ByteBuffer.wrap(bytes), rowStride, 1);
+    }
+
+    private static class CountingRepresentation extends FrameRepresentation<int[]> {
+
+        final AtomicInteger allocatedCount = new AtomicInteger();
+        final AtomicInteger derivedCount = new AtomicInteger();
+
+        @Override
+        protected int[] allocate(Size size) {
+            allocatedCount.incrementAndGet();
+            return new int[1];
+        }
+
+        @Override
+        protected boolean fits(int[] buffer, Size size) {
+            return true;
+        }
+
+        @Override
+        protected void derive(Frame frame, int[] output) {
+            derivedCount.incrementAndGet();
+
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                // Do nothing
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,131 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FrameSamplerTest {
+
+    static final long FRAME_DISTANCE_30_FPS = 33333333L;
+
+    @Test
+    public void defaultConfiguration_AcceptsAll() throws Exception {
+        // Given
+        FrameSampler testee = new FrameSampler(FrameProcessorConfiguration.defaultConfiguration());
+
+        // When
+        int acceptedCount = acceptedCount(testee, 10, FRAME_DISTANCE_30_FPS, 0);
+
+        // Then
+        assertTrue(testee.acceptsAll());
+        assertEquals(10, acceptedCount);
+    }
+
+    @Test
+    public void everyNthFrame() throws Exception {
+        // Given
+        FrameSampler testee = new FrameSampler(
+                FrameProcessorConfiguration.builder()
+                        .everyNthFrame(3)
+                        .build()
+        );
+
+        // When
+        boolean first = testee.accept(frameAt(0));
+        boolean second = testee.accept(frameAt(1));
+        boolean third = testee.accept(frameAt(2));
+        boolean fourth = testee.accept(frameAt(3));
+
+        // Then
+        assertFalse(testee.acceptsAll());
+        assertTrue(first);
+        assertFalse(second);
+        assertFalse(third);
+        assertTrue(fourth);
+    }
+
+    @Test
+    public void maxFrameRate() throws Exception {
+        // Given
+        FrameSampler testee = new FrameSampler(
+                FrameProcessorConfiguration.builder()
+                        .maxFrameRate(2f)
+                        .build()
+        );
+
+        // When
+        int acceptedCount = acceptedCount(testee, 30, FRAME_DISTANCE_30_FPS, 0);
+
+        // Then
+        assertEquals(2, acceptedCount);
+    }
+
+    @Test
+    public void maxFrameRate_ToleratesJitter() throws Exception {
+        // Given
+        FrameSampler testee = new FrameSampler(
+                FrameProcessorConfiguration.builder()
+                        .maxFrameRate(15f)
+                        .build()
+        );
+
+        // When
+        int acceptedCount = acceptedCount(testee, 30, FRAME_DISTANCE_30_FPS, 1000000L);
+
+        // Then
+        assertEquals(15, acceptedCount);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxFrameRate_MustBePositive() throws Exception {
+        // When
+        FrameProcessorConfiguration.builder()
+                .maxFrameRate(0f);
+
+        // Then
+        // Expect exception
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void everyNthFrame_MustBePositive() throws Exception {
+        // When
+        FrameProcessorConfiguration.builder()
+                .everyNthFrame(0);
+
+        // Then
+        // Expect exception
+    }
+
+    /**
+     * @param jitter every fourth frame, starting from the third one, arrives earlier by that
+     *               amount of nanoseconds.
+     */
+    private static int acceptedCount(FrameSampler sampler,
+                                     int framesCount,
+                                     long frameDistance,
+                                     long jitter) {
+        int acceptedCount = 0;
+
+        for (int i = 0; i < framesCount; i++) {
+            long timestamp = i * frameDistance - (i % 4 == 2 ? jitter : 0);
+
+            if (sampler.accept(frameAt(timestamp))) {
+                acceptedCount++;
+            }
+        }
+
+        return acceptedCount;
+    }
+
+    private static Frame frameAt(long timestamp) {
+        Frame frame = new Frame(new Size(1, 1), new byte[1], 0);
+        frame.setMetadata(timestamp, 0, 0);
+
+        return frame;
+    }
+
+}
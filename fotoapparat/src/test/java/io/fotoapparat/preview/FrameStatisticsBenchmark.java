@@ -0,0 +1,120 @@
+package io.fotoapparat.preview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import io.fotoapparat.parameter.Size;
+
+/**
+ * Measures calculation of luminance statistics of a 1080p frame.
+ * <p>
+ * {@code separatePasses} reproduces processors which each compute their own statistic from the
+ * NV21 image: mean luminance, histogram and clipped pixels in three full-resolution passes. It
+ * does not depend on the parameters.
+ * {@code calculate} uses {@link FrameStatisticsCalculator} which produces all of them in one pass
+ * over a subsampled luminance plane.
+ * <p>
+ * Run with {@code ./gradlew :fotoapparat:jmh -Pjmh=FrameStatisticsBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FrameStatisticsBenchmark {
+
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+
+    /**
+     * Frame type: {@code nv21} ({@link Frame} with an NV21 array) or {@code yuv}
+     * ({@link YuvFrame} backed by a direct buffer).
+     */
+    @Param({"nv21", "yuv"})
+    String format;
+
+    @Param({"1", "4"})
+    int subsampling;
+
+    private byte[] image;
+    private Frame frame;
+    private FrameStatisticsCalculator calculator;
+
+    @Setup
+    public void setUp() {
+        image = new byte[YuvConverter.nv21Size(WIDTH, HEIGHT)];
+        new Random(42).nextBytes(image);
+
+        switch (format) {
+            case "nv21":
+                frame = new Frame(new Size(WIDTH, HEIGHT), image, 0);
+                break;
+            case "yuv":
+                ByteBuffer buffer = ByteBuffer.allocateDirect(WIDTH * HEIGHT);
+                buffer.put(image, 0, WIDTH * HEIGHT);
+                buffer.rewind();
+
+                YuvFrame.Plane chroma = new YuvFrame.Plane(ByteBuffer.allocateDirect(1), 1, 1);
+
+                frame = new YuvFrame(
+                        new Size(WIDTH, HEIGHT),
+                        0,
+                        new YuvFrame.Plane(buffer, WIDTH, 1),
+                        chroma,
+                        chroma
+                );
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+
+        calculator = new FrameStatisticsCalculator(subsampling);
+    }
+
+    @Benchmark
+    public FrameStatistics calculate() {
+        return calculator.calculate(frame);
+    }
+
+    @Benchmark
+    public long separatePasses() {
+        int lumaSize = WIDTH * HEIGHT;
+
+        long sum = 0;
+        for (int i = 0; i < lumaSize; i++) {
+            sum += image[i] & 0xFF;
+        }
+
+        int[] histogram = new int[FrameStatistics.LEVELS];
+        for (int i = 0; i < lumaSize; i++) {
+            histogram[image[i] & 0xFF]++;
+        }
+
+        int clipped = 0;
+        for (int i = 0; i < lumaSize; i++) {
+            int luma = image[i] & 0xFF;
+
+            if (luma < FrameStatistics.CLIPPING_LEVELS
+                    || luma >= FrameStatistics.LEVELS - FrameStatistics.CLIPPING_LEVELS) {
+                clipped++;
+            }
+        }
+
+        return sum / lumaSize + histogram[128] + clipped;
+    }
+
+}
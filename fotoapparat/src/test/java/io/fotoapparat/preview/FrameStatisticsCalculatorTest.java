@@ -0,0 +1,168 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class FrameStatisticsCalculatorTest {
+
+    /**
+     * Luminance of a 10x2 frame: first row is a ramp from 0 to 9, second row is white.
+     */
+    static final int[][] LUMA = {
+            {0, 1, 2, 3, 4, 5, 6, 7, 8, 9},
+            {255, 255, 255, 255, 255, 255, 255, 255, 255, 255}
+    };
+
+    FrameStatisticsCalculator testee = new FrameStatisticsCalculator(1);
+
+    @Test
+    public void calculate_Image() throws Exception {
+        // Given
+        Frame frame = new Frame(new Size(10, 2), image(LUMA), 0);
+
+        // When
+        FrameStatistics statistics = testee.calculate(frame);
+
+        // Then
+        assertStatistics(statistics);
+    }
+
+    @Test
+    public void calculate_Plane() throws Exception {
+        // Given
+        YuvFrame frame = yuvFrame(LUMA, 16, 1);
+
+        // When
+        FrameStatistics statistics = testee.calculate(frame);
+
+        // Then
+        assertStatistics(statistics);
+    }
+
+    @Test
+    public void calculate_StridedPlane() throws Exception {
+        // Given
+        YuvFrame frame = yuvFrame(LUMA, 20, 2);
+
+        // When
+        FrameStatistics statistics = testee.calculate(frame);
+
+        // Then
+        assertStatistics(statistics);
+    }
+
+    @Test
+    public void calculate_Subsampled() throws Exception {
+        // Given
+        FrameStatisticsCalculator testee = new FrameStatisticsCalculator(2);
+
+        int[][] luma = new int[3][20];
+        for (int row = 0; row < luma.length; row++) {
+            for (int column = 0; column < luma[row].length; column++) {
+                luma[row][column] = column;
+            }
+        }
+
+        Frame frame = new Frame(new Size(20, 3), image(luma), 0);
+
+        // When
+        FrameStatistics statistics = testee.calculate(frame);
+
+        // Then
+        assertEquals(24, statistics.samplesCount);
+        assertEquals(2, statistics.getHistogramCount(0));
+        assertEquals(2, statistics.getHistogramCount(7));
+        assertEquals(0, statistics.getHistogramCount(8));
+        assertEquals(0, statistics.getHistogramCount(15));
+        assertEquals(2, statistics.getHistogramCount(16));
+        assertEquals(2, statistics.getHistogramCount(19));
+    }
+
+    @Test
+    public void calculate_ReusedForNextFrame() throws Exception {
+        // Given
+        testee.calculate(new Frame(new Size(10, 2), image(LUMA), 0));
+
+        // When
+        FrameStatistics statistics = testee.calculate(
+                new Frame(new Size(10, 2), image(LUMA), 0)
+        );
+
+        // Then
+        assertStatistics(statistics);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSubsampling() throws Exception {
+        // When
+        new FrameStatisticsCalculator(0);
+    }
+
+    private static void assertStatistics(FrameStatistics statistics) {
+        assertEquals(20, statistics.samplesCount);
+        assertEquals(129.75f, statistics.meanLuma, 0.001f);
+        assertEquals(0.2f, statistics.shadowsClippedRatio, 0.001f);
+        assertEquals(0.5f, statistics.highlightsClippedRatio, 0.001f);
+        assertEquals(1, statistics.getHistogramCount(9));
+        assertEquals(10, statistics.getHistogramCount(255));
+    }
+
+    private static byte[] image(int[][] luma) {
+        int width = luma[0].length;
+        int height = luma.length;
+        byte[] image = new byte[YuvConverter.nv21Size(width, height)];
+
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                image[row * width + column] = (byte) luma[row][column];
+            }
+        }
+
+        return image;
+    }
+
+    private static YuvFrame yuvFrame(int[][] luma, int rowStride, int pixelStride) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(rowStride * luma.length);
+
+        // Padding must not be counted
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 128);
+        }
+
+        for (int row = 0; row < luma.length; row++) {
+            for (int column = 0; column < luma[row].length; column++) {
+                buffer.put(row * rowStride + column * pixelStride, (byte) luma[row][column]);
+            }
+        }
+
+        YuvFrame.Plane chroma = new YuvFrame.Plane(ByteBuffer.allocateDirect(1), 1, 1);
+
+        return new YuvFrame(
+                new Size(luma[0].length, luma.length),
+                0,
+                new YuvFrame.Plane(buffer, rowStride, pixelStride),
+                chroma,
+                chroma
+        );
+    }
+
+    @Test
+    public void forCurrentThread() throws Exception {
+        // When
+        FrameStatisticsCalculator first = FrameStatisticsCalculator.forCurrentThread(2);
+        FrameStatisticsCalculator second = FrameStatisticsCalculator.forCurrentThread(2);
+        FrameStatisticsCalculator otherSubsampling = FrameStatisticsCalculator.forCurrentThread(4);
+
+        // Then
+        assertSame(first, second);
+        assertNotSame(first, otherSubsampling);
+    }
+
+}
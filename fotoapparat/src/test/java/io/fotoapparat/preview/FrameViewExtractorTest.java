@@ -0,0 +1,182 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FrameViewExtractorTest {
+
+    /**
+     * 8x4 image. Luminance of pixel (x, y) is {@code y * 8 + x}, chroma bytes are 100..115.
+     */
+    static final byte[] NV21 = {
+            0, 1, 2, 3, 4, 5, 6, 7,
+            8, 9, 10, 11, 12, 13, 14, 15,
+            16, 17, 18, 19, 20, 21, 22, 23,
+            24, 25, 26, 27, 28, 29, 30, 31,
+            100, 101, 102, 103, 104, 105, 106, 107,
+            108, 109, 110, 111, 112, 113, 114, 115
+    };
+
+    @Test
+    public void isWholeFrame() throws Exception {
+        // When
+        boolean defaultConfiguration = FrameViewExtractor.isWholeFrame(
+                FrameProcessorConfiguration.defaultConfiguration()
+        );
+        boolean lumaOnly = FrameViewExtractor.isWholeFrame(
+                FrameProcessorConfiguration.builder()
+                        .lumaOnly(true)
+                        .build()
+        );
+
+        // Then
+        assertTrue(defaultConfiguration);
+        assertFalse(lumaOnly);
+    }
+
+    @Test
+    public void regionOfInterest() throws Exception {
+        // Given
+        FrameViewExtractor testee = new FrameViewExtractor(
+                FrameProcessorConfiguration.builder()
+                        .regionOfInterest(new RegionOfInterest(0f, 0f, 0.5f, 0.5f))
+                        .build()
+        );
+
+        // When
+        FrameView view = testee.extract(frame(0));
+
+        // Then
+        assertEquals(new Size(4, 2), view.size);
+        assertArrayEquals(
+                new byte[]{
+                        0, 1, 2, 3,
+                        8, 9, 10, 11,
+                        100, 101, 102, 103
+                },
+                view.image
+        );
+    }
+
+    @Test
+    public void subsampling() throws Exception {
+        // Given
+        FrameViewExtractor testee = new FrameViewExtractor(
+                FrameProcessorConfiguration.builder()
+                        .subsampling(2)
+                        .build()
+        );
+
+        // When
+        FrameView view = testee.extract(frame(0));
+
+        // Then
+        assertEquals(new Size(4, 2), view.size);
+        assertArrayEquals(
+                new byte[]{
+                        0, 2, 4, 6,
+                        16, 18, 20, 22,
+                        100, 101, 104, 105
+                },
+                view.image
+        );
+        assertEquals(6, view.toFrameX(3));
+        assertEquals(2, view.toFrameY(1));
+    }
+
+    @Test
+    public void lumaOnly() throws Exception {
+        // Given
+        FrameViewExtractor testee = new FrameViewExtractor(
+                FrameProcessorConfiguration.builder()
+                        .regionOfInterest(new RegionOfInterest(0.5f, 0.5f, 1f, 1f))
+                        .lumaOnly(true)
+                        .build()
+        );
+
+        // When
+        FrameView view = testee.extract(frame(0));
+
+        // Then
+        assertArrayEquals(
+                new byte[]{
+                        20, 21, 22, 23,
+                        28, 29, 30, 31
+                },
+                view.image
+        );
+        assertEquals(4, view.toFrameX(0));
+        assertEquals(2, view.toFrameY(0));
+    }
+
+    @Test
+    public void regionOfInterest_Rotated() throws Exception {
+        // Given
+        FrameViewExtractor testee = new FrameViewExtractor(
+                FrameProcessorConfiguration.builder()
+                        .regionOfInterest(new RegionOfInterest(0f, 0f, 0.5f, 0.5f))
+                        .lumaOnly(true)
+                        .build()
+        );
+
+        // When
+        FrameView rotated90 = testee.extract(frame(90));
+        FrameView rotated180 = testee.extract(frame(180));
+        FrameView rotated270 = testee.extract(frame(270));
+
+        // Then
+        assertEquals(0, rotated90.left);
+        assertEquals(2, rotated90.top);
+        assertEquals(4, rotated180.left);
+        assertEquals(2, rotated180.top);
+        assertEquals(4, rotated270.left);
+        assertEquals(0, rotated270.top);
+    }
+
+    @Test
+    public void extract_ReusesView() throws Exception {
+        // Given
+        FrameViewExtractor testee = new FrameViewExtractor(
+                FrameProcessorConfiguration.builder()
+                        .lumaOnly(true)
+                        .build()
+        );
+
+        Frame frame = frame(0);
+        frame.setMetadata(1, 2, 3);
+
+        // When
+        FrameView first = testee.extract(frame(0));
+        FrameView second = testee.extract(frame);
+        FrameView rotated = testee.extract(frame(90));
+
+        // Then
+        assertSame(first, second);
+        assertNotSame(second, rotated);
+        assertEquals(1, second.getTimestamp());
+        assertEquals(2, second.getSequenceNumber());
+        assertEquals(3, second.getDispatchTimestamp());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void regionOfInterest_MustNotBeEmpty() throws Exception {
+        // When
+        new RegionOfInterest(0.5f, 0f, 0.5f, 1f);
+
+        // Then
+        // Expect exception
+    }
+
+    private static Frame frame(int rotation) {
+        return new Frame(new Size(8, 4), NV21, rotation);
+    }
+
+}
@@ -0,0 +1,91 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    LatencyRecorder recorder = new LatencyRecorder();
+
+    @Test
+    public void bucketBounds() throws Exception {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            long lowerBound = LatencyHistogram.bucketLowerBound(i);
+
+            assertEquals(i, LatencyHistogram.bucketIndex(lowerBound));
+
+            if (i > 0) {
+                assertEquals(i - 1, LatencyHistogram.bucketIndex(lowerBound - 1));
+            }
+        }
+    }
+
+    @Test
+    public void bucketIndex_HugeDuration() throws Exception {
+        // When
+        int index = LatencyHistogram.bucketIndex(Long.MAX_VALUE);
+
+        // Then
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, index);
+    }
+
+    @Test
+    public void empty() throws Exception {
+        // When
+        LatencyHistogram testee = recorder.snapshot();
+
+        // Then
+        assertEquals(LatencyHistogram.empty(), testee);
+        assertEquals(0, testee.getCount());
+        assertEquals(0, testee.getMean());
+        assertEquals(0, testee.getPercentile(99));
+    }
+
+    @Test
+    public void statistics() throws Exception {
+        // Given
+        for (int i = 1; i <= 100; i++) {
+            recorder.record(i * 1000L);
+        }
+
+        // When
+        LatencyHistogram testee = recorder.snapshot();
+
+        // Then
+        assertEquals(100, testee.getCount());
+        assertEquals(50500, testee.getMean());
+        assertEquals(100000, testee.getMax());
+        assertWithinBucket(50000, testee.getPercentile(50));
+        assertWithinBucket(99000, testee.getPercentile(99));
+        assertEquals(100000, testee.getPercentile(100));
+    }
+
+    @Test
+    public void negativeDuration_CountedAsZero() throws Exception {
+        // When
+        recorder.record(-5);
+
+        // Then
+        LatencyHistogram testee = recorder.snapshot();
+
+        assertEquals(1, testee.getCount());
+        assertEquals(0, testee.getPercentile(100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void percentile_Invalid() throws Exception {
+        // When
+        recorder.snapshot().getPercentile(101);
+
+        // Then
+        // Expect exception
+    }
+
+    private static void assertWithinBucket(long expected, long actual) {
+        assertTrue("Was " + actual, actual >= expected);
+        assertTrue("Was " + actual, actual <= expected * 1.25);
+    }
+
+}
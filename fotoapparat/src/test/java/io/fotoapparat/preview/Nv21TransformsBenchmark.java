@@ -0,0 +1,112 @@
+package io.fotoapparat.preview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rotation of a 1080p NV21 image.
+ * <p>
+ * {@code naive} reproduces the usual hand-written rotation: a new array for every frame and a
+ * pixel-by-pixel loop which walks the output row by row, so that for quarter turns every read
+ * touches a different row of the source. {@code transform} uses {@link Nv21Transforms} with a
+ * reused output buffer. Run with {@code -prof gc} to compare allocation rates.
+ * <p>
+ * Run with {@code ./gradlew :fotoapparat:jmh -Pjmh=Nv21TransformsBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Nv21TransformsBenchmark {
+
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+
+    @Param({"90", "180", "270"})
+    int degrees;
+
+    @Param({"false", "true"})
+    boolean mirror;
+
+    private byte[] image;
+    private byte[] output;
+
+    @Setup
+    public void setUp() {
+        image = new byte[YuvConverter.nv21Size(WIDTH, HEIGHT)];
+
+        for (int i = 0; i < image.length; i++) {
+            image[i] = (byte) i;
+        }
+
+        output = new byte[image.length];
+    }
+
+    @Benchmark
+    public byte[] naive() {
+        byte[] rotated = new byte[image.length];
+        boolean quarterTurn = degrees % 180 != 0;
+        int outputWidth = quarterTurn ? HEIGHT : WIDTH;
+        int outputHeight = quarterTurn ? WIDTH : HEIGHT;
+        int lumaSize = WIDTH * HEIGHT;
+
+        for (int row = 0; row < outputHeight; row++) {
+            for (int column = 0; column < outputWidth; column++) {
+                rotated[row * outputWidth + column] = image[sourceIndex(column, row, WIDTH, HEIGHT)];
+            }
+        }
+
+        for (int row = 0; row < outputHeight / 2; row++) {
+            for (int column = 0; column < outputWidth / 2; column++) {
+                int source = lumaSize + 2 * sourceIndex(column, row, WIDTH / 2, HEIGHT / 2);
+                int target = lumaSize + 2 * (row * outputWidth / 2 + column);
+
+                rotated[target] = image[source];
+                rotated[target + 1] = image[source + 1];
+            }
+        }
+
+        return rotated;
+    }
+
+    @Benchmark
+    public byte[] transform() {
+        Nv21Transforms.rotate(image, WIDTH, HEIGHT, degrees, mirror, output);
+
+        return output;
+    }
+
+    /**
+     * @return index of the source pixel which lands at given position of the output.
+     */
+    private int sourceIndex(int column, int row, int width, int height) {
+        if (mirror) {
+            column = (degrees % 180 != 0 ? height : width) - 1 - column;
+        }
+
+        switch (degrees) {
+            case 90:
+                return (height - 1 - column) * width + row;
+            case 180:
+                return (height - 1 - row) * width + (width - 1 - column);
+            case 270:
+                return column * width + (width - 1 - row);
+            default:
+                return row * width + column;
+        }
+    }
+
+}
@@ -0,0 +1,294 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class Nv21TransformsTest {
+
+    /**
+     * 4x4 image with luminance 0..15 and chroma pairs A (100, 101), B (102, 103), C (104, 105),
+     * D (106, 107) in two rows: A B and C D.
+     */
+    static final byte[] NV21 = {
+            0, 1, 2, 3,
+            4, 5, 6, 7,
+            8, 9, 10, 11,
+            12, 13, 14, 15,
+            100, 101, 102, 103,
+            104, 105, 106, 107
+    };
+
+    @Test
+    public void rotate_0() throws Exception {
+        // When
+        byte[] output = rotate(0, false);
+
+        // Then
+        assertArrayEquals(NV21, output);
+    }
+
+    @Test
+    public void rotate_90() throws Exception {
+        // When
+        byte[] output = rotate(90, false);
+
+        // Then
+        assertArrayEquals(
+                new byte[]{
+                        12, 8, 4, 0,
+                        13, 9, 5, 1,
+                        14, 10, 6, 2,
+                        15, 11, 7, 3,
+                        104, 105, 100, 101,
+                        106, 107, 102, 103
+                },
+                output
+        );
+    }
+
+    @Test
+    public void rotate_180() throws Exception {
+        // When
+        byte[] output = rotate(180, false);
+
+        // Then
+        assertArrayEquals(
+                new byte[]{
+                        15, 14, 13, 12,
+                        11, 10, 9, 8,
+                        7, 6, 5, 4,
+                        3, 2, 1, 0,
+                        106, 107, 104, 105,
+                        102, 103, 100, 101
+                },
+                output
+        );
+    }
+
+    @Test
+    public void rotate_270() throws Exception {
+        // When
+        byte[] output = rotate(-90, false);
+
+        // Then
+        assertArrayEquals(
+                new byte[]{
+                        3, 7, 11, 15,
+                        2, 6, 10, 14,
+                        1, 5, 9, 13,
+                        0, 4, 8, 12,
+                        102, 103, 106, 107,
+                        100, 101, 104, 105
+                },
+                output
+        );
+    }
+
+    @Test
+    public void mirror() throws Exception {
+        // When
+        byte[] output = rotate(0, true);
+
+        // Then
+        assertArrayEquals(
+                new byte[]{
+                        3, 2, 1, 0,
+                        7, 6, 5, 4,
+                        11, 10, 9, 8,
+                        15, 14, 13, 12,
+                        102, 103, 100, 101,
+                        106, 107, 104, 105
+                },
+                output
+        );
+    }
+
+    @Test
+    public void rotate_90_Mirror() throws Exception {
+        // When
+        byte[] output = rotate(90, true);
+
+        // Then
+        assertArrayEquals(
+                new byte[]{
+                        0, 4, 8, 12,
+                        1, 5, 9, 13,
+                        2, 6, 10, 14,
+                        3, 7, 11, 15,
+                        100, 101, 104, 105,
+                        102, 103, 106, 107
+                },
+                output
+        );
+    }
+
+    @Test
+    public void rotate_LargerThanBlock() throws Exception {
+        // Given
+        int width = 70;
+        int height = 36;
+        byte[] image = new byte[width * height * 3 / 2];
+
+        for (int i = 0; i < image.length; i++) {
+            image[i] = (byte) (i * 31);
+        }
+
+        byte[] output = new byte[image.length];
+
+        for (int degrees = 0; degrees < 360; degrees += 90) {
+            for (boolean mirror : new boolean[]{false, true}) {
+                // When
+                Nv21Transforms.rotate(image, width, height, degrees, mirror, output);
+
+                // Then
+                assertArrayEquals(
+                        degrees + " " + mirror,
+                        referenceRotate(image, width, height, degrees, mirror),
+                        output
+                );
+            }
+        }
+    }
+
+    @Test
+    public void rotateLuma() throws Exception {
+        // Given
+        byte[] plane = {
+                1, 2, 3,
+                4, 5, 6
+        };
+        byte[] output = new byte[6];
+
+        // When
+        Nv21Transforms.rotateLuma(plane, 3, 2, 90, false, output);
+
+        // Then
+        assertArrayEquals(
+                new byte[]{
+                        4, 1,
+                        5, 2,
+                        6, 3
+                },
+                output
+        );
+    }
+
+    @Test
+    public void rotatedSize() throws Exception {
+        // When
+        Size rotated = Nv21Transforms.rotatedSize(new Size(4, 2), 270);
+        Size upsideDown = Nv21Transforms.rotatedSize(new Size(4, 2), 180);
+
+        // Then
+        assertEquals(new Size(2, 4), rotated);
+        assertEquals(new Size(4, 2), upsideDown);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rotate_OutputTooSmall() throws Exception {
+        // When
+        Nv21Transforms.rotate(NV21, 4, 4, 90, false, new byte[NV21.length - 1]);
+
+        // Then
+        // Expect exception
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rotate_InvalidDegrees() throws Exception {
+        // When
+        Nv21Transforms.rotate(NV21, 4, 4, 45, false, new byte[NV21.length]);
+
+        // Then
+        // Expect exception
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rotate_InPlace() throws Exception {
+        // Given
+        byte[] image = NV21.clone();
+
+        // When
+        Nv21Transforms.rotate(image, 4, 4, 90, false, image);
+
+        // Then
+        // Expect exception
+    }
+
+    private static byte[] rotate(int degrees, boolean mirror) {
+        byte[] output = new byte[NV21.length];
+
+        Nv21Transforms.rotate(NV21, 4, 4, degrees, mirror, output);
+
+        return output;
+    }
+
+    /**
+     * Straightforward pixel-by-pixel rotation.
+     */
+    private static byte[] referenceRotate(byte[] image,
+                                          int width,
+                                          int height,
+                                          int degrees,
+                                          boolean mirror) {
+        byte[] output = new byte[image.length];
+        int lumaSize = width * height;
+
+        referenceRotatePlane(image, 0, width, height, 1, degrees, mirror, output, 0);
+        referenceRotatePlane(image, lumaSize, width / 2, height / 2, 2, degrees, mirror, output, lumaSize);
+
+        return output;
+    }
+
+    private static void referenceRotatePlane(byte[] source,
+                                             int sourceOffset,
+                                             int width,
+                                             int height,
+                                             int pixelBytes,
+                                             int degrees,
+                                             boolean mirror,
+                                             byte[] output,
+                                             int outputOffset) {
+        boolean quarterTurn = degrees % 180 != 0;
+        int outputWidth = quarterTurn ? height : width;
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int column;
+                int row;
+
+                switch (degrees) {
+                    case 90:
+                        column = height - 1 - y;
+                        row = x;
+                        break;
+                    case 180:
+                        column = width - 1 - x;
+                        row = height - 1 - y;
+                        break;
+                    case 270:
+                        column = y;
+                        row = width - 1 - x;
+                        break;
+                    default:
+                        column = x;
+                        row = y;
+                        break;
+                }
+
+                if (mirror) {
+                    column = outputWidth - 1 - column;
+                }
+
+                for (int i = 0; i < pixelBytes; i++) {
+                    output[outputOffset + (row * outputWidth + column) * pixelBytes + i] =
+                            source[sourceOffset + (y * width + x) * pixelBytes + i];
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SceneChangeDetectorTest {
+
+    static final Size SIZE = new Size(16, 16);
+
+    SceneChangeDetector testee = new SceneChangeDetector(0.1f);
+
+    @Test
+    public void disabled_AcceptsAll() throws Exception {
+        // Given
+        SceneChangeDetector testee = new SceneChangeDetector(0f);
+
+        // When
+        boolean first = testee.accept(frame(SIZE, 0));
+        boolean second = testee.accept(frame(SIZE, 0));
+
+        // Then
+        assertTrue(first);
+        assertTrue(second);
+        assertEquals(Float.NaN, testee.getLastScore(), 0f);
+    }
+
+    @Test
+    public void firstFrame_Accepted() throws Exception {
+        // When
+        boolean accepted = testee.accept(frame(SIZE, 0));
+
+        // Then
+        assertTrue(accepted);
+        assertEquals(1f, testee.getLastScore(), 0f);
+    }
+
+    @Test
+    public void staticScene_Skipped() throws Exception {
+        // Given
+        testee.accept(frame(SIZE, 100));
+
+        // When
+        boolean accepted = testee.accept(frame(SIZE, 100));
+
+        // Then
+        assertFalse(accepted);
+        assertEquals(0f, testee.getLastScore(), 0f);
+    }
+
+    @Test
+    public void changedScene_Accepted() throws Exception {
+        // Given
+        testee.accept(frame(SIZE, 0));
+
+        // When
+        boolean accepted = testee.accept(frame(SIZE, 51));
+
+        // Then
+        assertTrue(accepted);
+        assertEquals(0.2f, testee.getLastScore(), 0.001f);
+    }
+
+    @Test
+    public void slowChange_AddsUp() throws Exception {
+        // Given
+        testee.accept(frame(SIZE, 0));
+
+        // When
+        boolean first = testee.accept(frame(SIZE, 13));
+        boolean second = testee.accept(frame(SIZE, 26));
+
+        // Then
+        assertFalse(first);
+        assertTrue(second);
+    }
+
+    @Test
+    public void sizeChanged_Accepted() throws Exception {
+        // Given
+        testee.accept(frame(SIZE, 0));
+
+        // When
+        boolean accepted = testee.accept(frame(new Size(8, 8), 0));
+
+        // Then
+        assertTrue(accepted);
+    }
+
+    @Test
+    public void reset() throws Exception {
+        // Given
+        testee.accept(frame(SIZE, 0));
+
+        // When
+        testee.reset();
+        boolean accepted = testee.accept(frame(SIZE, 0));
+
+        // Then
+        assertTrue(accepted);
+    }
+
+    @Test
+    public void yuvFrame() throws Exception {
+        // Given
+        testee.accept(yuvFrame(0));
+
+        // When
+        boolean staticScene = testee.accept(yuvFrame(0));
+        boolean changedScene = testee.accept(yuvFrame(100));
+
+        // Then
+        assertFalse(staticScene);
+        assertTrue(changedScene);
+    }
+
+    private static Frame frame(Size size, int luma) {
+        byte[] image = new byte[YuvConverter.nv21Size(size.width, size.height)];
+        Arrays.fill(image, (byte) luma);
+
+        return new Frame(size, image, 0);
+    }
+
+    /**
+     * Frame with luma rows padded to 32 bytes.
+     */
+    private static YuvFrame yuvFrame(int luma) {
+        byte[] luminance = new byte[32 * SIZE.height];
+        Arrays.fill(luminance, (byte) luma);
+
+        YuvFrame.Plane chroma = new YuvFrame.Plane(ByteBuffer.allocate(64), 8, 1);
+
+        return new YuvFrame(
+                SIZE,
+                0,
+                new YuvFrame.Plane(ByteBuffer.wrap(luminance), 32, 1),
+                chroma,
+                chroma
+        );
+    }
+
+}
@@ -0,0 +1,140 @@
+package io.fotoapparat.preview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures conversion of a 1080p YUV_420_888 image into NV21.
+ * <p>
+ * {@code concatenate} reproduces the former conversion of {@code ContinuousSurfaceReader} which
+ * allocates a new array and copies the planes one after another, ignoring strides. Its output is
+ * correct only for {@code planar} layout without padding. {@code convert} uses
+ * {@link YuvConverter} with a reused output buffer. Run with {@code -prof gc} to compare
+ * allocation rates.
+ * <p>
+ * Run with {@code ./gradlew :fotoapparat:jmh -Pjmh=YuvConverterBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class YuvConverterBenchmark {
+
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+
+    /**
+     * Layout of the planes: {@code planar} (I420), {@code interleaved} (chroma planes share the
+     * same memory with pixel stride of 2, as most devices do) or {@code padded} (planar with rows
+     * aligned to 64 bytes).
+     */
+    @Param({"planar", "interleaved", "padded"})
+    String layout;
+
+    private YuvFrame.Plane yPlane;
+    private YuvFrame.Plane uPlane;
+    private YuvFrame.Plane vPlane;
+    private byte[] output;
+
+    private final YuvConverter converter = new YuvConverter();
+
+    @Setup
+    public void setUp() {
+        int chromaWidth = WIDTH / 2;
+        int chromaHeight = HEIGHT / 2;
+
+        switch (layout) {
+            case "planar":
+                yPlane = plane(WIDTH, HEIGHT, WIDTH, 1);
+                uPlane = plane(chromaWidth, chromaHeight, chromaWidth, 1);
+                vPlane = plane(chromaWidth, chromaHeight, chromaWidth, 1);
+                break;
+            case "interleaved":
+                ByteBuffer chroma = filledBuffer(WIDTH * chromaHeight);
+
+                yPlane = plane(WIDTH, HEIGHT, WIDTH, 1);
+                uPlane = new YuvFrame.Plane(slice(chroma, 0, WIDTH * chromaHeight - 1), WIDTH, 2);
+                vPlane = new YuvFrame.Plane(slice(chroma, 1, WIDTH * chromaHeight - 1), WIDTH, 2);
+                break;
+            case "padded":
+                yPlane = plane(WIDTH, HEIGHT, align(WIDTH), 1);
+                uPlane = plane(chromaWidth, chromaHeight, align(chromaWidth), 1);
+                vPlane = plane(chromaWidth, chromaHeight, align(chromaWidth), 1);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown layout: " + layout);
+        }
+
+        output = new byte[YuvConverter.nv21Size(WIDTH, HEIGHT)];
+    }
+
+    @Benchmark
+    public byte[] concatenate() {
+        ByteBuffer yBuffer = yPlane.buffer.duplicate();
+        ByteBuffer uBuffer = uPlane.buffer.duplicate();
+        ByteBuffer vBuffer = vPlane.buffer.duplicate();
+
+        int ySize = yBuffer.remaining();
+        int uSize = uBuffer.remaining();
+        int vSize = vBuffer.remaining();
+
+        byte[] nv21 = new byte[ySize + uSize + vSize];
+
+        yBuffer.get(nv21, 0, ySize);
+        vBuffer.get(nv21, ySize, vSize);
+        uBuffer.get(nv21, ySize + vSize, uSize);
+
+        return nv21;
+    }
+
+    @Benchmark
+    public byte[] convert() {
+        converter.toNv21(WIDTH, HEIGHT, yPlane, uPlane, vPlane, output);
+
+        return output;
+    }
+
+    private static YuvFrame.Plane plane(int width, int height, int rowStride, int pixelStride) {
+        int size = rowStride * (height - 1) + (width - 1) * pixelStride + 1;
+
+        return new YuvFrame.Plane(filledBuffer(size), rowStride, pixelStride);
+    }
+
+    private static ByteBuffer filledBuffer(int size) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+
+        for (int i = 0; i < size; i++) {
+            buffer.put((byte) i);
+        }
+        buffer.rewind();
+
+        return buffer;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(offset);
+        duplicate.limit(offset + length);
+
+        return duplicate.slice();
+    }
+
+    private static int align(int size) {
+        return (size + 63) & ~63;
+    }
+
+}
@@ -0,0 +1,216 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class YuvConverterTest {
+
+    /**
+     * 4x2 image with luminance 1..8, U values 11, 12 and V values 21, 22.
+     */
+    static final byte[] NV21 = {
+            1, 2, 3, 4,
+            5, 6, 7, 8,
+            21, 11, 22, 12
+    };
+
+    YuvConverter testee = new YuvConverter();
+
+    @Test
+    public void nv21Size() throws Exception {
+        // When
+        int evenSize = YuvConverter.nv21Size(4, 2);
+        int oddSize = YuvConverter.nv21Size(3, 3);
+
+        // Then
+        assertEquals(12, evenSize);
+        assertEquals(17, oddSize);
+    }
+
+    @Test
+    public void toNv21_Planar() throws Exception {
+        // Given
+        YuvFrame.Plane yPlane = plane(4, 1, 1, 2, 3, 4, 5, 6, 7, 8);
+        YuvFrame.Plane uPlane = plane(2, 1, 11, 12);
+        YuvFrame.Plane vPlane = plane(2, 1, 21, 22);
+
+        byte[] output = new byte[12];
+
+        // When
+        testee.toNv21(4, 2, yPlane, uPlane, vPlane, output);
+
+        // Then
+        assertArrayEquals(NV21, output);
+    }
+
+    @Test
+    public void toNv21_InterleavedChroma() throws Exception {
+        // Given
+        ByteBuffer chroma = ByteBuffer.wrap(new byte[]{11, 21, 12, 22});
+
+        YuvFrame.Plane yPlane = plane(4, 1, 1, 2, 3, 4, 5, 6, 7, 8);
+        YuvFrame.Plane uPlane = new YuvFrame.Plane(slice(chroma, 0), 4, 2);
+        YuvFrame.Plane vPlane = new YuvFrame.Plane(slice(chroma, 1), 4, 2);
+
+        byte[] output = new byte[12];
+
+        // When
+        testee.toNv21(4, 2, yPlane, uPlane, vPlane, output);
+
+        // Then
+        assertArrayEquals(NV21, output);
+    }
+
+    @Test
+    public void toNv21_PaddedRows() throws Exception {
+        // Given
+        YuvFrame.Plane yPlane = plane(6, 1, 1, 2, 3, 4, 0, 0, 5, 6, 7, 8);
+        YuvFrame.Plane uPlane = plane(4, 1, 11, 12);
+        YuvFrame.Plane vPlane = plane(4, 1, 21, 22);
+
+        byte[] output = new byte[12];
+
+        // When
+        testee.toNv21(4, 2, yPlane, uPlane, vPlane, output);
+
+        // Then
+        assertArrayEquals(NV21, output);
+    }
+
+    @Test
+    public void toNv21_InterleavedLuminance() throws Exception {
+        // Given
+        YuvFrame.Plane yPlane = plane(8, 2, 1, 0, 2, 0, 3, 0, 4, 0, 5, 0, 6, 0, 7, 0, 8);
+        YuvFrame.Plane uPlane = plane(2, 1, 11, 12);
+        YuvFrame.Plane vPlane = plane(2, 1, 21, 22);
+
+        byte[] output = new byte[12];
+
+        // When
+        testee.toNv21(4, 2, yPlane, uPlane, vPlane, output);
+
+        // Then
+        assertArrayEquals(NV21, output);
+    }
+
+    @Test
+    public void toNv21_KeepsBufferPositions() throws Exception {
+        // Given
+        YuvFrame.Plane yPlane = plane(6, 1, 1, 2, 3, 4, 0, 0, 5, 6, 7, 8);
+        YuvFrame.Plane uPlane = plane(2, 1, 11, 12);
+        YuvFrame.Plane vPlane = plane(2, 1, 21, 22);
+
+        // When
+        testee.toNv21(4, 2, yPlane, uPlane, vPlane, new byte[12]);
+
+        // Then
+        assertEquals(0, yPlane.buffer.position());
+        assertEquals(0, uPlane.buffer.position());
+        assertEquals(0, vPlane.buffer.position());
+    }
+
+    @Test
+    public void toNv21_LargerOutput() throws Exception {
+        // Given
+        YuvFrame.Plane yPlane = plane(4, 1, 1, 2, 3, 4, 5, 6, 7, 8);
+        YuvFrame.Plane uPlane = plane(2, 1, 11, 12);
+        YuvFrame.Plane vPlane = plane(2, 1, 21, 22);
+
+        byte[] output = new byte[13];
+
+        // When
+        testee.toNv21(4, 2, yPlane, uPlane, vPlane, output);
+
+        // Then
+        assertEquals(0, output[12]);
+    }
+
+    @Test
+    public void toNv21_DifferentLayouts() throws Exception {
+        // Given
+        ByteBuffer chroma = ByteBuffer.wrap(new byte[]{11, 21, 12, 22});
+
+        YuvFrame.Plane yPlane = plane(4, 1, 1, 2, 3, 4, 5, 6, 7, 8);
+
+        byte[] interleavedOutput = new byte[12];
+        byte[] planarOutput = new byte[12];
+
+        // When
+        testee.toNv21(4, 2, yPlane,
+                new YuvFrame.Plane(slice(chroma, 0), 4, 2),
+                new YuvFrame.Plane(slice(chroma, 1), 4, 2),
+                interleavedOutput
+        );
+        testee.toNv21(4, 2, yPlane,
+                plane(2, 1, 11, 12),
+                plane(2, 1, 21, 22),
+                planarOutput
+        );
+
+        // Then
+        assertArrayEquals(NV21, interleavedOutput);
+        assertArrayEquals(NV21, planarOutput);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void toNv21_OutputTooSmall() throws Exception {
+        // Given
+        YuvFrame.Plane yPlane = plane(4, 1, 1, 2, 3, 4, 5, 6, 7, 8);
+        YuvFrame.Plane uPlane = plane(2, 1, 11, 12);
+        YuvFrame.Plane vPlane = plane(2, 1, 21, 22);
+
+        // When
+        testee.toNv21(4, 2, yPlane, uPlane, vPlane, new byte[11]);
+
+        // Then
+        // Expect exception
+    }
+
+    @Test
+    public void forCurrentThread() throws Exception {
+        // Given
+        final YuvConverter[] otherThreadConverter = new YuvConverter[1];
+        Thread otherThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                otherThreadConverter[0] = YuvConverter.forCurrentThread();
+            }
+        });
+
+        // When
+        YuvConverter converter = YuvConverter.forCurrentThread();
+        otherThread.start();
+        otherThread.join();
+
+        // Then
+        assertSame(converter, YuvConverter.forCurrentThread());
+        assertNotSame(converter, otherThreadConverter[0]);
+    }
+
+    private static YuvFrame.Plane plane(int rowStride, int pixelStride, int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.rewind();
+
+        return new YuvFrame.Plane(buffer, rowStride, pixelStride);
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int offset) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(offset);
+
+        return duplicate.slice();
+    }
+
+}
@@ -0,0 +1,78 @@
+package io.fotoapparat.preview;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.fotoapparat.parameter.Size;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class YuvFrameTest {
+
+    @Test
+    public void release_LastHolder() throws Exception {
+        // Given
+        final AtomicInteger releasedCount = new AtomicInteger();
+
+        YuvFrame testee = new YuvFrame(
+                new Size(1, 1),
+                0,
+                plane(1),
+                plane(2),
+                plane(3)
+        ) {
+            @Override
+            protected void onReleased() {
+                releasedCount.incrementAndGet();
+            }
+        };
+
+        testee.retain();
+
+        // When
+        boolean firstReleased = testee.release();
+        boolean lastReleased = testee.release();
+
+        // Then
+        assertFalse(firstReleased);
+        assertTrue(lastReleased);
+        assertEquals(1, releasedCount.get());
+    }
+
+    @Test
+    public void toNv21() throws Exception {
+        // Given
+        YuvFrame testee = new YuvFrame(
+                new Size(2, 1),
+                0,
+                plane(1, 2),
+                plane(3),
+                plane(4)
+        );
+
+        // When
+        byte[] first = testee.toNv21();
+        byte[] second = testee.toNv21();
+
+        // Then
+        assertArrayEquals(new byte[]{1, 2, 4, 3}, first);
+        assertArrayEquals(first, second);
+        assertNull(testee.image);
+    }
+
+    private static YuvFrame.Plane plane(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+
+        return new YuvFrame.Plane(ByteBuffer.wrap(bytes), values.length, 1);
+    }
+
+}
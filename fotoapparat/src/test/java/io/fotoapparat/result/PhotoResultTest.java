@@ -9,6 +9,7 @@ import java.io.File;
 import io.fotoapparat.photo.BitmapPhoto;
 import io.fotoapparat.photo.Photo;
 import io.fotoapparat.result.transformer.BitmapPhotoTransformer;
+import io.fotoapparat.result.transformer.ReleasePhotoTransformer;
 import io.fotoapparat.result.transformer.SaveToFileTransformer;
 import io.fotoapparat.test.ImmediateExecutor;
 
@@ -79,4 +80,22 @@ public class PhotoResultTest {
                 isA(SaveToFileTransformer.class)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    public void release() throws Exception {
+        // Given
+        PendingResult<Photo> pendingResult = spy(PENDING_RESULT);
+
+        PhotoResult photoResult = new PhotoResult(pendingResult);
+
+        // When
+        PendingResult<Void> result = photoResult.release();
+
+        // Then
+        assertNotNull(result);
+
+        verify(pendingResult).transform(
+                isA(ReleasePhotoTransformer.class)
+        );
+    }
+}
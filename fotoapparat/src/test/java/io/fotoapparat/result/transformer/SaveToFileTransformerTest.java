@@ -50,7 +50,7 @@ public class SaveToFileTransformerTest {
         // Then
         assertTrue(FILE.exists());
         assertEquals(
-                photo.encodedImage.length,
+                photo.getEncodedSize(),
                 FILE.length()
         );
 
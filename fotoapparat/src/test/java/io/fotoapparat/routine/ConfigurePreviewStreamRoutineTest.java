@@ -4,13 +4,14 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InOrder;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.preview.FrameProcessor;
+import io.fotoapparat.preview.FrameProcessorConfiguration;
 import io.fotoapparat.preview.PreviewStream;
+import io.fotoapparat.preview.PreviewStreamConfiguration;
 
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.inOrder;
@@ -26,11 +27,22 @@ public class ConfigurePreviewStreamRoutineTest {
     @Mock
     FrameProcessor frameProcessor;
 
-    @InjectMocks
+    PreviewStreamConfiguration configuration = PreviewStreamConfiguration.defaultConfiguration();
+    FrameProcessorConfiguration frameProcessorConfiguration = FrameProcessorConfiguration.builder()
+            .everyNthFrame(2)
+            .build();
+
     ConfigurePreviewStreamRoutine testee;
 
     @Before
     public void setUp() throws Exception {
+        testee = new ConfigurePreviewStreamRoutine(
+                cameraDevice,
+                frameProcessor,
+                frameProcessorConfiguration,
+                configuration
+        );
+
         given(cameraDevice.getPreviewStream())
                 .willReturn(previewStream);
     }
@@ -43,7 +55,8 @@ public class ConfigurePreviewStreamRoutineTest {
         // Then
         InOrder inOrder = inOrder(previewStream);
 
-        inOrder.verify(previewStream).addProcessor(frameProcessor);
+        inOrder.verify(previewStream).configure(configuration);
+        inOrder.verify(previewStream).addProcessor(frameProcessor, frameProcessorConfiguration);
         inOrder.verify(previewStream).start();
     }
 
@@ -52,7 +65,9 @@ public class ConfigurePreviewStreamRoutineTest {
         // Given
         ConfigurePreviewStreamRoutine testee = new ConfigurePreviewStreamRoutine(
                 cameraDevice,
-                null
+                null,
+                frameProcessorConfiguration,
+                configuration
         );
 
         // When
@@ -0,0 +1,55 @@
+package io.fotoapparat.routine;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.List;
+
+import io.fotoapparat.hardware.CameraDevice;
+import io.fotoapparat.preview.FrameProcessorStatistics;
+import io.fotoapparat.preview.PreviewStatistics;
+import io.fotoapparat.preview.PreviewStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.BDDMockito.given;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PreviewStatisticsRoutineTest {
+
+    @Mock
+    CameraDevice cameraDevice;
+    @Mock
+    PreviewStream previewStream;
+
+    @InjectMocks
+    PreviewStatisticsRoutine testee;
+
+    @Test
+    public void getPreviewStatistics() throws Exception {
+        // Given
+        List<FrameProcessorStatistics> processorStatistics = Collections.emptyList();
+
+        given(cameraDevice.getPreviewStream())
+                .willReturn(previewStream);
+        given(previewStream.getDroppedFramesCount())
+                .willReturn(3L);
+        given(previewStream.getSkippedFramesCount())
+                .willReturn(5L);
+        given(previewStream.getProcessorStatistics())
+                .willReturn(processorStatistics);
+
+        // When
+        PreviewStatistics result = testee.getPreviewStatistics();
+
+        // Then
+        assertEquals(
+                new PreviewStatistics(3L, 5L, processorStatistics),
+                result
+        );
+    }
+
+}
@@ -1,5 +1,6 @@
 package io.fotoapparat.routine;
 
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InOrder;
@@ -8,7 +9,9 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import io.fotoapparat.hardware.CameraDevice;
+import io.fotoapparat.preview.PreviewStream;
 
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.inOrder;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -16,18 +19,27 @@ public class StopCameraRoutineTest {
 
     @Mock
     CameraDevice cameraDevice;
+    @Mock
+    PreviewStream previewStream;
 
     @InjectMocks
     StopCameraRoutine testee;
 
+    @Before
+    public void setUp() throws Exception {
+        given(cameraDevice.getPreviewStream())
+                .willReturn(previewStream);
+    }
+
     @Test
     public void stop() throws Exception {
         // When
         testee.run();
 
         // Then
-        InOrder inOrder = inOrder(cameraDevice);
+        InOrder inOrder = inOrder(cameraDevice, previewStream);
 
+        inOrder.verify(previewStream).stop();
         inOrder.verify(cameraDevice).stopPreview();
         inOrder.verify(cameraDevice).close();
     }
@@ -20,6 +20,7 @@ import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.hardware.Capabilities;
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 import io.fotoapparat.parameter.Parameters;
 import io.fotoapparat.parameter.Size;
 import io.fotoapparat.parameter.update.UpdateRequest;
@@ -41,6 +42,7 @@ public class UpdateParametersRoutineTest {
                         Collections.<Size>emptySet(),
                         asSet(FocusMode.AUTO),
                         asSet(Flash.TORCH),
+                        Collections.<FpsRange>emptySet(),
                         false,
                         0
                 ));
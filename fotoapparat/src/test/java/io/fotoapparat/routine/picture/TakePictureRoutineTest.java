@@ -1,12 +1,13 @@
 package io.fotoapparat.routine.picture;
 
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 
 import io.fotoapparat.hardware.CameraDevice;
@@ -15,6 +16,7 @@ import io.fotoapparat.routine.picture.TakePictureRoutine;
 import io.fotoapparat.routine.picture.TakePictureTask;
 import io.fotoapparat.test.ImmediateExecutor;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.verify;
@@ -27,9 +29,13 @@ public class TakePictureRoutineTest {
     @Spy
     Executor executor = new ImmediateExecutor();
 
-    @InjectMocks
     TakePictureRoutine testee;
 
+    @Before
+    public void setUp() throws Exception {
+        testee = new TakePictureRoutine(cameraDevice, executor, false);
+    }
+
     @Test
     public void takePicture_EmptyRequest() throws Exception {
         // When
@@ -41,4 +47,15 @@ public class TakePictureRoutineTest {
         assertNotNull(result);
     }
 
+    @Test
+    public void takePictures() throws Exception {
+        // When
+        List<PhotoResult> results = testee.takePictures(3);
+
+        // Then
+        verify(executor).execute(isA(TakePicturesTask.class));
+
+        assertEquals(3, results.size());
+    }
+
 }
\ No newline at end of file
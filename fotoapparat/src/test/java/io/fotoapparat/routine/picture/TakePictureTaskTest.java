@@ -4,20 +4,30 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InOrder;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.nio.ByteBuffer;
+
 import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.hardware.CameraException;
 import io.fotoapparat.lens.FocusResult;
 import io.fotoapparat.photo.Photo;
+import io.fotoapparat.photo.PhotoBufferPool;
 
 import static io.fotoapparat.test.TestUtils.resultOf;
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -29,11 +39,12 @@ public class TakePictureTaskTest {
     @Mock
     CameraDevice cameraDevice;
 
-    @InjectMocks
     TakePictureTask testee;
 
     @Before
     public void setUp() throws Exception {
+        testee = new TakePictureTask(cameraDevice, false);
+
         given(cameraDevice.takePicture())
                 .willReturn(PHOTO);
     }
@@ -112,4 +123,122 @@ public class TakePictureTaskTest {
         assertEquals(result, PHOTO);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void photoAvailableBeforePreviewRestarted() throws Exception {
+        // Given
+        given(cameraDevice.autoFocus())
+                .willReturn(FocusResult.successNoMeasurement());
+
+        final boolean[] photoAvailable = new boolean[1];
+
+        willAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                photoAvailable[0] = testee.isDone() && testee.get() == PHOTO;
+                return null;
+            }
+        }).given(cameraDevice).startPreview();
+
+        // When
+        testee.run();
+
+        // Then
+        assertTrue(photoAvailable[0]);
+    }
+
+    @Test
+    public void takePictureFailed_previewRestarted() throws Exception {
+        // Given
+        given(cameraDevice.autoFocus())
+                .willReturn(FocusResult.successNoMeasurement());
+        given(cameraDevice.takePicture())
+                .willThrow(new CameraException("test"));
+
+        // When
+        testee.run();
+
+        // Then
+        verify(cameraDevice).startPreview();
+    }
+
+    @Test
+    public void zeroShutterLag_takePhotoRightAway() throws Exception {
+        // Given
+        given(cameraDevice.isZeroShutterLag())
+                .willReturn(true);
+
+        // When
+        Photo result = resultOf(testee);
+
+        // Then
+        verify(cameraDevice, never()).autoFocus();
+        verify(cameraDevice, never()).measureExposure();
+        verify(cameraDevice, never()).startPreview();
+
+        assertEquals(result, PHOTO);
+    }
+
+    @Test
+    public void zeroShutterLagUnavailable_adjustCameraAndRestartPreview() throws Exception {
+        // Given
+        given(cameraDevice.isZeroShutterLag())
+                .willReturn(false, true);
+        given(cameraDevice.autoFocus())
+                .willReturn(new FocusResult(true, true));
+
+        // When
+        Photo result = resultOf(testee);
+
+        // Then
+        InOrder inOrder = inOrder(cameraDevice);
+        inOrder.verify(cameraDevice).autoFocus();
+        inOrder.verify(cameraDevice).measureExposure();
+        inOrder.verify(cameraDevice).takePicture();
+        inOrder.verify(cameraDevice).startPreview();
+        verify(cameraDevice, times(1)).isZeroShutterLag();
+
+        assertEquals(result, PHOTO);
+    }
+
+    @Test
+    public void pooledPhoto_CopiedToHeap() throws Exception {
+        // Given
+        PhotoBufferPool bufferPool = new PhotoBufferPool();
+        ByteBuffer buffer = bufferPool.acquire(1);
+        buffer.put((byte) 1).flip();
+
+        given(cameraDevice.isZeroShutterLag())
+                .willReturn(true);
+        given(cameraDevice.takePicture())
+                .willReturn(new Photo(buffer, 0, bufferPool));
+
+        // When
+        Photo result = resultOf(testee);
+
+        // Then
+        assertNotNull(result.encodedImage);
+        assertEquals(1, result.encodedImage[0]);
+        assertEquals(1, bufferPool.getFreeBuffersCount());
+    }
+
+    @Test
+    public void pooledPhoto_KeptInBuffer() throws Exception {
+        // Given
+        Photo photo = new Photo(ByteBuffer.allocateDirect(1), 0, new PhotoBufferPool());
+
+        testee = new TakePictureTask(cameraDevice, true);
+
+        given(cameraDevice.isZeroShutterLag())
+                .willReturn(true);
+        given(cameraDevice.takePicture())
+                .willReturn(photo);
+
+        // When
+        Photo result = resultOf(testee);
+
+        // Then
+        assertSame(photo, result);
+        assertNull(result.encodedImage);
+    }
+
+}
@@ -0,0 +1,201 @@
+package io.fotoapparat.routine.picture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import io.fotoapparat.hardware.CameraDevice;
+import io.fotoapparat.hardware.CameraException;
+import io.fotoapparat.hardware.operators.CaptureOperator;
+import io.fotoapparat.lens.FocusResult;
+import io.fotoapparat.photo.Photo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TakePicturesTaskTest {
+
+    static final Photo PHOTO_A = new Photo(new byte[]{1}, 0);
+    static final Photo PHOTO_B = new Photo(new byte[]{2}, 0);
+
+    @Mock
+    CameraDevice cameraDevice;
+
+    TakePicturesTask testee;
+
+    @Before
+    public void setUp() throws Exception {
+        testee = new TakePicturesTask(cameraDevice, 2, false);
+
+        given(cameraDevice.autoFocus())
+                .willReturn(new FocusResult(true, false));
+    }
+
+    @Test
+    public void takePictures() throws Exception {
+        // Given
+        willDeliver(PHOTO_A, PHOTO_B);
+
+        // When
+        testee.run();
+
+        // Then
+        InOrder inOrder = inOrder(cameraDevice);
+        inOrder.verify(cameraDevice).autoFocus();
+        inOrder.verify(cameraDevice).takePictures(eq(2), any(CaptureOperator.PhotoCallback.class));
+        inOrder.verify(cameraDevice).startPreview();
+
+        List<? extends Future<Photo>> photos = testee.getPhotos();
+
+        assertEquals(2, photos.size());
+        assertSame(PHOTO_A, photos.get(0).get());
+        assertSame(PHOTO_B, photos.get(1).get());
+    }
+
+    @Test
+    public void takePictures_DeliveredBeforePreviewRestarts() throws Exception {
+        // Given
+        willAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                CaptureOperator.PhotoCallback callback = invocation.getArgument(1);
+                callback.onPhotoTaken(0, PHOTO_A);
+
+                assertTrue(testee.getPhotos().get(0).isDone());
+
+                callback.onPhotoTaken(1, PHOTO_B);
+                return null;
+            }
+        }).given(cameraDevice).takePictures(eq(2), any(CaptureOperator.PhotoCallback.class));
+
+        // When
+        testee.run();
+
+        // Then
+        assertSame(PHOTO_A, testee.getPhotos().get(0).get());
+    }
+
+    @Test
+    public void takePictures_Failed() throws Exception {
+        // Given
+        CameraException exception = new CameraException("test");
+
+        willThrow(exception)
+                .given(cameraDevice)
+                .takePictures(eq(2), any(CaptureOperator.PhotoCallback.class));
+
+        // When
+        testee.run();
+
+        // Then
+        verify(cameraDevice).startPreview();
+
+        for (Future<Photo> photo : testee.getPhotos()) {
+            assertFailedWith(exception, photo);
+        }
+    }
+
+    @Test
+    public void takePictures_Incomplete() throws Exception {
+        // Given
+        willDeliver(PHOTO_A);
+
+        // When
+        testee.run();
+
+        // Then
+        assertSame(PHOTO_A, testee.getPhotos().get(0).get());
+
+        try {
+            testee.getPhotos().get(1).get();
+            fail("Photo must not be delivered");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof CameraException);
+        }
+    }
+
+    @Test
+    public void takePictures_MiddlePhotoMissing() throws Exception {
+        // Given
+        willAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                CaptureOperator.PhotoCallback callback = invocation.getArgument(1);
+                callback.onPhotoTaken(1, PHOTO_B);
+
+                return null;
+            }
+        }).given(cameraDevice).takePictures(eq(2), any(CaptureOperator.PhotoCallback.class));
+
+        // When
+        testee.run();
+
+        // Then
+        assertSame(PHOTO_B, testee.getPhotos().get(1).get());
+
+        try {
+            testee.getPhotos().get(0).get();
+            fail("Photo must not be delivered");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof CameraException);
+        }
+    }
+
+    @Test
+    public void pendingPhoto_CanNotBeCancelled() throws Exception {
+        // Given
+        Future<Photo> photo = testee.getPhotos().get(0);
+
+        // When
+        boolean cancelled = photo.cancel(true);
+
+        // Then
+        assertFalse(cancelled);
+        assertFalse(photo.isDone());
+    }
+
+    private void willDeliver(final Photo... photos) {
+        willAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                CaptureOperator.PhotoCallback callback = invocation.getArgument(1);
+
+                for (int i = 0; i < photos.length; i++) {
+                    callback.onPhotoTaken(i, photos[i]);
+                }
+
+                return null;
+            }
+        }).given(cameraDevice).takePictures(eq(2), any(CaptureOperator.PhotoCallback.class));
+    }
+
+    private static void assertFailedWith(Throwable expected, Future<Photo> photo) throws Exception {
+        try {
+            photo.get();
+            fail("Photo must not be delivered");
+        } catch (ExecutionException e) {
+            assertSame(expected, e.getCause());
+        }
+    }
+
+}
@@ -17,6 +17,7 @@ import io.fotoapparat.hardware.CameraDevice;
 import io.fotoapparat.hardware.Capabilities;
 import io.fotoapparat.parameter.Flash;
 import io.fotoapparat.parameter.FocusMode;
+import io.fotoapparat.parameter.FpsRange;
 import io.fotoapparat.parameter.Size;
 import io.fotoapparat.routine.zoom.UpdateZoomLevelRoutine.LevelOutOfRangeException;
 
@@ -88,6 +89,7 @@ public class UpdateZoomLevelRoutineTest {
                         Collections.<Size>emptySet(),
                         Collections.<FocusMode>emptySet(),
                         Collections.<Flash>emptySet(),
+                        Collections.<FpsRange>emptySet(),
                         supported,
                         0
                 ));